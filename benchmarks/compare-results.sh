@@ -0,0 +1,98 @@
+#!/usr/bin/env bash
+# Compares two JMH CSV result files and flags regressions.
+#
+# Usage: ./compare-results.sh BASELINE.csv CANDIDATE.csv [THRESHOLD_PERCENT]
+#
+# Compares the primary score of every benchmark present in both files, and
+# gc.alloc.rate.norm (bytes per operation) when the runs used -prof gc.
+# A score is a regression when it is worse than the baseline by more than the
+# threshold (default 10%) and by more than the combined error margins.
+# Throughput is better when higher; every other mode and the allocation rate
+# are better when lower. Exits with status 1 if any regression is found.
+set -euo pipefail
+
+if [ $# -lt 2 ]; then
+    echo "usage: $0 BASELINE.csv CANDIDATE.csv [THRESHOLD_PERCENT]" >&2
+    exit 2
+fi
+
+awk -v threshold="${3:-10}" '
+# Splits a CSV line into fields, honouring double-quoted fields.
+function parse(line, fields,    n, i, c, field, quoted) {
+    n = 0; field = ""; quoted = 0
+    for (i = 1; i <= length(line); i++) {
+        c = substr(line, i, 1)
+        if (quoted) {
+            if (c == "\"" && substr(line, i + 1, 1) == "\"") { field = field c; i++ }
+            else if (c == "\"") { quoted = 0 }
+            else { field = field c }
+        } else if (c == "\"") {
+            quoted = 1
+        } else if (c == ",") {
+            fields[++n] = field; field = ""
+        } else {
+            field = field c
+        }
+    }
+    fields[++n] = field
+    return n
+}
+
+# Builds the row key from the benchmark name, mode and parameter columns.
+function key(fields, n,    k, i) {
+    k = fields[1] " [" fields[2] "]"
+    for (i = 8; i <= n; i++) {
+        if (fields[i] != "") k = k " " header[i] "=" fields[i]
+    }
+    return k
+}
+
+FNR == 1 {
+    sub(/\r$/, "")
+    columns = parse($0, header)
+    file++
+    next
+}
+
+{
+    sub(/\r$/, "")
+    n = parse($0, f)
+    name = f[1]
+    # Secondary metrics look like "pkg.Class.method:gc.alloc.rate.norm" (or "·gc..." in older JMH)
+    if (name ~ /[:·]/ && name !~ /gc\.alloc\.rate\.norm$/) next
+    k = key(f, n)
+    if (file == 1) {
+        base[k] = f[5]; baseErr[k] = f[6]; unit[k] = f[7]
+        order[++count] = k
+    } else {
+        cand[k] = f[5]; candErr[k] = f[6]
+    }
+}
+
+END {
+    regressions = 0
+    printf "%-64s %12s %12s %9s  %s\n", "Benchmark", "Baseline", "Candidate", "Change", "Unit"
+    for (i = 1; i <= count; i++) {
+        k = order[i]
+        if (!(k in cand)) continue
+        b = base[k] + 0; c = cand[k] + 0
+        change = (b == 0) ? (c == 0 ? 0 : 100) : (c - b) * 100 / b
+        higherIsBetter = (k ~ /\[thrpt\]/ && k !~ /gc\.alloc\.rate\.norm/)
+        worse = higherIsBetter ? -change : change
+        margin = (baseErr[k] == "NaN" ? 0 : baseErr[k]) + (candErr[k] == "NaN" ? 0 : candErr[k])
+        flag = ""
+        if (worse > threshold && (c - b > margin || b - c > margin)) {
+            flag = "  REGRESSION"
+            regressions++
+        }
+        label = k
+        sub(/^([a-z0-9_]+\.)+/, "", label)
+        printf "%-64s %12.3f %12.3f %+8.1f%%  %s%s\n", label, b, c, change, unit[k], flag
+    }
+    if (regressions > 0) {
+        printf "\n%d regression(s) beyond %s%%\n", regressions, threshold
+        exit 1
+    }
+    printf "\nNo regressions beyond %s%%\n", threshold
+}
+' "$1" "$2"
@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Runs the JMH suites with the GC allocation profiler and writes the results as CSV.
+#
+# Usage: ./run-benchmarks.sh OUTPUT.csv [JMH options or benchmark regex...]
+#   ./run-benchmarks.sh results/baseline.csv
+#   ./run-benchmarks.sh results/receipts.csv Receipt -f 1 -wi 2 -i 3
+#
+# Builds target/benchmarks.jar first if it is missing. The build runs Maven
+# offline (-o) when OFFLINE=1, which works once the dependencies are in ~/.m2.
+set -euo pipefail
+
+if [ $# -lt 1 ]; then
+    echo "usage: $0 OUTPUT.csv [JMH options...]" >&2
+    exit 2
+fi
+
+cd "$(dirname "$0")"
+output=$1
+shift
+
+if [ ! -f target/benchmarks.jar ]; then
+    offline=()
+    if [ "${OFFLINE:-0}" = 1 ]; then
+        offline=(-o)
+    fi
+    (cd .. && mvn -B -q "${offline[@]}" install -DskipTests)
+    mvn -B -q "${offline[@]}" package
+fi
+
+mkdir -p "$(dirname "$output")"
+java -jar target/benchmarks.jar -prof gc -rf csv -rff "$output" "$@"
@@ -0,0 +1,77 @@
+package com.gdms.benchmark;
+
+import com.gdms.access.AccessDecisionCache;
+import com.gdms.model.Member;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Turnstile swipes over a large member base: AccessDecisionCache answering
+ * from its daily bitmap and from its near cache, against computing the decision
+ * from the member object (what a cached entity lookup would cost at best).
+ * Each operation decides one swipe, cycling through random member IDs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccessDecisionBenchmark {
+    @Param({"1000000"})
+    private int members;
+
+    private List<Member> all;
+    private AccessDecisionCache bitmapCache;
+    private AccessDecisionCache nearCache;
+    private int[] swipes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        all = new ArrayList<>(members);
+        for (int id = 0; id < members; id++) {
+            LocalDate end = today.plusDays(random.nextInt(400) - 30);
+            all.add(BenchmarkMembers.member(id, "Basic", end.minusYears(1), end));
+        }
+        bitmapCache = new AccessDecisionCache(all::get, all::forEach, 1);
+        bitmapCache.rebuild();
+        nearCache = new AccessDecisionCache(all::get, action -> { }, members);
+        swipes = new int[4096];
+        for (int i = 0; i < swipes.length; i++) {
+            swipes[i] = random.nextInt(members);
+            nearCache.isAllowed(swipes[i]);
+        }
+    }
+
+    @Benchmark
+    public boolean member() {
+        return all.get(swipes[next++ & 4095]).isMembershipActive();
+    }
+
+    @Benchmark
+    public boolean bitmap() {
+        return bitmapCache.isAllowed(swipes[next++ & 4095]);
+    }
+
+    @Benchmark
+    public boolean nearCache() {
+        return nearCache.isAllowed(swipes[next++ & 4095]);
+    }
+}
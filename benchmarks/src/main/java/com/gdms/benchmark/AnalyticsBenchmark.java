@@ -0,0 +1,93 @@
+package com.gdms.benchmark;
+
+import com.gdms.analytics.PaymentAnalytics;
+import com.gdms.analytics.PaymentRollup;
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import com.gdms.store.PaymentStore;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Groups a year of payments by day, method and status: a HashMap keyed by
+ * LocalDate and Strings over Payment objects, against the fork-join rollup over
+ * a PaymentStore. Also measures nearest-rank percentiles of completed amounts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalyticsBenchmark {
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+    private static final String[] METHODS = {"Credit Card", "Cash", "PayPal", "Bank Transfer"};
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 1, 1);
+
+    @Param({"1000000"})
+    private int rows;
+
+    private List<Payment> payments;
+    private PaymentAnalytics analytics;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        payments = new ArrayList<>(rows);
+        PaymentStore store = new PaymentStore(rows);
+        for (int i = 0; i < rows; i++) {
+            Payment payment = new Payment(i, i % 5000, Money.ofMinor(1000 + random.nextInt(9000), Money.USD),
+                    METHODS[random.nextInt(METHODS.length)], "Fee", FROM.plusDays(random.nextInt(366)));
+            payment.setPaymentStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            payments.add(payment);
+            store.add(payment);
+        }
+        analytics = new PaymentAnalytics(store);
+    }
+
+    private record Key(LocalDate day, String method, PaymentStatus status) {
+    }
+
+    @Benchmark
+    public Map<Key, long[]> hashMapGroupBy() {
+        Map<Key, long[]> totals = new HashMap<>();
+        for (Payment payment : payments) {
+            LocalDate day = payment.getPaymentDate();
+            if (!day.isBefore(FROM) && day.isBefore(TO)) {
+                long[] total = totals.computeIfAbsent(
+                        new Key(day, payment.getPaymentMethod(), payment.getPaymentStatus()), key -> new long[2]);
+                total[0] += payment.getAmountMinor();
+                total[1]++;
+            }
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public PaymentRollup forkJoinRollup() {
+        return analytics.rollup(FROM, TO);
+    }
+
+    @Benchmark
+    public long[] percentiles() {
+        return analytics.amountPercentiles(PaymentStatus.COMPLETED, FROM, TO, 50, 95, 99);
+    }
+}
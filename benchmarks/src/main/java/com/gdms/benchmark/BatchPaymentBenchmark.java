@@ -0,0 +1,74 @@
+package com.gdms.benchmark;
+
+import com.gdms.model.Payment;
+import com.gdms.payment.BatchPaymentProcessor;
+import com.gdms.payment.SimulatedPaymentGateway;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end settlement of a dues run against the simulated gateway
+ * (5 ms per request plus 20 us per payment).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchPaymentBenchmark {
+    private static final LocalDate DUE_DATE = LocalDate.of(2024, 3, 1);
+
+    @Param({"100000"})
+    private int payments;
+
+    @Param({"1", "100", "500"})
+    private int batchSize;
+
+    @Param({"16"})
+    private int maxInFlight;
+
+    private BatchPaymentProcessor processor;
+    private List<Payment> pending;
+
+    @Setup(Level.Trial)
+    public void setUpProcessor() {
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(
+                Duration.ofMillis(5), Duration.ofNanos(20_000), 0.01, 0.0, 42L);
+        processor = new BatchPaymentProcessor(gateway, batchSize, maxInFlight);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpPayments() {
+        pending = new ArrayList<>(payments);
+        for (int i = 0; i < payments; i++) {
+            pending.add(new Payment(i, i, 49.99, "Credit Card", "Monthly dues", DUE_DATE));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        processor.close();
+    }
+
+    @Benchmark
+    public BatchPaymentProcessor.BatchResult settleAll() throws InterruptedException {
+        return processor.process(pending);
+    }
+}
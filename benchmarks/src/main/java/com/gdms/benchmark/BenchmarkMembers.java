@@ -0,0 +1,28 @@
+package com.gdms.benchmark;
+
+import com.gdms.model.Member;
+import java.time.LocalDate;
+
+/**
+ * Members for benchmarks that never check a password.
+ */
+final class BenchmarkMembers {
+    /** Shaped like a BCrypt hash, but no password matches it. */
+    static final String PASSWORD_HASH = "$2a$10$abcdefghijklmnopqrstuuJ0F9yQf6h3M7g8i9j0k1l2m3n4o5p6q";
+
+    private BenchmarkMembers() {
+    }
+
+    /**
+     * Creates a member named "Member {id}" with the email member{id}@example.com.
+     * @param id ID of the member
+     * @param membershipType Type of membership
+     * @param startDate Start date of the membership
+     * @param endDate End date of the membership
+     * @return The member
+     */
+    static Member member(int id, String membershipType, LocalDate startDate, LocalDate endDate) {
+        return Member.withPasswordHash(id, "Member " + id, "member" + id + "@example.com", PASSWORD_HASH,
+                membershipType, startDate, endDate);
+    }
+}
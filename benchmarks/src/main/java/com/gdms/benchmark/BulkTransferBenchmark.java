@@ -0,0 +1,146 @@
+package com.gdms.benchmark;
+
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.transfer.BulkExporter;
+import com.gdms.transfer.BulkImporter;
+import com.gdms.transfer.PaymentRecordMapper;
+import com.gdms.transfer.RecordFormat;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Imports and exports a payments file with the streaming transfer classes,
+ * against a BufferedReader/String.split/BigDecimal import baseline. Each
+ * operation is one whole file; the sink discards the batches, and the fork runs
+ * with a 128 MB heap to show memory use does not grow with the file.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx128m")
+@State(Scope.Benchmark)
+public class BulkTransferBenchmark {
+
+    @Param({"500000"})
+    private int rows;
+
+    private Path directory;
+    private Path csvFile;
+    private Path ndjsonFile;
+    private BulkImporter<Payment> csvImporter;
+    private BulkImporter<Payment> ndjsonImporter;
+
+    @Setup(Level.Trial)
+    public void writeFiles() throws IOException {
+        directory = Files.createTempDirectory("bulk-transfer");
+        csvFile = directory.resolve("payments.csv");
+        ndjsonFile = directory.resolve("payments.ndjson");
+        new BulkExporter<>(new PaymentRecordMapper(), RecordFormat.CSV).export(payments(), csvFile);
+        new BulkExporter<>(new PaymentRecordMapper(), RecordFormat.NDJSON).export(payments(), ndjsonFile);
+        csvImporter = new BulkImporter<>(new PaymentRecordMapper(), RecordFormat.CSV);
+        ndjsonImporter = new BulkImporter<>(new PaymentRecordMapper(), RecordFormat.NDJSON);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        csvImporter.close();
+        ndjsonImporter.close();
+        Files.deleteIfExists(csvFile);
+        Files.deleteIfExists(ndjsonFile);
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Generates the payments lazily so the setup itself stays within the small heap.
+     */
+    private Iterable<Payment> payments() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        return () -> IntStream.range(0, rows).mapToObj(i -> {
+            Payment payment = new Payment(i, i % 50_000, Money.ofMinor(1000 + i % 9000, Money.USD),
+                    "Credit Card", i % 10 == 0 ? "Monthly fee, \"Premium\"" : "Monthly membership fee",
+                    start.plusDays(i % 365));
+            payment.processPayment("TXN" + i);
+            return payment;
+        }).iterator();
+    }
+
+    @Benchmark
+    public long importCsv() throws IOException {
+        return csvImporter.importFile(csvFile, batch -> { }).imported();
+    }
+
+    @Benchmark
+    public long importNdjson() throws IOException {
+        return ndjsonImporter.importFile(ndjsonFile, batch -> { }).imported();
+    }
+
+    @Benchmark
+    public long exportCsv() throws IOException {
+        return new BulkExporter<>(new PaymentRecordMapper(), RecordFormat.CSV).export(payments(), new NullChannel());
+    }
+
+    /**
+     * Line-at-a-time import with a String per field; ignores quoted commas, so
+     * it only handles the simple rows correctly.
+     */
+    @Benchmark
+    public long importCsvBaseline() throws IOException {
+        long count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                Payment payment = new Payment(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]),
+                        Money.of(new BigDecimal(fields[2]), Money.USD), fields[6], fields[8],
+                        LocalDate.parse(fields[4]));
+                payment.setStatus(fields[5]);
+                payment.setTransactionId(fields[7]);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static final class NullChannel implements WritableByteChannel {
+        @Override
+        public int write(ByteBuffer source) {
+            int remaining = source.remaining();
+            source.position(source.limit());
+            return remaining;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
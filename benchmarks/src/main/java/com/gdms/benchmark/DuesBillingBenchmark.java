@@ -0,0 +1,93 @@
+package com.gdms.benchmark;
+
+import com.gdms.billing.DuesBillingEngine;
+import com.gdms.model.MembershipPlan;
+import com.gdms.model.Money;
+import com.gdms.payment.SimulatedPaymentGateway;
+import com.gdms.repository.MemberRepository;
+import com.gdms.time.BusinessClock;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Month-end dues run over members whose memberships all end in the billing window,
+ * against the simulated gateway (5 ms per request plus 20 us per payment, 1% declined),
+ * including the journal writes and renewals. One worker against several shows what
+ * partitioning gains while the gateway dominates.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DuesBillingBenchmark {
+    private static final LocalDate TODAY = LocalDate.of(2024, 2, 29);
+    private static final LocalDate FROM = LocalDate.of(2024, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 3, 31);
+    private static final Map<String, MembershipPlan> PLANS = Map.of(
+            "Basic", new MembershipPlan("Basic", "Gym floor", Money.ofMinor(2999, Money.USD)),
+            "Premium", new MembershipPlan("Premium", "Everything", Money.ofMinor(5999, Money.USD)));
+
+    @Param({"100000"})
+    private int members;
+
+    @Param({"1", "8"})
+    private int workers;
+
+    @Param({"200"})
+    private int batchSize;
+
+    private DuesBillingEngine engine;
+    private Path checkpoints;
+
+    @Setup(Level.Invocation)
+    public void setUp() throws IOException {
+        MemberRepository repository = new MemberRepository();
+        for (int id = 0; id < members; id++) {
+            repository.add(BenchmarkMembers.member(id, id % 4 == 0 ? "Premium" : "Basic", FROM.minusMonths(1),
+                    FROM.plusDays(id % 31)));
+        }
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(
+                Duration.ofMillis(5), Duration.ofNanos(20_000), 0.01, 0.0, 42L);
+        AtomicInteger paymentIds = new AtomicInteger();
+        engine = new DuesBillingEngine(repository, PLANS::get, gateway, paymentIds::incrementAndGet, workers,
+                batchSize, BusinessClock.fixed(TODAY));
+        checkpoints = Files.createTempDirectory("dues-billing");
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(checkpoints)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public DuesBillingEngine.BillingResult billAll() throws IOException, InterruptedException {
+        return engine.run(FROM, TO, 1, checkpoints, payment -> { });
+    }
+}
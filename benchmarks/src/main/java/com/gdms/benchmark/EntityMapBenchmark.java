@@ -0,0 +1,112 @@
+package com.gdms.benchmark;
+
+import com.gdms.model.Equipment;
+import com.gdms.util.IntEntityMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares id lookups and membership checks over equipment held in a boxed
+ * HashMap, a HashSet and an IntEntityMap. Ids are large and sparse, so the
+ * Integer cache does not hide boxing. Each operation does 1024 lookups.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Thread)
+public class EntityMapBenchmark {
+    private static final int LOOKUPS = 1024;
+
+    @Param({"1000000"})
+    private int entities;
+
+    private Map<Integer, Equipment> hashMap;
+    private Set<Equipment> hashSet;
+    private IntEntityMap<Equipment> entityMap;
+    private int[] lookupIds;
+    private Equipment[] lookupEntities;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        hashMap = new HashMap<>();
+        hashSet = new HashSet<>();
+        entityMap = IntEntityMap.forEquipment();
+        int[] ids = new int[entities];
+        for (int i = 0; i < entities; i++) {
+            int id = 1_000_000 + i * 7;
+            ids[i] = id;
+            Equipment equipment = new Equipment(id, "Treadmill", "Available", "Cardio Area", "Treadmill");
+            hashMap.put(id, equipment);
+            hashSet.add(equipment);
+            entityMap.put(equipment);
+        }
+        lookupIds = new int[LOOKUPS];
+        lookupEntities = new Equipment[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookupIds[i] = ids[random.nextInt(entities)];
+            lookupEntities[i] = hashMap.get(lookupIds[i]);
+        }
+    }
+
+    @Benchmark
+    public int hashMapGet() {
+        int found = 0;
+        for (int id : lookupIds) {
+            if (hashMap.get(id) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int entityMapGet() {
+        int found = 0;
+        for (int id : lookupIds) {
+            if (entityMap.get(id) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int hashSetContains() {
+        int found = 0;
+        for (Equipment equipment : lookupEntities) {
+            if (hashSet.contains(equipment)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int entityMapContains() {
+        int found = 0;
+        for (Equipment equipment : lookupEntities) {
+            if (entityMap.containsId(equipment.getEquipmentId())) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,70 @@
+package com.gdms.benchmark;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.Member;
+import com.gdms.model.Payment;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the model hashCode methods, with Objects.hash and Integer.hashCode
+ * baselines to show the cost of the varargs array and boxing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HashCodeBenchmark {
+    private Member member;
+    private Equipment equipment;
+    private Payment payment;
+    // Non-constant so the baselines are not folded away
+    private int id = 123456;
+
+    @Setup
+    public void setUp() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        member = Member.withPasswordHash(id, "John Doe", "john@example.com", BenchmarkMembers.PASSWORD_HASH,
+                "Premium", start, start.plusYears(1));
+        equipment = new Equipment(id, "Treadmill", "Available", "Cardio Area", "Commercial treadmill");
+        payment = new Payment(id, 7890, 99.99, "Credit Card", "Monthly membership fee", start);
+    }
+
+    @Benchmark
+    public int memberHashCode() {
+        return member.hashCode();
+    }
+
+    @Benchmark
+    public int equipmentHashCode() {
+        return equipment.hashCode();
+    }
+
+    @Benchmark
+    public int paymentHashCode() {
+        return payment.hashCode();
+    }
+
+    @Benchmark
+    public int objectsHashBaseline() {
+        return Objects.hash(id);
+    }
+
+    @Benchmark
+    public int integerHashCodeBaseline() {
+        return Integer.hashCode(id);
+    }
+}
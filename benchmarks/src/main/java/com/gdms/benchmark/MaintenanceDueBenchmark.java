@@ -0,0 +1,52 @@
+package com.gdms.benchmark;
+
+import com.gdms.model.Equipment;
+import com.gdms.time.BusinessClock;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Equipment.isMaintenanceDue through the cached business clock, with a
+ * caller-supplied date, and against a fresh LocalDate.now() per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MaintenanceDueBenchmark {
+    private Equipment equipment;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        equipment = new Equipment(1, "Treadmill", "Available", "Cardio Area", "Commercial treadmill");
+        today = BusinessClock.currentDate();
+    }
+
+    @Benchmark
+    public boolean businessClock() {
+        return equipment.isMaintenanceDue();
+    }
+
+    @Benchmark
+    public boolean givenDate() {
+        return equipment.isMaintenanceDue(today);
+    }
+
+    @Benchmark
+    public boolean localDateNow() {
+        return equipment.isMaintenanceDue(LocalDate.now());
+    }
+}
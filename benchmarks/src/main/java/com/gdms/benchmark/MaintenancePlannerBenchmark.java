@@ -0,0 +1,81 @@
+package com.gdms.benchmark;
+
+import com.gdms.maintenance.MaintenancePlanner;
+import com.gdms.model.Equipment;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Finds the next items due at one location, and updates the queue after a
+ * maintenance visit, for a chain-sized fleet: a scan and sort of the equipment
+ * list against the MaintenancePlanner indexes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MaintenancePlannerBenchmark {
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 3);
+    private static final String LOCATION = "Location 17";
+
+    @Param({"40000"})
+    private int equipmentCount;
+
+    private List<Equipment> equipment;
+    private MaintenancePlanner planner;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        equipment = new ArrayList<>(equipmentCount);
+        planner = new MaintenancePlanner();
+        for (int i = 0; i < equipmentCount; i++) {
+            Equipment item = new Equipment(i, "Machine " + i, "Available", "Location " + random.nextInt(200), null);
+            item.setNextMaintenanceDate(TODAY.plusDays(random.nextInt(120) - 30));
+            equipment.add(item);
+            planner.add(item);
+        }
+    }
+
+    @Benchmark
+    public List<Equipment> scanNextDue() {
+        List<Equipment> atLocation = new ArrayList<>();
+        for (Equipment item : equipment) {
+            if (LOCATION.equals(item.getLocation())) {
+                atLocation.add(item);
+            }
+        }
+        atLocation.sort(Comparator.comparing(Equipment::getNextMaintenanceDate));
+        return atLocation.subList(0, Math.min(10, atLocation.size()));
+    }
+
+    @Benchmark
+    public List<Equipment> plannerNextDue() {
+        return planner.getNextDue(LOCATION, 10);
+    }
+
+    @Benchmark
+    public LocalDate plannerPerformMaintenance() {
+        Equipment item = equipment.get(next++ % equipmentCount);
+        item.performMaintenance(1 + next % 3, TODAY);
+        return item.getNextMaintenanceDate();
+    }
+}
@@ -0,0 +1,67 @@
+package com.gdms.benchmark;
+
+import com.gdms.model.Member;
+import com.gdms.security.VerifiedCredentialCache;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Measures member creation and authentication: the BCrypt hash in the public
+ * constructor, creation from an existing hash, and password checks with and
+ * without the verified-credential cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MemberBenchmark {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    private Member member;
+    private String passwordHash;
+    private VerifiedCredentialCache cache;
+
+    @Setup
+    public void setUp() {
+        // Same default strength the Member constructor uses
+        passwordHash = new BCryptPasswordEncoder().encode("password123");
+        member = Member.withPasswordHash(1, "John Doe", "john@example.com", passwordHash, "Premium", START, END);
+        cache = new VerifiedCredentialCache(Duration.ofHours(1), 1024);
+        member.authenticate("password123", cache);
+    }
+
+    @Benchmark
+    public Member constructor() {
+        return new Member(2, "Jane Doe", "jane@example.com", "password123", "Basic", START, END);
+    }
+
+    @Benchmark
+    public Member withPasswordHash() {
+        return Member.withPasswordHash(2, "Jane Doe", "jane@example.com", passwordHash, "Basic", START, END);
+    }
+
+    @Benchmark
+    public boolean authenticate() {
+        return member.authenticate("password123");
+    }
+
+    @Benchmark
+    public boolean authenticateCached() {
+        return member.authenticate("password123", cache);
+    }
+}
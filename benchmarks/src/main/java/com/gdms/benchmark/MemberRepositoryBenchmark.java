@@ -0,0 +1,76 @@
+package com.gdms.benchmark;
+
+import com.gdms.model.Member;
+import com.gdms.repository.MemberRepository;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Point lookups against MemberRepository, alone and while writers move members
+ * between membership types and end dates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberRepositoryBenchmark {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Param({"1000000"})
+    private int members;
+
+    private MemberRepository repository;
+    private String[] emails;
+
+    @Setup
+    public void setUp() {
+        repository = new MemberRepository();
+        emails = new String[members];
+        for (int id = 0; id < members; id++) {
+            emails[id] = "member" + id + "@example.com";
+            repository.add(Member.withPasswordHash(id, "Member " + id, emails[id], BenchmarkMembers.PASSWORD_HASH,
+                    id % 2 == 0 ? "Basic" : "Premium", START, START.plusDays(id % 365)));
+        }
+    }
+
+    @Benchmark
+    public Member findById() {
+        return repository.findById(ThreadLocalRandom.current().nextInt(members));
+    }
+
+    @Benchmark
+    public Member findByEmail() {
+        return repository.findByEmail(emails[ThreadLocalRandom.current().nextInt(members)]);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public Member contendedRead() {
+        return repository.findById(ThreadLocalRandom.current().nextInt(members));
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public void contendedWrite() {
+        Member member = repository.findById(ThreadLocalRandom.current().nextInt(members));
+        member.setMembershipEndDate(member.getMembershipEndDate().plusDays(1));
+    }
+}
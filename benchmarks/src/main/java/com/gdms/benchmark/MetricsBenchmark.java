@@ -0,0 +1,76 @@
+package com.gdms.benchmark;
+
+import com.gdms.metrics.Counter;
+import com.gdms.metrics.MeterFamily;
+import com.gdms.metrics.MetricRegistry;
+import com.gdms.metrics.Timer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost that instrumentation adds to a call: a bare System.nanoTime() read as the
+ * floor, a counter increment, a per-location counter looked up by label, and a
+ * timer measuring an empty section (two nanoTime reads plus the histogram
+ * record), single-threaded and with four threads recording into the same timer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+    private static final String[] LOCATIONS = {"Cardio Zone", "Free Weights", "Studio A", "Pool"};
+
+    private Counter counter;
+    private MeterFamily<Counter> family;
+    private Timer timer;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        MetricRegistry registry = new MetricRegistry();
+        counter = registry.counter("bench_total", "Benchmark counter.");
+        family = registry.counterFamily("bench_by_location_total", "Benchmark family.", "location");
+        timer = registry.timer("bench_seconds", "Benchmark timer.");
+    }
+
+    @Benchmark
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Benchmark
+    public void counter() {
+        counter.increment();
+    }
+
+    @Benchmark
+    public void labelledCounter() {
+        String location = LOCATIONS[next++ & 3];
+        family.labels(location).increment();
+    }
+
+    @Benchmark
+    public void timer() {
+        long start = System.nanoTime();
+        timer.recordSince(start);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void timerContended() {
+        long start = System.nanoTime();
+        timer.recordSince(start);
+    }
+}
@@ -0,0 +1,86 @@
+package com.gdms.benchmark;
+
+import com.gdms.model.Member;
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.snapshot.ModelSnapshot;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cold-start restore of a node's model from a ModelSnapshot file, and writing
+ * that file. Members carry a stored BCrypt hash and payments a transaction ID
+ * and description, as in production. Each operation restores or writes the
+ * whole snapshot.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ModelSnapshotBenchmark {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final String[] METHODS = {"Credit Card", "PayPal", "Cash", "Bank Transfer"};
+
+    @Param({"1000000"})
+    private int members;
+
+    @Param({"4000000"})
+    private int payments;
+
+    private List<Member> memberList;
+    private List<Payment> paymentList;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        memberList = new ArrayList<>(members);
+        for (int id = 0; id < members; id++) {
+            memberList.add(BenchmarkMembers.member(id, id % 3 == 0 ? "Premium" : "Basic", START,
+                    START.plusDays(id % 365)));
+        }
+        paymentList = new ArrayList<>(payments);
+        for (int id = 0; id < payments; id++) {
+            Payment payment = new Payment(id, id % members, Money.ofMinor(2500 + id % 5000, Money.USD),
+                    METHODS[id % METHODS.length], "Monthly membership fee", START.plusDays(id % 730));
+            payment.processPayment("TXN" + id);
+            paymentList.add(payment);
+        }
+        file = Files.createTempFile("model", ".snap");
+        ModelSnapshot.write(file, memberList, List.of(), paymentList);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ModelSnapshot read() throws IOException {
+        return ModelSnapshot.read(file);
+    }
+
+    @Benchmark
+    public long write() throws IOException {
+        return ModelSnapshot.write(file, memberList, List.of(), paymentList);
+    }
+}
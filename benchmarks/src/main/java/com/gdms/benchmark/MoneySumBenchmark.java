@@ -0,0 +1,74 @@
+package com.gdms.benchmark;
+
+import com.gdms.model.Money;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares revenue sums over payment amounts held as doubles, as BigDecimals,
+ * and as long cents (the representation Payment and PaymentStore use).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class MoneySumBenchmark {
+
+    @Param({"10000000"})
+    private int payments;
+
+    private double[] doubles;
+    private BigDecimal[] decimals;
+    private long[] cents;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        doubles = new double[payments];
+        decimals = new BigDecimal[payments];
+        cents = new long[payments];
+        for (int i = 0; i < payments; i++) {
+            long amount = 100 + random.nextInt(20_000);
+            cents[i] = amount;
+            doubles[i] = amount / 100.0;
+            decimals[i] = BigDecimal.valueOf(amount, 2);
+        }
+    }
+
+    @Benchmark
+    public double sumDouble() {
+        double total = 0;
+        for (double amount : doubles) {
+            total += amount;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal sumBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : decimals) {
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long sumLongCents() {
+        return Money.sumMinorUnits(cents, 0, cents.length);
+    }
+}
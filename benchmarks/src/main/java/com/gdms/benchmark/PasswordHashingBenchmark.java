@@ -0,0 +1,117 @@
+package com.gdms.benchmark;
+
+import com.gdms.security.PasswordHashingService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Pushes whole batches through {@link PasswordHashingService} at a low BCrypt
+ * strength, so the futures, the worker hand-off and the queue backpressure show
+ * up next to the hashing itself. The queue is much shorter than a batch, so
+ * submitters spend most of the run waiting for a free slot.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHashingBenchmark {
+    private static final int ENCODES = 10_000;
+    private static final int MATCHES = 1_000;
+
+    @Param({"4"})
+    private int strength;
+
+    @Param({"2"})
+    private int workers;
+
+    @Param({"64"})
+    private int queueCapacity;
+
+    @Param({"8"})
+    private int callers;
+
+    private PasswordHashingService service;
+    private ExecutorService callerPool;
+    private String[] passwords;
+    private String[] hashes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        service = new PasswordHashingService(encoder, workers, queueCapacity);
+        callerPool = Executors.newFixedThreadPool(callers);
+        passwords = new String[MATCHES];
+        hashes = new String[MATCHES];
+        for (int i = 0; i < MATCHES; i++) {
+            passwords[i] = "password-" + i;
+            // Every other login presents a wrong password
+            hashes[i] = encoder.encode((i & 1) == 0 ? passwords[i] : "wrong-" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        callerPool.shutdownNow();
+        service.close();
+    }
+
+    /**
+     * Submits 10k encodes from one thread, as a bulk import would, and waits for all.
+     */
+    @Benchmark
+    public int encodeAll() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[ENCODES];
+        for (int i = 0; i < ENCODES; i++) {
+            futures[i] = service.encode(passwords[i % MATCHES]);
+        }
+        CompletableFuture.allOf(futures).join();
+        return futures.length;
+    }
+
+    /**
+     * Submits 1k verifications split across concurrent callers, as login handlers
+     * would, and waits for all.
+     * @return Number of matching passwords
+     */
+    @Benchmark
+    public int matchConcurrently() {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<Boolean>[] futures = new CompletableFuture[MATCHES];
+        CompletableFuture<?>[] submitted = new CompletableFuture<?>[callers];
+        for (int c = 0; c < callers; c++) {
+            int caller = c;
+            submitted[c] = CompletableFuture.runAsync(() -> {
+                for (int i = caller; i < MATCHES; i += callers) {
+                    futures[i] = service.matches(passwords[i], hashes[i]);
+                }
+            }, callerPool);
+        }
+        CompletableFuture.allOf(submitted).join();
+        CompletableFuture.allOf(futures).join();
+        int matched = 0;
+        for (CompletableFuture<Boolean> future : futures) {
+            if (future.join()) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
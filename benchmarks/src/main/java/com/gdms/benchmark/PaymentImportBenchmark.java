@@ -0,0 +1,90 @@
+package com.gdms.benchmark;
+
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.persistence.HibernateConfig;
+import com.gdms.persistence.PaymentDao;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Imports payments into an in-memory H2 database in MySQL mode, through a
+ * stateless session and through a regular session with flush/clear per batch,
+ * at several JDBC batch sizes. Each operation is one whole import into an
+ * empty database; divide the row count by the time for inserts per second.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class PaymentImportBenchmark {
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"1", "50", "1000"})
+    private int batchSize;
+
+    private List<Payment> payments;
+    private SessionFactory sessionFactory;
+    private PaymentDao dao;
+
+    @Setup(Level.Trial)
+    public void createPayments() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        payments = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            payments.add(new Payment(i, i % 50_000, Money.ofMinor(1000 + i % 9000, Money.USD), "Credit Card",
+                    "Monthly membership fee", start.plusDays(i % 365)));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void openDatabase() {
+        Properties settings = new Properties();
+        settings.setProperty(AvailableSettings.URL, "jdbc:h2:mem:import-" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        settings.setProperty(AvailableSettings.USER, "sa");
+        settings.setProperty(AvailableSettings.PASS, "");
+        settings.setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        settings.setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(batchSize));
+        sessionFactory = HibernateConfig.buildSessionFactory(settings);
+        dao = new PaymentDao(sessionFactory);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeDatabase() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public long statelessInsert() {
+        return dao.insertAll(payments);
+    }
+
+    @Benchmark
+    public int sessionSaveAll() {
+        return dao.saveAll(payments);
+    }
+}
@@ -0,0 +1,83 @@
+package com.gdms.benchmark;
+
+import com.gdms.ledger.PaymentEvent;
+import com.gdms.ledger.PaymentJournal;
+import com.gdms.model.Money;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Appends payment events to the memory-mapped PaymentJournal: without syncing,
+ * and with a group sync every 1000 events as a batch settlement would. Each
+ * iteration starts from an empty journal in a temporary directory.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentJournalBenchmark {
+    private static final int SYNC_BATCH = 1000;
+    private static final Money AMOUNT = Money.ofMinor(4999, "USD");
+    private static final LocalDate DATE = LocalDate.of(2024, 6, 1);
+
+    private Path directory;
+    private PaymentJournal journal;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void openJournal() throws IOException {
+        directory = Files.createTempDirectory("payment-journal");
+        journal = new PaymentJournal(directory);
+        next = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteJournal() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private PaymentEvent nextEvent() {
+        int id = next++;
+        return (id & 1) == 0
+                ? PaymentEvent.created(id, id % 5000, AMOUNT, "Credit Card", "Monthly membership", DATE)
+                : PaymentEvent.processed(id - 1, "txn_" + id);
+    }
+
+    @Benchmark
+    public long append() throws IOException {
+        return journal.append(nextEvent());
+    }
+
+    @Benchmark
+    public long appendWithBatchedSync() throws IOException {
+        long sequence = journal.append(nextEvent());
+        if (sequence % SYNC_BATCH == 0) {
+            journal.sync(sequence);
+        }
+        return sequence;
+    }
+}
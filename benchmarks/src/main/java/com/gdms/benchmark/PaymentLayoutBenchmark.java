@@ -0,0 +1,149 @@
+package com.gdms.benchmark;
+
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import com.gdms.store.PaymentStore;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loads the same payments into a List of Payment objects and into a
+ * PaymentStore, and reports what each layout costs once loaded: retained heap
+ * per row, GC time spent while loading, and the pause of a full collection with
+ * the rows live. Run with -prof gc for allocation rates and collection counts.
+ * Both layouts keep a distinct transaction ID and description String per row,
+ * as rows read from a database or an import would.
+ * JMH sums event counters over the measured iterations, so keep one iteration per
+ * fork and add forks (-f) for more samples.
+ * 50M object rows need a heap of about 12 GB; pick the sizes with -p rows=... on
+ * smaller machines.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+@State(Scope.Benchmark)
+public class PaymentLayoutBenchmark {
+    private static final String[] METHODS = {"Credit Card", "PayPal", "Cash", "Bank Transfer"};
+    private static final long FIRST_DAY = LocalDate.of(2024, 1, 1).toEpochDay();
+
+    @Param({"1000000", "10000000", "50000000"})
+    private int rows;
+
+    @Param({"objects", "columns"})
+    private String layout;
+
+    /**
+     * Footprint of the layout loaded by the last operation.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        /** Heap retained per row after loading, in bytes. */
+        public double bytesPerRow;
+        /** GC time accumulated while loading, in milliseconds. */
+        public double loadGcMillis;
+        /** Duration of a full collection with the loaded rows live, in milliseconds. */
+        public double fullGcMillis;
+
+        private long baselineHeap;
+        private long baselineGcMillis;
+        private Object loaded;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            bytesPerRow = 0;
+            loadGcMillis = 0;
+            fullGcMillis = 0;
+            baselineHeap = collectAndMeasureHeap();
+            baselineGcMillis = gcMillis();
+        }
+
+        /**
+         * Measures outside the timed operation, while the rows are still held.
+         */
+        @TearDown(Level.Iteration)
+        public void record(PaymentLayoutBenchmark benchmark) {
+            loadGcMillis = gcMillis() - baselineGcMillis;
+            bytesPerRow = (double) (collectAndMeasureHeap() - baselineHeap) / benchmark.rows;
+            long start = System.nanoTime();
+            System.gc();
+            fullGcMillis = (System.nanoTime() - start) / 1e6;
+            loaded = null;
+        }
+    }
+
+    @Benchmark
+    public Object load(Footprint footprint) {
+        footprint.loaded = "objects".equals(layout) ? loadObjects() : loadColumns();
+        return footprint.loaded;
+    }
+
+    private List<Payment> loadObjects() {
+        List<Payment> payments = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Payment payment = new Payment(i, i % 500_000, Money.ofMinor(1000 + i % 9000, Money.USD),
+                    METHODS[i & 3], description(i), LocalDate.ofEpochDay(FIRST_DAY + i % 365));
+            if ((i & 1) == 0) {
+                payment.processPayment(transactionId(i));
+            }
+            payments.add(payment);
+        }
+        return payments;
+    }
+
+    private PaymentStore loadColumns() {
+        PaymentStore store = new PaymentStore(rows);
+        for (int i = 0; i < rows; i++) {
+            boolean completed = (i & 1) == 0;
+            store.add(i, i % 500_000, 1000 + i % 9000, (int) (FIRST_DAY + i % 365),
+                    completed ? PaymentStatus.COMPLETED : PaymentStatus.PENDING, METHODS[i & 3],
+                    completed ? transactionId(i) : null, description(i));
+        }
+        return store;
+    }
+
+    private static String transactionId(int i) {
+        return "TXN" + i;
+    }
+
+    private static String description(int i) {
+        return "Dues " + (i % 12 + 1);
+    }
+
+    private static long collectAndMeasureHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+}
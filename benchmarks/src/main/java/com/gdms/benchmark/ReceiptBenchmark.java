@@ -0,0 +1,52 @@
+package com.gdms.benchmark;
+
+import com.gdms.model.Payment;
+import com.gdms.payment.ReceiptWriter;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Payment.generateReceipt() (String.format) against ReceiptWriter rendering into
+ * a reused StringBuilder.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReceiptBenchmark {
+    private Payment payment;
+    private ReceiptWriter writer;
+    private StringBuilder buffer;
+
+    @Setup
+    public void setUp() {
+        payment = new Payment(123456, 7890, 99.99, "Credit Card", "Monthly membership fee",
+                LocalDate.of(2024, 3, 1));
+        payment.processPayment("TXN123456");
+        writer = new ReceiptWriter();
+        buffer = new StringBuilder(256);
+    }
+
+    @Benchmark
+    public String generateReceipt() {
+        return payment.generateReceipt();
+    }
+
+    @Benchmark
+    public StringBuilder receiptWriter() {
+        buffer.setLength(0);
+        return writer.render(payment, buffer);
+    }
+}
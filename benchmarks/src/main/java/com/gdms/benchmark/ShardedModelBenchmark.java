@@ -0,0 +1,95 @@
+package com.gdms.benchmark;
+
+import com.gdms.model.Member;
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import com.gdms.shard.ShardedGymModel;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Front-desk traffic against a ShardedGymModel with 1 to 64 partitions, from 16
+ * threads: each operation looks up a random member, replaces one of its payments
+ * and reads its payment history. {@code report} sums a day's payments across every
+ * partition through the scatter-gather query. Throughput only rises with the
+ * partition count while there are cores left for the threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ShardedModelBenchmark {
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Param({"1", "4", "16", "64"})
+    private int partitions;
+
+    @Param({"100000"})
+    private int members;
+
+    private ShardedGymModel model;
+    private Payment[] payments;
+
+    @Setup
+    public void setUp() {
+        model = new ShardedGymModel(partitions);
+        payments = new Payment[members];
+        for (int id = 0; id < members; id++) {
+            model.addMember(BenchmarkMembers.member(id, id % 4 == 0 ? "Premium" : "Basic", DAY.minusMonths(1),
+                    DAY.plusMonths(1)));
+            payments[id] = new Payment(id, id, Money.ofMinor(2999, Money.USD), "Credit Card", "Monthly dues", DAY);
+            payments[id].processPayment("TXN" + id);
+            model.addPayment(payments[id]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        model.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public int frontDesk(Caller caller) {
+        int memberId = caller.random.nextInt(members);
+        Member member = model.findMember(memberId);
+        // The payment may be away on another thread; then only the lookups count
+        Payment payment = model.removePayment(memberId, memberId);
+        if (payment != null) {
+            model.addPayment(payment);
+        }
+        return member.getUserId() + model.findPaymentsByMember(memberId).size();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<Currency, Money> report() {
+        return model.sumPayments(PaymentStatus.COMPLETED, DAY, DAY);
+    }
+}
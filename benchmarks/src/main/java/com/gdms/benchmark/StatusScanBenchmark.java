@@ -0,0 +1,85 @@
+package com.gdms.benchmark;
+
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import com.gdms.store.PaymentStore;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares status-filtered scans over String statuses, enum statuses on Payment
+ * objects, and byte-coded statuses in a PaymentStore column.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatusScanBenchmark {
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+    @Param({"1000000"})
+    private int rows;
+
+    private String[] stringStatuses;
+    private List<Payment> payments;
+    private PaymentStore store;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        stringStatuses = new String[rows];
+        payments = new ArrayList<>(rows);
+        store = new PaymentStore(rows);
+        for (int i = 0; i < rows; i++) {
+            PaymentStatus status = STATUSES[random.nextInt(STATUSES.length)];
+            // Distinct String instances, as they would arrive from a database or a parser
+            stringStatuses[i] = new String(status.getLabel());
+            Payment payment = new Payment(i, i % 5000, 10 + random.nextInt(100), "Credit Card", "Fee");
+            payment.setPaymentStatus(status);
+            payments.add(payment);
+            store.add(payment);
+        }
+    }
+
+    @Benchmark
+    public int stringEquals() {
+        int count = 0;
+        for (String status : stringStatuses) {
+            if ("Completed".equals(status)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int enumOnObjects() {
+        int count = 0;
+        for (Payment payment : payments) {
+            if (payment.getPaymentStatus() == PaymentStatus.COMPLETED) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int byteColumn() {
+        return store.countByStatus(PaymentStatus.COMPLETED);
+    }
+}
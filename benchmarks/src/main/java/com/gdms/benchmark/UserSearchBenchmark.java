@@ -0,0 +1,100 @@
+package com.gdms.benchmark;
+
+import com.gdms.model.Member;
+import com.gdms.search.UserSearchIndex;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Front-desk searches by partial name or email over a large member base:
+ * UserSearchIndex against a scan of every member with toLowerCase().contains().
+ * Each operation is one search for the top 20 matches, cycling through a mix of
+ * surname, first-name, email and short word-prefix queries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class UserSearchBenchmark {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final String[] FIRST = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael",
+        "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas",
+        "Sarah", "Charles", "Karen", "Christopher", "Nancy", "Daniel", "Lisa", "Matthew", "Betty", "Anthony",
+        "Margaret", "Mark", "Sandra", "José", "Zoë", "Noah", "Olivia", "Liam", "Emma", "Mateo", "Sofía"};
+    private static final String[] LAST = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+        "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas",
+        "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark",
+        "Ramirez", "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen",
+        "Hill", "Flores", "Green", "Adams", "Nelson", "Baker", "Hall", "Rivera", "Campbell", "Mitchell", "Carter",
+        "Roberts", "Müller", "Østergaard", "Kowalski", "Nakamura", "O'Brien"};
+    private static final String[] DOMAINS = {"gmail.com", "yahoo.com", "outlook.com", "example.org"};
+    private static final String[] QUERIES = {"kowalski", "sofia nak", "ostergaard", "jennifer.w", "mitchell1",
+        "o'brien", "zoe", "ma", "k", "carter42", "nguyen@", "bakerr", "@example", "thomas.hill7"};
+
+    @Param({"2000000"})
+    private int members;
+
+    private UserSearchIndex<Member> index;
+    private List<Member> all;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        all = new ArrayList<>(members);
+        for (int id = 0; id < members; id++) {
+            String first = FIRST[random.nextInt(FIRST.length)];
+            String last = LAST[random.nextInt(LAST.length)];
+            String email = (first + "." + last).toLowerCase(Locale.ROOT) + random.nextInt(1000) + "@"
+                    + DOMAINS[random.nextInt(DOMAINS.length)];
+            all.add(Member.withPasswordHash(id, first + " " + last, email, BenchmarkMembers.PASSWORD_HASH,
+                    "Basic", START, START.plusDays(365)));
+        }
+        index = new UserSearchIndex<>();
+        index.addAll(all);
+    }
+
+    private String nextQuery() {
+        String query = QUERIES[next];
+        next = (next + 1) % QUERIES.length;
+        return query;
+    }
+
+    @Benchmark
+    public List<Member> scan() {
+        String query = nextQuery().toLowerCase(Locale.ROOT);
+        List<Member> found = new ArrayList<>();
+        for (Member member : all) {
+            if (member.getName().toLowerCase(Locale.ROOT).contains(query)
+                    || member.getEmail().toLowerCase(Locale.ROOT).contains(query)) {
+                found.add(member);
+                if (found.size() == 20) {
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public List<Member> index() {
+        return index.search(nextQuery(), 20);
+    }
+}
@@ -0,0 +1,176 @@
+package com.gdms.access;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Access decisions of every member for one business day, one bit per member ID
+ * for "known" and one for "allowed".
+ * Allowed bits never change once built; a known bit is cleared when the
+ * member's decision is invalidated, which sends later lookups elsewhere.
+ * A snapshot file holds a header, both bit sets and a CRC32C of everything
+ * before it, and is replaced atomically.
+ */
+final class AccessBitmap {
+    /** Highest member ID plus one that the bitmap covers; 16 MB for both bit sets at most. */
+    static final int MAX_IDS = 1 << 26;
+    static final AccessBitmap EMPTY = new AccessBitmap(LocalDate.MIN, new long[0], new long[0]);
+
+    private static final int MAGIC = 0x47414231; // "GAB1"
+
+    private final LocalDate day;
+    private final long[] allowed;
+    private final AtomicLongArray known;
+
+    private AccessBitmap(LocalDate day, long[] allowed, long[] known) {
+        this.day = day;
+        this.allowed = allowed;
+        this.known = new AtomicLongArray(known);
+    }
+
+    LocalDate getDay() {
+        return day;
+    }
+
+    /**
+     * @return true if the bitmap holds a decision for the member
+     */
+    boolean knows(int memberId) {
+        int word = memberId >>> 6;
+        return word < allowed.length && (known.get(word) & (1L << memberId)) != 0;
+    }
+
+    /**
+     * @return The member's decision; only meaningful if {@link #knows(int)}
+     */
+    boolean allows(int memberId) {
+        return (allowed[memberId >>> 6] & (1L << memberId)) != 0;
+    }
+
+    /**
+     * Drops the member's decision.
+     */
+    void forget(int memberId) {
+        int word = memberId >>> 6;
+        if (word < allowed.length) {
+            long bit = 1L << memberId;
+            known.getAndAccumulate(word, ~bit, (current, mask) -> current & mask);
+        }
+    }
+
+    /**
+     * Replaces the snapshot file with this bitmap.
+     */
+    void write(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32C crc = new CRC32C();
+        try (OutputStream fileOut = Files.newOutputStream(temporary);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                     new CheckedOutputStream(fileOut, crc), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeLong(day.toEpochDay());
+            out.writeInt(allowed.length);
+            for (long word : allowed) {
+                out.writeLong(word);
+            }
+            for (int i = 0; i < allowed.length; i++) {
+                out.writeLong(known.get(i));
+            }
+            out.flush();
+            // The checksum itself bypasses the checked stream
+            new DataOutputStream(fileOut).writeLong(crc.getValue());
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @return The saved bitmap, or null if the file is missing or damaged
+     */
+    static AccessBitmap read(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (InputStream fileIn = new BufferedInputStream(Files.newInputStream(file), 64 * 1024);
+             DataInputStream in = new DataInputStream(new CheckedInputStream(fileIn, crc))) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            long epochDay = in.readLong();
+            int words = in.readInt();
+            if (words < 0 || words > MAX_IDS / 64) {
+                return null;
+            }
+            long[] allowed = new long[words];
+            long[] known = new long[words];
+            for (int i = 0; i < words; i++) {
+                allowed[i] = in.readLong();
+            }
+            for (int i = 0; i < words; i++) {
+                known[i] = in.readLong();
+            }
+            long expected = crc.getValue();
+            long stored = new DataInputStream(fileIn).readLong();
+            if (stored != expected || fileIn.read() >= 0) {
+                return null;
+            }
+            return new AccessBitmap(LocalDate.ofEpochDay(epochDay), allowed, known);
+        } catch (NoSuchFileException | EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Collects decisions for a new bitmap. Not thread-safe.
+     */
+    static final class Builder {
+        private long[] allowed = new long[1024];
+        private long[] known = new long[1024];
+        private int words;
+
+        /**
+         * Records a decision; members whose ID is outside the bitmap are skipped.
+         */
+        void add(int memberId, boolean isAllowed) {
+            if (memberId < 0 || memberId >= MAX_IDS) {
+                return;
+            }
+            int word = memberId >>> 6;
+            if (word >= allowed.length) {
+                int capacity = Math.max(word + 1, allowed.length * 2);
+                allowed = Arrays.copyOf(allowed, capacity);
+                known = Arrays.copyOf(known, capacity);
+            }
+            long bit = 1L << memberId;
+            known[word] |= bit;
+            if (isAllowed) {
+                allowed[word] |= bit;
+            } else {
+                allowed[word] &= ~bit;
+            }
+            words = Math.max(words, word + 1);
+        }
+
+        AccessBitmap build(LocalDate day) {
+            return new AccessBitmap(day, Arrays.copyOf(allowed, words), Arrays.copyOf(known, words));
+        }
+    }
+}
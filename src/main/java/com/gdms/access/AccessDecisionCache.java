@@ -0,0 +1,322 @@
+package com.gdms.access;
+
+import com.gdms.model.Member;
+import com.gdms.model.User;
+import com.gdms.time.BusinessClock;
+import com.gdms.util.ConcurrentIntMap;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Answers "may member X enter today?" for turnstiles without a database round
+ * trip per swipe.
+ * Decisions come from three levels, checked in order:
+ * <ol>
+ * <li>a near cache of per-member decisions, holding members that were loaded
+ *     individually or changed during the day;</li>
+ * <li>a bitmap with one "known" and one "allowed" bit per member ID, rebuilt
+ *     from a full pass over the members once per business day;</li>
+ * <li>the loader, e.g. a DAO lookup, whose answer goes into the near cache.</li>
+ * </ol>
+ * A hit on either of the first two levels is a hash or array lookup and takes
+ * no lock. The decision is {@link Member#isMembershipActive(LocalDate)} for
+ * the business day.
+ * <p>
+ * The cache listens to the members its loader returns. Renewals, end-date
+ * changes and deactivations of those instances ({@code renewMembership},
+ * {@code setMembershipEndDate}, {@code setActive}) replace the member's decision
+ * before the setter returns, or drop it when the near cache is full. Changes made
+ * to other instances of the member, including the ones passed to the scanner,
+ * must be reported through {@link #invalidate(int)}.
+ * <p>
+ * The bitmap can be saved to a compact snapshot file, two bits per member ID,
+ * and loaded on startup so that the first swipes of the day do not wait for a
+ * full pass. Thread-safe.
+ */
+public class AccessDecisionCache implements PropertyChangeListener {
+    private static final Logger log = LoggerFactory.getLogger(AccessDecisionCache.class);
+
+    private final IntFunction<Member> loader;
+    private final Consumer<Consumer<? super Member>> scanner;
+    private final BusinessClock clock;
+    private final int maxEntries;
+    private final ConcurrentIntMap<Decision> decisions = new ConcurrentIntMap<>();
+    private final Object rebuildLock = new Object();
+    private volatile AccessBitmap bitmap = AccessBitmap.EMPTY;
+    // Members invalidated while a rebuild is reading them; null when no rebuild runs
+    private volatile Set<Integer> invalidatedDuringRebuild;
+    private final LongAdder nearHits = new LongAdder();
+    private final LongAdder bitmapHits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    /**
+     * Constructor for creating a cache on the default business clock.
+     * @param loader Looks up one member by ID, returning null if there is none
+     * @param scanner Passes every member to the given action, e.g. {@code memberDao::forEach}
+     * @param maxEntries Maximum number of members loaded into the near cache
+     */
+    public AccessDecisionCache(IntFunction<Member> loader, Consumer<Consumer<? super Member>> scanner,
+                               int maxEntries) {
+        this(loader, scanner, maxEntries, BusinessClock.getDefault());
+    }
+
+    /**
+     * Constructor for creating a cache.
+     * @param loader Looks up one member by ID, returning null if there is none
+     * @param scanner Passes every member to the given action, e.g. {@code memberDao::forEach}
+     * @param maxEntries Maximum number of members loaded into the near cache
+     * @param clock Business clock that decides the current day
+     */
+    public AccessDecisionCache(IntFunction<Member> loader, Consumer<Consumer<? super Member>> scanner,
+                               int maxEntries, BusinessClock clock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.loader = Objects.requireNonNull(loader, "loader");
+        this.scanner = Objects.requireNonNull(scanner, "scanner");
+        this.maxEntries = maxEntries;
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /**
+     * Decides whether a member may enter today.
+     * @param memberId ID of the member
+     * @return true if the member exists and its membership is active today
+     */
+    public boolean isAllowed(int memberId) {
+        LocalDate today = clock.today();
+        Decision decision = decisions.get(memberId);
+        if (decision != null) {
+            nearHits.increment();
+            // On a new day, re-evaluate the member we hold instead of loading it again
+            return decision.day.equals(today) ? decision.allowed : decide(decision.member, today).allowed;
+        }
+        AccessBitmap current = bitmap;
+        if (current.getDay().equals(today) && current.knows(memberId)) {
+            bitmapHits.increment();
+            return current.allows(memberId);
+        }
+        loads.increment();
+        Member member = loader.apply(memberId);
+        if (member == null) {
+            // Not remembered, so a member who signs up during the day gets in at once
+            return false;
+        }
+        if (decisions.size() >= maxEntries) {
+            return member.isMembershipActive(today);
+        }
+        listenTo(member);
+        return decide(member, today).allowed;
+    }
+
+    /**
+     * Drops the cached decision for a member, so the next swipe loads it again.
+     * @param memberId ID of the member
+     */
+    public void invalidate(int memberId) {
+        Set<Integer> pending = invalidatedDuringRebuild;
+        if (pending != null) {
+            pending.add(memberId);
+        }
+        bitmap.forget(memberId);
+        Decision removed = decisions.remove(memberId);
+        if (removed != null) {
+            removed.member.removePropertyChangeListener(this);
+        }
+    }
+
+    /**
+     * Recomputes the bitmap from a full pass over the members and drops the
+     * near-cache entries that the new bitmap covers.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            LocalDate today = clock.today();
+            Set<Integer> pending = ConcurrentHashMap.newKeySet();
+            invalidatedDuringRebuild = pending;
+            AccessBitmap next;
+            try {
+                AccessBitmap.Builder builder = new AccessBitmap.Builder();
+                // Scanned instances may be throwaway copies, so the cache does not listen to them
+                scanner.accept(member -> builder.add(member.getUserId(), member.isMembershipActive(today)));
+                next = builder.build(today);
+                bitmap = next;
+            } finally {
+                invalidatedDuringRebuild = null;
+            }
+            // The pass may have read these members before they changed
+            for (int memberId : pending) {
+                next.forget(memberId);
+            }
+            List<Decision> covered = new ArrayList<>();
+            decisions.forEachValue(decision -> {
+                if (next.knows(decision.member.getUserId())) {
+                    covered.add(decision);
+                }
+            });
+            for (Decision decision : covered) {
+                // Members stay listened to, so a later change puts them back while there is room
+                decisions.remove(decision.member.getUserId(), decision);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the bitmap if it was built for an earlier business day.
+     * @return true if a rebuild ran
+     */
+    public boolean refresh() {
+        if (bitmap.getDay().equals(clock.today())) {
+            return false;
+        }
+        synchronized (rebuildLock) {
+            if (bitmap.getDay().equals(clock.today())) {
+                return false;
+            }
+            rebuild();
+            return true;
+        }
+    }
+
+    /**
+     * Checks for a new business day at a fixed interval on the given executor,
+     * rebuilding the bitmap once the day has changed. Until the rebuild is done,
+     * decisions not in the near cache go to the loader.
+     * @param executor Executor that runs the checks
+     * @param period Interval between checks
+     * @param unit Unit of the interval
+     * @return Handle for cancelling the checks
+     */
+    public ScheduledFuture<?> schedule(ScheduledExecutorService executor, long period, TimeUnit unit) {
+        return executor.scheduleAtFixedRate(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                // Keep the schedule alive; the rebuild is retried on the next run
+                log.error("Access bitmap rebuild failed", e);
+            }
+        }, 0, period, unit);
+    }
+
+    /**
+     * Saves the current bitmap.
+     * @param file Snapshot file, replaced atomically
+     * @throws IOException if the file cannot be written
+     */
+    public void writeSnapshot(Path file) throws IOException {
+        bitmap.write(file);
+    }
+
+    /**
+     * Loads a bitmap saved by {@link #writeSnapshot(Path)} if it was built for today.
+     * @param file Snapshot file
+     * @return true if the snapshot was loaded; false if it is missing, damaged or from another day
+     * @throws IOException if the file cannot be read
+     */
+    public boolean loadSnapshot(Path file) throws IOException {
+        AccessBitmap loaded = AccessBitmap.read(file);
+        if (loaded == null || !loaded.getDay().equals(clock.today())) {
+            return false;
+        }
+        synchronized (rebuildLock) {
+            bitmap = loaded;
+        }
+        return true;
+    }
+
+    @Override
+    public void propertyChange(PropertyChangeEvent event) {
+        if (!(event.getSource() instanceof Member member)) {
+            return;
+        }
+        switch (event.getPropertyName()) {
+            case User.PROPERTY_ACTIVE, Member.PROPERTY_MEMBERSHIP_END_DATE -> {
+                int memberId = member.getUserId();
+                Set<Integer> pending = invalidatedDuringRebuild;
+                if (pending != null) {
+                    pending.add(memberId);
+                }
+                Decision current = decisions.get(memberId);
+                if ((current != null && current.member == member) || decisions.size() < maxEntries) {
+                    decide(member, clock.today());
+                } else {
+                    // No room to hold the member: forget its stale bit so the next swipe loads it
+                    bitmap.forget(memberId);
+                    member.removePropertyChangeListener(this);
+                }
+            }
+            default -> {
+                // Does not affect access
+            }
+        }
+    }
+
+    /**
+     * @return Decisions answered from the near cache
+     */
+    public long getNearHitCount() {
+        return nearHits.sum();
+    }
+
+    /**
+     * @return Decisions answered from the bitmap
+     */
+    public long getBitmapHitCount() {
+        return bitmapHits.sum();
+    }
+
+    /**
+     * @return Decisions that had to call the loader
+     */
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    /**
+     * @return Number of members in the near cache
+     */
+    public int size() {
+        return decisions.size();
+    }
+
+    /**
+     * Evaluates a member for the day and stores the decision in the near cache,
+     * where it takes precedence over the bitmap.
+     */
+    private Decision decide(Member member, LocalDate today) {
+        Decision decision = new Decision(member, member.isMembershipActive(today), today);
+        decisions.put(member.getUserId(), decision);
+        return decision;
+    }
+
+    private void listenTo(Member member) {
+        // Removing first keeps a member from getting the cache as a listener twice
+        member.removePropertyChangeListener(this);
+        member.addPropertyChangeListener(this);
+    }
+
+    /**
+     * A member's decision for one day.
+     * @param member The member
+     * @param allowed Whether the member may enter
+     * @param day Business day the decision holds for
+     */
+    private record Decision(Member member, boolean allowed, LocalDate day) {
+    }
+}
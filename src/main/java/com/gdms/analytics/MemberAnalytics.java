@@ -0,0 +1,117 @@
+package com.gdms.analytics;
+
+import com.gdms.model.Member;
+import com.gdms.store.ByteDictionary;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel aggregations over members. Each leaf task counts into a primitive
+ * array indexed by its own one-byte membership type dictionary, and the partial
+ * counts are merged by type name as the tasks join.
+ * The member list must not change while a query runs.
+ */
+public class MemberAnalytics {
+    /** Members below which a range is counted on one thread rather than split further. */
+    static final int MIN_LEAF_MEMBERS = 8 * 1024;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates analytics running on the common fork-join pool.
+     */
+    public MemberAnalytics() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for creating analytics.
+     * @param pool Pool running the queries
+     */
+    public MemberAnalytics(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool, "pool");
+    }
+
+    /**
+     * Counts members whose membership is active on a day, per membership type.
+     * @param members Members to count; random access lists split best
+     * @param today Day to check
+     * @return Active members per type, sorted by type with members without a type last
+     * @throws IllegalStateException if there are more than 256 membership types
+     */
+    public Map<String, Long> countActiveByMembershipType(List<? extends Member> members, LocalDate today) {
+        int leafSize = Math.max(MIN_LEAF_MEMBERS, members.size() / (pool.getParallelism() * 4) + 1);
+        TypeCounts counts = pool.invoke(new CountTask(members, today, 0, members.size(), leafSize));
+        Map<String, Long> result = new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder()));
+        for (int code = 0; code < counts.types.size(); code++) {
+            result.put(counts.types.decode((byte) code), counts.counts[code]);
+        }
+        return result;
+    }
+
+    /**
+     * Counts per membership type, coded through a dictionary local to one task.
+     */
+    private static final class TypeCounts {
+        final ByteDictionary types = new ByteDictionary();
+        long[] counts = new long[8];
+
+        void add(String type, long count) {
+            int code = Byte.toUnsignedInt(types.encode(type));
+            if (code >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.min(256, counts.length * 2));
+            }
+            counts[code] += count;
+        }
+
+        TypeCounts merge(TypeCounts other) {
+            for (int code = 0; code < other.types.size(); code++) {
+                add(other.types.decode((byte) code), other.counts[code]);
+            }
+            return this;
+        }
+    }
+
+    private static final class CountTask extends RecursiveTask<TypeCounts> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends Member> members;
+        private final LocalDate today;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+
+        CountTask(List<? extends Member> members, LocalDate today, int from, int to, int leafSize) {
+            this.members = members;
+            this.today = today;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected TypeCounts compute() {
+            if (to - from > leafSize) {
+                int middle = (from + to) >>> 1;
+                CountTask right = new CountTask(members, today, middle, to, leafSize);
+                right.fork();
+                TypeCounts left = new CountTask(members, today, from, middle, leafSize).compute();
+                return left.merge(right.join());
+            }
+            TypeCounts counts = new TypeCounts();
+            for (Member member : members.subList(from, to)) {
+                if (member.isMembershipActive(today)) {
+                    counts.add(member.getMembershipType(), 1);
+                }
+            }
+            return counts;
+        }
+    }
+}
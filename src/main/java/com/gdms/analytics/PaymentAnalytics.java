@@ -0,0 +1,229 @@
+package com.gdms.analytics;
+
+import com.gdms.model.PaymentStatus;
+import com.gdms.store.PaymentStore;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel aggregations over the payment history in a {@link PaymentStore}.
+ * Each query splits the rows into ranges on a fork-join pool. Every leaf scans
+ * its rows through its own cursor into primitive arrays keyed by day offset,
+ * method code and status code, and the partial results are added together
+ * pairwise as the tasks join. No Payment, LocalDate or boxed number is created
+ * per row.
+ * The store must not be written to while a query runs.
+ */
+public class PaymentAnalytics {
+    /** Rows below which a range is scanned on one thread rather than split further. */
+    static final int MIN_LEAF_ROWS = 16 * 1024;
+
+    private final PaymentStore store;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates analytics running on the common fork-join pool.
+     * @param store Payments to analyze
+     */
+    public PaymentAnalytics(PaymentStore store) {
+        this(store, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for creating analytics.
+     * @param store Payments to analyze
+     * @param pool Pool running the queries
+     */
+    public PaymentAnalytics(PaymentStore store, ForkJoinPool pool) {
+        this.store = Objects.requireNonNull(store, "store");
+        this.pool = Objects.requireNonNull(pool, "pool");
+    }
+
+    /**
+     * Groups the payments dated within a window by day, payment method and status,
+     * summing amounts and counting payments. Track new and changing payments
+     * with the returned rollup to keep it current.
+     * @param from First day of the window
+     * @param to Day after the last day of the window
+     * @return The rollup
+     */
+    public PaymentRollup rollup(LocalDate from, LocalDate to) {
+        PaymentRollup rollup = new PaymentRollup(from, to);
+        int methodCount = store.getPaymentMethodCount();
+        Cube cube = pool.invoke(new RollupTask(rollup, methodCount, 0, store.size(), leafRows()));
+        for (int code = 0; code < methodCount; code++) {
+            if (cube.amounts[code] != null) {
+                rollup.addAll(store.getPaymentMethod((byte) code), cube.amounts[code], cube.counts[code]);
+            }
+        }
+        return rollup;
+    }
+
+    /**
+     * Computes nearest-rank percentiles of the amounts of payments in a status,
+     * e.g. 50 for the median and 95 for the 95th percentile.
+     * @param status Payment status
+     * @param from First day to include
+     * @param to Day after the last day to include
+     * @param percentiles Percentiles between 0 and 100
+     * @return Amount in cents for each requested percentile, or an empty array if no payment matches
+     */
+    public long[] amountPercentiles(PaymentStatus status, LocalDate from, LocalDate to, double... percentiles) {
+        for (double percentile : percentiles) {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+            }
+        }
+        long[] amounts = pool.invoke(new AmountTask(status.code(), from.toEpochDay(), to.toEpochDay(),
+                0, store.size(), leafRows()));
+        if (amounts.length == 0) {
+            return amounts;
+        }
+        Arrays.parallelSort(amounts);
+        long[] result = new long[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            int rank = (int) Math.ceil(percentiles[i] / 100 * amounts.length);
+            result[i] = amounts[Math.max(0, rank - 1)];
+        }
+        return result;
+    }
+
+    /**
+     * Splits the rows into about four ranges per worker, so idle workers can steal.
+     */
+    private int leafRows() {
+        return Math.max(MIN_LEAF_ROWS, store.size() / (pool.getParallelism() * 4) + 1);
+    }
+
+    /**
+     * Per-method cell arrays; a method without payments in the range has null arrays.
+     */
+    private static final class Cube {
+        final long[][] amounts;
+        final long[][] counts;
+
+        Cube(int methodCount) {
+            this.amounts = new long[methodCount][];
+            this.counts = new long[methodCount][];
+        }
+
+        Cube merge(Cube other) {
+            for (int code = 0; code < amounts.length; code++) {
+                if (other.amounts[code] == null) {
+                    continue;
+                }
+                if (amounts[code] == null) {
+                    amounts[code] = other.amounts[code];
+                    counts[code] = other.counts[code];
+                    continue;
+                }
+                long[] targetAmounts = amounts[code];
+                long[] targetCounts = counts[code];
+                long[] sourceAmounts = other.amounts[code];
+                long[] sourceCounts = other.counts[code];
+                for (int cell = 0; cell < targetAmounts.length; cell++) {
+                    targetAmounts[cell] = Math.addExact(targetAmounts[cell], sourceAmounts[cell]);
+                    targetCounts[cell] += sourceCounts[cell];
+                }
+            }
+            return this;
+        }
+    }
+
+    private final class RollupTask extends RecursiveTask<Cube> {
+        private static final long serialVersionUID = 1L;
+
+        private final PaymentRollup rollup;
+        private final int methodCount;
+        private final int from;
+        private final int to;
+        private final int leafRows;
+
+        RollupTask(PaymentRollup rollup, int methodCount, int from, int to, int leafRows) {
+            this.rollup = rollup;
+            this.methodCount = methodCount;
+            this.from = from;
+            this.to = to;
+            this.leafRows = leafRows;
+        }
+
+        @Override
+        protected Cube compute() {
+            if (to - from > leafRows) {
+                int middle = (from + to) >>> 1;
+                RollupTask right = new RollupTask(rollup, methodCount, middle, to, leafRows);
+                right.fork();
+                Cube left = new RollupTask(rollup, methodCount, from, middle, leafRows).compute();
+                return left.merge(right.join());
+            }
+            Cube cube = new Cube(methodCount);
+            int cells = PaymentRollup.cellCount(rollup.getDays());
+            PaymentStore.Cursor cursor = store.cursor();
+            for (int row = from; row < to; row++) {
+                cursor.moveTo(row);
+                int day = rollup.dayIndex(cursor.getPaymentEpochDay());
+                if (day < 0) {
+                    continue;
+                }
+                int method = Byte.toUnsignedInt(cursor.getPaymentMethodCode());
+                long[] amounts = cube.amounts[method];
+                if (amounts == null) {
+                    amounts = cube.amounts[method] = new long[cells];
+                    cube.counts[method] = new long[cells];
+                }
+                int cell = PaymentRollup.cell(day, cursor.getStatusCode());
+                amounts[cell] = Math.addExact(amounts[cell], cursor.getAmountCents());
+                cube.counts[method][cell]++;
+            }
+            return cube;
+        }
+    }
+
+    private final class AmountTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final byte status;
+        private final long fromDay;
+        private final long toDay;
+        private final int from;
+        private final int to;
+        private final int leafRows;
+
+        AmountTask(byte status, long fromDay, long toDay, int from, int to, int leafRows) {
+            this.status = status;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            this.from = from;
+            this.to = to;
+            this.leafRows = leafRows;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > leafRows) {
+                int middle = (from + to) >>> 1;
+                AmountTask right = new AmountTask(status, fromDay, toDay, middle, to, leafRows);
+                right.fork();
+                long[] left = new AmountTask(status, fromDay, toDay, from, middle, leafRows).compute();
+                long[] rightAmounts = right.join();
+                long[] both = Arrays.copyOf(left, left.length + rightAmounts.length);
+                System.arraycopy(rightAmounts, 0, both, left.length, rightAmounts.length);
+                return both;
+            }
+            long[] amounts = new long[to - from];
+            int count = 0;
+            PaymentStore.Cursor cursor = store.cursor();
+            for (int row = from; row < to; row++) {
+                cursor.moveTo(row);
+                int day = cursor.getPaymentEpochDay();
+                if (cursor.getStatusCode() == status && day >= fromDay && day < toDay) {
+                    amounts[count++] = cursor.getAmountCents();
+                }
+            }
+            return Arrays.copyOf(amounts, count);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.gdms.analytics;
+
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import com.gdms.store.ByteDictionary;
+import com.gdms.util.ConcurrentIntMap;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Payment amounts and counts over a window of days, grouped by day, payment
+ * method and status. Cells are primitive counters indexed by the day's offset in
+ * the window, a one-byte method code and the status code; an update is a
+ * lock-free map lookup plus two atomic adds and allocates nothing; only the
+ * first payment of a new method takes a lock.
+ * A rollup is built in bulk by {@link PaymentAnalytics#rollup} and kept current
+ * by {@link #track tracking} payments: every status change, e.g. through
+ * {@link Payment#processPayment} or {@link Payment#refundPayment}, moves the
+ * payment from one status cell to another before the call returns. A tracked
+ * payment's cells are resolved once, when tracking starts.
+ * All amounts are US dollar cents. Payment dates, methods and amounts are
+ * expected not to change once a payment is tracked.
+ * Thread-safe; readers see each update as soon as it completes.
+ */
+public class PaymentRollup {
+    private static final int STATUS_COUNT = PaymentStatus.values().length;
+    private static final int MAX_DAYS = 100 * 366;
+
+    private final long firstDay;
+    private final int days;
+    private final ByteDictionary methods = new ByteDictionary();
+    private final Map<String, Cells> cellsByName = new ConcurrentHashMap<>();
+    private final ConcurrentIntMap<Tracker> trackers = new ConcurrentIntMap<>();
+    private volatile Cells[] cellsByMethod = new Cells[0];
+    private volatile Cells noMethodCells;
+
+    /**
+     * Constructor for creating an empty rollup.
+     * @param from First day of the window
+     * @param to Day after the last day of the window
+     */
+    public PaymentRollup(LocalDate from, LocalDate to) {
+        long length = to.toEpochDay() - from.toEpochDay();
+        if (length < 1 || length > MAX_DAYS) {
+            throw new IllegalArgumentException("Window must cover 1 to " + MAX_DAYS + " days: " + from + " to " + to);
+        }
+        this.firstDay = from.toEpochDay();
+        this.days = (int) length;
+    }
+
+    /**
+     * Counts a payment in its current status, without following later changes.
+     * @param payment Payment to count
+     * @return true if the payment is dated within the window
+     * @throws IllegalArgumentException if the payment is not in US dollars
+     */
+    public boolean add(Payment payment) {
+        int day = dayIndex(payment);
+        if (day < 0) {
+            return false;
+        }
+        cells(payment.getPaymentMethod()).add(day, payment.getPaymentStatus(), payment.getAmountMinor(), 1);
+        return true;
+    }
+
+    /**
+     * Counts a payment and follows its status changes. Track a payment before
+     * other threads can change its status.
+     * @param payment Payment to track
+     * @return true if the payment is dated within the window and is now tracked
+     * @throws IllegalArgumentException if the payment is not in US dollars
+     * @throws IllegalStateException if a payment with the same ID is already tracked
+     */
+    public boolean track(Payment payment) {
+        int day = dayIndex(payment);
+        if (day < 0) {
+            return false;
+        }
+        Tracker tracker = new Tracker(payment, cells(payment.getPaymentMethod()), day);
+        Tracker previous = trackers.putIfAbsent(payment.getPaymentId(), tracker);
+        if (previous != null) {
+            throw new IllegalStateException("Payment " + payment.getPaymentId() + " is already tracked");
+        }
+        tracker.cells.add(day, payment.getPaymentStatus(), payment.getAmountMinor(), 1);
+        payment.addPropertyChangeListener(tracker);
+        return true;
+    }
+
+    /**
+     * Stops following a payment and removes it from the totals.
+     * @param payment Payment previously passed to {@link #track}; other payments are ignored
+     */
+    public void untrack(Payment payment) {
+        Tracker tracker = trackers.get(payment.getPaymentId());
+        if (tracker != null && tracker.payment == payment && trackers.remove(payment.getPaymentId(), tracker)) {
+            payment.removePropertyChangeListener(tracker);
+            tracker.cells.add(tracker.day, payment.getPaymentStatus(), -payment.getAmountMinor(), -1);
+        }
+    }
+
+    public LocalDate getFrom() {
+        return LocalDate.ofEpochDay(firstDay);
+    }
+
+    public LocalDate getTo() {
+        return LocalDate.ofEpochDay(firstDay + days);
+    }
+
+    /**
+     * @return Payment methods seen so far, in order of first appearance
+     */
+    public List<String> getPaymentMethods() {
+        synchronized (methods) {
+            List<String> names = new ArrayList<>(methods.size());
+            for (int code = 0; code < methods.size(); code++) {
+                names.add(methods.decode((byte) code));
+            }
+            return names;
+        }
+    }
+
+    /**
+     * @param day Day within the window
+     * @param paymentMethod Method of payment
+     * @param status Payment status
+     * @return Total amount in cents of the matching payments
+     */
+    public long getAmountCents(LocalDate day, String paymentMethod, PaymentStatus status) {
+        Cells cells = existingCells(paymentMethod);
+        return cells == null ? 0 : cells.amounts.get(cell(dayIndex(day), status));
+    }
+
+    /**
+     * @param day Day within the window
+     * @param paymentMethod Method of payment
+     * @param status Payment status
+     * @return Number of matching payments
+     */
+    public long getCount(LocalDate day, String paymentMethod, PaymentStatus status) {
+        Cells cells = existingCells(paymentMethod);
+        return cells == null ? 0 : cells.counts.get(cell(dayIndex(day), status));
+    }
+
+    /**
+     * Revenue per day for one payment method: the amounts of completed payments.
+     * @param paymentMethod Method of payment
+     * @return Cents per day, starting at {@link #getFrom()}
+     */
+    public long[] getDailyRevenueCents(String paymentMethod) {
+        long[] revenue = new long[days];
+        Cells cells = existingCells(paymentMethod);
+        if (cells != null) {
+            int completed = PaymentStatus.COMPLETED.code();
+            for (int day = 0; day < days; day++) {
+                revenue[day] = cells.amounts.get(day * STATUS_COUNT + completed);
+            }
+        }
+        return revenue;
+    }
+
+    /**
+     * Sums a status over all methods and a range of days.
+     * @param status Payment status
+     * @param from First day to include
+     * @param to Day after the last day to include
+     * @return Total amount in cents
+     */
+    public long getAmountCents(PaymentStatus status, LocalDate from, LocalDate to) {
+        return sum(status, from, to, true);
+    }
+
+    /**
+     * Counts a status over all methods and a range of days.
+     * @param status Payment status
+     * @param from First day to include
+     * @param to Day after the last day to include
+     * @return Number of payments
+     */
+    public long getCount(PaymentStatus status, LocalDate from, LocalDate to) {
+        return sum(status, from, to, false);
+    }
+
+    /**
+     * Share of settled payments that were refunded: refunded / (completed + refunded).
+     * @param from First day to include
+     * @param to Day after the last day to include
+     * @return The refund rate by count, or 0 if nothing was settled
+     */
+    public double getRefundRate(LocalDate from, LocalDate to) {
+        long refunded = getCount(PaymentStatus.REFUNDED, from, to);
+        long settled = refunded + getCount(PaymentStatus.COMPLETED, from, to);
+        return settled == 0 ? 0 : (double) refunded / settled;
+    }
+
+    /**
+     * Adds a block of per-cell totals for one method, as built by a parallel scan.
+     * @param paymentMethod Method of payment
+     * @param amounts Amount per cell, indexed by day offset and status code
+     * @param counts Count per cell, indexed like the amounts
+     */
+    void addAll(String paymentMethod, long[] amounts, long[] counts) {
+        Cells cells = cells(paymentMethod);
+        for (int i = 0; i < amounts.length; i++) {
+            if (counts[i] != 0 || amounts[i] != 0) {
+                cells.amounts.addAndGet(i, amounts[i]);
+                cells.counts.addAndGet(i, counts[i]);
+            }
+        }
+    }
+
+    /**
+     * @return Day offset of an epoch day within the window, or -1 if outside
+     */
+    int dayIndex(long epochDay) {
+        long offset = epochDay - firstDay;
+        return offset >= 0 && offset < days ? (int) offset : -1;
+    }
+
+    int getDays() {
+        return days;
+    }
+
+    static int cellCount(int days) {
+        return days * STATUS_COUNT;
+    }
+
+    static int cell(int day, byte statusCode) {
+        return day * STATUS_COUNT + statusCode;
+    }
+
+    private static int cell(int day, PaymentStatus status) {
+        if (day < 0) {
+            throw new IllegalArgumentException("Day outside the rollup window");
+        }
+        return cell(day, status.code());
+    }
+
+    private int dayIndex(LocalDate day) {
+        return dayIndex(day.toEpochDay());
+    }
+
+    private int dayIndex(Payment payment) {
+        if (!Money.USD.equals(payment.getCurrency())) {
+            throw new IllegalArgumentException("Only USD payments can be rolled up: " + payment.getCurrency());
+        }
+        return dayIndex(payment.getPaymentDate().toEpochDay());
+    }
+
+    private long sum(PaymentStatus status, LocalDate from, LocalDate to, boolean amounts) {
+        int first = (int) Math.max(0, from.toEpochDay() - firstDay);
+        int last = (int) Math.min(days, to.toEpochDay() - firstDay);
+        long total = 0;
+        for (Cells cells : cellsByMethod) {
+            AtomicLongArray values = amounts ? cells.amounts : cells.counts;
+            for (int day = first; day < last; day++) {
+                total += values.get(cell(day, status.code()));
+            }
+        }
+        return total;
+    }
+
+    private Cells existingCells(String paymentMethod) {
+        return paymentMethod == null ? noMethodCells : cellsByName.get(paymentMethod);
+    }
+
+    private Cells cells(String paymentMethod) {
+        Cells cells = existingCells(paymentMethod);
+        return cells != null ? cells : newCells(paymentMethod);
+    }
+
+    private Cells newCells(String paymentMethod) {
+        synchronized (methods) {
+            int code = Byte.toUnsignedInt(methods.encode(paymentMethod));
+            Cells[] current = cellsByMethod;
+            if (code >= current.length) {
+                current = Arrays.copyOf(current, code + 1);
+                current[code] = new Cells(cellCount(days));
+                cellsByMethod = current;
+                if (paymentMethod == null) {
+                    noMethodCells = current[code];
+                } else {
+                    cellsByName.put(paymentMethod, current[code]);
+                }
+            }
+            return current[code];
+        }
+    }
+
+    /**
+     * Amount and count cells of one payment method.
+     */
+    private static final class Cells {
+        final AtomicLongArray amounts;
+        final AtomicLongArray counts;
+
+        Cells(int size) {
+            this.amounts = new AtomicLongArray(size);
+            this.counts = new AtomicLongArray(size);
+        }
+
+        void add(int day, PaymentStatus status, long amount, long count) {
+            int cell = cell(day, status.code());
+            amounts.addAndGet(cell, amount);
+            counts.addAndGet(cell, count);
+        }
+    }
+
+    /**
+     * Follows the status of one tracked payment, whose cells and day were
+     * resolved when tracking started.
+     */
+    private static final class Tracker implements PropertyChangeListener {
+        final Payment payment;
+        final Cells cells;
+        final int day;
+
+        Tracker(Payment payment, Cells cells, int day) {
+            this.payment = payment;
+            this.cells = cells;
+            this.day = day;
+        }
+
+        @Override
+        public void propertyChange(PropertyChangeEvent event) {
+            if (Payment.PROPERTY_STATUS.equals(event.getPropertyName())) {
+                long amount = payment.getAmountMinor();
+                cells.add(day, (PaymentStatus) event.getOldValue(), -amount, -1);
+                cells.add(day, (PaymentStatus) event.getNewValue(), amount, 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.gdms.availability;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.EquipmentStatus;
+import com.gdms.util.ConcurrentIntMap;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Live count of equipment per location and status, for front-desk screens and the
+ * member app.
+ * Each location packs its four status counts into one {@link AtomicLong}, 16 bits
+ * per status, so a status change is a single atomic add and a reader always gets
+ * a consistent snapshot of a location without locking. The equipment in each
+ * status is listed in a {@link ConcurrentIntMap}, whose reads take no lock either.
+ * The board listens to the equipment it holds. Each change is applied from the
+ * equipment's current status and location under that machine's own monitor, so
+ * changes to different machines never contend, and racing changes to the same
+ * machine leave the board in the machine's final state. Subscribers are then
+ * pushed a {@link Change}.
+ * Equipment without a location is listed under the empty string.
+ * Thread-safe.
+ */
+public class AvailabilityBoard implements PropertyChangeListener {
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityBoard.class);
+    private static final EquipmentStatus[] STATUSES = EquipmentStatus.values();
+    private static final int BITS_PER_STATUS = 16;
+    private static final long STATUS_MASK = (1L << BITS_PER_STATUS) - 1;
+
+    /** Most equipment one location can hold, so that no status count overflows its 16 bits. */
+    public static final int MAX_PER_LOCATION = (int) STATUS_MASK;
+
+    private final ConcurrentIntMap<Entry> entries = new ConcurrentIntMap<>();
+    private final Map<String, Location> locations = new ConcurrentHashMap<>();
+    private final List<AvailabilityListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * A change to one machine's status or location.
+     * @param equipment The equipment
+     * @param oldLocation Location before the change
+     * @param oldStatus Status before the change
+     * @param location Location after the change
+     * @param status Status after the change
+     */
+    public record Change(Equipment equipment, String oldLocation, EquipmentStatus oldStatus,
+                         String location, EquipmentStatus status) {
+    }
+
+    /**
+     * Equipment counts of one location, all read at the same instant.
+     */
+    public record Counts(int available, int inUse, int underMaintenance, int outOfOrder) {
+        private static final Counts EMPTY = new Counts(0, 0, 0, 0);
+
+        private static Counts unpack(long packed) {
+            return new Counts(count(packed, EquipmentStatus.AVAILABLE), count(packed, EquipmentStatus.IN_USE),
+                    count(packed, EquipmentStatus.UNDER_MAINTENANCE), count(packed, EquipmentStatus.OUT_OF_ORDER));
+        }
+
+        /**
+         * @param status Equipment status
+         * @return Number of machines in that status
+         */
+        public int get(EquipmentStatus status) {
+            return switch (status) {
+                case AVAILABLE -> available;
+                case IN_USE -> inUse;
+                case UNDER_MAINTENANCE -> underMaintenance;
+                case OUT_OF_ORDER -> outOfOrder;
+            };
+        }
+
+        public int total() {
+            return available + inUse + underMaintenance + outOfOrder;
+        }
+
+        private Counts plus(Counts other) {
+            return new Counts(available + other.available, inUse + other.inUse,
+                    underMaintenance + other.underMaintenance, outOfOrder + other.outOfOrder);
+        }
+    }
+
+    /**
+     * Adds equipment to the board.
+     * @param equipment Equipment to show
+     * @throws IllegalStateException if equipment with the same ID is already on the board,
+     *         or its location already holds {@link #MAX_PER_LOCATION} machines
+     */
+    public void add(Equipment equipment) {
+        Entry entry = new Entry(equipment);
+        if (entries.putIfAbsent(equipment.getEquipmentId(), entry) != null) {
+            throw new IllegalStateException("Equipment " + equipment.getEquipmentId() + " is already on the board");
+        }
+        synchronized (entry) {
+            try {
+                entry.location = key(equipment.getLocation());
+                entry.status = equipment.getEquipmentStatus();
+                if (!location(entry.location).tryEnter(equipment, entry.status)) {
+                    throw new IllegalStateException("Location is full: " + MAX_PER_LOCATION + " machines");
+                }
+            } catch (RuntimeException e) {
+                entries.remove(equipment.getEquipmentId(), entry);
+                throw e;
+            }
+            entry.listed = true;
+        }
+        equipment.addPropertyChangeListener(this);
+        // Catch up with a change made before the listener was registered
+        update(entry);
+    }
+
+    /**
+     * Removes equipment from the board.
+     * @param equipmentId ID of the equipment
+     * @return The removed equipment, or null if it was not on the board
+     */
+    public Equipment remove(int equipmentId) {
+        Entry entry = entries.remove(equipmentId);
+        if (entry == null) {
+            return null;
+        }
+        entry.equipment.removePropertyChangeListener(this);
+        synchronized (entry) {
+            if (entry.listed) {
+                locations.get(entry.location).leave(entry.equipment, entry.status);
+                entry.listed = false;
+            }
+        }
+        return entry.equipment;
+    }
+
+    /**
+     * @param location Location in the gym
+     * @return Counts of the location, read atomically
+     */
+    public Counts getCounts(String location) {
+        Location board = locations.get(key(location));
+        return board == null ? Counts.EMPTY : Counts.unpack(board.counts.get());
+    }
+
+    /**
+     * @param location Location in the gym
+     * @param status Equipment status
+     * @return Number of machines at the location in the status
+     */
+    public int getCount(String location, EquipmentStatus status) {
+        Location board = locations.get(key(location));
+        return board == null ? 0 : count(board.counts.get(), status);
+    }
+
+    /**
+     * Sums the counts of all locations. Each location is read atomically, but not
+     * all locations at the same instant.
+     * @return Counts of the whole chain
+     */
+    public Counts getTotals() {
+        Counts totals = Counts.EMPTY;
+        for (Location board : locations.values()) {
+            totals = totals.plus(Counts.unpack(board.counts.get()));
+        }
+        return totals;
+    }
+
+    /**
+     * @return Counts of every location that has held equipment, sorted by location
+     */
+    public Map<String, Counts> getCountsByLocation() {
+        Map<String, Counts> result = new TreeMap<>();
+        locations.forEach((name, board) -> result.put(name, Counts.unpack(board.counts.get())));
+        return result;
+    }
+
+    /**
+     * @param location Location in the gym
+     * @param status Equipment status
+     * @return Machines at the location in the status, in no particular order
+     */
+    public List<Equipment> getEquipment(String location, EquipmentStatus status) {
+        List<Equipment> result = new ArrayList<>();
+        Location board = locations.get(key(location));
+        if (board != null) {
+            board.byStatus[status.ordinal()].forEachValue(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Subscribes to changes at all locations.
+     * @param listener Listener to add
+     */
+    public void addListener(AvailabilityListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    public void removeListener(AvailabilityListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Subscribes to changes at one location, including equipment moving in or out.
+     * @param location Location in the gym
+     * @param listener Listener to add
+     */
+    public void addListener(String location, AvailabilityListener listener) {
+        location(key(location)).listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    public void removeListener(String location, AvailabilityListener listener) {
+        Location board = locations.get(key(location));
+        if (board != null) {
+            board.listeners.remove(listener);
+        }
+    }
+
+    @Override
+    public void propertyChange(PropertyChangeEvent event) {
+        if (!(event.getSource() instanceof Equipment equipment)) {
+            return;
+        }
+        switch (event.getPropertyName()) {
+            case Equipment.PROPERTY_STATUS, Equipment.PROPERTY_LOCATION -> {
+                Entry entry = entries.get(equipment.getEquipmentId());
+                if (entry != null && entry.equipment == equipment) {
+                    update(entry);
+                }
+            }
+            default -> {
+                // Not shown on the board
+            }
+        }
+    }
+
+    /**
+     * Moves a machine to its current status and location. Reading the machine
+     * instead of trusting the event makes the result independent of the order
+     * in which racing events arrive. A machine moved to a full location stays
+     * listed where it was, and is moved by the next change that finds room.
+     */
+    private void update(Entry entry) {
+        synchronized (entry) {
+            if (!entry.listed) {
+                return;
+            }
+            Equipment equipment = entry.equipment;
+            String oldLocation = entry.location;
+            EquipmentStatus oldStatus = entry.status;
+            String newLocation = key(equipment.getLocation());
+            EquipmentStatus newStatus = equipment.getEquipmentStatus();
+            if (oldStatus == newStatus && oldLocation.equals(newLocation)) {
+                return;
+            }
+            Location from = locations.get(oldLocation);
+            Location to = from;
+            if (oldLocation.equals(newLocation)) {
+                from.move(equipment, oldStatus, newStatus);
+            } else {
+                to = location(newLocation);
+                if (!to.tryEnter(equipment, newStatus)) {
+                    log.warn("Location '{}' is full; equipment {} stays listed at '{}'", newLocation,
+                            equipment.getEquipmentId(), oldLocation);
+                    return;
+                }
+                from.leave(equipment, oldStatus);
+            }
+            entry.location = newLocation;
+            entry.status = newStatus;
+
+            Change change = new Change(equipment, oldLocation, oldStatus, newLocation, newStatus);
+            notify(listeners, change);
+            notify(from.listeners, change);
+            if (to != from) {
+                notify(to.listeners, change);
+            }
+        }
+    }
+
+    private static void notify(List<AvailabilityListener> listeners, Change change) {
+        for (AvailabilityListener listener : listeners) {
+            try {
+                listener.onAvailabilityChanged(change);
+            } catch (RuntimeException e) {
+                // A broken screen must not stop the status change that triggered it
+                log.warn("Availability listener failed for equipment {}", change.equipment().getEquipmentId(), e);
+            }
+        }
+    }
+
+    private Location location(String key) {
+        return locations.computeIfAbsent(key, name -> new Location());
+    }
+
+    private static String key(String location) {
+        return location == null ? "" : location;
+    }
+
+    private static int count(long packed, EquipmentStatus status) {
+        return (int) ((packed >>> (status.ordinal() * BITS_PER_STATUS)) & STATUS_MASK);
+    }
+
+    private static long unit(EquipmentStatus status) {
+        return 1L << (status.ordinal() * BITS_PER_STATUS);
+    }
+
+    /**
+     * The board's view of one machine, guarded by the entry's monitor.
+     */
+    private static final class Entry {
+        final Equipment equipment;
+        String location;
+        EquipmentStatus status;
+        boolean listed;
+
+        Entry(Equipment equipment) {
+            this.equipment = equipment;
+        }
+    }
+
+    /**
+     * Packed counts, per-status lists and subscribers of one location.
+     */
+    private static final class Location {
+        final AtomicLong counts = new AtomicLong();
+        final ConcurrentIntMap<Equipment>[] byStatus;
+        final List<AvailabilityListener> listeners = new CopyOnWriteArrayList<>();
+
+        @SuppressWarnings("unchecked")
+        Location() {
+            byStatus = (ConcurrentIntMap<Equipment>[]) new ConcurrentIntMap<?>[STATUSES.length];
+            for (int i = 0; i < byStatus.length; i++) {
+                byStatus[i] = new ConcurrentIntMap<>(16);
+            }
+        }
+
+        /**
+         * @return false, changing nothing, if the location already holds {@link #MAX_PER_LOCATION} machines
+         */
+        boolean tryEnter(Equipment equipment, EquipmentStatus status) {
+            long current;
+            do {
+                current = counts.get();
+                if (Counts.unpack(current).total() >= MAX_PER_LOCATION) {
+                    return false;
+                }
+            } while (!counts.compareAndSet(current, current + unit(status)));
+            byStatus[status.ordinal()].put(equipment.getEquipmentId(), equipment);
+            return true;
+        }
+
+        void leave(Equipment equipment, EquipmentStatus status) {
+            byStatus[status.ordinal()].remove(equipment.getEquipmentId(), equipment);
+            counts.addAndGet(-unit(status));
+        }
+
+        void move(Equipment equipment, EquipmentStatus from, EquipmentStatus to) {
+            // One add moves the count; the source field is at least 1, so nothing borrows across fields
+            counts.addAndGet(unit(to) - unit(from));
+            byStatus[to.ordinal()].put(equipment.getEquipmentId(), equipment);
+            byStatus[from.ordinal()].remove(equipment.getEquipmentId(), equipment);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.gdms.availability;
+
+/**
+ * Observer notified when equipment changes status or location on an availability board.
+ */
+@FunctionalInterface
+public interface AvailabilityListener {
+
+    /**
+     * Called on the thread that changed the equipment, after the board's counts
+     * and lists reflect the change. Must return quickly and must not block.
+     * @param change The change
+     */
+    void onAvailabilityChanged(AvailabilityBoard.Change change);
+}
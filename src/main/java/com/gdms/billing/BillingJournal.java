@@ -0,0 +1,216 @@
+package com.gdms.billing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Record of one billing cycle, kept as one append-only text file per worker so
+ * workers never contend for a file. A worker appends an intent line for every
+ * payment of a batch and forces it to disk before the batch goes to the gateway,
+ * then appends an outcome line per answered payment:
+ * <pre>
+ * B memberId paymentId billedEndEpochDay amountMinor currency
+ * C memberId paymentId transactionId
+ * F memberId paymentId
+ * </pre>
+ * Outcome lines are not forced: if one is lost, the payment is resubmitted under
+ * the same ID and the gateway answers it again.
+ * Loading cuts off a torn last line left by a crash before appends continue.
+ * A resubmitted payment writes no new intent, and its outcome goes to the file of
+ * whichever worker resubmitted it, which need not be the one holding the intent
+ * if the run is resumed with a different number of workers. Loading therefore
+ * reads the intents of all files before any outcome.
+ */
+final class BillingJournal implements AutoCloseable {
+    private static final String SUFFIX = ".log";
+
+    private final FileChannel channel;
+    private final StringBuilder pending = new StringBuilder();
+
+    private BillingJournal(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Opens the journal file of one worker for appending.
+     * @param directory Checkpoint directory
+     * @param cycle Name of the billing cycle
+     * @param worker Index of the worker
+     * @return The journal
+     * @throws IOException if the file cannot be opened
+     */
+    static BillingJournal open(Path directory, String cycle, int worker) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(cycle + "-" + worker + SUFFIX);
+        return new BillingJournal(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND));
+    }
+
+    /**
+     * Reads every journal file of a billing cycle, whichever worker wrote it.
+     * @param directory Checkpoint directory
+     * @param cycle Name of the billing cycle
+     * @return Last known state of each billed member, keyed by member ID
+     * @throws IOException if a file cannot be read or holds a malformed line
+     */
+    static Map<Integer, Entry> load(Path directory, String cycle) throws IOException {
+        Map<Integer, Entry> entries = new HashMap<>();
+        if (!Files.isDirectory(directory)) {
+            return entries;
+        }
+        Path[] files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(file -> isJournalOf(file, cycle)).sorted().toArray(Path[]::new);
+        }
+        Map<Path, String[]> lines = new LinkedHashMap<>();
+        for (Path file : files) {
+            byte[] bytes = Files.readAllBytes(file);
+            int end = bytes.length;
+            while (end > 0 && bytes[end - 1] != '\n') {
+                end--;
+            }
+            if (end < bytes.length) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(end);
+                }
+            }
+            lines.put(file, new String(bytes, 0, end, StandardCharsets.UTF_8).split("\n"));
+        }
+        for (boolean intents : new boolean[] {true, false}) {
+            for (Map.Entry<Path, String[]> file : lines.entrySet()) {
+                apply(entries, file.getKey(), file.getValue(), intents);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Applies either the intent lines or the outcome lines of one file.
+     */
+    private static void apply(Map<Integer, Entry> entries, Path file, String[] lines, boolean intents)
+            throws IOException {
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            if (line.isEmpty() || line.startsWith("B ") != intents) {
+                continue;
+            }
+            try {
+                apply(entries, line.split(" ", line.startsWith("C ") ? 4 : 6));
+            } catch (RuntimeException e) {
+                throw new IOException("Malformed billing journal line " + (i + 1) + " in " + file, e);
+            }
+        }
+    }
+
+    private static boolean isJournalOf(Path file, String cycle) {
+        String name = file.getFileName().toString();
+        return name.startsWith(cycle + "-") && name.endsWith(SUFFIX)
+                && name.substring(cycle.length() + 1, name.length() - SUFFIX.length()).chars()
+                        .allMatch(Character::isDigit);
+    }
+
+    private static void apply(Map<Integer, Entry> entries, String[] fields) {
+        int memberId = Integer.parseInt(fields[1]);
+        int paymentId = Integer.parseInt(fields[2]);
+        switch (fields[0]) {
+            case "B" -> {
+                Entry previous = entries.get(memberId);
+                // Intents are read before outcomes, so only a repeated one can find an entry
+                if (previous == null || previous.outcome() == Outcome.IN_DOUBT) {
+                    entries.put(memberId, new Entry(paymentId, LocalDate.ofEpochDay(Long.parseLong(fields[3])),
+                            Long.parseLong(fields[4]), fields[5], Outcome.IN_DOUBT, null));
+                }
+            }
+            case "C", "F" -> {
+                Entry previous = entries.get(memberId);
+                if (previous == null || previous.paymentId() != paymentId) {
+                    throw new IllegalArgumentException("Outcome without intent for payment " + paymentId);
+                }
+                entries.put(memberId, fields[0].equals("C")
+                        ? previous.with(Outcome.COMPLETED, fields[3])
+                        : previous.with(Outcome.DECLINED, null));
+            }
+            default -> throw new IllegalArgumentException("Unknown record type " + fields[0]);
+        }
+    }
+
+    void intent(int memberId, int paymentId, LocalDate billedEnd, long amountMinor, String currency) {
+        pending.append("B ").append(memberId).append(' ').append(paymentId).append(' ')
+                .append(billedEnd.toEpochDay()).append(' ').append(amountMinor).append(' ')
+                .append(currency).append('\n');
+    }
+
+    void completed(int memberId, int paymentId, String transactionId) {
+        pending.append("C ").append(memberId).append(' ').append(paymentId).append(' ')
+                .append(transactionId).append('\n');
+    }
+
+    void declined(int memberId, int paymentId) {
+        pending.append("F ").append(memberId).append(' ').append(paymentId).append('\n');
+    }
+
+    /**
+     * Appends the lines added since the last flush.
+     * @param force true to wait until they are on disk
+     * @throws IOException if writing fails
+     */
+    void flush(boolean force) throws IOException {
+        if (!pending.isEmpty()) {
+            ByteBuffer buffer = ByteBuffer.wrap(pending.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            pending.setLength(0);
+        }
+        if (force) {
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * What the journal knows about a member's payment in the cycle.
+     */
+    enum Outcome {
+        /** Sent, or about to be sent, to the gateway; no answer recorded. */
+        IN_DOUBT,
+        /** Settled by the gateway. */
+        COMPLETED,
+        /** Declined by the gateway. */
+        DECLINED
+    }
+
+    /**
+     * @param paymentId ID of the payment that bills the member
+     * @param billedEnd Membership end date the payment renews from
+     * @param amountMinor Amount in minor units
+     * @param currency ISO 4217 currency code
+     * @param outcome Last recorded outcome
+     * @param transactionId Gateway transaction ID (set when completed)
+     */
+    record Entry(int paymentId, LocalDate billedEnd, long amountMinor, String currency, Outcome outcome,
+                 String transactionId) {
+
+        Entry with(Outcome outcome, String transactionId) {
+            return new Entry(paymentId, billedEnd, amountMinor, currency, outcome, transactionId);
+        }
+    }
+}
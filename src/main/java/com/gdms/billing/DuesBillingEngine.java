@@ -0,0 +1,386 @@
+package com.gdms.billing;
+
+import com.gdms.model.Member;
+import com.gdms.model.MembershipPlan;
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.payment.GatewayException;
+import com.gdms.payment.GatewayResult;
+import com.gdms.payment.PaymentGateway;
+import com.gdms.repository.MemberRepository;
+import com.gdms.time.BusinessClock;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Month-end dues billing. A run finds the members whose membership ends within a
+ * billing window, prices each by the plan of its membership type, settles the
+ * payments through the gateway in batches and renews a membership only once its
+ * payment completed.
+ * Members are partitioned by ID across a fixed number of workers; each worker
+ * bills its partition batch by batch and records every payment in its own
+ * {@link BillingJournal} before the batch is sent. Running the same window again
+ * after a crash therefore resumes instead of starting over: completed payments
+ * are not charged again (only a renewal that was lost is applied), declined ones
+ * are left for the next cycle, and payments whose answer was lost are resubmitted
+ * under the same payment ID. The gateway must treat the payment ID as an
+ * idempotency key, as real gateways do with their idempotency keys, so a
+ * resubmitted payment it already settled is answered without a second charge.
+ * Renewals are guarded by the end date the payment was billed for, so a renewal
+ * is applied at most once however often a run is repeated.
+ */
+public class DuesBillingEngine {
+    private static final Logger log = LoggerFactory.getLogger(DuesBillingEngine.class);
+    private static final String PAYMENT_METHOD = "Card on File";
+
+    private final MemberRepository members;
+    private final Function<String, MembershipPlan> plans;
+    private final PaymentGateway gateway;
+    private final IntSupplier paymentIds;
+    private final int workers;
+    private final int batchSize;
+    private final BusinessClock clock;
+
+    /**
+     * Constructor for creating a billing engine on the default business clock.
+     * @param members Members to bill
+     * @param plans Plan lookup by membership type, e.g. MembershipPlanDao::findByType
+     * @param gateway Gateway that settles the payments
+     * @param paymentIds Source of new payment IDs; must be safe for concurrent use
+     * @param workers Number of partitions billed in parallel
+     * @param batchSize Maximum number of payments per gateway request
+     */
+    public DuesBillingEngine(MemberRepository members, Function<String, MembershipPlan> plans,
+                             PaymentGateway gateway, IntSupplier paymentIds, int workers, int batchSize) {
+        this(members, plans, gateway, paymentIds, workers, batchSize, BusinessClock.getDefault());
+    }
+
+    /**
+     * Constructor for creating a billing engine.
+     * @param members Members to bill
+     * @param plans Plan lookup by membership type, e.g. MembershipPlanDao::findByType
+     * @param gateway Gateway that settles the payments
+     * @param paymentIds Source of new payment IDs; must be safe for concurrent use
+     * @param workers Number of partitions billed in parallel
+     * @param batchSize Maximum number of payments per gateway request
+     * @param clock Business clock that dates payments and renewals
+     */
+    public DuesBillingEngine(MemberRepository members, Function<String, MembershipPlan> plans,
+                             PaymentGateway gateway, IntSupplier paymentIds, int workers, int batchSize,
+                             BusinessClock clock) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be positive");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.members = Objects.requireNonNull(members, "members");
+        this.plans = Objects.requireNonNull(plans, "plans");
+        this.gateway = Objects.requireNonNull(gateway, "gateway");
+        this.paymentIds = Objects.requireNonNull(paymentIds, "paymentIds");
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /**
+     * Bills every active member whose membership ends within the window, or resumes
+     * the run for that window recorded in the checkpoint directory.
+     * @param from First membership end date to bill
+     * @param to Last membership end date to bill
+     * @param months Number of months each renewal buys
+     * @param checkpointDirectory Directory holding the journals of billing runs
+     * @param settled Receives each payment once the gateway completed or declined it, e.g. to store it;
+     *                a payment whose answer was lost in a crash is delivered again with the same ID
+     * @return Summary of the run
+     * @throws IOException if a journal cannot be read or written; the run stops and can be resumed
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public BillingResult run(LocalDate from, LocalDate to, int months, Path checkpointDirectory,
+                             Consumer<? super Payment> settled) throws IOException, InterruptedException {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Billing window ends before it starts: " + from + " to " + to);
+        }
+        if (months < 1) {
+            throw new IllegalArgumentException("months must be positive");
+        }
+        Objects.requireNonNull(settled, "settled");
+        long started = System.nanoTime();
+        String cycle = "dues-" + from + "-" + to + "-" + months;
+        Map<Integer, BillingJournal.Entry> journal = BillingJournal.load(checkpointDirectory, cycle);
+
+        List<List<Member>> partitions = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (Member member : members.findByMembershipEndDateBetween(from, to)) {
+            partitions.get(Math.floorMod(member.getUserId(), workers)).add(member);
+        }
+
+        Tally tally = new Tally();
+        Cycle run = new Cycle(cycle, months, clock.today(), checkpointDirectory, journal, settled, tally);
+        ExecutorService executor = Executors.newFixedThreadPool(workers, new BillingThreadFactory());
+        try {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                int worker = i;
+                futures.add(executor.submit(() -> {
+                    try {
+                        bill(worker, partitions.get(worker), run);
+                    } catch (Throwable e) {
+                        // Stop the other workers at their next batch; what they billed is journaled
+                        run.aborted.set(true);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            Throwable failure = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    } else {
+                        failure.addSuppressed(e.getCause());
+                    }
+                }
+            }
+            if (failure instanceof IOException e) {
+                throw e;
+            } else if (failure instanceof RuntimeException e) {
+                throw e;
+            } else if (failure instanceof Error e) {
+                throw e;
+            } else if (failure != null) {
+                throw new IllegalStateException("Billing worker failed", failure);
+            }
+        } finally {
+            run.aborted.set(true);
+            executor.shutdownNow();
+        }
+        BillingResult result = tally.toResult(System.nanoTime() - started);
+        log.info("Billed {} members ending {} to {}: {} completed, {} declined, {} unresolved, {} resumed, "
+                        + "{} skipped in {} requests ({} per minute)", result.completed() + result.declined(),
+                from, to, result.completed(), result.declined(), result.unresolved(), result.resumed(),
+                result.skipped(), result.requests(), Math.round(result.throughputPerMinute()));
+        return result;
+    }
+
+    private void bill(int worker, List<Member> partition, Cycle run) throws IOException {
+        try (BillingJournal journal = BillingJournal.open(run.directory, run.name, worker)) {
+            List<Bill> batch = new ArrayList<>(batchSize);
+            for (Member member : partition) {
+                if (run.aborted.get()) {
+                    return;
+                }
+                Bill bill = prepare(member, run);
+                if (bill == null) {
+                    continue;
+                }
+                batch.add(bill);
+                if (batch.size() == batchSize) {
+                    settle(batch, journal, run);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty() && !run.aborted.get()) {
+                settle(batch, journal, run);
+            }
+        }
+    }
+
+    /**
+     * @return The payment to send for the member, or null if the member is not billed in this run
+     */
+    private Bill prepare(Member member, Cycle run) {
+        int memberId = member.getUserId();
+        BillingJournal.Entry entry = run.journal.get(memberId);
+        if (entry != null) {
+            switch (entry.outcome()) {
+                case COMPLETED -> {
+                    // Charged before the crash; only the renewal may be missing
+                    renew(member, entry.billedEnd(), run);
+                    run.tally.resumed.incrementAndGet();
+                    return null;
+                }
+                case DECLINED -> {
+                    run.tally.skipped.incrementAndGet();
+                    return null;
+                }
+                default -> {
+                    // The gateway may have charged it already: ask again under the same ID
+                    Payment payment = new Payment(entry.paymentId(), memberId,
+                            Money.ofMinor(entry.amountMinor(), entry.currency()), PAYMENT_METHOD,
+                            description(member.getMembershipType(), run.months), run.today);
+                    return new Bill(member, payment, entry.billedEnd(), true);
+                }
+            }
+        }
+        if (!member.isActive()) {
+            run.tally.skipped.incrementAndGet();
+            return null;
+        }
+        MembershipPlan plan = plans.apply(member.getMembershipType());
+        if (plan == null || !plan.isActive()) {
+            log.warn("No active plan for membership type {}; member {} not billed",
+                    member.getMembershipType(), memberId);
+            run.tally.skipped.incrementAndGet();
+            return null;
+        }
+        Payment payment = new Payment(paymentIds.getAsInt(), memberId, plan.priceFor(run.months), PAYMENT_METHOD,
+                description(plan.getMembershipType(), run.months), run.today);
+        return new Bill(member, payment, member.getMembershipEndDate(), false);
+    }
+
+    private void settle(List<Bill> batch, BillingJournal journal, Cycle run) throws IOException {
+        List<Payment> payments = new ArrayList<>(batch.size());
+        Map<Integer, Bill> byPaymentId = new HashMap<>(batch.size() * 2);
+        for (Bill bill : batch) {
+            Payment payment = bill.payment;
+            if (!bill.resubmitted) {
+                journal.intent(bill.member.getUserId(), payment.getPaymentId(), bill.billedEnd,
+                        payment.getAmountMinor(), payment.getCurrency().getCurrencyCode());
+            }
+            payments.add(payment);
+            byPaymentId.put(payment.getPaymentId(), bill);
+        }
+        // The intents must be on disk before anything can be charged
+        journal.flush(true);
+
+        run.tally.requests.incrementAndGet();
+        List<GatewayResult> results;
+        try {
+            results = gateway.settle(payments);
+        } catch (GatewayException | RuntimeException e) {
+            // Leave the payments in doubt; running the window again resubmits them
+            log.warn("Gateway request for {} dues payments failed", batch.size(), e);
+            run.tally.unresolved.addAndGet(batch.size());
+            return;
+        }
+        for (GatewayResult result : results) {
+            Bill bill = byPaymentId.remove(result.paymentId());
+            if (bill == null) {
+                continue;
+            }
+            int memberId = bill.member.getUserId();
+            if (result.approved()) {
+                bill.payment.processPayment(result.transactionId());
+                journal.completed(memberId, result.paymentId(), result.transactionId());
+                renew(bill.member, bill.billedEnd, run);
+                run.tally.completed.incrementAndGet();
+            } else {
+                bill.payment.failPayment();
+                journal.declined(memberId, result.paymentId());
+                run.tally.declined.incrementAndGet();
+            }
+            run.settled.accept(bill.payment);
+        }
+        journal.flush(false);
+        run.tally.unresolved.addAndGet(byPaymentId.size());
+    }
+
+    /**
+     * Renews the membership unless it no longer ends on the billed date, which
+     * means the renewal was already applied or the membership was changed meanwhile.
+     */
+    private static void renew(Member member, LocalDate billedEnd, Cycle run) {
+        if (member.getMembershipEndDate().equals(billedEnd)) {
+            member.renewMembership(run.months, run.today);
+        }
+    }
+
+    private static String description(String membershipType, int months) {
+        return "Membership dues: " + membershipType + ", " + months + (months == 1 ? " month" : " months");
+    }
+
+    /**
+     * Summary of a billing run.
+     * @param completed Members charged and renewed
+     * @param declined Members whose payment the gateway declined
+     * @param unresolved Payments without an answer because a request failed; run the window again to resolve
+     * @param resumed Members already charged by an earlier, interrupted run of the window
+     * @param skipped Inactive members, members without an active plan and members declined earlier
+     * @param requests Number of gateway requests made
+     * @param elapsedNanos Wall-clock duration of the run
+     */
+    public record BillingResult(int completed, int declined, int unresolved, int resumed, int skipped,
+                                int requests, long elapsedNanos) {
+
+        /**
+         * @return Settled and declined payments per minute
+         */
+        public double throughputPerMinute() {
+            return elapsedNanos == 0 ? 0 : (completed + declined) * 60_000_000_000.0 / elapsedNanos;
+        }
+    }
+
+    private record Bill(Member member, Payment payment, LocalDate billedEnd, boolean resubmitted) {
+    }
+
+    private static final class Cycle {
+        final String name;
+        final int months;
+        final LocalDate today;
+        final Path directory;
+        final Map<Integer, BillingJournal.Entry> journal;
+        final Consumer<? super Payment> settled;
+        final Tally tally;
+        final AtomicBoolean aborted = new AtomicBoolean();
+
+        Cycle(String name, int months, LocalDate today, Path directory, Map<Integer, BillingJournal.Entry> journal,
+              Consumer<? super Payment> settled, Tally tally) {
+            this.name = name;
+            this.months = months;
+            this.today = today;
+            this.directory = directory;
+            this.journal = journal;
+            this.settled = settled;
+            this.tally = tally;
+        }
+    }
+
+    private static final class Tally {
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger declined = new AtomicInteger();
+        final AtomicInteger unresolved = new AtomicInteger();
+        final AtomicInteger resumed = new AtomicInteger();
+        final AtomicInteger skipped = new AtomicInteger();
+        final AtomicInteger requests = new AtomicInteger();
+
+        BillingResult toResult(long elapsedNanos) {
+            return new BillingResult(completed.get(), declined.get(), unresolved.get(), resumed.get(),
+                    skipped.get(), requests.get(), elapsedNanos);
+        }
+    }
+
+    private static final class BillingThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "dues-billing-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.gdms.ledger;
+
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UTFDataFormatException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * State of every payment as of one journal sequence number, so that opening a
+ * ledger only replays the events after it.
+ * A snapshot file holds a header, the payments and a CRC32C of everything
+ * before it. It is written to a temporary file and moved into place, so a crash
+ * leaves either no snapshot or a complete one.
+ */
+final class LedgerSnapshot {
+    private static final int MAGIC = 0x47505331; // "GPS1"
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private LedgerSnapshot() {
+    }
+
+    /**
+     * Writes a snapshot and deletes all but the newest {@code keep} snapshots.
+     * @param directory Ledger directory
+     * @param sequence Last journal sequence number reflected in the payments
+     * @param payments Payments to save
+     * @param count Number of payments
+     * @param keep Snapshots to keep, at least 1
+     */
+    static void write(Path directory, long sequence, Iterable<Payment> payments, int count, int keep)
+            throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", PREFIX, sequence, SUFFIX));
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32C crc = new CRC32C();
+        try (OutputStream fileOut = Files.newOutputStream(temporary);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                     new CheckedOutputStream(fileOut, crc), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeLong(sequence);
+            out.writeInt(count);
+            for (Payment payment : payments) {
+                out.writeInt(payment.getPaymentId());
+                out.writeInt(payment.getMemberId());
+                out.writeLong(payment.getAmountMinor());
+                out.writeUTF(payment.getCurrency().getCurrencyCode());
+                out.writeLong(payment.getPaymentDate().toEpochDay());
+                out.writeByte(payment.getPaymentStatus().code());
+                writeString(out, payment.getPaymentMethod());
+                writeString(out, payment.getTransactionId());
+                writeString(out, payment.getDescription());
+            }
+            out.flush();
+            // The checksum itself bypasses the checked stream
+            new DataOutputStream(fileOut).writeLong(crc.getValue());
+        }
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        List<Path> snapshots = list(directory);
+        for (int i = 0; i < snapshots.size() - keep; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    /**
+     * Loads the newest snapshot that is intact, skipping damaged ones.
+     * @param directory Ledger directory
+     * @param sink Receives each saved payment
+     * @return Sequence number of the loaded snapshot, or 0 if there is none
+     */
+    static long readLatest(Path directory, Consumer<Payment> sink) throws IOException {
+        List<Path> snapshots = list(directory);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            List<Payment> payments = new ArrayList<>();
+            long sequence = read(snapshots.get(i), payments);
+            if (sequence > 0) {
+                payments.forEach(sink);
+                return sequence;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return Sequence number of the snapshot, or 0 if the file is damaged
+     */
+    private static long read(Path file, List<Payment> payments) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (InputStream fileIn = new BufferedInputStream(Files.newInputStream(file), 64 * 1024);
+             DataInputStream in = new DataInputStream(new CheckedInputStream(fileIn, crc))) {
+            if (in.readInt() != MAGIC) {
+                return 0;
+            }
+            long sequence = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int paymentId = in.readInt();
+                int memberId = in.readInt();
+                long amountMinor = in.readLong();
+                String currencyCode = in.readUTF();
+                LocalDate paymentDate = LocalDate.ofEpochDay(in.readLong());
+                PaymentStatus status = PaymentStatus.fromCode(in.readByte());
+                String paymentMethod = readString(in);
+                String transactionId = readString(in);
+                String description = readString(in);
+                payments.add(restore(paymentId, memberId, Money.ofMinor(amountMinor, currencyCode), paymentMethod,
+                        description, paymentDate, status, transactionId));
+            }
+            long expected = crc.getValue();
+            long stored = new DataInputStream(fileIn).readLong();
+            return stored == expected && fileIn.read() < 0 ? sequence : 0;
+        } catch (EOFException | UTFDataFormatException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Copies a payment's current state into a detached instance.
+     * @param payment Payment to copy
+     * @return The copy
+     */
+    static Payment copy(Payment payment) {
+        return restore(payment.getPaymentId(), payment.getMemberId(), payment.getMoney(), payment.getPaymentMethod(),
+                payment.getDescription(), payment.getPaymentDate(), payment.getPaymentStatus(),
+                payment.getTransactionId());
+    }
+
+    private static Payment restore(int paymentId, int memberId, Money amount, String paymentMethod,
+                                   String description, LocalDate paymentDate, PaymentStatus status,
+                                   String transactionId) {
+        Payment payment = new Payment(paymentId, memberId, amount, paymentMethod, description, paymentDate);
+        payment.setPaymentStatus(status);
+        payment.setTransactionId(transactionId);
+        return payment;
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().toList();
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,118 @@
+package com.gdms.ledger;
+
+import com.gdms.model.Money;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One change in a payment's life, as recorded in the {@link PaymentJournal}.
+ * Only {@link Type#CREATED} events carry the member, amount, date and method;
+ * the other types leave them zero or null. The detail is the description of a
+ * created payment, the gateway transaction ID of a processed one, and the reason
+ * of a failure or refund.
+ * @param sequence Position in the journal, from 1; 0 until appended
+ * @param recordedAtMillis Time the journal recorded the event, in epoch milliseconds
+ * @param type Kind of change
+ * @param paymentId ID of the payment
+ * @param memberId ID of the paying member
+ * @param amountMinor Amount in minor units of the currency
+ * @param currencyCode ISO 4217 currency code
+ * @param paymentEpochDay Payment date as an epoch day
+ * @param paymentMethod Method of payment
+ * @param detail Description, transaction ID or reason
+ */
+public record PaymentEvent(long sequence, long recordedAtMillis, Type type, int paymentId, int memberId,
+                           long amountMinor, String currencyCode, int paymentEpochDay, String paymentMethod,
+                           String detail) {
+
+    /**
+     * Kinds of payment events. The ordinal is the one-byte code in the journal.
+     */
+    public enum Type {
+        CREATED,
+        PROCESSED,
+        FAILED,
+        REFUNDED;
+
+        private static final Type[] VALUES = values();
+
+        /**
+         * @return One-byte code of this type
+         */
+        public byte code() {
+            return (byte) ordinal();
+        }
+
+        /**
+         * @param code Code returned by {@link #code()}
+         * @return The matching type
+         * @throws IllegalArgumentException if the code is unknown
+         */
+        public static Type fromCode(byte code) {
+            if (code < 0 || code >= VALUES.length) {
+                throw new IllegalArgumentException("Unknown payment event type: " + code);
+            }
+            return VALUES[code];
+        }
+    }
+
+    /**
+     * @param paymentId ID of the payment
+     * @param memberId ID of the paying member
+     * @param amount Payment amount
+     * @param paymentMethod Method of payment
+     * @param description Payment description
+     * @param paymentDate Date of the payment
+     * @return Event recording a new pending payment
+     */
+    public static PaymentEvent created(int paymentId, int memberId, Money amount, String paymentMethod,
+                                       String description, LocalDate paymentDate) {
+        return new PaymentEvent(0, 0, Type.CREATED, paymentId, memberId, amount.getMinorUnits(),
+                amount.getCurrencyCode(), Math.toIntExact(paymentDate.toEpochDay()), paymentMethod, description);
+    }
+
+    /**
+     * @param paymentId ID of the payment
+     * @param transactionId ID from the payment gateway
+     * @return Event recording a completed payment
+     */
+    public static PaymentEvent processed(int paymentId, String transactionId) {
+        return new PaymentEvent(0, 0, Type.PROCESSED, paymentId, 0, 0, null, 0, null, transactionId);
+    }
+
+    /**
+     * @param paymentId ID of the payment
+     * @param reason Why the payment failed
+     * @return Event recording a failed payment
+     */
+    public static PaymentEvent failed(int paymentId, String reason) {
+        return new PaymentEvent(0, 0, Type.FAILED, paymentId, 0, 0, null, 0, null, reason);
+    }
+
+    /**
+     * @param paymentId ID of the payment
+     * @param reason Reason for the refund
+     * @return Event recording a refund
+     */
+    public static PaymentEvent refunded(int paymentId, String reason) {
+        return new PaymentEvent(0, 0, Type.REFUNDED, paymentId, 0, 0, null, 0, null, reason);
+    }
+
+    public Instant getRecordedAt() {
+        return Instant.ofEpochMilli(recordedAtMillis);
+    }
+
+    /**
+     * @return Amount of a created payment
+     */
+    public Money getAmount() {
+        return Money.ofMinor(amountMinor, currencyCode);
+    }
+
+    /**
+     * @return Date of a created payment
+     */
+    public LocalDate getPaymentDate() {
+        return LocalDate.ofEpochDay(paymentEpochDay);
+    }
+}
@@ -0,0 +1,444 @@
+package com.gdms.ledger;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of payment events in memory-mapped segment files.
+ * Each segment is a fixed-size file named after its first sequence number,
+ * starting with a 16-byte header. Each record is its payload length, a CRC32C
+ * of the payload and the payload, and the length is written last, so a zero
+ * length marks the end of the segment. A full segment is forced to disk before
+ * the next one is started.
+ * Appending copies the record into the mapping under a short lock; it survives a
+ * crash of the JVM at once, and a crash of the machine after {@link #sync}.
+ * Concurrent callers of {@link #sync} share one force of the mapping (group
+ * commit). Opening a journal checks the last segment and cuts off a torn or
+ * corrupt tail left by a crash.
+ * Thread-safe.
+ */
+public class PaymentJournal implements AutoCloseable {
+    /** Default size of a segment file. */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final int MAGIC = 0x47504A31; // "GPJ1"
+    private static final int SEGMENT_HEADER = 16;
+    private static final int RECORD_HEADER = 8;
+    private static final int FIXED_PAYLOAD = 1 + 8 + 8 + 4;
+    private static final int CREATED_PAYLOAD = 4 + 8 + 4;
+    private static final int NULL_STRING = 0xFFFF;
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final CRC32C crc = new CRC32C();
+
+    // Guarded by this
+    private final List<Long> segmentStarts = new ArrayList<>();
+    private MappedByteBuffer current;
+    private int position;
+    private long nextSequence;
+    private boolean closed;
+
+    // Guarded by syncLock
+    private final Object syncLock = new Object();
+    private long durableSequence;
+    private boolean syncing;
+
+    // Owned by the thread that set syncing
+    private MappedByteBuffer forcedSegment;
+    private int forcedPosition;
+
+    /**
+     * Opens a journal with the default segment size, creating it if the directory is empty.
+     * @param directory Directory holding the segment files
+     * @throws IOException if the journal cannot be opened or an earlier segment is corrupt
+     */
+    public PaymentJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens a journal, creating it if the directory is empty.
+     * @param directory Directory holding the segment files
+     * @param segmentSize Size of new segment files in bytes
+     * @throws IOException if the journal cannot be opened or an earlier segment is corrupt
+     */
+    public PaymentJournal(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < 4096) {
+            throw new IllegalArgumentException("Segment size must be at least 4096 bytes: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SUFFIX.length())))
+                    .sorted()
+                    .forEach(segmentStarts::add);
+        }
+        if (segmentStarts.isEmpty()) {
+            startSegment(1);
+        } else {
+            recoverTail();
+        }
+        durableSequence = nextSequence - 1;
+    }
+
+    /**
+     * Appends an event. The journal assigns the sequence number and the time; those
+     * of the given event are ignored.
+     * @param event Event to append
+     * @return Sequence number of the appended event
+     * @throws IOException if a new segment cannot be created
+     * @throws IllegalArgumentException if a text field is longer than 65534 bytes in UTF-8
+     */
+    public long append(PaymentEvent event) throws IOException {
+        byte[] currencyCode = encode(event.currencyCode());
+        byte[] paymentMethod = encode(event.paymentMethod());
+        byte[] detail = encode(event.detail());
+        boolean created = event.type() == PaymentEvent.Type.CREATED;
+        int payload = FIXED_PAYLOAD + length(detail)
+                + (created ? CREATED_PAYLOAD + length(currencyCode) + length(paymentMethod) : 0);
+        if (SEGMENT_HEADER + RECORD_HEADER + payload + 4 > segmentSize) {
+            throw new IllegalArgumentException("Event does not fit into a segment: " + payload + " bytes");
+        }
+        long timestamp = System.currentTimeMillis();
+
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            // Keep room for the zero length that ends the segment
+            if (position + RECORD_HEADER + payload + 4 > segmentSize) {
+                current.force();
+                startSegment(nextSequence);
+            }
+            long sequence = nextSequence;
+            MappedByteBuffer buffer = current;
+            int start = position + RECORD_HEADER;
+            int index = start;
+            buffer.put(index, event.type().code());
+            buffer.putLong(index + 1, sequence);
+            buffer.putLong(index + 9, timestamp);
+            buffer.putInt(index + 17, event.paymentId());
+            index += FIXED_PAYLOAD;
+            if (created) {
+                buffer.putInt(index, event.memberId());
+                buffer.putLong(index + 4, event.amountMinor());
+                buffer.putInt(index + 12, event.paymentEpochDay());
+                index = put(buffer, index + CREATED_PAYLOAD, currencyCode);
+                index = put(buffer, index, paymentMethod);
+            }
+            put(buffer, index, detail);
+
+            crc.reset();
+            crc.update(buffer.slice(start, payload));
+            buffer.putInt(position + 4, (int) crc.getValue());
+            buffer.putInt(position, payload);
+            position = start + payload;
+            nextSequence = sequence + 1;
+            return sequence;
+        }
+    }
+
+    /**
+     * Waits until an appended event and all before it are on disk. Callers that
+     * arrive while a force is running wait for it and share the next one.
+     * @param sequence Sequence number returned by {@link #append}
+     * @throws IOException if forcing the mapping fails or the thread is interrupted
+     */
+    public void sync(long sequence) throws IOException {
+        synchronized (syncLock) {
+            while (durableSequence < sequence) {
+                if (!syncing) {
+                    syncing = true;
+                    break;
+                }
+                try {
+                    syncLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting for journal sync");
+                }
+            }
+            if (durableSequence >= sequence) {
+                return;
+            }
+        }
+
+        long target = durableSequence;
+        try {
+            MappedByteBuffer buffer;
+            int end;
+            synchronized (this) {
+                buffer = current;
+                end = position;
+                target = nextSequence - 1;
+            }
+            // Full segments were forced when they were sealed; only the dirty range of this one is left
+            int from = buffer == forcedSegment ? forcedPosition : 0;
+            buffer.force(from, end - from);
+            forcedSegment = buffer;
+            forcedPosition = end;
+        } finally {
+            synchronized (syncLock) {
+                durableSequence = Math.max(durableSequence, target);
+                syncing = false;
+                syncLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Makes every appended event durable.
+     * @throws IOException if forcing the mapping fails
+     */
+    public void sync() throws IOException {
+        sync(getLastSequence());
+    }
+
+    /**
+     * Reads the events appended so far, in order.
+     * @param fromSequence First sequence number to deliver
+     * @param consumer Receives each event
+     * @return Number of events delivered
+     * @throws IOException if a segment cannot be read or is corrupt
+     */
+    public long replay(long fromSequence, Consumer<? super PaymentEvent> consumer) throws IOException {
+        List<Long> starts;
+        long endSequence;
+        synchronized (this) {
+            starts = new ArrayList<>(segmentStarts);
+            endSequence = nextSequence;
+        }
+        CRC32C check = new CRC32C();
+        long delivered = 0;
+        for (int i = 0; i < starts.size(); i++) {
+            if (i + 1 < starts.size() && starts.get(i + 1) <= fromSequence) {
+                continue;
+            }
+            ByteBuffer buffer = map(starts.get(i), FileChannel.MapMode.READ_ONLY);
+            int index = SEGMENT_HEADER;
+            long expected = starts.get(i);
+            while (expected < endSequence) {
+                int length = validRecord(buffer, index, expected, check);
+                if (length == 0) {
+                    break;
+                }
+                if (length < 0) {
+                    throw new IOException("Corrupt journal record " + expected + " in " + segmentFile(starts.get(i)));
+                }
+                if (expected >= fromSequence) {
+                    consumer.accept(decode(buffer, index + RECORD_HEADER, length));
+                    delivered++;
+                }
+                index += RECORD_HEADER + length;
+                expected++;
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * @return Sequence number of the last appended event, or 0 if the journal is empty
+     */
+    public synchronized long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Makes every appended event durable and stops further appends.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        current.force();
+    }
+
+    /**
+     * Finds the end of the last segment. Everything from the first record that is
+     * incomplete, fails its checksum or is out of sequence is zeroed, so appends
+     * continue from the last good record. Pages of a mapping may reach the disk in
+     * any order, so records can survive beyond the first lost one; they are zeroed
+     * too, or a later recovery could mistake them for new appends.
+     */
+    private void recoverTail() throws IOException {
+        long first = segmentStarts.get(segmentStarts.size() - 1);
+        MappedByteBuffer buffer = map(first, FileChannel.MapMode.READ_WRITE);
+        if (buffer.getInt(0) == 0 && buffer.getLong(8) == 0) {
+            // Crashed while starting the segment, before its header reached the disk
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, buffer.capacity());
+            buffer.putLong(8, first);
+        } else if (buffer.getInt(0) != MAGIC || buffer.getLong(8) != first) {
+            throw new IOException("Not a journal segment: " + segmentFile(first));
+        }
+        CRC32C check = new CRC32C();
+        int index = SEGMENT_HEADER;
+        long sequence = first;
+        int length;
+        while ((length = validRecord(buffer, index, sequence, check)) > 0) {
+            index += RECORD_HEADER + length;
+            sequence++;
+        }
+        boolean dirty = false;
+        int i = index;
+        for (; i < buffer.capacity() && (i & 7) != 0; i++) {
+            dirty |= buffer.get(i) != 0;
+            buffer.put(i, (byte) 0);
+        }
+        for (; i + 8 <= buffer.capacity(); i += 8) {
+            if (buffer.getLong(i) != 0) {
+                buffer.putLong(i, 0);
+                dirty = true;
+            }
+        }
+        if (dirty) {
+            buffer.force();
+        }
+        current = buffer;
+        position = index;
+        nextSequence = sequence;
+    }
+
+    /**
+     * @return Payload length of a valid record, 0 at the end of the segment, or -1 if the record is damaged
+     */
+    private static int validRecord(ByteBuffer buffer, int index, long expectedSequence, CRC32C check) {
+        if (index + RECORD_HEADER > buffer.capacity()) {
+            return 0;
+        }
+        int length = buffer.getInt(index);
+        if (length == 0) {
+            return 0;
+        }
+        int start = index + RECORD_HEADER;
+        if (length < FIXED_PAYLOAD || length > buffer.capacity() - start) {
+            return -1;
+        }
+        check.reset();
+        check.update(buffer.slice(start, length));
+        if ((int) check.getValue() != buffer.getInt(index + 4) || buffer.getLong(start + 1) != expectedSequence) {
+            return -1;
+        }
+        return length;
+    }
+
+    private PaymentEvent decode(ByteBuffer buffer, int start, int length) throws IOException {
+        try {
+            PaymentEvent.Type type = PaymentEvent.Type.fromCode(buffer.get(start));
+            long sequence = buffer.getLong(start + 1);
+            long timestamp = buffer.getLong(start + 9);
+            int paymentId = buffer.getInt(start + 17);
+            int index = start + FIXED_PAYLOAD;
+            int memberId = 0;
+            long amountMinor = 0;
+            int epochDay = 0;
+            String currencyCode = null;
+            String paymentMethod = null;
+            if (type == PaymentEvent.Type.CREATED) {
+                memberId = buffer.getInt(index);
+                amountMinor = buffer.getLong(index + 4);
+                epochDay = buffer.getInt(index + 12);
+                index += CREATED_PAYLOAD;
+                currencyCode = getString(buffer, index);
+                index += length(buffer, index);
+                paymentMethod = getString(buffer, index);
+                index += length(buffer, index);
+            }
+            String detail = getString(buffer, index);
+            return new PaymentEvent(sequence, timestamp, type, paymentId, memberId, amountMinor, currencyCode,
+                    epochDay, paymentMethod, detail);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Malformed journal record at offset " + start, e);
+        }
+    }
+
+    private void startSegment(long firstSequence) throws IOException {
+        Path file = segmentFile(firstSequence);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            current = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        current.putInt(0, MAGIC);
+        current.putInt(4, segmentSize);
+        current.putLong(8, firstSequence);
+        current.force();
+        segmentStarts.add(firstSequence);
+        position = SEGMENT_HEADER;
+        nextSequence = firstSequence;
+    }
+
+    private MappedByteBuffer map(long firstSequence, FileChannel.MapMode mode) throws IOException {
+        Path file = segmentFile(firstSequence);
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[] {StandardOpenOption.READ}
+                : new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            return channel.map(mode, 0, channel.size());
+        }
+    }
+
+    private Path segmentFile(long firstSequence) {
+        return directory.resolve(String.format("%020d%s", firstSequence, SUFFIX));
+    }
+
+    private static byte[] encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_STRING) {
+            throw new IllegalArgumentException("Text too long for the journal: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static int length(byte[] bytes) {
+        return 2 + (bytes == null ? 0 : bytes.length);
+    }
+
+    private static int length(ByteBuffer buffer, int index) {
+        int length = Short.toUnsignedInt(buffer.getShort(index));
+        return 2 + (length == NULL_STRING ? 0 : length);
+    }
+
+    private static int put(ByteBuffer buffer, int index, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putShort(index, (short) NULL_STRING);
+            return index + 2;
+        }
+        buffer.putShort(index, (short) bytes.length);
+        buffer.put(index + 2, bytes);
+        return index + 2 + bytes.length;
+    }
+
+    private static String getString(ByteBuffer buffer, int index) {
+        int length = Short.toUnsignedInt(buffer.getShort(index));
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(index + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
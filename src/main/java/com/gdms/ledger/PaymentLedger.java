@@ -0,0 +1,304 @@
+package com.gdms.ledger;
+
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import com.gdms.util.ConcurrentIntMap;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Event-sourced record of payments. Every change is appended to a
+ * {@link PaymentJournal} before it is applied, and the current payments are a
+ * projection of the journal: opening a ledger loads the newest snapshot and
+ * replays the events after it. The journal keeps the full history, such as each
+ * transaction ID tried and the original description of a refunded payment.
+ * A snapshot is written every {@code snapshotInterval} events, so a restart
+ * replays at most that many. The change that makes a snapshot due copies the
+ * payments under the lock and writes the copy after releasing it, so other
+ * changes never wait for snapshot I/O.
+ * Changes are serialized by the ledger; a durable ledger then waits for the
+ * journal to reach the disk, outside the lock, so concurrent callers share one
+ * sync. Reads take no lock.
+ * Payments returned by the ledger are live projection state and must only be
+ * changed through the ledger.
+ */
+public class PaymentLedger implements AutoCloseable {
+    /** Default number of events between snapshots. */
+    public static final long DEFAULT_SNAPSHOT_INTERVAL = 100_000;
+    private static final int SNAPSHOTS_KEPT = 2;
+
+    private final Path directory;
+    private final PaymentJournal journal;
+    private final long snapshotInterval;
+    private final boolean durable;
+    private final ConcurrentIntMap<Payment> payments = new ConcurrentIntMap<>();
+    private final List<Payment> paymentList = new ArrayList<>();
+    // Sequence of the newest snapshot taken; guarded by this
+    private long snapshotSequence;
+    private final Object snapshotWriteLock = new Object();
+    // Sequence of the newest snapshot on disk; guarded by snapshotWriteLock
+    private long writtenSnapshotSequence;
+    private final long replayedOnOpen;
+
+    /**
+     * Opens a durable ledger with the default segment size and snapshot interval.
+     * @param directory Directory holding the journal and snapshots
+     * @throws IOException if the ledger cannot be opened
+     */
+    public PaymentLedger(Path directory) throws IOException {
+        this(directory, PaymentJournal.DEFAULT_SEGMENT_SIZE, DEFAULT_SNAPSHOT_INTERVAL, true);
+    }
+
+    /**
+     * Opens a ledger, creating it if the directory is empty.
+     * @param directory Directory holding the journal and snapshots
+     * @param segmentSize Size of journal segment files in bytes
+     * @param snapshotInterval Events between snapshots
+     * @param durable Whether each change waits until it is on disk; if false, call {@link #sync()}
+     * @throws IOException if the ledger cannot be opened
+     */
+    public PaymentLedger(Path directory, int segmentSize, long snapshotInterval, boolean durable) throws IOException {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("snapshotInterval must be positive");
+        }
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+        this.durable = durable;
+        this.journal = new PaymentJournal(directory, segmentSize);
+        snapshotSequence = LedgerSnapshot.readLatest(directory, this::put);
+        writtenSnapshotSequence = snapshotSequence;
+        replayedOnOpen = journal.replay(snapshotSequence + 1, this::apply);
+    }
+
+    /**
+     * Records a new pending payment.
+     * @param paymentId Unique identifier for the payment
+     * @param memberId ID of the member making the payment
+     * @param amount Payment amount
+     * @param paymentMethod Method of payment
+     * @param description Payment description
+     * @param paymentDate Date of the payment
+     * @return The payment
+     * @throws IllegalStateException if the payment ID is taken
+     * @throws IOException if the event cannot be written
+     */
+    public Payment create(int paymentId, int memberId, Money amount, String paymentMethod, String description,
+                          LocalDate paymentDate) throws IOException {
+        PaymentEvent event = PaymentEvent.created(paymentId, memberId, amount, paymentMethod, description,
+                paymentDate);
+        long sequence;
+        Snapshot due;
+        synchronized (this) {
+            if (payments.containsKey(paymentId)) {
+                throw new IllegalStateException("Payment " + paymentId + " already exists");
+            }
+            sequence = journal.append(event);
+            apply(event);
+            due = takeSnapshotIfDue(sequence);
+        }
+        commit(sequence);
+        write(due);
+        return payments.get(paymentId);
+    }
+
+    /**
+     * Records a successful gateway transaction.
+     * @param paymentId ID of the payment
+     * @param transactionId ID from the payment gateway
+     * @return true if the payment was completed, false if its status does not allow it
+     * @throws IOException if the event cannot be written
+     */
+    public boolean process(int paymentId, String transactionId) throws IOException {
+        return change(PaymentEvent.processed(paymentId, transactionId), PaymentStatus.COMPLETED);
+    }
+
+    /**
+     * Records a failed attempt on a pending payment.
+     * @param paymentId ID of the payment
+     * @param reason Why the payment failed, e.g. the gateway's decline message
+     * @return true if the payment was pending and is now failed
+     * @throws IOException if the event cannot be written
+     */
+    public boolean fail(int paymentId, String reason) throws IOException {
+        return change(PaymentEvent.failed(paymentId, reason), PaymentStatus.FAILED);
+    }
+
+    /**
+     * Records a refund of a completed payment.
+     * @param paymentId ID of the payment
+     * @param reason Reason for the refund
+     * @return true if the payment was completed and is now refunded
+     * @throws IOException if the event cannot be written
+     */
+    public boolean refund(int paymentId, String reason) throws IOException {
+        return change(PaymentEvent.refunded(paymentId, reason), PaymentStatus.REFUNDED);
+    }
+
+    /**
+     * @param paymentId ID of the payment
+     * @return The payment's current state, or null if there is no such payment
+     */
+    public Payment get(int paymentId) {
+        return payments.get(paymentId);
+    }
+
+    public int size() {
+        return payments.size();
+    }
+
+    /**
+     * Reads a payment's history from the journal. Scans the whole journal; meant
+     * for audits and disputes, not hot paths.
+     * @param paymentId ID of the payment
+     * @return The payment's events, oldest first
+     * @throws IOException if the journal cannot be read
+     */
+    public List<PaymentEvent> getHistory(int paymentId) throws IOException {
+        List<PaymentEvent> history = new ArrayList<>();
+        journal.replay(1, event -> {
+            if (event.paymentId() == paymentId) {
+                history.add(event);
+            }
+        });
+        return history;
+    }
+
+    /**
+     * @return Sequence number of the last recorded event
+     */
+    public long getLastSequence() {
+        return journal.getLastSequence();
+    }
+
+    /**
+     * Writes a snapshot of every payment now, instead of waiting for the interval.
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void snapshot() throws IOException {
+        Snapshot snapshot = null;
+        synchronized (this) {
+            long sequence = journal.getLastSequence();
+            if (sequence > snapshotSequence) {
+                snapshot = takeSnapshot(sequence);
+            }
+        }
+        write(snapshot);
+    }
+
+    /**
+     * Makes every recorded change durable; needed only for a ledger that is not durable.
+     * @throws IOException if the journal cannot be forced
+     */
+    public void sync() throws IOException {
+        journal.sync();
+    }
+
+    @Override
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    /**
+     * @return Events replayed from the journal when the ledger was opened
+     */
+    long getReplayedOnOpen() {
+        return replayedOnOpen;
+    }
+
+    private boolean change(PaymentEvent event, PaymentStatus target) throws IOException {
+        long sequence;
+        Snapshot due;
+        synchronized (this) {
+            Payment payment = payments.get(event.paymentId());
+            if (payment == null) {
+                throw new IllegalArgumentException("Unknown payment: " + event.paymentId());
+            }
+            PaymentStatus status = payment.getPaymentStatus();
+            boolean allowed = switch (event.type()) {
+                case FAILED -> status == PaymentStatus.PENDING;
+                case REFUNDED -> status == PaymentStatus.COMPLETED;
+                default -> status.canTransitionTo(target);
+            };
+            if (!allowed) {
+                return false;
+            }
+            sequence = journal.append(event);
+            apply(event);
+            due = takeSnapshotIfDue(sequence);
+        }
+        commit(sequence);
+        write(due);
+        return true;
+    }
+
+    /**
+     * Applies an event to the projection, the same way whether it is new or replayed.
+     */
+    private void apply(PaymentEvent event) {
+        switch (event.type()) {
+            case CREATED -> put(new Payment(event.paymentId(), event.memberId(), event.getAmount(),
+                    event.paymentMethod(), event.detail(), event.getPaymentDate()));
+            case PROCESSED -> payments.get(event.paymentId()).processPayment(event.detail());
+            case FAILED -> payments.get(event.paymentId()).failPayment();
+            case REFUNDED -> payments.get(event.paymentId()).refundPayment(event.detail());
+        }
+    }
+
+    private void put(Payment payment) {
+        if (payments.put(payment.getPaymentId(), payment) == null) {
+            paymentList.add(payment);
+        }
+    }
+
+    private Snapshot takeSnapshotIfDue(long sequence) {
+        return sequence - snapshotSequence >= snapshotInterval ? takeSnapshot(sequence) : null;
+    }
+
+    /**
+     * Copies every payment as of the given sequence. Caller holds the ledger's monitor.
+     */
+    private Snapshot takeSnapshot(long sequence) {
+        List<Payment> copies = new ArrayList<>(paymentList.size());
+        for (Payment payment : paymentList) {
+            copies.add(LedgerSnapshot.copy(payment));
+        }
+        snapshotSequence = sequence;
+        return new Snapshot(sequence, copies);
+    }
+
+    /**
+     * Writes a snapshot once the journal is durable up to its sequence, unless a
+     * newer one was written meanwhile.
+     */
+    private void write(Snapshot snapshot) throws IOException {
+        if (snapshot == null) {
+            return;
+        }
+        journal.sync(snapshot.sequence());
+        synchronized (snapshotWriteLock) {
+            if (snapshot.sequence() > writtenSnapshotSequence) {
+                LedgerSnapshot.write(directory, snapshot.sequence(), snapshot.payments(), snapshot.payments().size(),
+                        SNAPSHOTS_KEPT);
+                writtenSnapshotSequence = snapshot.sequence();
+            }
+        }
+    }
+
+    private void commit(long sequence) throws IOException {
+        if (durable) {
+            journal.sync(sequence);
+        }
+    }
+
+    /**
+     * Copies of every payment as of one journal sequence number.
+     * @param sequence Last event reflected in the payments
+     * @param payments The copied payments
+     */
+    private record Snapshot(long sequence, List<Payment> payments) {
+    }
+}
@@ -0,0 +1,281 @@
+package com.gdms.maintenance;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.EquipmentStatus;
+import com.gdms.util.IntEntityMap;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Maintenance queue of the equipment across all locations.
+ * Equipment is kept in date-ordered trees, one for the whole chain and one per
+ * location, keyed by next maintenance date and then equipment ID. Equipment
+ * reported out of order goes to separate repair trees and comes before any
+ * scheduled maintenance.
+ * The planner listens to the equipment it holds, so {@link Equipment#performMaintenance},
+ * {@link Equipment#reportIssue} and the setters update the queues before they
+ * return. Finding the next due items costs O(log n) plus the items returned;
+ * nothing scans the whole fleet.
+ * Thread-safe.
+ */
+public class MaintenancePlanner implements PropertyChangeListener {
+    private final IntEntityMap<Entry> entries = new IntEntityMap<>(Entry::equipmentId, 0);
+    private final Queue all = new Queue();
+    private final Map<String, Queue> byLocation = new HashMap<>();
+
+    /**
+     * A technician's stops for one day, grouped by location.
+     * @param technician Index of the technician, from 0
+     * @param stops Equipment to service, in visiting order
+     */
+    public record Route(int technician, List<Equipment> stops) {
+        /**
+         * @return Locations on the route, in visiting order
+         */
+        public List<String> locations() {
+            LinkedHashSet<String> locations = new LinkedHashSet<>();
+            for (Equipment stop : stops) {
+                locations.add(stop.getLocation());
+            }
+            return new ArrayList<>(locations);
+        }
+    }
+
+    /**
+     * Adds equipment to the queue.
+     * @param equipment Equipment to plan for
+     * @throws IllegalStateException if equipment with the same ID is already planned
+     */
+    public synchronized void add(Equipment equipment) {
+        if (entries.containsId(equipment.getEquipmentId())) {
+            throw new IllegalStateException("Equipment " + equipment.getEquipmentId() + " is already planned");
+        }
+        index(equipment);
+        equipment.addPropertyChangeListener(this);
+    }
+
+    /**
+     * Removes equipment from the queue.
+     * @param equipmentId ID of the equipment
+     * @return The removed equipment, or null if none was planned
+     */
+    public synchronized Equipment remove(int equipmentId) {
+        Entry entry = entries.remove(equipmentId);
+        if (entry == null) {
+            return null;
+        }
+        unindex(entry);
+        entry.equipment.removePropertyChangeListener(this);
+        return entry.equipment;
+    }
+
+    /**
+     * Finds the equipment at a location that needs a technician next: repairs first,
+     * then scheduled maintenance by date.
+     * @param location Location in the gym
+     * @param limit Maximum number of items
+     * @return Up to limit items, most urgent first
+     */
+    public synchronized List<Equipment> getNextDue(String location, int limit) {
+        List<Equipment> result = new ArrayList<>(Math.min(limit, 64));
+        Queue queue = byLocation.get(location);
+        if (queue != null) {
+            queue.collect(Long.MAX_VALUE, limit, result);
+        }
+        return result;
+    }
+
+    /**
+     * Finds all equipment due for maintenance on a day, including maintenance that is
+     * overdue and equipment reported out of order.
+     * @param day Date to evaluate against
+     * @return Due equipment, repairs first, then by maintenance date
+     */
+    public synchronized List<Equipment> getDue(LocalDate day) {
+        List<Equipment> result = new ArrayList<>();
+        all.collect(dueKey(day.toEpochDay(), Integer.MAX_VALUE), Integer.MAX_VALUE, result);
+        return result;
+    }
+
+    /**
+     * Splits the most urgent work due on a day between technicians. Each technician
+     * gets an equal share, give or take one stop, and the stops are grouped by
+     * location so a route crosses as few locations as possible. Work that does not
+     * fit into the day is left for later.
+     * @param day Day to plan
+     * @param technicians Number of technicians on duty
+     * @param stopsPerTechnician Maximum stops one technician can handle in a day
+     * @return One route per technician; routes may be empty
+     */
+    public List<Route> planRoutes(LocalDate day, int technicians, int stopsPerTechnician) {
+        if (technicians < 1 || stopsPerTechnician < 1) {
+            throw new IllegalArgumentException("Need at least one technician and one stop per technician");
+        }
+        List<Equipment> due = new ArrayList<>();
+        synchronized (this) {
+            all.collect(dueKey(day.toEpochDay(), Integer.MAX_VALUE),
+                    (int) Math.min(Integer.MAX_VALUE, (long) technicians * stopsPerTechnician), due);
+        }
+
+        // Locations in order of their most urgent item
+        Map<String, List<Equipment>> byStopLocation = new LinkedHashMap<>();
+        for (Equipment equipment : due) {
+            byStopLocation.computeIfAbsent(equipment.getLocation(), location -> new ArrayList<>()).add(equipment);
+        }
+        List<Equipment> stops = new ArrayList<>(due.size());
+        byStopLocation.values().forEach(stops::addAll);
+
+        List<Route> routes = new ArrayList<>(technicians);
+        int base = stops.size() / technicians;
+        int extra = stops.size() % technicians;
+        int from = 0;
+        for (int technician = 0; technician < technicians; technician++) {
+            int to = from + base + (technician < extra ? 1 : 0);
+            routes.add(new Route(technician, List.copyOf(stops.subList(from, to))));
+            from = to;
+        }
+        return routes;
+    }
+
+    /**
+     * @return Locations with planned equipment, sorted, with no location last
+     */
+    public synchronized List<String> getLocations() {
+        List<String> locations = new ArrayList<>(byLocation.keySet());
+        locations.sort(Comparator.nullsLast(Comparator.naturalOrder()));
+        return locations;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void propertyChange(PropertyChangeEvent event) {
+        if (!(event.getSource() instanceof Equipment equipment)) {
+            return;
+        }
+        switch (event.getPropertyName()) {
+            case Equipment.PROPERTY_STATUS, Equipment.PROPERTY_NEXT_MAINTENANCE_DATE, Equipment.PROPERTY_LOCATION -> {
+                synchronized (this) {
+                    Entry entry = entries.get(equipment.getEquipmentId());
+                    if (entry != null && entry.equipment == equipment) {
+                        unindex(entry);
+                        index(equipment);
+                    }
+                }
+            }
+            default -> {
+                // Does not affect the schedule
+            }
+        }
+    }
+
+    /**
+     * Indexes equipment from its current fields. The entry keeps the keys it was
+     * filed under, so it can be removed again whatever the equipment looks like by then.
+     */
+    private void index(Equipment equipment) {
+        LocalDate next = equipment.getNextMaintenanceDate();
+        boolean repair = equipment.getEquipmentStatus() == EquipmentStatus.OUT_OF_ORDER;
+        // Repairs without a maintenance date still need a key; they sort last
+        long key = dueKey(next == null ? Integer.MAX_VALUE : next.toEpochDay(), equipment.getEquipmentId());
+        Entry entry = new Entry(equipment, equipment.getLocation(), key, next != null, repair);
+        entries.put(entry);
+        if (entry.queued()) {
+            all.add(entry);
+            byLocation.computeIfAbsent(entry.location, location -> new Queue()).add(entry);
+        }
+    }
+
+    private void unindex(Entry entry) {
+        if (!entry.queued()) {
+            return;
+        }
+        all.remove(entry);
+        Queue queue = byLocation.get(entry.location);
+        queue.remove(entry);
+        if (queue.isEmpty()) {
+            byLocation.remove(entry.location);
+        }
+    }
+
+    /**
+     * Orders entries by maintenance date, then by equipment ID (flipped so negative IDs sort first).
+     * Epoch days are clamped to the int range, which covers every realistic date.
+     */
+    private static long dueKey(long epochDay, int equipmentId) {
+        long day = Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, epochDay));
+        return (day << 32) | ((equipmentId ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param scheduled Whether the equipment has a next maintenance date
+     */
+    private record Entry(Equipment equipment, String location, long key, boolean scheduled, boolean repair) {
+        int equipmentId() {
+            return equipment.getEquipmentId();
+        }
+
+        /**
+         * @return Whether the entry is filed in the queues; equipment that is neither broken nor scheduled is not
+         */
+        boolean queued() {
+            return repair || scheduled;
+        }
+    }
+
+    /**
+     * Repairs and scheduled maintenance of one location, or of the whole chain.
+     * Repairs are keyed by date too, so the longest-standing ones come first.
+     */
+    private static final class Queue {
+        final NavigableMap<Long, Equipment> repairs = new TreeMap<>();
+        final NavigableMap<Long, Equipment> scheduled = new TreeMap<>();
+
+        void add(Entry entry) {
+            if (entry.repair) {
+                repairs.put(entry.key, entry.equipment);
+            } else if (entry.scheduled) {
+                scheduled.put(entry.key, entry.equipment);
+            }
+        }
+
+        void remove(Entry entry) {
+            if (entry.repair) {
+                repairs.remove(entry.key);
+            } else if (entry.scheduled) {
+                scheduled.remove(entry.key);
+            }
+        }
+
+        boolean isEmpty() {
+            return repairs.isEmpty() && scheduled.isEmpty();
+        }
+
+        /**
+         * Adds all repairs, then scheduled items with keys up to a bound, until the limit is reached.
+         */
+        void collect(long maxKey, int limit, List<Equipment> result) {
+            collect(repairs.values().iterator(), limit, result);
+            collect(scheduled.headMap(maxKey, true).values().iterator(), limit, result);
+        }
+
+        private static void collect(Iterator<Equipment> items, int limit, List<Equipment> result) {
+            while (result.size() < limit && items.hasNext()) {
+                result.add(items.next());
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.gdms.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count, e.g. of payment transitions.
+ * Increments go to a {@link LongAdder}, so threads counting at the same time
+ * update separate cells instead of contending on one word.
+ */
+public final class Counter implements Meter {
+    private final String name;
+    private final String help;
+    private final String labelName;
+    private final String labelValue;
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name, String help, String labelName, String labelValue) {
+        this.name = name;
+        this.help = help;
+        this.labelName = labelName;
+        this.labelValue = labelValue;
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * @param amount Amount to add; must not be negative
+     */
+    public void add(long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("amount must not be negative");
+        }
+        count.add(amount);
+    }
+
+    /**
+     * @return Total counted so far
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getHelp() {
+        return help;
+    }
+
+    @Override
+    public String getLabelName() {
+        return labelName;
+    }
+
+    @Override
+    public String getLabelValue() {
+        return labelValue;
+    }
+}
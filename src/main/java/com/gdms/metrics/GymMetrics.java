@@ -0,0 +1,52 @@
+package com.gdms.metrics;
+
+/**
+ * Meters the gym's own classes record into, all in the default registry.
+ * Keeping them in one place documents what is measured and keeps metric names
+ * consistent; the recording sites hold the meters in static fields, so
+ * recording never looks anything up by name.
+ */
+public final class GymMetrics {
+    private static final MetricRegistry REGISTRY = MetricRegistry.getDefault();
+
+    /** Time spent verifying a member's password with BCrypt. */
+    public static final Timer AUTHENTICATION = REGISTRY.timer("gdms_member_authenticate_seconds",
+            "Time spent verifying a member's password.");
+
+    /** Password checks that did not match. */
+    public static final Counter AUTHENTICATION_FAILURES = REGISTRY.counter("gdms_member_authenticate_failures_total",
+            "Password checks that did not match.");
+
+    /** Time spent in the hashing service's workers, by operation ("encode" or "verify"). */
+    public static final MeterFamily<Timer> PASSWORD_HASHING = REGISTRY.timerFamily("gdms_password_hashing_seconds",
+            "Time spent hashing or verifying passwords on the hashing service.", "operation");
+
+    /** Payment status transitions, by the status moved to. */
+    public static final MeterFamily<Counter> PAYMENT_TRANSITIONS = REGISTRY.counterFamily(
+            "gdms_payment_transitions_total", "Payment status transitions, by the status moved to.", "status");
+
+    /** Payment transitions refused because the current status did not allow them, by the status requested. */
+    public static final MeterFamily<Counter> PAYMENT_TRANSITIONS_REJECTED = REGISTRY.counterFamily(
+            "gdms_payment_transitions_rejected_total",
+            "Payment transitions refused by the current status, by the status requested.", "status");
+
+    /** Time spent rendering a receipt with Payment.generateReceipt. */
+    public static final Timer RECEIPT_RENDERING = REGISTRY.timer("gdms_receipt_render_seconds",
+            "Time spent rendering a payment receipt.");
+
+    /** Time spent writing a batch of receipts with ReceiptWriter.writeAll. */
+    public static final Timer RECEIPT_WRITING = REGISTRY.timer("gdms_receipt_write_seconds",
+            "Time spent writing a batch of payment receipts.");
+
+    /** Equipment issues reported, by equipment location. */
+    public static final MeterFamily<Counter> EQUIPMENT_ISSUES = REGISTRY.counterFamily(
+            "gdms_equipment_issues_total", "Equipment issues reported, by equipment location.", "location");
+
+    /** Maintenance performed on equipment, by equipment location. */
+    public static final MeterFamily<Counter> EQUIPMENT_MAINTENANCE = REGISTRY.counterFamily(
+            "gdms_equipment_maintenance_total", "Maintenance performed on equipment, by equipment location.",
+            "location");
+
+    private GymMetrics() {
+    }
+}
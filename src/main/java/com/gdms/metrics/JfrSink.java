@@ -0,0 +1,72 @@
+package com.gdms.metrics;
+
+import java.util.Objects;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Writes meters as "com.gdms.Metric" JFR events, one per meter, so recordings
+ * show counts and latency percentiles next to GC and thread activity.
+ * <p>
+ * {@link #periodic(MetricRegistry)} hooks the export into JFR's periodic events:
+ * JFR then calls it at the event's configured period (10 s by default) only
+ * while a recording has the event enabled, and not at all otherwise.
+ */
+public final class JfrSink implements MetricsSink, AutoCloseable {
+    private final Runnable hook;
+
+    /**
+     * Creates a sink that writes events only when exported to.
+     */
+    public JfrSink() {
+        this.hook = null;
+    }
+
+    private JfrSink(MetricRegistry registry) {
+        this.hook = () -> export(registry);
+        FlightRecorder.addPeriodicEvent(MetricEvent.class, hook);
+    }
+
+    /**
+     * Creates a sink that JFR exports the registry to at the event's period.
+     * @param registry Registry to export
+     * @return The sink; closing it removes the hook
+     */
+    public static JfrSink periodic(MetricRegistry registry) {
+        return new JfrSink(Objects.requireNonNull(registry, "registry"));
+    }
+
+    @Override
+    public void export(MetricRegistry registry) {
+        if (!new MetricEvent().isEnabled()) {
+            return;
+        }
+        for (Meter meter : registry.getMeters()) {
+            MetricEvent event = new MetricEvent();
+            event.name = meter.getName();
+            event.label = meter.getLabelName() == null ? "" : meter.getLabelName() + "=" + meter.getLabelValue();
+            if (meter instanceof Counter counter) {
+                event.count = counter.getCount();
+            } else if (meter instanceof Timer timer) {
+                Timer.Snapshot snapshot = timer.snapshot();
+                event.count = snapshot.count();
+                event.totalTime = snapshot.totalNanos();
+                event.median = snapshot.getValueAtQuantile(0.5);
+                event.p99 = snapshot.getValueAtQuantile(0.99);
+                event.max = snapshot.getMax();
+            }
+            event.commit();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (hook != null) {
+            FlightRecorder.removePeriodicEvent(hook);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JfrSink";
+    }
+}
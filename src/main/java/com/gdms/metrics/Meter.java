@@ -0,0 +1,29 @@
+package com.gdms.metrics;
+
+/**
+ * A named measurement kept by a {@link MetricRegistry}.
+ * A meter belongs to a family when its label is set; all meters of a family
+ * share the family's name and help text and differ only in the label value.
+ */
+public sealed interface Meter permits Counter, Timer {
+
+    /**
+     * @return Metric name in Prometheus syntax, e.g. "gdms_member_authenticate_seconds"
+     */
+    String getName();
+
+    /**
+     * @return One-line description of what is measured
+     */
+    String getHelp();
+
+    /**
+     * @return Name of the label, or null for a meter outside a family
+     */
+    String getLabelName();
+
+    /**
+     * @return Value of the label, or null for a meter outside a family
+     */
+    String getLabelValue();
+}
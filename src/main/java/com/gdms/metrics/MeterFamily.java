@@ -0,0 +1,80 @@
+package com.gdms.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Meters that share a name and are told apart by the value of one label,
+ * e.g. equipment issues per location.
+ * Looking up a meter that already exists is one hash lookup and does not
+ * allocate; callers with a fixed set of label values can resolve their meters
+ * once and keep them. Every distinct value creates a meter that lives as long as
+ * the family, so label values must come from a bounded set.
+ * @param <M> Type of meter in the family
+ */
+public final class MeterFamily<M extends Meter> {
+    private final String name;
+    private final String help;
+    private final String labelName;
+    private final Factory<M> factory;
+    private final Map<String, M> meters = new ConcurrentHashMap<>();
+
+    MeterFamily(String name, String help, String labelName, Factory<M> factory) {
+        this.name = name;
+        this.help = help;
+        this.labelName = labelName;
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the meter for a label value, creating it on first use.
+     * @param labelValue Label value; null is recorded as an empty value
+     * @return The meter for the value
+     */
+    public M labels(String labelValue) {
+        String value = labelValue == null ? "" : labelValue;
+        M meter = meters.get(value);
+        if (meter == null) {
+            meter = meters.computeIfAbsent(value, v -> factory.create(name, help, labelName, v));
+        }
+        return meter;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    public String getLabelName() {
+        return labelName;
+    }
+
+    /**
+     * @return The family's meters ordered by label value
+     */
+    public List<M> getMeters() {
+        List<M> result = new ArrayList<>(meters.values());
+        result.sort(Comparator.comparing(Meter::getLabelValue));
+        return result;
+    }
+
+    boolean holds(Class<? extends Meter> type) {
+        return factory.type() == type;
+    }
+
+    /**
+     * Creates the meters of a family.
+     * @param <M> Type of meter created
+     */
+    interface Factory<M extends Meter> {
+        M create(String name, String help, String labelName, String labelValue);
+
+        Class<M> type();
+    }
+}
@@ -0,0 +1,48 @@
+package com.gdms.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event carrying the value of one meter, written by {@link JfrSink}.
+ * Timer fields are zero for counters.
+ */
+@Name("com.gdms.Metric")
+@Label("Metric")
+@Category({"GDMS", "Metrics"})
+@Description("Current value of a counter or timer")
+@Period("10 s")
+@StackTrace(false)
+final class MetricEvent extends Event {
+    @Label("Name")
+    String name;
+
+    @Label("Label")
+    @Description("Label of a meter in a family as name=value, or empty")
+    String label;
+
+    @Label("Count")
+    long count;
+
+    @Label("Total Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long totalTime;
+
+    @Label("Median")
+    @Timespan(Timespan.NANOSECONDS)
+    long median;
+
+    @Label("99th Percentile")
+    @Timespan(Timespan.NANOSECONDS)
+    long p99;
+
+    @Label("Maximum")
+    @Timespan(Timespan.NANOSECONDS)
+    long max;
+}
@@ -0,0 +1,141 @@
+package com.gdms.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Named counters and timers, and families of them, for export to a {@link MetricsSink}.
+ * Registering a name that already exists returns the existing meter, so
+ * independent callers can share one without coordinating; registering it as a
+ * different kind of meter fails. The model classes record into the process-wide
+ * default registry through {@link GymMetrics}.
+ */
+public final class MetricRegistry {
+    private static final MetricRegistry DEFAULT = new MetricRegistry();
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+    private static final Pattern LABEL_NAME = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+    private static final MeterFamily.Factory<Counter> COUNTERS = new MeterFamily.Factory<>() {
+        @Override
+        public Counter create(String name, String help, String labelName, String labelValue) {
+            return new Counter(name, help, labelName, labelValue);
+        }
+
+        @Override
+        public Class<Counter> type() {
+            return Counter.class;
+        }
+    };
+    private static final MeterFamily.Factory<Timer> TIMERS = new MeterFamily.Factory<>() {
+        @Override
+        public Timer create(String name, String help, String labelName, String labelValue) {
+            return new Timer(name, help, labelName, labelValue);
+        }
+
+        @Override
+        public Class<Timer> type() {
+            return Timer.class;
+        }
+    };
+
+    // Values are meters or meter families; sorted so exports are stable
+    private final ConcurrentNavigableMap<String, Object> metrics = new ConcurrentSkipListMap<>();
+
+    /**
+     * @return The process-wide registry
+     */
+    public static MetricRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Registers a counter, or returns the one already registered under the name.
+     * @param name Metric name, by convention ending in "_total"
+     * @param help One-line description
+     * @return The counter
+     */
+    public Counter counter(String name, String help) {
+        return register(name, help, COUNTERS);
+    }
+
+    /**
+     * Registers a timer, or returns the one already registered under the name.
+     * @param name Metric name, by convention ending in "_seconds"
+     * @param help One-line description
+     * @return The timer
+     */
+    public Timer timer(String name, String help) {
+        return register(name, help, TIMERS);
+    }
+
+    /**
+     * Registers a family of counters, or returns the one already registered under the name.
+     * @param name Metric name, by convention ending in "_total"
+     * @param help One-line description
+     * @param labelName Name of the label telling the counters apart
+     * @return The family
+     */
+    public MeterFamily<Counter> counterFamily(String name, String help, String labelName) {
+        return registerFamily(name, help, labelName, COUNTERS);
+    }
+
+    /**
+     * Registers a family of timers, or returns the one already registered under the name.
+     * @param name Metric name, by convention ending in "_seconds"
+     * @param help One-line description
+     * @param labelName Name of the label telling the timers apart
+     * @return The family
+     */
+    public MeterFamily<Timer> timerFamily(String name, String help, String labelName) {
+        return registerFamily(name, help, labelName, TIMERS);
+    }
+
+    /**
+     * @return Every meter, ordered by name and then label value
+     */
+    public List<Meter> getMeters() {
+        List<Meter> meters = new ArrayList<>();
+        for (Object metric : metrics.values()) {
+            if (metric instanceof MeterFamily<?> family) {
+                meters.addAll(family.getMeters());
+            } else {
+                meters.add((Meter) metric);
+            }
+        }
+        return meters;
+    }
+
+    private <M extends Meter> M register(String name, String help, MeterFamily.Factory<M> factory) {
+        checkName(name, help);
+        Object metric = metrics.computeIfAbsent(name, n -> factory.create(n, help, null, null));
+        if (metric.getClass() != factory.type()) {
+            throw new IllegalArgumentException(name + " is already registered as a different metric");
+        }
+        return factory.type().cast(metric);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <M extends Meter> MeterFamily<M> registerFamily(String name, String help, String labelName,
+                                                            MeterFamily.Factory<M> factory) {
+        checkName(name, help);
+        if (!LABEL_NAME.matcher(Objects.requireNonNull(labelName, "labelName")).matches()) {
+            throw new IllegalArgumentException("Invalid label name: " + labelName);
+        }
+        Object metric = metrics.computeIfAbsent(name, n -> new MeterFamily<>(n, help, labelName, factory));
+        if (!(metric instanceof MeterFamily<?> family) || !family.holds(factory.type())
+                || !family.getLabelName().equals(labelName)) {
+            throw new IllegalArgumentException(name + " is already registered as a different metric");
+        }
+        return (MeterFamily<M>) family;
+    }
+
+    private static void checkName(String name, String help) {
+        if (!NAME.matcher(Objects.requireNonNull(name, "name")).matches()) {
+            throw new IllegalArgumentException("Invalid metric name: " + name);
+        }
+        Objects.requireNonNull(help, "help");
+    }
+}
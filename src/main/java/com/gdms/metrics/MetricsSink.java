@@ -0,0 +1,42 @@
+package com.gdms.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Destination that the meters of a registry are exported to.
+ * Exports read the meters' current values and never block recording.
+ */
+public interface MetricsSink {
+
+    /**
+     * Exports the current value of every meter in the registry.
+     * @param registry Registry to export
+     * @throws IOException if the sink cannot be written
+     */
+    void export(MetricRegistry registry) throws IOException;
+
+    /**
+     * Exports the registry at a fixed interval on the given executor.
+     * A failed export is logged and retried on the next run.
+     * @param registry Registry to export
+     * @param executor Executor that runs the exports
+     * @param period Interval between exports
+     * @param unit Unit of the interval
+     * @return Handle for cancelling the exports
+     */
+    default ScheduledFuture<?> schedule(MetricRegistry registry, ScheduledExecutorService executor, long period,
+                                        TimeUnit unit) {
+        return executor.scheduleAtFixedRate(() -> {
+            try {
+                export(registry);
+            } catch (IOException | RuntimeException e) {
+                // Keep the schedule alive; the next export carries the same counts
+                LoggerFactory.getLogger(MetricsSink.class).warn("Metrics export to {} failed", this, e);
+            }
+        }, period, period, unit);
+    }
+}
@@ -0,0 +1,142 @@
+package com.gdms.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+
+/**
+ * Writes meters in the Prometheus text exposition format (version 0.0.4).
+ * Counters are exported as counters and timers as summaries in seconds, with
+ * the 0.5, 0.9, 0.99 and 0.999 quantiles, "_sum" and "_count".
+ * <p>
+ * As a sink, it replaces a file atomically on every export, which suits the
+ * node exporter's textfile collector; an HTTP endpoint can serve
+ * {@link #scrape(MetricRegistry)} instead.
+ */
+public final class PrometheusSink implements MetricsSink {
+    /** Content type of the exposition format. */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.9", "0.99", "0.999"};
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final Path file;
+
+    /**
+     * Constructor for creating a sink that writes a file.
+     * @param file File replaced on every export, e.g. "/var/lib/node_exporter/gdms.prom"
+     */
+    public PrometheusSink(Path file) {
+        this.file = Objects.requireNonNull(file, "file");
+    }
+
+    @Override
+    public void export(MetricRegistry registry) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            write(registry, out);
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @param registry Registry to export
+     * @return The registry's meters in the exposition format
+     */
+    public static String scrape(MetricRegistry registry) {
+        StringBuilder out = new StringBuilder(4096);
+        try {
+            write(registry, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes the registry's meters in the exposition format.
+     * @param registry Registry to export
+     * @param out Destination
+     * @throws IOException if the destination cannot be written
+     */
+    public static void write(MetricRegistry registry, Appendable out) throws IOException {
+        String previous = null;
+        for (Meter meter : registry.getMeters()) {
+            String name = meter.getName();
+            if (!name.equals(previous)) {
+                out.append("# HELP ").append(name).append(' ');
+                appendEscaped(out, meter.getHelp(), false);
+                out.append("\n# TYPE ").append(name).append(meter instanceof Timer ? " summary\n" : " counter\n");
+                previous = name;
+            }
+            if (meter instanceof Counter counter) {
+                appendSample(out, name, "", meter, null, Long.toString(counter.getCount()));
+            } else if (meter instanceof Timer timer) {
+                Timer.Snapshot snapshot = timer.snapshot();
+                for (int i = 0; i < QUANTILES.length; i++) {
+                    appendSample(out, name, "", meter, QUANTILE_LABELS[i],
+                            seconds(snapshot.count() == 0 ? 0 : snapshot.getValueAtQuantile(QUANTILES[i])));
+                }
+                appendSample(out, name, "_sum", meter, null, seconds(snapshot.totalNanos()));
+                appendSample(out, name, "_count", meter, null, Long.toString(snapshot.count()));
+            }
+        }
+    }
+
+    private static void appendSample(Appendable out, String name, String suffix, Meter meter, String quantile,
+                                     String value) throws IOException {
+        out.append(name).append(suffix);
+        boolean labelled = meter.getLabelName() != null;
+        if (labelled || quantile != null) {
+            out.append('{');
+            if (labelled) {
+                out.append(meter.getLabelName()).append("=\"");
+                appendEscaped(out, meter.getLabelValue(), true);
+                out.append('"');
+            }
+            if (quantile != null) {
+                out.append(labelled ? ",quantile=\"" : "quantile=\"").append(quantile).append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / NANOS_PER_SECOND);
+    }
+
+    /**
+     * Escapes backslashes and line feeds, and in label values also double quotes.
+     */
+    private static void appendEscaped(Appendable out, String text, boolean labelValue) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                out.append("\\\\");
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else if (c == '"' && labelValue) {
+                out.append("\\\"");
+            } else {
+                out.append(c);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PrometheusSink[" + file + "]";
+    }
+}
@@ -1,37 +1,99 @@
 package com.gdms.model;
 
+import com.gdms.metrics.GymMetrics;
+import com.gdms.time.BusinessClock;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Represents gym equipment in the system.
  * Manages equipment details, status, and maintenance schedule.
+ * Equipment is read far more often than it changes, so it is kept in the second-level cache.
+ * Changes to status, location and the next maintenance date are published to
+ * property change listeners, so schedules can follow them.
+ * The mutable fields are volatile, and performMaintenance and reportIssue write
+ * the status last, so a thread that sees the new status also sees the dates and
+ * description written with it.
  */
-public class Equipment {
+@Entity
+@Table(name = "equipment", indexes = @Index(name = "ix_equipment_location", columnList = "location"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "equipment")
+public class Equipment extends ObservableModel {
+    public static final String PROPERTY_STATUS = "status";
+    public static final String PROPERTY_NEXT_MAINTENANCE_DATE = "nextMaintenanceDate";
+    public static final String PROPERTY_LOCATION = "location";
+
+    private static final VarHandle STATUS;
+
+    static {
+        try {
+            STATUS = MethodHandles.lookup().findVarHandle(Equipment.class, "status", EquipmentStatus.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Id
+    @Column(name = "equipment_id")
     private int equipmentId;
+
+    @Column(name = "name", nullable = false, length = 100)
     private String name;
-    private String status; // Available, In Use, Under Maintenance, Out of Order
-    private LocalDate lastMaintenanceDate;
-    private LocalDate nextMaintenanceDate;
-    private String location;
-    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private volatile EquipmentStatus status;
+
+    @Column(name = "last_maintenance_date")
+    private volatile LocalDate lastMaintenanceDate;
+
+    @Column(name = "next_maintenance_date")
+    private volatile LocalDate nextMaintenanceDate;
+
+    @Column(name = "location", length = 100)
+    private volatile String location;
+
+    @Column(name = "description", length = 500)
+    private volatile String description;
+
+    /**
+     * Constructor for the persistence provider.
+     */
+    protected Equipment() {
+    }
 
     /**
      * Constructor for creating new equipment.
      * @param equipmentId Unique identifier for the equipment
      * @param name Name of the equipment
-     * @param status Current status
+     * @param status Current status label (e.g., "Available", "In Use")
      * @param location Location in the gym
      * @param description Detailed description
      */
     public Equipment(int equipmentId, String name, String status, String location, String description) {
         this.equipmentId = equipmentId;
         this.name = name;
-        this.status = status;
+        this.status = EquipmentStatus.fromLabel(status);
         this.location = location;
         this.description = description;
-        this.lastMaintenanceDate = LocalDate.now();
-        this.nextMaintenanceDate = LocalDate.now().plusMonths(1); // Default maintenance interval
+        LocalDate today = BusinessClock.currentDate();
+        this.lastMaintenanceDate = today;
+        this.nextMaintenanceDate = today.plusMonths(1); // Default maintenance interval
     }
 
     // Getters and Setters
@@ -52,11 +114,55 @@ public class Equipment {
     }
 
     public String getStatus() {
-        return status;
+        return status.getLabel();
     }
 
+    /**
+     * Sets the status from its display label without checking the transition.
+     * @param status Label such as "Available" or "In Use"
+     */
     public void setStatus(String status) {
-        this.status = status;
+        setEquipmentStatus(EquipmentStatus.fromLabel(status));
+    }
+
+    public EquipmentStatus getEquipmentStatus() {
+        return status;
+    }
+
+    public void setEquipmentStatus(EquipmentStatus status) {
+        EquipmentStatus oldStatus = (EquipmentStatus) STATUS.getAndSet(this, Objects.requireNonNull(status, "status"));
+        firePropertyChange(PROPERTY_STATUS, oldStatus, status);
+    }
+
+    /**
+     * Atomically moves the equipment from an expected status to a new one.
+     * @param expected Status the equipment must currently have
+     * @param target Status to move to
+     * @return true if the equipment was in the expected status and the transition is allowed
+     */
+    public boolean compareAndSetStatus(EquipmentStatus expected, EquipmentStatus target) {
+        if (expected.canTransitionTo(target) && STATUS.compareAndSet(this, expected, target)) {
+            firePropertyChange(PROPERTY_STATUS, expected, target);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Atomically moves the equipment to a new status if the current status allows it.
+     * @param target Status to move to
+     * @return true if the transition happened
+     */
+    public boolean transitionTo(EquipmentStatus target) {
+        EquipmentStatus current;
+        do {
+            current = status;
+            if (!current.canTransitionTo(target)) {
+                return false;
+            }
+        } while (!STATUS.compareAndSet(this, current, target));
+        firePropertyChange(PROPERTY_STATUS, current, target);
+        return true;
     }
 
     public LocalDate getLastMaintenanceDate() {
@@ -72,7 +178,9 @@ public class Equipment {
     }
 
     public void setNextMaintenanceDate(LocalDate nextMaintenanceDate) {
+        LocalDate oldDate = this.nextMaintenanceDate;
         this.nextMaintenanceDate = nextMaintenanceDate;
+        firePropertyChange(PROPERTY_NEXT_MAINTENANCE_DATE, oldDate, nextMaintenanceDate);
     }
 
     public String getLocation() {
@@ -80,7 +188,9 @@ public class Equipment {
     }
 
     public void setLocation(String location) {
+        String oldLocation = this.location;
         this.location = location;
+        firePropertyChange(PROPERTY_LOCATION, oldLocation, location);
     }
 
     public String getDescription() {
@@ -96,9 +206,19 @@ public class Equipment {
      * @param nextMaintenanceInterval Number of months until next maintenance
      */
     public void performMaintenance(int nextMaintenanceInterval) {
-        this.lastMaintenanceDate = LocalDate.now();
-        this.nextMaintenanceDate = LocalDate.now().plusMonths(nextMaintenanceInterval);
-        this.status = "Available";
+        performMaintenance(nextMaintenanceInterval, BusinessClock.currentDate());
+    }
+
+    /**
+     * Records maintenance performed on the given date.
+     * @param nextMaintenanceInterval Number of months until next maintenance
+     * @param today Date the maintenance was performed
+     */
+    public void performMaintenance(int nextMaintenanceInterval, LocalDate today) {
+        this.lastMaintenanceDate = today;
+        setNextMaintenanceDate(today.plusMonths(nextMaintenanceInterval));
+        setEquipmentStatus(EquipmentStatus.AVAILABLE);
+        GymMetrics.EQUIPMENT_MAINTENANCE.labels(location).increment();
     }
 
     /**
@@ -106,8 +226,32 @@ public class Equipment {
      * @return true if maintenance is due, false otherwise
      */
     public boolean isMaintenanceDue() {
-        return LocalDate.now().isAfter(nextMaintenanceDate) || 
-               LocalDate.now().isEqual(nextMaintenanceDate);
+        return isMaintenanceDue(BusinessClock.currentDate());
+    }
+
+    /**
+     * Checks if maintenance is due on the given date.
+     * @param today Date to evaluate against
+     * @return true if maintenance is due, false otherwise
+     */
+    public boolean isMaintenanceDue(LocalDate today) {
+        return !today.isBefore(nextMaintenanceDate);
+    }
+
+    /**
+     * Finds the equipment due for maintenance, reading the date once for the whole batch.
+     * @param equipment Equipment to check
+     * @param today Date to evaluate against
+     * @return Equipment whose maintenance is due
+     */
+    public static List<Equipment> findMaintenanceDue(Iterable<Equipment> equipment, LocalDate today) {
+        List<Equipment> due = new ArrayList<>();
+        for (Equipment item : equipment) {
+            if (item.isMaintenanceDue(today)) {
+                due.add(item);
+            }
+        }
+        return due;
     }
 
     /**
@@ -115,8 +259,9 @@ public class Equipment {
      * @param issue Description of the issue
      */
     public void reportIssue(String issue) {
-        this.status = "Out of Order";
         this.description = issue;
+        setEquipmentStatus(EquipmentStatus.OUT_OF_ORDER);
+        GymMetrics.EQUIPMENT_ISSUES.labels(location).increment();
     }
 
     @Override
@@ -128,7 +273,7 @@ public class Equipment {
 
     @Override
     public int hashCode() {
-        return Objects.hash(equipmentId);
+        return Integer.hashCode(equipmentId);
     }
 
     @Override
@@ -136,7 +281,7 @@ public class Equipment {
         return "Equipment{" +
                 "equipmentId=" + equipmentId +
                 ", name='" + name + '\'' +
-                ", status='" + status + '\'' +
+                ", status='" + status.getLabel() + '\'' +
                 ", location='" + location + '\'' +
                 ", lastMaintenanceDate=" + lastMaintenanceDate +
                 ", nextMaintenanceDate=" + nextMaintenanceDate +
@@ -0,0 +1,81 @@
+package com.gdms.model;
+
+/**
+ * Operational states of a piece of equipment and the transitions allowed between them.
+ * The ordinal doubles as a compact one-byte code for columnar storage.
+ */
+public enum EquipmentStatus {
+    AVAILABLE("Available"),
+    IN_USE("In Use"),
+    UNDER_MAINTENANCE("Under Maintenance"),
+    OUT_OF_ORDER("Out of Order");
+
+    private static final EquipmentStatus[] VALUES = values();
+
+    static {
+        AVAILABLE.allow(IN_USE, UNDER_MAINTENANCE, OUT_OF_ORDER);
+        IN_USE.allow(AVAILABLE, UNDER_MAINTENANCE, OUT_OF_ORDER);
+        UNDER_MAINTENANCE.allow(AVAILABLE, OUT_OF_ORDER);
+        OUT_OF_ORDER.allow(AVAILABLE, UNDER_MAINTENANCE);
+    }
+
+    private final String label;
+    private int allowedTargets;
+
+    EquipmentStatus(String label) {
+        this.label = label;
+    }
+
+    private void allow(EquipmentStatus... targets) {
+        for (EquipmentStatus target : targets) {
+            allowedTargets |= 1 << target.ordinal();
+        }
+    }
+
+    /**
+     * @return Display label used by the String-based getters and setters
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return One-byte code of this status
+     */
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * Checks whether equipment may move from this status to another.
+     * @param target Proposed next status
+     * @return true if the transition is allowed
+     */
+    public boolean canTransitionTo(EquipmentStatus target) {
+        return (allowedTargets & (1 << target.ordinal())) != 0;
+    }
+
+    /**
+     * Decodes a status from its one-byte code.
+     * @param code Code returned by {@link #code()}
+     * @return The matching status
+     */
+    public static EquipmentStatus fromCode(byte code) {
+        return VALUES[code];
+    }
+
+    /**
+     * Parses a status from its display label.
+     * @param label Label such as "Available" or "Out of Order"
+     * @return The matching status
+     * @throws IllegalArgumentException if the label is unknown
+     */
+    public static EquipmentStatus fromLabel(String label) {
+        for (EquipmentStatus status : VALUES) {
+            if (status.label.equals(label)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown equipment status: " + label);
+    }
+}
@@ -1,20 +1,50 @@
 package com.gdms.model;
 
+import com.gdms.metrics.GymMetrics;
+import com.gdms.security.PasswordHashingService;
+import com.gdms.security.VerifiedCredentialCache;
+import com.gdms.time.BusinessClock;
+import jakarta.persistence.Column;
+import jakarta.persistence.DiscriminatorValue;
+import jakarta.persistence.Entity;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 /**
  * Represents a gym member in the system.
  * Extends the User class and adds member-specific attributes and functionality.
  */
+@Entity
+@DiscriminatorValue("MEMBER")
 public class Member extends User {
+    public static final String PROPERTY_MEMBERSHIP_TYPE = "membershipType";
+    public static final String PROPERTY_MEMBERSHIP_START_DATE = "membershipStartDate";
+    public static final String PROPERTY_MEMBERSHIP_END_DATE = "membershipEndDate";
+
+    @Column(name = "membership_type", length = 32)
     private String membershipType;
+
+    @Column(name = "membership_start_date")
     private LocalDate membershipStartDate;
+
+    @Column(name = "membership_end_date")
     private LocalDate membershipEndDate;
+
     private static final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
+    /**
+     * Constructor for the persistence provider.
+     */
+    protected Member() {
+    }
+
     /**
      * Constructor for creating a new member.
+     * Hashes the password on the calling thread; bulk callers should use
+     * {@link #create} or {@link #withPasswordHash} instead.
      * @param userId Unique identifier for the member
      * @param name Full name of the member
      * @param email Email address
@@ -25,19 +55,66 @@ public class Member extends User {
      */
     public Member(int userId, String name, String email, String password,
                  String membershipType, LocalDate membershipStartDate, LocalDate membershipEndDate) {
-        super(userId, name, email, passwordEncoder.encode(password));
+        this(userId, name, email, membershipType, membershipStartDate, membershipEndDate,
+                passwordEncoder.encode(password));
+    }
+
+    private Member(int userId, String name, String email, String membershipType,
+                   LocalDate membershipStartDate, LocalDate membershipEndDate, String passwordHash) {
+        super(userId, name, email, passwordHash);
         this.membershipType = membershipType;
         this.membershipStartDate = membershipStartDate;
         this.membershipEndDate = membershipEndDate;
     }
 
+    /**
+     * Creates a member from a password that has already been hashed.
+     * @param userId Unique identifier for the member
+     * @param name Full name of the member
+     * @param email Email address
+     * @param passwordHash BCrypt hash of the password
+     * @param membershipType Type of membership (e.g., "Basic", "Premium")
+     * @param membershipStartDate Start date of membership
+     * @param membershipEndDate End date of membership
+     * @return The new member
+     */
+    public static Member withPasswordHash(int userId, String name, String email, String passwordHash,
+                                          String membershipType, LocalDate membershipStartDate,
+                                          LocalDate membershipEndDate) {
+        return new Member(userId, name, email, membershipType, membershipStartDate, membershipEndDate,
+                passwordHash);
+    }
+
+    /**
+     * Creates a member once its password has been hashed by the given service.
+     * @param userId Unique identifier for the member
+     * @param name Full name of the member
+     * @param email Email address
+     * @param password Plain-text password
+     * @param membershipType Type of membership (e.g., "Basic", "Premium")
+     * @param membershipStartDate Start date of membership
+     * @param membershipEndDate End date of membership
+     * @param hashingService Service that performs the hashing
+     * @return Future completed with the new member
+     */
+    public static CompletableFuture<Member> create(int userId, String name, String email, String password,
+                                                   String membershipType, LocalDate membershipStartDate,
+                                                   LocalDate membershipEndDate,
+                                                   PasswordHashingService hashingService) {
+        return hashingService.encode(password)
+                .thenApply(hash -> withPasswordHash(userId, name, email, hash,
+                        membershipType, membershipStartDate, membershipEndDate));
+    }
+
     // Getters and Setters
     public String getMembershipType() {
         return membershipType;
     }
 
     public void setMembershipType(String membershipType) {
+        String oldType = this.membershipType;
         this.membershipType = membershipType;
+        firePropertyChange(PROPERTY_MEMBERSHIP_TYPE, oldType, membershipType);
     }
 
     public LocalDate getMembershipStartDate() {
@@ -45,7 +122,9 @@ public class Member extends User {
     }
 
     public void setMembershipStartDate(LocalDate membershipStartDate) {
+        LocalDate oldStartDate = this.membershipStartDate;
         this.membershipStartDate = membershipStartDate;
+        firePropertyChange(PROPERTY_MEMBERSHIP_START_DATE, oldStartDate, membershipStartDate);
     }
 
     public LocalDate getMembershipEndDate() {
@@ -53,7 +132,9 @@ public class Member extends User {
     }
 
     public void setMembershipEndDate(LocalDate membershipEndDate) {
+        LocalDate oldEndDate = this.membershipEndDate;
         this.membershipEndDate = membershipEndDate;
+        firePropertyChange(PROPERTY_MEMBERSHIP_END_DATE, oldEndDate, membershipEndDate);
     }
 
     /**
@@ -61,7 +142,32 @@ public class Member extends User {
      * @return true if membership is active and not expired, false otherwise
      */
     public boolean isMembershipActive() {
-        return isActive() && LocalDate.now().isBefore(membershipEndDate);
+        return isMembershipActive(BusinessClock.currentDate());
+    }
+
+    /**
+     * Checks if the membership is active on the given date.
+     * @param today Date to evaluate against
+     * @return true if membership is active and not expired, false otherwise
+     */
+    public boolean isMembershipActive(LocalDate today) {
+        return isActive() && today.isBefore(membershipEndDate);
+    }
+
+    /**
+     * Finds the members with an active membership, reading the date once for the whole batch.
+     * @param members Members to check
+     * @param today Date to evaluate against
+     * @return Members whose membership is active
+     */
+    public static List<Member> findActiveMemberships(Iterable<Member> members, LocalDate today) {
+        List<Member> active = new ArrayList<>();
+        for (Member member : members) {
+            if (member.isMembershipActive(today)) {
+                active.add(member);
+            }
+        }
+        return active;
     }
 
     /**
@@ -69,17 +175,53 @@ public class Member extends User {
      * @param months Number of months to extend the membership
      */
     public void renewMembership(int months) {
-        if (membershipEndDate.isBefore(LocalDate.now())) {
-            membershipStartDate = LocalDate.now();
+        renewMembership(months, BusinessClock.currentDate());
+    }
+
+    /**
+     * Renews the membership as of the given date.
+     * @param months Number of months to extend the membership
+     * @param today Date of the renewal
+     */
+    public void renewMembership(int months, LocalDate today) {
+        if (membershipEndDate.isBefore(today)) {
+            setMembershipStartDate(today);
         } else {
-            membershipStartDate = membershipEndDate;
+            setMembershipStartDate(membershipEndDate);
         }
-        membershipEndDate = membershipStartDate.plusMonths(months);
+        setMembershipEndDate(membershipStartDate.plusMonths(months));
     }
 
     @Override
     public boolean authenticate(String password) {
-        return passwordEncoder.matches(password, getPassword());
+        long start = System.nanoTime();
+        boolean authenticated = passwordEncoder.matches(password, getPassword());
+        GymMetrics.AUTHENTICATION.recordSince(start);
+        if (!authenticated) {
+            GymMetrics.AUTHENTICATION_FAILURES.increment();
+        }
+        return authenticated;
+    }
+
+    /**
+     * Authenticates through a cache of recent successful verifications,
+     * falling back to a full BCrypt check on a miss.
+     * @param password The password to verify
+     * @param cache Cache of verified credentials
+     * @return true if authentication successful, false otherwise
+     */
+    public boolean authenticate(String password, VerifiedCredentialCache cache) {
+        return cache.verify(this, getPassword(), password, () -> authenticate(password));
+    }
+
+    /**
+     * Verifies the password on the hashing service's worker pool.
+     * @param password The password to verify
+     * @param hashingService Service that performs the verification
+     * @return Future completed with true if authentication succeeded
+     */
+    public CompletableFuture<Boolean> authenticateAsync(String password, PasswordHashingService hashingService) {
+        return hashingService.matches(password, getPassword());
     }
 
     @Override
@@ -0,0 +1,120 @@
+package com.gdms.model;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.util.Currency;
+import java.util.Objects;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Reference data for a membership type, keyed by the type name members carry
+ * (e.g., "Basic", "Premium"). Plans are immutable once stored; a price change is
+ * a new plan. They are read on every billing and signup, so they live in the
+ * read-only second-level cache.
+ */
+@Entity
+@Immutable
+@Table(name = "membership_plans")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "membership-plans")
+public class MembershipPlan {
+    @Id
+    @Column(name = "membership_type", length = 32)
+    private String membershipType;
+
+    @Column(name = "description", length = 255)
+    private String description;
+
+    @Column(name = "monthly_price_minor", nullable = false)
+    private long monthlyPriceMinor;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private Currency currency;
+
+    @Column(name = "is_active", nullable = false)
+    private boolean isActive;
+
+    /**
+     * Constructor for the persistence provider.
+     */
+    protected MembershipPlan() {
+    }
+
+    /**
+     * Constructor for creating a membership plan.
+     * @param membershipType Type of membership the plan describes (e.g., "Basic", "Premium")
+     * @param description Plan description
+     * @param monthlyPrice Price of one month of membership
+     */
+    public MembershipPlan(String membershipType, String description, Money monthlyPrice) {
+        this(membershipType, description, monthlyPrice, true);
+    }
+
+    /**
+     * Constructor for creating a membership plan that may be retired.
+     * @param membershipType Type of membership the plan describes (e.g., "Basic", "Premium")
+     * @param description Plan description
+     * @param monthlyPrice Price of one month of membership
+     * @param isActive false if the plan is no longer offered
+     */
+    public MembershipPlan(String membershipType, String description, Money monthlyPrice, boolean isActive) {
+        this.membershipType = Objects.requireNonNull(membershipType, "membershipType");
+        this.description = description;
+        this.monthlyPriceMinor = monthlyPrice.getMinorUnits();
+        this.currency = monthlyPrice.getCurrency();
+        this.isActive = isActive;
+    }
+
+    // Getters
+    public String getMembershipType() {
+        return membershipType;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Money getMonthlyPrice() {
+        return Money.ofMinor(monthlyPriceMinor, currency);
+    }
+
+    public boolean isActive() {
+        return isActive;
+    }
+
+    /**
+     * Calculates the price of a membership period.
+     * @param months Number of months
+     * @return Monthly price times the number of months
+     * @throws ArithmeticException on overflow
+     */
+    public Money priceFor(int months) {
+        return getMonthlyPrice().times(months);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MembershipPlan plan)) return false;
+        return membershipType.equals(plan.membershipType);
+    }
+
+    @Override
+    public int hashCode() {
+        return membershipType.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "MembershipPlan{" +
+                "membershipType='" + membershipType + '\'' +
+                ", monthlyPrice=" + getMonthlyPrice() +
+                ", isActive=" + isActive +
+                '}';
+    }
+}
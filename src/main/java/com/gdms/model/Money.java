@@ -0,0 +1,261 @@
+package com.gdms.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * Immutable amount of money held as a long count of minor units (e.g. cents)
+ * plus a currency. Arithmetic is exact and throws {@link ArithmeticException}
+ * on overflow instead of silently drifting like double sums do.
+ */
+public final class Money implements Comparable<Money> {
+    public static final Currency USD = Currency.getInstance("USD");
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L
+    };
+
+    private final long minorUnits;
+    private final Currency currency;
+
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
+        this.currency = Objects.requireNonNull(currency, "currency");
+    }
+
+    /**
+     * Creates an amount from minor units.
+     * @param minorUnits Amount in the currency's smallest unit (e.g. cents)
+     * @param currency Currency of the amount
+     * @return The amount
+     */
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    /**
+     * Creates an amount from minor units.
+     * @param minorUnits Amount in the currency's smallest unit (e.g. cents)
+     * @param currencyCode ISO 4217 currency code
+     * @return The amount
+     */
+    public static Money ofMinor(long minorUnits, String currencyCode) {
+        return new Money(minorUnits, Currency.getInstance(currencyCode));
+    }
+
+    /**
+     * Creates an amount from a decimal value.
+     * @param amount Amount in major units
+     * @param currency Currency of the amount
+     * @return The amount
+     * @throws ArithmeticException if the amount has more decimals than the currency allows
+     *         or does not fit in a long
+     */
+    public static Money of(BigDecimal amount, Currency currency) {
+        long minor = amount.movePointRight(fractionDigits(currency)).longValueExact();
+        return new Money(minor, currency);
+    }
+
+    /**
+     * Creates an amount from a double, rounding half-up to the currency's minor unit
+     * on the double's shortest decimal representation (so 99.99 becomes 9999 cents).
+     * @param amount Amount in major units
+     * @param currency Currency of the amount
+     * @return The amount
+     */
+    public static Money fromDouble(double amount, Currency currency) {
+        int digits = fractionDigits(currency);
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new ArithmeticException("Not a finite amount: " + amount);
+        }
+        double scaled = amount * POWERS_OF_TEN[digits];
+        long minor = Math.round(scaled);
+        // Fast path: the double already holds a whole number of minor units
+        if (Math.abs(minor) < (1L << 53) && (double) minor / POWERS_OF_TEN[digits] == amount) {
+            return new Money(minor, currency);
+        }
+        return new Money(BigDecimal.valueOf(amount).setScale(digits, RoundingMode.HALF_UP)
+                .unscaledValue().longValueExact(), currency);
+    }
+
+    /**
+     * Adds exactly.
+     * @param other Amount in the same currency
+     * @return The sum
+     * @throws ArithmeticException on overflow
+     * @throws IllegalArgumentException if the currencies differ
+     */
+    public Money plus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    /**
+     * Subtracts exactly.
+     * @param other Amount in the same currency
+     * @return The difference
+     * @throws ArithmeticException on overflow
+     * @throws IllegalArgumentException if the currencies differ
+     */
+    public Money minus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    /**
+     * Multiplies by a whole quantity exactly.
+     * @param quantity Factor (e.g. number of months)
+     * @return The product
+     * @throws ArithmeticException on overflow
+     */
+    public Money times(long quantity) {
+        return new Money(Math.multiplyExact(minorUnits, quantity), currency);
+    }
+
+    /**
+     * Multiplies by a decimal factor, rounding half-even to the minor unit.
+     * @param factor Factor (e.g. a discount rate)
+     * @return The product
+     * @throws ArithmeticException on overflow
+     */
+    public Money times(BigDecimal factor) {
+        long minor = BigDecimal.valueOf(minorUnits).multiply(factor)
+                .setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+        return new Money(minor, currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public String getCurrencyCode() {
+        return currency.getCurrencyCode();
+    }
+
+    public int getFractionDigits() {
+        return fractionDigits(currency);
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, fractionDigits(currency));
+    }
+
+    /**
+     * @return The nearest double; exact for every amount below 2^53 minor units
+     */
+    public double toDouble() {
+        return (double) minorUnits / POWERS_OF_TEN[fractionDigits(currency)];
+    }
+
+    /**
+     * Appends the amount as a plain decimal (e.g. "1234.50") without allocating.
+     * @param out Builder to append to
+     * @return The same builder
+     */
+    public StringBuilder appendTo(StringBuilder out) {
+        return appendMinorUnits(out, minorUnits, fractionDigits(currency));
+    }
+
+    /**
+     * Appends a minor-unit amount as a plain decimal without allocating.
+     * @param out Builder to append to
+     * @param minorUnits Amount in minor units
+     * @param fractionDigits Number of digits after the decimal point
+     * @return The same builder
+     */
+    public static StringBuilder appendMinorUnits(StringBuilder out, long minorUnits, int fractionDigits) {
+        if (fractionDigits == 0) {
+            return out.append(minorUnits);
+        }
+        long scale = POWERS_OF_TEN[fractionDigits];
+        if (minorUnits < 0) {
+            out.append('-');
+        }
+        // Work on the negative value so Long.MIN_VALUE needs no special case
+        long negative = minorUnits < 0 ? minorUnits : -minorUnits;
+        out.append(-(negative / scale));
+        out.append('.');
+        long fraction = -(negative % scale);
+        for (long limit = scale / 10; limit > 1 && fraction < limit; limit /= 10) {
+            out.append('0');
+        }
+        return out.append(fraction);
+    }
+
+    /**
+     * Sums minor-unit amounts exactly.
+     * @param minorUnits Amounts in minor units
+     * @param from First index to include
+     * @param to Index after the last one to include
+     * @return The total
+     * @throws ArithmeticException on overflow
+     */
+    public static long sumMinorUnits(long[] minorUnits, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total = Math.addExact(total, minorUnits[i]);
+        }
+        return total;
+    }
+
+    /**
+     * @return Number of minor-unit digits of the currency (0 for currencies without minor units)
+     */
+    public static int fractionDigits(Currency currency) {
+        return Math.max(0, currency.getDefaultFractionDigits());
+    }
+
+    private void checkCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        checkCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money money)) return false;
+        return minorUnits == money.minorUnits && currency.equals(money.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minorUnits) + currency.hashCode();
+    }
+
+    /**
+     * @return Plain decimal amount, e.g. "99.99"
+     */
+    public String toPlainString() {
+        return appendTo(new StringBuilder(24)).toString();
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(28)).append(' ').append(currency.getCurrencyCode()).toString();
+    }
+}
@@ -0,0 +1,66 @@
+package com.gdms.model;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+
+/**
+ * Base class for model objects that publish property changes.
+ * Listener support is created lazily so objects nobody observes carry a single null field.
+ */
+public abstract class ObservableModel {
+    private transient volatile PropertyChangeSupport changeSupport;
+
+    /**
+     * Registers a listener for all property changes of this object.
+     * @param listener Listener to add
+     */
+    public void addPropertyChangeListener(PropertyChangeListener listener) {
+        PropertyChangeSupport support = changeSupport;
+        if (support == null) {
+            synchronized (this) {
+                support = changeSupport;
+                if (support == null) {
+                    support = new PropertyChangeSupport(this);
+                    changeSupport = support;
+                }
+            }
+        }
+        support.addPropertyChangeListener(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     * @param listener Listener to remove
+     */
+    public void removePropertyChangeListener(PropertyChangeListener listener) {
+        PropertyChangeSupport support = changeSupport;
+        if (support != null) {
+            support.removePropertyChangeListener(listener);
+        }
+    }
+
+    /**
+     * Notifies listeners of a property change. Does nothing if the values are equal
+     * or nobody is listening.
+     * @param property Name of the changed property
+     * @param oldValue Value before the change
+     * @param newValue Value after the change
+     */
+    protected void firePropertyChange(String property, Object oldValue, Object newValue) {
+        PropertyChangeSupport support = changeSupport;
+        if (support != null) {
+            support.firePropertyChange(property, oldValue, newValue);
+        }
+    }
+
+    /**
+     * Boolean variant of {@link #firePropertyChange(String, Object, Object)} that avoids boxing
+     * when nobody is listening.
+     */
+    protected void firePropertyChange(String property, boolean oldValue, boolean newValue) {
+        PropertyChangeSupport support = changeSupport;
+        if (support != null) {
+            support.firePropertyChange(property, oldValue, newValue);
+        }
+    }
+}
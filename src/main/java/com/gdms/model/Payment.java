@@ -1,21 +1,113 @@
 package com.gdms.model;
 
+import com.gdms.metrics.Counter;
+import com.gdms.metrics.GymMetrics;
+import com.gdms.metrics.MeterFamily;
+import com.gdms.time.BusinessClock;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.function.UnaryOperator;
 
 /**
  * Represents a payment in the system.
  * Manages payment details, status, and receipt generation.
+ * Status changes are published to property change listeners, so rollups can
+ * follow payments as they are processed, failed and refunded.
+ * The status, transaction ID and description live in one immutable state object
+ * that transitions replace with a single compare-and-set, so readers never see a
+ * status without the details recorded with it. Listeners are notified of
+ * transitions one at a time, in the order they happened.
  */
-public class Payment {
+@Entity
+@Table(name = "payments", indexes = {
+        @Index(name = "ix_payments_member_id", columnList = "member_id"),
+        @Index(name = "ix_payments_status_date", columnList = "status, payment_date")
+})
+public class Payment extends ObservableModel {
+    public static final String PROPERTY_STATUS = "status";
+    /**
+     * Format of {@link #generateReceipt()}: payment ID, member ID, amount, date,
+     * status, payment method, transaction ID and description, in that order.
+     */
+    public static final String RECEIPT_TEMPLATE = """
+            Receipt
+            -------
+            Payment ID: %d
+            Member ID: %d
+            Amount: $%.2f
+            Date: %s
+            Status: %s
+            Payment Method: %s
+            Transaction ID: %s
+            Description: %s
+            """;
+
+    private static final VarHandle STATE;
+    // Indexed by ordinal of the status moved to
+    private static final Counter[] TRANSITIONS = countersByStatus(GymMetrics.PAYMENT_TRANSITIONS);
+    private static final Counter[] REJECTED_TRANSITIONS = countersByStatus(GymMetrics.PAYMENT_TRANSITIONS_REJECTED);
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(Payment.class, "state", PaymentState.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static Counter[] countersByStatus(MeterFamily<Counter> family) {
+        PaymentStatus[] statuses = PaymentStatus.values();
+        Counter[] counters = new Counter[statuses.length];
+        for (PaymentStatus status : statuses) {
+            counters[status.ordinal()] = family.labels(status.name().toLowerCase(Locale.ROOT));
+        }
+        return counters;
+    }
+
+    @Id
+    @Column(name = "payment_id")
     private int paymentId;
+
+    @Column(name = "member_id", nullable = false)
     private int memberId;
-    private double amount;
+
+    @Column(name = "amount_minor", nullable = false)
+    private long amountMinor;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private Currency currency;
+
+    @Column(name = "payment_date", nullable = false)
     private LocalDate paymentDate;
-    private String status; // Pending, Completed, Failed, Refunded
+
+    @Embedded
+    private volatile PaymentState state;
+
+    @Column(name = "payment_method", length = 32)
     private String paymentMethod;
-    private String transactionId;
-    private String description;
+
+    // Sequence of the last state whose transition listeners were told about; guarded by this
+    private transient long publishedSequence;
+    // Thread notifying listeners, so a listener can make a further transition; guarded by this
+    private transient Thread publisher;
+
+    /**
+     * Constructor for the persistence provider.
+     */
+    protected Payment() {
+    }
 
     /**
      * Constructor for creating a new payment.
@@ -26,13 +118,41 @@ public class Payment {
      * @param description Payment description
      */
     public Payment(int paymentId, int memberId, double amount, String paymentMethod, String description) {
+        this(paymentId, memberId, amount, paymentMethod, description, BusinessClock.currentDate());
+    }
+
+    /**
+     * Constructor for creating a new payment dated on the given day.
+     * @param paymentId Unique identifier for the payment
+     * @param memberId ID of the member making the payment
+     * @param amount Payment amount in US dollars, rounded half-up to whole cents
+     * @param paymentMethod Method of payment (e.g., "Credit Card", "PayPal")
+     * @param description Payment description
+     * @param paymentDate Date of the payment
+     */
+    public Payment(int paymentId, int memberId, double amount, String paymentMethod, String description,
+                   LocalDate paymentDate) {
+        this(paymentId, memberId, Money.fromDouble(amount, Money.USD), paymentMethod, description, paymentDate);
+    }
+
+    /**
+     * Constructor for creating a new payment with an exact amount.
+     * @param paymentId Unique identifier for the payment
+     * @param memberId ID of the member making the payment
+     * @param amount Payment amount
+     * @param paymentMethod Method of payment (e.g., "Credit Card", "PayPal")
+     * @param description Payment description
+     * @param paymentDate Date of the payment
+     */
+    public Payment(int paymentId, int memberId, Money amount, String paymentMethod, String description,
+                   LocalDate paymentDate) {
         this.paymentId = paymentId;
         this.memberId = memberId;
-        this.amount = amount;
+        this.amountMinor = amount.getMinorUnits();
+        this.currency = amount.getCurrency();
         this.paymentMethod = paymentMethod;
-        this.description = description;
-        this.paymentDate = LocalDate.now();
-        this.status = "Pending";
+        this.paymentDate = paymentDate;
+        this.state = new PaymentState(PaymentStatus.PENDING, null, description, 0);
     }
 
     // Getters and Setters
@@ -52,12 +172,39 @@ public class Payment {
         this.memberId = memberId;
     }
 
+    /**
+     * @return Amount in major units; exact for every amount below 2^53 minor units
+     */
     public double getAmount() {
-        return amount;
+        return getMoney().toDouble();
     }
 
+    /**
+     * Sets the amount in the payment's currency, rounded half-up to whole minor units.
+     * @param amount Amount in major units
+     */
     public void setAmount(double amount) {
-        this.amount = amount;
+        this.amountMinor = Money.fromDouble(amount, currency).getMinorUnits();
+    }
+
+    public Money getMoney() {
+        return Money.ofMinor(amountMinor, currency);
+    }
+
+    public void setMoney(Money amount) {
+        this.amountMinor = amount.getMinorUnits();
+        this.currency = amount.getCurrency();
+    }
+
+    /**
+     * @return Amount in the currency's minor units (e.g. cents)
+     */
+    public long getAmountMinor() {
+        return amountMinor;
+    }
+
+    public Currency getCurrency() {
+        return currency;
     }
 
     public LocalDate getPaymentDate() {
@@ -69,11 +216,114 @@ public class Payment {
     }
 
     public String getStatus() {
-        return status;
+        return state.getStatus().getLabel();
     }
 
+    /**
+     * Sets the status from its display label without checking the transition.
+     * @param status Label such as "Pending" or "Completed"
+     */
     public void setStatus(String status) {
-        this.status = status;
+        setPaymentStatus(PaymentStatus.fromLabel(status));
+    }
+
+    public PaymentStatus getPaymentStatus() {
+        return state.getStatus();
+    }
+
+    public void setPaymentStatus(PaymentStatus status) {
+        Objects.requireNonNull(status, "status");
+        PaymentState current;
+        PaymentState next;
+        do {
+            current = state;
+            next = current.withStatus(status);
+        } while (!STATE.compareAndSet(this, current, next));
+        publish(current, next);
+    }
+
+    /**
+     * Atomically moves the payment from an expected status to a new one.
+     * @param expected Status the payment must currently have
+     * @param target Status to move to
+     * @return true if the payment was in the expected status and the transition is allowed
+     */
+    public boolean compareAndSetStatus(PaymentStatus expected, PaymentStatus target) {
+        return advance(expected, target, UnaryOperator.identity());
+    }
+
+    /**
+     * Atomically moves the payment to a new status if the current status allows it.
+     * @param target Status to move to
+     * @return true if the transition happened
+     */
+    public boolean transitionTo(PaymentStatus target) {
+        return advance(null, target, UnaryOperator.identity());
+    }
+
+    /**
+     * Moves the status and records the details of the transition in one
+     * compare-and-set, then notifies listeners.
+     * @param expected Status the payment must currently have, or null for any status that allows the transition
+     * @param target Status to move to
+     * @param details Adds the details of the transition to the new state
+     * @return true if the transition happened
+     */
+    private boolean advance(PaymentStatus expected, PaymentStatus target, UnaryOperator<PaymentState> details) {
+        PaymentState current;
+        PaymentState next;
+        do {
+            current = state;
+            PaymentStatus status = current.getStatus();
+            if ((expected != null && status != expected) || !status.canTransitionTo(target)) {
+                REJECTED_TRANSITIONS[target.ordinal()].increment();
+                return false;
+            }
+            next = details.apply(current.withStatus(target));
+        } while (!STATE.compareAndSet(this, current, next));
+        TRANSITIONS[target.ordinal()].increment();
+        publish(current, next);
+        return true;
+    }
+
+    /**
+     * Replaces the details of the current state without changing the status.
+     */
+    private void update(UnaryOperator<PaymentState> details) {
+        PaymentState current;
+        do {
+            current = state;
+        } while (!STATE.compareAndSet(this, current, details.apply(current)));
+    }
+
+    /**
+     * Notifies listeners of a transition once those of all earlier transitions have
+     * been notified, so every listener sees the transitions in the order they won
+     * their compare-and-set. A listener may make a further transition; it is
+     * notified before the rest of the listeners hear about the current one, as with
+     * nested events in general.
+     */
+    private synchronized void publish(PaymentState from, PaymentState to) {
+        boolean interrupted = false;
+        while (publishedSequence < from.getSequence() && publisher != Thread.currentThread()) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        Thread outer = publisher;
+        publisher = Thread.currentThread();
+        try {
+            firePropertyChange(PROPERTY_STATUS, from.getStatus(), to.getStatus());
+        } finally {
+            publisher = outer;
+            publishedSequence = Math.max(publishedSequence, to.getSequence());
+            notifyAll();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 
     public String getPaymentMethod() {
@@ -84,45 +334,99 @@ public class Payment {
         this.paymentMethod = paymentMethod;
     }
 
+    /**
+     * @return Gateway transaction ID; set whenever the status is COMPLETED or REFUNDED
+     *         after {@link #processPayment}
+     */
     public String getTransactionId() {
-        return transactionId;
+        return state.getTransactionId();
     }
 
     public void setTransactionId(String transactionId) {
-        this.transactionId = transactionId;
+        update(current -> current.withTransactionId(transactionId));
     }
 
     public String getDescription() {
-        return description;
+        return state.getDescription();
     }
 
     public void setDescription(String description) {
-        this.description = description;
+        update(current -> current.withDescription(description));
     }
 
     /**
      * Processes the payment and updates its status.
+     * Only one of several concurrent calls can complete the payment; the others
+     * return false and leave its transaction ID alone. The status and the
+     * transaction ID are published together.
      * @param transactionId ID from payment gateway
      * @return true if payment processed successfully, false otherwise
      */
     public boolean processPayment(String transactionId) {
-        this.transactionId = transactionId;
-        this.status = "Completed";
-        return true;
+        return advance(null, PaymentStatus.COMPLETED, next -> next.withTransactionId(transactionId));
     }
 
     /**
-     * Refunds the payment.
+     * Marks a pending payment as failed, e.g. after the gateway declined it.
+     * @return true if the payment was pending and is now failed
+     */
+    public boolean failPayment() {
+        return compareAndSetStatus(PaymentStatus.PENDING, PaymentStatus.FAILED);
+    }
+
+    /**
+     * Refunds the payment. A payment is refunded at most once, however many
+     * threads try at the same time. The status and the new description are
+     * published together.
      * @param reason Reason for refund
      * @return true if refund processed successfully, false otherwise
      */
     public boolean refundPayment(String reason) {
-        if ("Completed".equals(this.status)) {
-            this.status = "Refunded";
-            this.description = "Refunded: " + reason;
-            return true;
+        String description = "Refunded: " + reason;
+        return advance(PaymentStatus.COMPLETED, PaymentStatus.REFUNDED, next -> next.withDescription(description));
+    }
+
+    /**
+     * Finds payments still pending after a grace period, reading the date once for the whole batch.
+     * @param payments Payments to check
+     * @param today Date to evaluate against
+     * @param graceDays Days a payment may stay pending
+     * @return Pending payments dated before today minus the grace period
+     */
+    public static List<Payment> findOverduePending(Iterable<Payment> payments, LocalDate today, int graceDays) {
+        LocalDate cutoff = today.minusDays(graceDays);
+        List<Payment> overdue = new ArrayList<>();
+        for (Payment payment : payments) {
+            if (payment.getPaymentStatus() == PaymentStatus.PENDING && payment.paymentDate.isBefore(cutoff)) {
+                overdue.add(payment);
+            }
         }
-        return false;
+        return overdue;
+    }
+
+    /**
+     * Sums the amounts of payments with the given status as primitive minor units.
+     * @param payments Payments to sum; all matching ones must share one currency
+     * @param status Status to filter on
+     * @return Total as money, or zero in US dollars if no payment matches
+     * @throws ArithmeticException on overflow
+     * @throws IllegalArgumentException if matching payments use different currencies
+     */
+    public static Money sumAmounts(Iterable<Payment> payments, PaymentStatus status) {
+        Currency currency = null;
+        long total = 0;
+        for (Payment payment : payments) {
+            if (payment.getPaymentStatus() != status) {
+                continue;
+            }
+            if (currency == null) {
+                currency = payment.currency;
+            } else if (!currency.equals(payment.currency)) {
+                throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + payment.currency);
+            }
+            total = Math.addExact(total, payment.amountMinor);
+        }
+        return Money.ofMinor(total, currency == null ? Money.USD : currency);
     }
 
     /**
@@ -130,20 +434,12 @@ public class Payment {
      * @return Formatted receipt string
      */
     public String generateReceipt() {
-        return String.format("""
-            Receipt
-            -------
-            Payment ID: %d
-            Member ID: %d
-            Amount: $%.2f
-            Date: %s
-            Status: %s
-            Payment Method: %s
-            Transaction ID: %s
-            Description: %s
-            """,
-            paymentId, memberId, amount, paymentDate, 
-            status, paymentMethod, transactionId, description);
+        long start = System.nanoTime();
+        PaymentState current = state;
+        String receipt = String.format(RECEIPT_TEMPLATE, paymentId, memberId, getAmount(), paymentDate,
+            current.getStatus().getLabel(), paymentMethod, current.getTransactionId(), current.getDescription());
+        GymMetrics.RECEIPT_RENDERING.recordSince(start);
+        return receipt;
     }
 
     @Override
@@ -155,7 +451,7 @@ public class Payment {
 
     @Override
     public int hashCode() {
-        return Objects.hash(paymentId);
+        return Integer.hashCode(paymentId);
     }
 
     @Override
@@ -163,11 +459,11 @@ public class Payment {
         return "Payment{" +
                 "paymentId=" + paymentId +
                 ", memberId=" + memberId +
-                ", amount=" + amount +
+                ", amount=" + getMoney() +
                 ", paymentDate=" + paymentDate +
-                ", status='" + status + '\'' +
+                ", status='" + getStatus() + '\'' +
                 ", paymentMethod='" + paymentMethod + '\'' +
-                ", transactionId='" + transactionId + '\'' +
+                ", transactionId='" + getTransactionId() + '\'' +
                 '}';
     }
 } 
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.gdms.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Transient;
+
+/**
+ * Status of a payment together with the details recorded when it got there.
+ * Never modified once published: {@link Payment} replaces the whole object in one
+ * compare-and-set, so a reader sees a status only with its transaction ID and
+ * description. The fields are not final only so the persistence provider can load them.
+ */
+@Embeddable
+final class PaymentState {
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private PaymentStatus status;
+
+    @Column(name = "transaction_id", length = 64)
+    private String transactionId;
+
+    @Column(name = "description", length = 500)
+    private String description;
+
+    // Number of status transitions before this state; orders their notifications
+    @Transient
+    private long sequence;
+
+    /**
+     * Constructor for the persistence provider.
+     */
+    PaymentState() {
+    }
+
+    PaymentState(PaymentStatus status, String transactionId, String description, long sequence) {
+        this.status = status;
+        this.transactionId = transactionId;
+        this.description = description;
+        this.sequence = sequence;
+    }
+
+    PaymentStatus getStatus() {
+        return status;
+    }
+
+    String getTransactionId() {
+        return transactionId;
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return The state after a status transition, keeping the details
+     */
+    PaymentState withStatus(PaymentStatus status) {
+        return new PaymentState(status, transactionId, description, sequence + 1);
+    }
+
+    PaymentState withTransactionId(String transactionId) {
+        return new PaymentState(status, transactionId, description, sequence);
+    }
+
+    PaymentState withDescription(String description) {
+        return new PaymentState(status, transactionId, description, sequence);
+    }
+}
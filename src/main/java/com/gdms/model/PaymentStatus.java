@@ -0,0 +1,80 @@
+package com.gdms.model;
+
+/**
+ * Lifecycle states of a payment and the transitions allowed between them.
+ * The ordinal doubles as a compact one-byte code for columnar storage.
+ */
+public enum PaymentStatus {
+    PENDING("Pending"),
+    COMPLETED("Completed"),
+    FAILED("Failed"),
+    REFUNDED("Refunded");
+
+    private static final PaymentStatus[] VALUES = values();
+
+    static {
+        PENDING.allow(COMPLETED, FAILED);
+        FAILED.allow(PENDING, COMPLETED);
+        COMPLETED.allow(REFUNDED);
+    }
+
+    private final String label;
+    private int allowedTargets;
+
+    PaymentStatus(String label) {
+        this.label = label;
+    }
+
+    private void allow(PaymentStatus... targets) {
+        for (PaymentStatus target : targets) {
+            allowedTargets |= 1 << target.ordinal();
+        }
+    }
+
+    /**
+     * @return Display label used by the String-based getters and setters
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return One-byte code of this status
+     */
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * Checks whether a payment may move from this status to another.
+     * @param target Proposed next status
+     * @return true if the transition is allowed
+     */
+    public boolean canTransitionTo(PaymentStatus target) {
+        return (allowedTargets & (1 << target.ordinal())) != 0;
+    }
+
+    /**
+     * Decodes a status from its one-byte code.
+     * @param code Code returned by {@link #code()}
+     * @return The matching status
+     */
+    public static PaymentStatus fromCode(byte code) {
+        return VALUES[code];
+    }
+
+    /**
+     * Parses a status from its display label.
+     * @param label Label such as "Pending" or "Completed"
+     * @return The matching status
+     * @throws IllegalArgumentException if the label is unknown
+     */
+    public static PaymentStatus fromLabel(String label) {
+        for (PaymentStatus status : VALUES) {
+            if (status.label.equals(label)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown payment status: " + label);
+    }
+}
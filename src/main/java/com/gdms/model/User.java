@@ -1,18 +1,55 @@
 package com.gdms.model;
 
-import java.util.Objects;
+import jakarta.persistence.Column;
+import jakarta.persistence.DiscriminatorColumn;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Inheritance;
+import jakarta.persistence.InheritanceType;
+import jakarta.persistence.Table;
 
 /**
  * Abstract base class for all users in the system.
  * Implements common attributes and methods shared by Admin, Trainer, and Member classes.
+ * All user types share one table, told apart by the role column.
  */
-public abstract class User {
+@Entity
+@Table(name = "users", indexes = {
+        @Index(name = "ux_users_email", columnList = "email", unique = true),
+        @Index(name = "ix_users_membership_end_date", columnList = "membership_end_date"),
+        @Index(name = "ix_users_membership_type", columnList = "membership_type")
+})
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
+@DiscriminatorColumn(name = "role", length = 16)
+public abstract class User extends ObservableModel {
+    public static final String PROPERTY_NAME = "name";
+    public static final String PROPERTY_EMAIL = "email";
+    public static final String PROPERTY_PASSWORD = "password";
+    public static final String PROPERTY_ACTIVE = "active";
+
+    @Id
+    @Column(name = "user_id")
     private int userId;
+
+    @Column(name = "name", nullable = false, length = 100)
     private String name;
+
+    @Column(name = "email", length = 255)
     private String email;
+
+    @Column(name = "password_hash", nullable = false, length = 60)
     private String password;
+
+    @Column(name = "is_active", nullable = false)
     private boolean isActive;
 
+    /**
+     * Constructor for the persistence provider.
+     */
+    protected User() {
+    }
+
     /**
      * Constructor for creating a new user.
      * @param userId Unique identifier for the user
@@ -42,7 +79,9 @@ public abstract class User {
     }
 
     public void setName(String name) {
+        String oldName = this.name;
         this.name = name;
+        firePropertyChange(PROPERTY_NAME, oldName, name);
     }
 
     public String getEmail() {
@@ -50,15 +89,22 @@ public abstract class User {
     }
 
     public void setEmail(String email) {
+        String oldEmail = this.email;
         this.email = email;
+        firePropertyChange(PROPERTY_EMAIL, oldEmail, email);
     }
 
-    protected String getPassword() {
+    /**
+     * @return BCrypt hash of the password, for export; never the password itself
+     */
+    public String getPassword() {
         return password;
     }
 
     protected void setPassword(String password) {
+        String oldPassword = this.password;
         this.password = password;
+        firePropertyChange(PROPERTY_PASSWORD, oldPassword, password);
     }
 
     public boolean isActive() {
@@ -66,7 +112,9 @@ public abstract class User {
     }
 
     public void setActive(boolean active) {
+        boolean wasActive = isActive;
         isActive = active;
+        firePropertyChange(PROPERTY_ACTIVE, wasActive, active);
     }
 
     /**
@@ -86,13 +134,15 @@ public abstract class User {
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof User user)) return false;
-        return userId == user.userId && 
-               Objects.equals(email, user.email);
+        return userId == user.userId;
     }
 
+    /**
+     * Identity is the user ID alone, so the hash stays stable when the email changes.
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(userId, email);
+        return Integer.hashCode(userId);
     }
 
     @Override
@@ -0,0 +1,130 @@
+package com.gdms.notification;
+
+import com.gdms.model.Member;
+import com.gdms.repository.MemberRepository;
+import com.gdms.time.BusinessClock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fires membership reminder and expiry events day by day.
+ * Uses the repository's end-date index as a date-bucketed index, so each day
+ * costs O(members ending that day) rather than a scan of every member. Renewals
+ * move a member to its new bucket through the repository's listeners, so a member
+ * who renews before the end date simply never shows up in the old day.
+ * A listener that throws is logged and skipped for that event only, so the day
+ * still completes and no other listener sees an event twice.
+ */
+public class MembershipExpiryScheduler {
+    private static final Logger log = LoggerFactory.getLogger(MembershipExpiryScheduler.class);
+
+    private final MemberRepository repository;
+    private final int[] reminderDays;
+    private final List<MembershipListener> listeners = new CopyOnWriteArrayList<>();
+    private long lastProcessedDay;
+
+    /**
+     * Constructor for creating a scheduler.
+     * @param repository Repository whose members are watched
+     * @param startDate First day to process
+     * @param reminderDays Days before the end date on which to send reminders (e.g., 7, 1)
+     */
+    public MembershipExpiryScheduler(MemberRepository repository, LocalDate startDate, int... reminderDays) {
+        this.repository = Objects.requireNonNull(repository, "repository");
+        this.reminderDays = Arrays.stream(reminderDays).distinct().sorted().toArray();
+        if (this.reminderDays.length > 0 && this.reminderDays[0] <= 0) {
+            throw new IllegalArgumentException("reminderDays must be positive");
+        }
+        this.lastProcessedDay = startDate.toEpochDay() - 1;
+    }
+
+    public void addListener(MembershipListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    public void removeListener(MembershipListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Fires the events of every day up to and including the given date
+     * that has not been processed yet.
+     * @param today Current business date
+     * @return Number of events fired
+     */
+    public synchronized int advanceTo(LocalDate today) {
+        long target = today.toEpochDay();
+        int fired = 0;
+        while (lastProcessedDay < target) {
+            long day = lastProcessedDay + 1;
+            fired += processDay(day);
+            lastProcessedDay = day;
+        }
+        return fired;
+    }
+
+    /**
+     * Checks for a new day at a fixed interval on the given executor.
+     * @param executor Executor that runs the checks
+     * @param clock Business clock used to determine the current date
+     * @param period Interval between checks
+     * @param unit Unit of the interval
+     * @return Handle for cancelling the checks
+     */
+    public ScheduledFuture<?> schedule(ScheduledExecutorService executor, BusinessClock clock, long period,
+                                       TimeUnit unit) {
+        return executor.scheduleAtFixedRate(() -> {
+            try {
+                advanceTo(clock.today());
+            } catch (RuntimeException e) {
+                // Keep the schedule alive; a day that failed to load is retried on the next run
+                log.error("Membership expiry run failed", e);
+            }
+        }, 0, period, unit);
+    }
+
+    public synchronized LocalDate getLastProcessedDate() {
+        return LocalDate.ofEpochDay(lastProcessedDay);
+    }
+
+    private int processDay(long day) {
+        int fired = 0;
+        LocalDate date = LocalDate.ofEpochDay(day);
+        for (Member member : repository.findByMembershipEndDateBetween(date, date)) {
+            for (MembershipListener listener : listeners) {
+                try {
+                    listener.onMembershipExpired(member);
+                } catch (RuntimeException e) {
+                    log.error("Expiry listener {} failed for member {} on {}", listener, member.getUserId(), date, e);
+                }
+            }
+            fired++;
+        }
+        for (int daysLeft : reminderDays) {
+            LocalDate endDate = date.plusDays(daysLeft);
+            for (Member member : repository.findByMembershipEndDateBetween(endDate, endDate)) {
+                if (!member.isActive()) {
+                    continue;
+                }
+                for (MembershipListener listener : listeners) {
+                    try {
+                        listener.onRenewalReminder(member, daysLeft);
+                    } catch (RuntimeException e) {
+                        log.error("Reminder listener {} failed for member {} on {}", listener, member.getUserId(),
+                                date, e);
+                    }
+                }
+                fired++;
+            }
+        }
+        return fired;
+    }
+}
@@ -0,0 +1,24 @@
+package com.gdms.notification;
+
+import com.gdms.model.Member;
+
+/**
+ * Observer notified about upcoming and past membership expiries.
+ */
+public interface MembershipListener {
+
+    /**
+     * Called when a member's renewal date is approaching.
+     * @param member Member whose membership is about to end
+     * @param daysLeft Days until the membership end date
+     */
+    default void onRenewalReminder(Member member, int daysLeft) {
+    }
+
+    /**
+     * Called on the day a membership ends.
+     * @param member Member whose membership has ended
+     */
+    default void onMembershipExpired(Member member) {
+    }
+}
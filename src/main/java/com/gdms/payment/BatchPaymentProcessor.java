@@ -0,0 +1,192 @@
+package com.gdms.payment;
+
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Settles large numbers of pending payments through a {@link PaymentGateway}.
+ * Pending payments are grouped into batches of a configurable size, and at most
+ * a fixed number of gateway requests are in flight at once: submitting a new
+ * batch blocks until one of them returns, so memory stays bounded however many
+ * payments are passed in. Results are applied per item with atomic status
+ * transitions, so a payment that was changed elsewhere meanwhile is left alone.
+ */
+public class BatchPaymentProcessor implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(BatchPaymentProcessor.class);
+
+    private final PaymentGateway gateway;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final ExecutorService executor;
+
+    /**
+     * Constructor for creating a batch processor.
+     * @param gateway Gateway that settles the payments
+     * @param batchSize Maximum number of payments per gateway request
+     * @param maxInFlight Maximum number of concurrent gateway requests
+     */
+    public BatchPaymentProcessor(PaymentGateway gateway, int batchSize, int maxInFlight) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+        this.gateway = Objects.requireNonNull(gateway, "gateway");
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+        this.executor = Executors.newFixedThreadPool(maxInFlight, new GatewayThreadFactory());
+    }
+
+    /**
+     * Settles every pending payment in the given collection and waits for all results.
+     * Payments that are not pending are skipped.
+     * @param payments Payments to settle
+     * @return Summary of the run
+     * @throws InterruptedException if interrupted while waiting for the gateway
+     */
+    public BatchResult process(Iterable<Payment> payments) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Tally tally = new Tally();
+        long started = System.nanoTime();
+        List<Payment> batch = new ArrayList<>(batchSize);
+        for (Payment payment : payments) {
+            if (payment.getPaymentStatus() != PaymentStatus.PENDING) {
+                tally.skipped.incrementAndGet();
+                continue;
+            }
+            batch.add(payment);
+            if (batch.size() == batchSize) {
+                submit(batch, inFlight, tally);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            submit(batch, inFlight, tally);
+        }
+        // Wait for every outstanding request by taking all permits back
+        inFlight.acquire(maxInFlight);
+        return tally.toResult(System.nanoTime() - started);
+    }
+
+    private void submit(List<Payment> batch, Semaphore inFlight, Tally tally) throws InterruptedException {
+        inFlight.acquire();
+        try {
+            executor.execute(() -> {
+                try {
+                    settle(batch, tally);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private void settle(List<Payment> batch, Tally tally) {
+        tally.requests.incrementAndGet();
+        List<GatewayResult> results;
+        try {
+            results = gateway.settle(batch);
+        } catch (GatewayException | RuntimeException e) {
+            // Whole request failed: leave the payments pending so a later run retries them
+            log.warn("Gateway request for {} payments failed", batch.size(), e);
+            tally.unresolved.addAndGet(batch.size());
+            return;
+        }
+        Map<Integer, Payment> byId = new HashMap<>(batch.size() * 2);
+        for (Payment payment : batch) {
+            byId.put(payment.getPaymentId(), payment);
+        }
+        for (GatewayResult result : results) {
+            Payment payment = byId.remove(result.paymentId());
+            if (payment == null) {
+                continue;
+            }
+            boolean applied = result.approved()
+                    ? payment.processPayment(result.transactionId())
+                    : payment.failPayment();
+            if (!applied) {
+                tally.skipped.incrementAndGet();
+            } else if (result.approved()) {
+                tally.completed.incrementAndGet();
+            } else {
+                tally.failed.incrementAndGet();
+            }
+        }
+        // Payments the gateway did not answer for stay pending
+        tally.unresolved.addAndGet(byId.size());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Summary of a batch run.
+     * @param completed Payments settled successfully
+     * @param failed Payments declined by the gateway
+     * @param unresolved Payments left pending because the request failed or had no result for them
+     * @param skipped Payments that were not pending or changed status during the run
+     * @param requests Number of gateway requests made
+     * @param elapsedNanos Wall-clock duration of the run
+     */
+    public record BatchResult(int completed, int failed, int unresolved, int skipped, int requests,
+                              long elapsedNanos) {
+
+        /**
+         * @return Settled and declined payments per second
+         */
+        public double throughputPerSecond() {
+            return elapsedNanos == 0 ? 0 : (completed + failed) * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+
+    private static final class Tally {
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final AtomicInteger unresolved = new AtomicInteger();
+        final AtomicInteger skipped = new AtomicInteger();
+        final AtomicInteger requests = new AtomicInteger();
+
+        BatchResult toResult(long elapsedNanos) {
+            return new BatchResult(completed.get(), failed.get(), unresolved.get(), skipped.get(),
+                    requests.get(), elapsedNanos);
+        }
+    }
+
+    private static final class GatewayThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "payment-gateway-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
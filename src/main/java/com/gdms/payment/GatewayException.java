@@ -0,0 +1,16 @@
+package com.gdms.payment;
+
+/**
+ * Thrown when a gateway request fails as a whole (timeout, connection error, etc.).
+ */
+public class GatewayException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    public GatewayException(String message) {
+        super(message);
+    }
+
+    public GatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,19 @@
+package com.gdms.payment;
+
+/**
+ * Outcome of one payment within a gateway batch.
+ * @param paymentId ID of the payment
+ * @param approved true if the gateway settled the payment
+ * @param transactionId Gateway transaction ID (set when approved)
+ * @param failureReason Reason for a decline (set when not approved)
+ */
+public record GatewayResult(int paymentId, boolean approved, String transactionId, String failureReason) {
+
+    public static GatewayResult approved(int paymentId, String transactionId) {
+        return new GatewayResult(paymentId, true, transactionId, null);
+    }
+
+    public static GatewayResult declined(int paymentId, String failureReason) {
+        return new GatewayResult(paymentId, false, null, failureReason);
+    }
+}
@@ -0,0 +1,188 @@
+package com.gdms.payment;
+
+import com.gdms.model.Payment;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers recently applied gateway transaction IDs so that a retried or
+ * duplicated gateway callback is recognized with one lock-free hash lookup and
+ * never reaches the payment again.
+ * Keys are kept for a limited time and at most {@code maxEntries} at once.
+ * Keys expire in the order they were registered, so eviction only ever looks at
+ * the oldest ones; when the registry is full, the oldest keys go first even if
+ * they have not expired.
+ */
+public class IdempotencyRegistry {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Guarded by itself; the live keys in registration order, which is also expiry order
+    private final Map<String, Entry> order = new LinkedHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Clock clock;
+    private final LongAdder duplicates = new LongAdder();
+
+    /**
+     * Outcome of a gateway callback.
+     */
+    public enum Outcome {
+        /** The callback changed the payment. */
+        APPLIED,
+        /** The payment's status did not allow the change, e.g. it was completed by another transaction. */
+        REJECTED,
+        /** The transaction ID was seen before; the payment was not touched. */
+        DUPLICATE
+    }
+
+    /**
+     * Constructor for creating a registry on the system clock.
+     * @param ttl How long a transaction ID is remembered
+     * @param maxEntries Maximum number of remembered transaction IDs
+     */
+    public IdempotencyRegistry(Duration ttl, int maxEntries) {
+        this(ttl, maxEntries, Clock.systemUTC());
+    }
+
+    /**
+     * Constructor for creating a registry.
+     * @param ttl How long a transaction ID is remembered
+     * @param maxEntries Maximum number of remembered transaction IDs
+     * @param clock Clock used for expiry
+     */
+    public IdempotencyRegistry(Duration ttl, int maxEntries, Clock clock) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /**
+     * Applies an approved gateway callback unless its transaction ID was already seen.
+     * @param payment Payment the callback is for
+     * @param transactionId Transaction ID from the gateway
+     * @return What the callback did
+     */
+    public Outcome process(Payment payment, String transactionId) {
+        Entry entry = claim(transactionId);
+        if (entry == null) {
+            return Outcome.DUPLICATE;
+        }
+        boolean applied;
+        try {
+            applied = payment.processPayment(transactionId);
+        } catch (RuntimeException e) {
+            // A listener failed; let the gateway's retry try again
+            forget(entry);
+            throw e;
+        }
+        return applied ? Outcome.APPLIED : Outcome.REJECTED;
+    }
+
+    /**
+     * Records a transaction ID the first time it is seen.
+     * @param transactionId Transaction ID from the gateway
+     * @return true if the ID is new, false if it was seen within the time to live
+     */
+    public boolean register(String transactionId) {
+        return claim(transactionId) != null;
+    }
+
+    /**
+     * @param transactionId Transaction ID from the gateway
+     * @return true if the ID was registered and has not expired
+     */
+    public boolean contains(String transactionId) {
+        Entry entry = entries.get(transactionId);
+        return entry != null && entry.expiresAt > clock.millis();
+    }
+
+    /**
+     * Forgets a transaction ID, e.g. when applying it failed and a retry should be let through.
+     * @param transactionId Transaction ID from the gateway
+     */
+    public void remove(String transactionId) {
+        Objects.requireNonNull(transactionId, "transactionId");
+        synchronized (order) {
+            Entry entry = entries.remove(transactionId);
+            if (entry != null) {
+                order.remove(transactionId, entry);
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return Number of callbacks short-circuited as duplicates
+     */
+    public long getDuplicateCount() {
+        return duplicates.sum();
+    }
+
+    /**
+     * @return The new entry, or null if the ID is a duplicate
+     */
+    private Entry claim(String transactionId) {
+        Objects.requireNonNull(transactionId, "transactionId");
+        long now = clock.millis();
+        Entry existing = entries.get(transactionId);
+        if (existing != null && existing.expiresAt > now) {
+            duplicates.increment();
+            return null;
+        }
+        synchronized (order) {
+            evict(now);
+            existing = entries.get(transactionId);
+            if (existing != null && existing.expiresAt > now) {
+                duplicates.increment();
+                return null;
+            }
+            Entry entry = new Entry(transactionId, now + ttlMillis);
+            entries.put(transactionId, entry);
+            // Re-registering an expired key moves it to the end
+            order.remove(transactionId);
+            order.put(transactionId, entry);
+            return entry;
+        }
+    }
+
+    private void forget(Entry entry) {
+        synchronized (order) {
+            if (entries.remove(entry.transactionId, entry)) {
+                order.remove(entry.transactionId, entry);
+            }
+        }
+    }
+
+    /**
+     * Drops expired keys, and the oldest keys while the registry is full. Keys are
+     * registered with the same time to live, so the expired ones are always at the front.
+     */
+    private void evict(long now) {
+        Iterator<Entry> oldest = order.values().iterator();
+        while (oldest.hasNext()) {
+            Entry entry = oldest.next();
+            if (entry.expiresAt > now && order.size() < maxEntries) {
+                return;
+            }
+            oldest.remove();
+            entries.remove(entry.transactionId, entry);
+        }
+    }
+
+    private record Entry(String transactionId, long expiresAt) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.gdms.payment;
+
+import com.gdms.model.Payment;
+import java.util.List;
+
+/**
+ * External payment gateway that settles payments in batches.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Submits a batch of payments for settlement in a single request.
+     * @param batch Payments to settle
+     * @return One result per payment the gateway answered for; payments without
+     *         a result are treated as unknown and left pending
+     * @throws GatewayException if the whole request failed
+     */
+    List<GatewayResult> settle(List<Payment> batch) throws GatewayException;
+}
@@ -0,0 +1,86 @@
+package com.gdms.payment;
+
+import com.gdms.model.Payment;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for a payment gateway, used for tests and offline benchmarks.
+ * Each request sleeps for a fixed latency plus a per-item cost, then approves
+ * or declines every payment at a configurable rate.
+ */
+public class SimulatedPaymentGateway implements PaymentGateway {
+    private final long requestLatencyNanos;
+    private final long perItemLatencyNanos;
+    private final double declineRate;
+    private final double requestFailureRate;
+    private final AtomicLong transactionSequence = new AtomicLong();
+    private final AtomicLong seed;
+    private final AtomicLong requests = new AtomicLong();
+
+    /**
+     * Constructor for creating a gateway that approves everything instantly.
+     */
+    public SimulatedPaymentGateway() {
+        this(Duration.ZERO, Duration.ZERO, 0.0, 0.0, 42L);
+    }
+
+    /**
+     * Constructor for creating a simulated gateway.
+     * @param requestLatency Fixed latency of each request
+     * @param perItemLatency Additional latency per payment in the request
+     * @param declineRate Fraction of payments declined (0.0 to 1.0)
+     * @param requestFailureRate Fraction of whole requests that fail (0.0 to 1.0)
+     * @param seed Random seed for reproducible runs
+     */
+    public SimulatedPaymentGateway(Duration requestLatency, Duration perItemLatency, double declineRate,
+                                   double requestFailureRate, long seed) {
+        this.requestLatencyNanos = requestLatency.toNanos();
+        this.perItemLatencyNanos = perItemLatency.toNanos();
+        this.declineRate = declineRate;
+        this.requestFailureRate = requestFailureRate;
+        this.seed = new AtomicLong(seed);
+    }
+
+    @Override
+    public List<GatewayResult> settle(List<Payment> batch) throws GatewayException {
+        requests.incrementAndGet();
+        SplittableRandom random = new SplittableRandom(seed.getAndIncrement());
+        sleep(requestLatencyNanos + perItemLatencyNanos * batch.size());
+        if (random.nextDouble() < requestFailureRate) {
+            throw new GatewayException("Simulated gateway timeout");
+        }
+        List<GatewayResult> results = new ArrayList<>(batch.size());
+        for (Payment payment : batch) {
+            if (random.nextDouble() < declineRate) {
+                results.add(GatewayResult.declined(payment.getPaymentId(), "Card declined"));
+            } else {
+                results.add(GatewayResult.approved(payment.getPaymentId(),
+                        "SIM-" + transactionSequence.incrementAndGet()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return Number of requests received so far
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    private static void sleep(long nanos) throws GatewayException {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GatewayException("Interrupted while waiting for gateway", e);
+        }
+    }
+}
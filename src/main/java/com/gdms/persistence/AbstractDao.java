@@ -0,0 +1,132 @@
+package com.gdms.persistence;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.SelectionQuery;
+
+/**
+ * Common persistence operations for an entity type keyed by a primitive int id.
+ * Each call runs in its own session and transaction. Bulk saves flush and clear
+ * the session every JDBC batch, so the persistence context stays small and
+ * every flush becomes one batch per table.
+ * @param <E> Type of the entity
+ */
+abstract class AbstractDao<E> {
+    protected final SessionFactory sessionFactory;
+    protected final int batchSize;
+    private final Class<E> entityClass;
+
+    protected AbstractDao(SessionFactory sessionFactory, Class<E> entityClass) {
+        this.sessionFactory = Objects.requireNonNull(sessionFactory, "sessionFactory");
+        this.entityClass = entityClass;
+        this.batchSize = HibernateConfig.batchSize(sessionFactory);
+    }
+
+    /**
+     * Stores a new entity.
+     * @param entity Entity to store
+     */
+    public void save(E entity) {
+        sessionFactory.inTransaction(session -> session.persist(entity));
+    }
+
+    /**
+     * Stores new entities in one transaction, in JDBC batches.
+     * @param entities Entities to store
+     * @return Number of entities stored
+     */
+    public int saveAll(Iterable<? extends E> entities) {
+        return sessionFactory.fromTransaction(session -> {
+            int count = 0;
+            for (E entity : entities) {
+                session.persist(entity);
+                if (++count % batchSize == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            return count;
+        });
+    }
+
+    /**
+     * Writes the state of a detached entity.
+     * @param entity Entity to update
+     * @return The managed copy of the entity as of the commit
+     */
+    public E update(E entity) {
+        return sessionFactory.fromTransaction(session -> session.merge(entity));
+    }
+
+    /**
+     * Finds an entity by id.
+     * @param id Id of the entity
+     * @return The entity, or null if not found
+     */
+    public E findById(int id) {
+        return sessionFactory.fromSession(session -> session.get(entityClass, id));
+    }
+
+    /**
+     * Deletes an entity by id.
+     * @param id Id of the entity
+     * @return true if an entity was deleted
+     */
+    public boolean delete(int id) {
+        return sessionFactory.fromTransaction(session -> {
+            E entity = session.get(entityClass, id);
+            if (entity == null) {
+                return false;
+            }
+            session.remove(entity);
+            return true;
+        });
+    }
+
+    /**
+     * Streams every stored entity through a stateless session and a forward-only
+     * cursor, so exports of any size run without a persistence context.
+     * @param action Receives each entity
+     * @return Number of entities visited
+     */
+    public long forEach(Consumer<? super E> action) {
+        long count = 0;
+        try (StatelessSession session = sessionFactory.openStatelessSession();
+             ScrollableResults<E> results = session
+                     .createSelectionQuery("from " + entityClass.getSimpleName(), entityClass)
+                     .setFetchSize(HibernateConfig.DEFAULT_FETCH_SIZE)
+                     .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                action.accept(results.get());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Runs a query under a read-only fetch plan: entities are loaded without
+     * dirty-checking snapshots, rows are fetched in large chunks, and the results
+     * are not pushed into the second-level cache.
+     * @param hql Query text
+     * @param parameters Binds the query's parameters
+     * @return The results
+     */
+    protected List<E> readOnlyList(String hql, Consumer<SelectionQuery<E>> parameters) {
+        return sessionFactory.fromSession(session -> {
+            session.setDefaultReadOnly(true);
+            SelectionQuery<E> query = session.createSelectionQuery(hql, entityClass)
+                    .setReadOnly(true)
+                    .setFetchSize(HibernateConfig.DEFAULT_FETCH_SIZE)
+                    .setCacheMode(CacheMode.GET);
+            parameters.accept(query);
+            return query.getResultList();
+        });
+    }
+}
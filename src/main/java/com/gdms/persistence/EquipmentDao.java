@@ -0,0 +1,38 @@
+package com.gdms.persistence;
+
+import com.gdms.model.Equipment;
+import java.time.LocalDate;
+import java.util.List;
+import org.hibernate.SessionFactory;
+
+/**
+ * Database access for equipment. Lookups by ID are served from the
+ * second-level cache once an item has been loaded.
+ */
+public class EquipmentDao extends AbstractDao<Equipment> {
+
+    public EquipmentDao(SessionFactory sessionFactory) {
+        super(sessionFactory, Equipment.class);
+    }
+
+    /**
+     * Finds the equipment at a location, read-only.
+     * @param location Location in the gym
+     * @return Matching equipment ordered by ID
+     */
+    public List<Equipment> findByLocation(String location) {
+        return readOnlyList("from Equipment e where e.location = :location order by e.equipmentId",
+                query -> query.setParameter("location", location));
+    }
+
+    /**
+     * Finds the equipment due for maintenance on a date, read-only.
+     * @param today Date to evaluate against
+     * @return Equipment whose next maintenance date is on or before the date, soonest first
+     */
+    public List<Equipment> findMaintenanceDue(LocalDate today) {
+        return readOnlyList("from Equipment e where e.nextMaintenanceDate <= :today"
+                        + " order by e.nextMaintenanceDate, e.equipmentId",
+                query -> query.setParameter("today", today));
+    }
+}
@@ -0,0 +1,92 @@
+package com.gdms.persistence;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.Member;
+import com.gdms.model.MembershipPlan;
+import com.gdms.model.Payment;
+import com.gdms.model.User;
+import java.util.List;
+import java.util.Properties;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+
+/**
+ * Builds the Hibernate SessionFactory for the gym model.
+ * The defaults turn on JDBC batching with ordered inserts and updates, so writes
+ * of many entities go out as a few multi-row batches per table, and a JCache
+ * (Caffeine) second-level cache for equipment and membership plans.
+ * For MySQL, add {@code rewriteBatchedStatements=true} to the JDBC URL so the
+ * driver sends each batch as one multi-row statement.
+ */
+public final class HibernateConfig {
+    public static final int DEFAULT_BATCH_SIZE = 50;
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    private static final List<Class<?>> ENTITY_CLASSES = List.of(
+            User.class, Member.class, Equipment.class, Payment.class, MembershipPlan.class);
+
+    private HibernateConfig() {
+    }
+
+    /**
+     * @return The default settings, without connection details
+     */
+    public static Properties defaultSettings() {
+        Properties settings = new Properties();
+        settings.setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(DEFAULT_BATCH_SIZE));
+        settings.setProperty(AvailableSettings.ORDER_INSERTS, "true");
+        settings.setProperty(AvailableSettings.ORDER_UPDATES, "true");
+        settings.setProperty(AvailableSettings.BATCH_VERSIONED_DATA, "true");
+        settings.setProperty(AvailableSettings.STATEMENT_FETCH_SIZE, String.valueOf(DEFAULT_FETCH_SIZE));
+        settings.setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+        settings.setProperty(AvailableSettings.USE_QUERY_CACHE, "true");
+        settings.setProperty(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+        settings.setProperty(ConfigSettings.PROVIDER,
+                "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+        settings.setProperty(ConfigSettings.MISSING_CACHE_STRATEGY, "create");
+        return settings;
+    }
+
+    /**
+     * Reads the JDBC batch size a SessionFactory was configured with.
+     * @param sessionFactory SessionFactory to inspect
+     * @return The configured batch size, or {@link #DEFAULT_BATCH_SIZE} if none is set
+     */
+    public static int batchSize(SessionFactory sessionFactory) {
+        Object configured = sessionFactory.getProperties().get(AvailableSettings.STATEMENT_BATCH_SIZE);
+        int batchSize = configured == null ? 0 : Integer.parseInt(configured.toString().trim());
+        return batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+    }
+
+    /**
+     * Builds a SessionFactory for a database.
+     * @param jdbcUrl JDBC URL of the database
+     * @param username Database user
+     * @param password Database password
+     * @return The SessionFactory
+     */
+    public static SessionFactory buildSessionFactory(String jdbcUrl, String username, String password) {
+        Properties settings = new Properties();
+        settings.setProperty(AvailableSettings.URL, jdbcUrl);
+        settings.setProperty(AvailableSettings.USER, username);
+        settings.setProperty(AvailableSettings.PASS, password);
+        return buildSessionFactory(settings);
+    }
+
+    /**
+     * Builds a SessionFactory from the default settings overlaid with the given ones.
+     * @param overrides Hibernate settings, including the connection details
+     * @return The SessionFactory
+     */
+    public static SessionFactory buildSessionFactory(Properties overrides) {
+        Properties settings = defaultSettings();
+        settings.putAll(overrides);
+        Configuration configuration = new Configuration().addProperties(settings);
+        for (Class<?> entityClass : ENTITY_CLASSES) {
+            configuration.addAnnotatedClass(entityClass);
+        }
+        return configuration.buildSessionFactory();
+    }
+}
@@ -0,0 +1,51 @@
+package com.gdms.persistence;
+
+import com.gdms.model.Member;
+import java.time.LocalDate;
+import java.util.List;
+import org.hibernate.SessionFactory;
+
+/**
+ * Database access for members.
+ */
+public class MemberDao extends AbstractDao<Member> {
+
+    public MemberDao(SessionFactory sessionFactory) {
+        super(sessionFactory, Member.class);
+    }
+
+    /**
+     * Finds a member by email, ignoring case whatever the column collation, to
+     * match the in-memory repository.
+     * @param email Email address
+     * @return The member, or null if not found
+     */
+    public Member findByEmail(String email) {
+        return sessionFactory.fromSession(session -> session
+                .createSelectionQuery("from Member m where lower(m.email) = lower(:email)", Member.class)
+                .setParameter("email", email)
+                .uniqueResult());
+    }
+
+    /**
+     * Finds members whose membership ends within a date range, read-only.
+     * @param from First end date to include
+     * @param to Last end date to include
+     * @return Matching members ordered by end date, then ID
+     */
+    public List<Member> findByMembershipEndDateBetween(LocalDate from, LocalDate to) {
+        return readOnlyList("from Member m where m.membershipEndDate between :from and :to"
+                        + " order by m.membershipEndDate, m.userId",
+                query -> query.setParameter("from", from).setParameter("to", to));
+    }
+
+    /**
+     * Finds members with the given membership type, read-only.
+     * @param membershipType Type of membership (e.g., "Basic", "Premium")
+     * @return Matching members ordered by ID
+     */
+    public List<Member> findByMembershipType(String membershipType) {
+        return readOnlyList("from Member m where m.membershipType = :type order by m.userId",
+                query -> query.setParameter("type", membershipType));
+    }
+}
@@ -0,0 +1,48 @@
+package com.gdms.persistence;
+
+import com.gdms.model.MembershipPlan;
+import java.util.List;
+import java.util.Objects;
+import org.hibernate.SessionFactory;
+
+/**
+ * Database access for membership plans. Plans are immutable reference data:
+ * single plans come from the read-only second-level cache and the plan list
+ * from the query cache.
+ */
+public class MembershipPlanDao {
+    private final SessionFactory sessionFactory;
+
+    public MembershipPlanDao(SessionFactory sessionFactory) {
+        this.sessionFactory = Objects.requireNonNull(sessionFactory, "sessionFactory");
+    }
+
+    /**
+     * Stores a new plan.
+     * @param plan Plan to store
+     */
+    public void save(MembershipPlan plan) {
+        sessionFactory.inTransaction(session -> session.persist(plan));
+    }
+
+    /**
+     * Finds the plan for a membership type.
+     * @param membershipType Type of membership (e.g., "Basic", "Premium")
+     * @return The plan, or null if not found
+     */
+    public MembershipPlan findByType(String membershipType) {
+        return sessionFactory.fromSession(session -> session.get(MembershipPlan.class, membershipType));
+    }
+
+    /**
+     * @return Active plans ordered by membership type
+     */
+    public List<MembershipPlan> findActive() {
+        return sessionFactory.fromSession(session -> session
+                .createSelectionQuery("from MembershipPlan p where p.isActive = true order by p.membershipType",
+                        MembershipPlan.class)
+                .setCacheable(true)
+                .setCacheRegion("membership-plan-queries")
+                .getResultList());
+    }
+}
@@ -0,0 +1,102 @@
+package com.gdms.persistence;
+
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+
+/**
+ * Database access for payments, including bulk jobs that bypass the
+ * persistence context.
+ */
+public class PaymentDao extends AbstractDao<Payment> {
+    /** Rows per transaction in bulk inserts, so a failed import loses at most this many. */
+    public static final int BULK_COMMIT_INTERVAL = 10_000;
+
+    public PaymentDao(SessionFactory sessionFactory) {
+        super(sessionFactory, Payment.class);
+    }
+
+    /**
+     * Inserts new payments through a stateless session: no persistence context,
+     * dirty checking or second-level cache, only JDBC batches. Commits every
+     * {@link #BULK_COMMIT_INTERVAL} rows, so on failure the rows of earlier
+     * commits stay stored.
+     * @param payments Payments to insert
+     * @return Number of payments inserted
+     */
+    public long insertAll(Iterable<Payment> payments) {
+        long count = 0;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(batchSize);
+            Transaction transaction = session.beginTransaction();
+            try {
+                for (Payment payment : payments) {
+                    session.insert(payment);
+                    if (++count % BULK_COMMIT_INTERVAL == 0) {
+                        transaction.commit();
+                        transaction = session.beginTransaction();
+                    }
+                }
+                transaction.commit();
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the payments of a member, read-only.
+     * @param memberId ID of the member
+     * @return The member's payments, oldest first
+     */
+    public List<Payment> findByMemberId(int memberId) {
+        return readOnlyList("from Payment p where p.memberId = :memberId order by p.paymentDate, p.paymentId",
+                query -> query.setParameter("memberId", memberId));
+    }
+
+    /**
+     * Sums payment amounts in the database.
+     * @param status Status to filter on
+     * @param currency Currency to sum
+     * @return Total in the currency's minor units
+     */
+    public long sumAmountMinor(PaymentStatus status, Currency currency) {
+        return sessionFactory.fromSession(session -> session
+                .createSelectionQuery("select coalesce(sum(p.amountMinor), 0) from Payment p"
+                        + " where p.state.status = :status and p.currency = :currency", Long.class)
+                .setParameter("status", status)
+                .setParameter("currency", currency)
+                .getSingleResult());
+    }
+
+    /**
+     * Moves every payment in one status and dated before a cutoff to another status,
+     * with a single UPDATE statement.
+     * @param from Current status of the payments
+     * @param to Status to move them to
+     * @param before Payments dated before this day are updated
+     * @return Number of payments updated
+     * @throws IllegalArgumentException if the status transition is not allowed
+     */
+    public int updateStatus(PaymentStatus from, PaymentStatus to, LocalDate before) {
+        if (!from.canTransitionTo(to)) {
+            throw new IllegalArgumentException("Cannot move payments from " + from + " to " + to);
+        }
+        return sessionFactory.fromTransaction(session -> session
+                .createMutationQuery("update Payment p set p.state.status = :to"
+                        + " where p.state.status = :from and p.paymentDate < :before")
+                .setParameter("to", to)
+                .setParameter("from", from)
+                .setParameter("before", before)
+                .executeUpdate());
+    }
+}
@@ -0,0 +1,338 @@
+package com.gdms.repository;
+
+import com.gdms.model.Member;
+import com.gdms.model.User;
+import com.gdms.util.ConcurrentIntMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Thread-safe in-memory repository of members.
+ * Members are keyed by user ID in a primitive-keyed map, with secondary indexes on
+ * email (unique, case-insensitive), membership end date and membership type.
+ * The repository listens to the members it holds, so changing an indexed field
+ * through a Member setter updates the indexes before the setter returns.
+ * Email changes should go through {@link #changeEmail(Member, String)}, which
+ * rejects an address owned by another member before the member is touched.
+ * Reads never lock; writes to a given member are serialized on a lock stripe.
+ */
+public class MemberRepository implements PropertyChangeListener {
+    private static final Logger log = LoggerFactory.getLogger(MemberRepository.class);
+    private static final int LOCK_STRIPES = 64;
+
+    private final ConcurrentIntMap<Entry> members = new ConcurrentIntMap<>();
+    private final Map<String, Member> byEmail = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, Member> byEndDate = new ConcurrentSkipListMap<>();
+    private final ConcurrentNavigableMap<String, ConcurrentIntMap<Member>> byType = new ConcurrentSkipListMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public MemberRepository() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Adds a member and indexes it.
+     * @param member Member to add
+     * @throws IllegalStateException if a member with the same ID is already stored
+     * @throws IllegalArgumentException if another member already uses the email
+     */
+    public void add(Member member) {
+        int userId = member.getUserId();
+        synchronized (lockFor(userId)) {
+            if (members.containsKey(userId)) {
+                throw new IllegalStateException("Member " + userId + " already exists");
+            }
+            Entry entry = new Entry(member);
+            entry.emailKey = emailKey(member.getEmail());
+            if (entry.emailKey != null) {
+                Member owner = byEmail.putIfAbsent(entry.emailKey, member);
+                if (owner != null) {
+                    throw new IllegalArgumentException("Email already registered: " + member.getEmail());
+                }
+            }
+            entry.endDate = member.getMembershipEndDate();
+            entry.type = member.getMembershipType();
+            indexEndDate(member, entry.endDate);
+            indexType(member, entry.type);
+            members.put(userId, entry);
+            member.addPropertyChangeListener(this);
+        }
+    }
+
+    /**
+     * Removes a member and its index entries.
+     * @param userId ID of the member
+     * @return The removed member, or null if none was stored
+     */
+    public Member remove(int userId) {
+        synchronized (lockFor(userId)) {
+            Entry entry = members.remove(userId);
+            if (entry == null) {
+                return null;
+            }
+            Member member = entry.member;
+            member.removePropertyChangeListener(this);
+            if (entry.emailKey != null) {
+                byEmail.remove(entry.emailKey, member);
+            }
+            unindexEndDate(member, entry.endDate);
+            unindexType(member, entry.type);
+            return member;
+        }
+    }
+
+    /**
+     * Changes a stored member's email, checking that no other member uses it first.
+     * @param member Member stored in this repository
+     * @param email New email address
+     * @throws IllegalArgumentException if another member already uses the email, or
+     *         the member is not stored here; the member is left unchanged
+     */
+    public void changeEmail(Member member, String email) {
+        int userId = member.getUserId();
+        synchronized (lockFor(userId)) {
+            Entry entry = members.get(userId);
+            if (entry == null || entry.member != member) {
+                throw new IllegalArgumentException("Member " + userId + " is not stored in this repository");
+            }
+            String emailKey = emailKey(email);
+            if (emailKey != null) {
+                Member owner = byEmail.putIfAbsent(emailKey, member);
+                if (owner != null && owner != member) {
+                    throw new IllegalArgumentException("Email already registered: " + email);
+                }
+            }
+            // The listener moves the index entry while this stripe is still held
+            member.setEmail(email);
+        }
+    }
+
+    /**
+     * Finds a member by ID.
+     * @param userId ID of the member
+     * @return The member, or null if not found
+     */
+    public Member findById(int userId) {
+        Entry entry = members.get(userId);
+        return entry == null ? null : entry.member;
+    }
+
+    /**
+     * Finds a member by email, ignoring case.
+     * @param email Email address
+     * @return The member, or null if not found
+     */
+    public Member findByEmail(String email) {
+        String emailKey = emailKey(email);
+        return emailKey == null ? null : byEmail.get(emailKey);
+    }
+
+    /**
+     * Finds members whose membership ends within a date range.
+     * @param from First end date to include
+     * @param to Last end date to include
+     * @return Matching members ordered by end date, then ID
+     */
+    public List<Member> findByMembershipEndDateBetween(LocalDate from, LocalDate to) {
+        long low = endDateKey(from.toEpochDay(), Integer.MIN_VALUE);
+        long high = endDateKey(to.toEpochDay(), Integer.MAX_VALUE);
+        return new ArrayList<>(byEndDate.subMap(low, true, high, true).values());
+    }
+
+    /**
+     * Finds members with the given membership type.
+     * @param membershipType Type of membership (e.g., "Basic", "Premium")
+     * @return Matching members in no particular order
+     */
+    public List<Member> findByMembershipType(String membershipType) {
+        List<Member> result = new ArrayList<>();
+        ConcurrentIntMap<Member> typeMembers = byType.get(membershipType);
+        if (typeMembers != null) {
+            typeMembers.forEachValue(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Finds members whose membership type falls in a lexicographic range.
+     * @param fromType First type to include
+     * @param toType Last type to include
+     * @return Matching members grouped by type
+     */
+    public List<Member> findByMembershipTypeBetween(String fromType, String toType) {
+        List<Member> result = new ArrayList<>();
+        NavigableMap<String, ConcurrentIntMap<Member>> range = byType.subMap(fromType, true, toType, true);
+        for (ConcurrentIntMap<Member> typeMembers : range.values()) {
+            typeMembers.forEachValue(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Counts members with the given membership type.
+     * @param membershipType Type of membership
+     * @return Number of members of that type
+     */
+    public int countByMembershipType(String membershipType) {
+        ConcurrentIntMap<Member> typeMembers = byType.get(membershipType);
+        return typeMembers == null ? 0 : typeMembers.size();
+    }
+
+    /**
+     * Visits every stored member.
+     * @param action Action to run for each member; must not modify this repository
+     */
+    public void forEach(Consumer<? super Member> action) {
+        members.forEachValue(entry -> action.accept(entry.member));
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    @Override
+    public void propertyChange(PropertyChangeEvent event) {
+        if (!(event.getSource() instanceof Member member)) {
+            return;
+        }
+        String property = event.getPropertyName();
+        if (!User.PROPERTY_EMAIL.equals(property) && !Member.PROPERTY_MEMBERSHIP_END_DATE.equals(property)
+                && !Member.PROPERTY_MEMBERSHIP_TYPE.equals(property)) {
+            return;
+        }
+        int userId = member.getUserId();
+        synchronized (lockFor(userId)) {
+            Entry entry = members.get(userId);
+            if (entry == null || entry.member != member) {
+                return;
+            }
+            switch (property) {
+                case User.PROPERTY_EMAIL -> reindexEmail(entry);
+                case Member.PROPERTY_MEMBERSHIP_END_DATE -> reindexEndDate(entry);
+                default -> reindexType(entry);
+            }
+        }
+    }
+
+    /*
+     * The reindex methods move an entry from the values it is indexed under to the
+     * member's current values. Reading the member instead of trusting the event makes
+     * the result independent of the order in which racing events arrive.
+     * Callers hold the member's lock stripe.
+     */
+
+    private void reindexEmail(Entry entry) {
+        Member member = entry.member;
+        String newKey = emailKey(member.getEmail());
+        if (Objects.equals(entry.emailKey, newKey)) {
+            return;
+        }
+        if (entry.emailKey != null) {
+            byEmail.remove(entry.emailKey, member);
+            entry.emailKey = null;
+        }
+        if (newKey != null) {
+            Member owner = byEmail.putIfAbsent(newKey, member);
+            if (owner == null || owner == member) {
+                entry.emailKey = newKey;
+            } else {
+                // Set directly instead of through changeEmail; the owner keeps the address
+                log.warn("Email {} of member {} is already registered to member {}; not indexed",
+                        member.getEmail(), member.getUserId(), owner.getUserId());
+            }
+        }
+    }
+
+    private void reindexEndDate(Entry entry) {
+        LocalDate endDate = entry.member.getMembershipEndDate();
+        if (!Objects.equals(entry.endDate, endDate)) {
+            unindexEndDate(entry.member, entry.endDate);
+            indexEndDate(entry.member, endDate);
+            entry.endDate = endDate;
+        }
+    }
+
+    private void reindexType(Entry entry) {
+        String type = entry.member.getMembershipType();
+        if (!Objects.equals(entry.type, type)) {
+            unindexType(entry.member, entry.type);
+            indexType(entry.member, type);
+            entry.type = type;
+        }
+    }
+
+    private void indexEndDate(Member member, LocalDate endDate) {
+        if (endDate != null) {
+            byEndDate.put(endDateKey(endDate.toEpochDay(), member.getUserId()), member);
+        }
+    }
+
+    private void unindexEndDate(Member member, LocalDate endDate) {
+        if (endDate != null) {
+            byEndDate.remove(endDateKey(endDate.toEpochDay(), member.getUserId()), member);
+        }
+    }
+
+    private void indexType(Member member, String membershipType) {
+        if (membershipType != null) {
+            byType.computeIfAbsent(membershipType, type -> new ConcurrentIntMap<>())
+                    .put(member.getUserId(), member);
+        }
+    }
+
+    private void unindexType(Member member, String membershipType) {
+        if (membershipType != null) {
+            ConcurrentIntMap<Member> typeMembers = byType.get(membershipType);
+            if (typeMembers != null) {
+                typeMembers.remove(member.getUserId(), member);
+            }
+        }
+    }
+
+    private Object lockFor(int userId) {
+        return locks[userId & (LOCK_STRIPES - 1)];
+    }
+
+    /**
+     * Orders entries by end date, then by user ID (flipped so negative IDs sort first).
+     * Epoch days are clamped to the int range, which covers every realistic date.
+     */
+    private static long endDateKey(long epochDay, int userId) {
+        long day = Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, epochDay));
+        return (day << 32) | ((userId ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+    private static String emailKey(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A stored member and the values it is currently indexed under, guarded by the
+     * member's lock stripe.
+     */
+    private static final class Entry {
+        final Member member;
+        String emailKey;
+        LocalDate endDate;
+        String type;
+
+        Entry(Member member) {
+            this.member = member;
+        }
+    }
+}
@@ -0,0 +1,614 @@
+package com.gdms.search;
+
+import com.gdms.model.User;
+import com.gdms.util.IntEntityMap;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search over user names and emails for front-desk lookups, matching
+ * any part of either field ("smi" finds "John Smith" and "asmith@example.com").
+ * Text is compared case- and accent-insensitively, and results are ranked:
+ * an exact name, then a name prefix, a word in the name, an email prefix, a
+ * word in the email, and any other substring; within a rank, in the order the
+ * users were indexed or last renamed.
+ * Each user's normalized name and email are kept as UTF-8 bytes in one shared
+ * array and given a dense slot number. Every trigram of that text, the first one
+ * to three bytes of every word (separately for each rank) and a hash of the name
+ * map to a list of slots stored as variable-length deltas, one to two bytes per
+ * slot for common keys. A query walks the lists for each rank in turn, checking
+ * every candidate against the stored text, and stops as soon as it has enough
+ * results, so even a query matching most users reads only a few of them.
+ * The index listens to the users it holds: changing a name or email gives the
+ * user a new slot, and deactivated users are left out of results unless asked
+ * for. Old slots are dropped by rebuilding the index once they outnumber the
+ * live ones. Searches run in parallel; changes lock the whole index.
+ * @param <U> Type of the indexed users
+ */
+public class UserSearchIndex<U extends User> implements PropertyChangeListener {
+    private static final int NAME_EXACT = 0;
+    private static final int NAME_PREFIX = 1;
+    private static final int NAME_WORD = 2;
+    private static final int EMAIL_PREFIX = 3;
+    private static final int EMAIL_WORD = 4;
+    private static final int SUBSTRING = 5;
+    private static final int NO_MATCH = 6;
+
+    // Keys are a tag in the top bits over 24 bits of text. Tag 0 is a trigram anywhere;
+    // tags 1 to 12 are the first one to three bytes of a word, by rank; 13 is a whole-name hash
+    private static final int TAG_SHIFT = 24;
+    private static final int EXACT_TAG = 13;
+    private static final byte SEPARATOR = 0;
+    private static final byte[] EMPTY = new byte[0];
+    private static final int MIN_REBUILD_SLOTS = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final IntEntityMap<Entry<U>> entries = new IntEntityMap<>(entry -> entry.user.getUserId(), 1024);
+    private IntEntityMap<Postings> postings;
+    private User[] slotUsers;
+    private int[] offsets;
+    private int[] nameLengths;
+    private int[] textLengths;
+    private BitSet active;
+    private byte[] text;
+    private int textLength;
+    private int slotCount;
+    private int[] keyBuffer = new int[64];
+
+    public UserSearchIndex() {
+        reset(1024);
+    }
+
+    /**
+     * Adds a user and starts following changes to its name, email and active flag.
+     * @param user User to add
+     * @throws IllegalStateException if a user with the same ID is already indexed
+     */
+    public void add(U user) {
+        lock.writeLock().lock();
+        try {
+            insert(user);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds many users under one lock, e.g. when loading the index at startup.
+     * @param users Users to add
+     * @throws IllegalStateException if a user with the same ID is already indexed
+     */
+    public void addAll(Iterable<? extends U> users) {
+        lock.writeLock().lock();
+        try {
+            for (U user : users) {
+                insert(user);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a user from the index.
+     * @param userId ID of the user
+     * @return The removed user, or null if none was indexed
+     */
+    public U remove(int userId) {
+        lock.writeLock().lock();
+        try {
+            Entry<U> entry = entries.remove(userId);
+            if (entry == null) {
+                return null;
+            }
+            entry.user.removePropertyChangeListener(this);
+            retire(entry.slot);
+            rebuildIfSparse();
+            return entry.user;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds active users whose name or email contains the query.
+     * @param query Part of a name or email; one or two characters match the start of a word only
+     * @param limit Maximum number of results
+     * @return Best matches first
+     */
+    public List<U> search(String query, int limit) {
+        return search(query, limit, false);
+    }
+
+    /**
+     * Finds users whose name or email contains the query.
+     * @param query Part of a name or email; one or two characters match the start of a word only
+     * @param limit Maximum number of results
+     * @param includeInactive Whether to include deactivated users
+     * @return Best matches first
+     */
+    public List<U> search(String query, int limit, boolean includeInactive) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        byte[] pattern = normalize(query);
+        if (pattern.length == 0) {
+            return List.of();
+        }
+        List<U> results = new ArrayList<>(Math.min(limit, 64));
+        lock.readLock().lock();
+        try {
+            // Every match contains each trigram of a longer query, so the rarest one filters all ranks
+            Postings filter = null;
+            if (pattern.length >= 3) {
+                filter = rarestTrigram(pattern);
+                if (filter == null) {
+                    return List.of();
+                }
+            }
+            // Each rank has its own candidate lists, so the best matches are found first
+            int worst = filter == null ? EMAIL_WORD : SUBSTRING;
+            for (int rank = NAME_EXACT; rank <= worst && results.size() < limit; rank++) {
+                Postings candidates = rank == SUBSTRING ? filter : candidates(pattern, rank);
+                if (candidates == null) {
+                    continue;
+                }
+                if (filter == null || filter == candidates) {
+                    collect(candidates, null, pattern, rank, includeInactive, limit, results);
+                } else if (candidates.count <= filter.count) {
+                    collect(candidates, filter, pattern, rank, includeInactive, limit, results);
+                } else {
+                    collect(filter, candidates, pattern, rank, includeInactive, limit, results);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    /**
+     * @return Number of indexed users
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void propertyChange(PropertyChangeEvent event) {
+        String property = event.getPropertyName();
+        if (!User.PROPERTY_NAME.equals(property) && !User.PROPERTY_EMAIL.equals(property)
+                && !User.PROPERTY_ACTIVE.equals(property)) {
+            return;
+        }
+        User user = (User) event.getSource();
+        lock.writeLock().lock();
+        try {
+            Entry<U> entry = entries.get(user.getUserId());
+            if (entry == null || entry.user != user) {
+                return;
+            }
+            if (User.PROPERTY_ACTIVE.equals(property)) {
+                // Read the flag from the user, so racing setters settle on its final value
+                active.set(entry.slot, user.isActive());
+            } else {
+                retire(entry.slot);
+                index(entry);
+                rebuildIfSparse();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(U user) {
+        if (entries.containsId(user.getUserId())) {
+            throw new IllegalStateException("User " + user.getUserId() + " is already indexed");
+        }
+        Entry<U> entry = new Entry<>(user);
+        entries.put(entry);
+        index(entry);
+        user.addPropertyChangeListener(this);
+    }
+
+    /**
+     * Gives the user a new slot holding its current name and email.
+     */
+    private void index(Entry<U> entry) {
+        byte[] name = normalize(entry.user.getName());
+        byte[] email = normalize(entry.user.getEmail());
+        int slot = slotCount++;
+        if (slot == slotUsers.length) {
+            int capacity = slot + (slot >> 1);
+            slotUsers = Arrays.copyOf(slotUsers, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+            nameLengths = Arrays.copyOf(nameLengths, capacity);
+            textLengths = Arrays.copyOf(textLengths, capacity);
+        }
+        int length = name.length + 1 + email.length;
+        if (textLength + length > text.length) {
+            text = Arrays.copyOf(text, Math.max(textLength + length, text.length + (text.length >> 1)));
+        }
+        int offset = textLength;
+        System.arraycopy(name, 0, text, offset, name.length);
+        text[offset + name.length] = SEPARATOR;
+        System.arraycopy(email, 0, text, offset + name.length + 1, email.length);
+        textLength += length;
+
+        slotUsers[slot] = entry.user;
+        offsets[slot] = offset;
+        nameLengths[slot] = name.length;
+        textLengths[slot] = length;
+        active.set(slot, entry.user.isActive());
+        entry.slot = slot;
+
+        int keys = collectKeys(offset, name.length, true, 0);
+        keys = collectKeys(offset + name.length + 1, email.length, false, keys);
+        Arrays.sort(keyBuffer, 0, keys);
+        for (int i = 0; i < keys; i++) {
+            if (i == 0 || keyBuffer[i] != keyBuffer[i - 1]) {
+                Postings list = postings.get(keyBuffer[i]);
+                if (list == null) {
+                    list = new Postings(keyBuffer[i]);
+                    postings.put(list);
+                }
+                list.add(slot);
+            }
+        }
+    }
+
+    /**
+     * Appends the trigram and word prefix keys of one field to the key buffer.
+     * @return New number of keys in the buffer
+     */
+    private int collectKeys(int offset, int length, boolean name, int keys) {
+        int needed = keys + 4 * length + 1;
+        if (needed > keyBuffer.length) {
+            keyBuffer = Arrays.copyOf(keyBuffer, needed);
+        }
+        if (name && length > 0) {
+            keyBuffer[keys++] = EXACT_TAG << TAG_SHIFT | hash(text, offset, length);
+        }
+        for (int i = 0; i < length; i++) {
+            if (i == 0 || !isWordByte(text[offset + i - 1])) {
+                int rank = name ? (i == 0 ? NAME_PREFIX : NAME_WORD) : (i == 0 ? EMAIL_PREFIX : EMAIL_WORD);
+                for (int prefix = 1; prefix <= 3 && i + prefix <= length; prefix++) {
+                    keyBuffer[keys++] = wordKey(rank, text, offset + i, prefix);
+                }
+            }
+            if (i + 2 < length) {
+                keyBuffer[keys++] = trigram(text, offset + i);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Adds the users in both candidate lists whose best match has the given rank,
+     * in slot order, until the results are full. Users with a better rank were
+     * added from an earlier list.
+     * @param candidates The shorter list, read in full
+     * @param filter The longer list, skipped through alongside; null to check every candidate
+     */
+    private void collect(Postings candidates, Postings filter, byte[] pattern, int rank, boolean includeInactive,
+                         int limit, List<U> results) {
+        Cursor cursor = new Cursor(candidates);
+        Cursor other = filter == null ? null : new Cursor(filter);
+        while (cursor.next()) {
+            int slot = cursor.slot;
+            if (other != null && !other.skipTo(slot)) {
+                if (other.exhausted()) {
+                    return;
+                }
+                continue;
+            }
+            if (slotUsers[slot] == null || (!includeInactive && !active.get(slot)) || score(pattern, slot) != rank) {
+                continue;
+            }
+            @SuppressWarnings("unchecked")
+            U user = (U) slotUsers[slot];
+            results.add(user);
+            if (results.size() == limit) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return The list of users whose best match can have the rank, or null if there is none
+     */
+    private Postings candidates(byte[] pattern, int rank) {
+        if (rank == NAME_EXACT) {
+            return postings.get(EXACT_TAG << TAG_SHIFT | hash(pattern, 0, pattern.length));
+        }
+        return postings.get(wordKey(rank, pattern, 0, Math.min(pattern.length, 3)));
+    }
+
+    /**
+     * @return The shortest list among the pattern's trigrams, or null if one of them occurs nowhere
+     */
+    private Postings rarestTrigram(byte[] pattern) {
+        Postings shortest = null;
+        for (int i = 0; i + 2 < pattern.length; i++) {
+            Postings list = postings.get(trigram(pattern, i));
+            if (list == null) {
+                return null;
+            }
+            if (shortest == null || list.count < shortest.count) {
+                shortest = list;
+            }
+        }
+        return shortest;
+    }
+
+    /**
+     * @return Best rank of any occurrence of the pattern in the slot's text, or NO_MATCH
+     */
+    private int score(byte[] pattern, int slot) {
+        int offset = offsets[slot];
+        int nameLength = nameLengths[slot];
+        int length = textLengths[slot];
+        byte first = pattern[0];
+        int best = NO_MATCH;
+        for (int i = 0; i + pattern.length <= length && best > NAME_EXACT; i++) {
+            if (text[offset + i] != first || !regionMatches(pattern, offset + i)) {
+                continue;
+            }
+            boolean wordStart = i == 0 || !isWordByte(text[offset + i - 1]);
+            int score;
+            if (i < nameLength) {
+                if (i == 0) {
+                    score = pattern.length == nameLength ? NAME_EXACT : NAME_PREFIX;
+                } else {
+                    score = wordStart ? NAME_WORD : SUBSTRING;
+                }
+            } else if (i == nameLength + 1) {
+                score = EMAIL_PREFIX;
+            } else {
+                score = wordStart ? EMAIL_WORD : SUBSTRING;
+            }
+            best = Math.min(best, score);
+        }
+        return best;
+    }
+
+    private boolean regionMatches(byte[] pattern, int start) {
+        for (int j = 1; j < pattern.length; j++) {
+            if (text[start + j] != pattern[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void retire(int slot) {
+        slotUsers[slot] = null;
+        active.clear(slot);
+    }
+
+    /**
+     * Rebuilds the index once retired slots outnumber live ones, which keeps the
+     * cost of a rename constant on average.
+     */
+    private void rebuildIfSparse() {
+        int live = entries.size();
+        if (slotCount - live <= Math.max(MIN_REBUILD_SLOTS, live)) {
+            return;
+        }
+        List<Entry<U>> inOrder = new ArrayList<>(live);
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (slotUsers[slot] != null) {
+                inOrder.add(entries.get(slotUsers[slot].getUserId()));
+            }
+        }
+        reset(Math.max(1024, live + (live >> 2)));
+        for (Entry<U> entry : inOrder) {
+            index(entry);
+        }
+    }
+
+    private void reset(int capacity) {
+        postings = new IntEntityMap<>(list -> list.key, 1024);
+        slotUsers = new User[capacity];
+        offsets = new int[capacity];
+        nameLengths = new int[capacity];
+        textLengths = new int[capacity];
+        active = new BitSet(capacity);
+        text = new byte[capacity * 32];
+        textLength = 0;
+        slotCount = 0;
+    }
+
+    /**
+     * Lower-cases the text, strips accents, drops control characters and
+     * collapses whitespace, so that "  José " and "jose" compare equal.
+     * @return UTF-8 bytes of the normalized text
+     */
+    static byte[] normalize(String value) {
+        if (value == null || value.isEmpty()) {
+            return EMPTY;
+        }
+        byte[] ascii = normalizeAscii(value);
+        if (ascii != null) {
+            return ascii;
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean space = false;
+        for (int i = 0; i < decomposed.length(); ) {
+            int codePoint = decomposed.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isWhitespace(codePoint)) {
+                space = normalized.length() > 0;
+            } else if (Character.getType(codePoint) != Character.NON_SPACING_MARK
+                    && !Character.isISOControl(codePoint)) {
+                if (space) {
+                    normalized.append(' ');
+                    space = false;
+                }
+                normalized.appendCodePoint(Character.toLowerCase(codePoint));
+            }
+        }
+        return normalized.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Normalizes plain ASCII text without decomposing it, which covers most names and emails.
+     * @return UTF-8 bytes of the normalized text, or null if the text is not plain ASCII
+     */
+    private static byte[] normalizeAscii(String value) {
+        byte[] bytes = new byte[value.length()];
+        int length = 0;
+        boolean space = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x7F) {
+                return null;
+            }
+            if (c == ' ' || (c >= '\t' && c <= '\r') || (c >= 0x1C && c <= 0x1F)) {
+                space = length > 0;
+            } else if (c >= 0x20) {
+                if (space) {
+                    bytes[length++] = ' ';
+                    space = false;
+                }
+                bytes[length++] = (byte) (c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c);
+            }
+        }
+        return length == bytes.length ? bytes : Arrays.copyOf(bytes, length);
+    }
+
+    /**
+     * @return true for letters and digits; every byte of a non-ASCII character counts as a letter
+     */
+    private static boolean isWordByte(byte b) {
+        return b < 0 || (b >= 'a' && b <= 'z') || (b >= '0' && b <= '9');
+    }
+
+    private static int trigram(byte[] bytes, int index) {
+        return (bytes[index] & 0xFF) << 16 | (bytes[index + 1] & 0xFF) << 8 | bytes[index + 2] & 0xFF;
+    }
+
+    /**
+     * @return Key of the first one to three bytes of a word whose match would have the rank
+     */
+    private static int wordKey(int rank, byte[] bytes, int index, int length) {
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            value = value << 8 | bytes[index + i] & 0xFF;
+        }
+        int tag = 1 + (rank - NAME_PREFIX) * 3 + (length - 1);
+        return tag << TAG_SHIFT | value;
+    }
+
+    private static int hash(byte[] bytes, int index, int length) {
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + bytes[index + i];
+        }
+        return (hash ^ hash >>> 24) & 0xFFFFFF;
+    }
+
+    private static final class Entry<U extends User> {
+        final U user;
+        int slot;
+
+        Entry(U user) {
+            this.user = user;
+        }
+    }
+
+    /**
+     * Ascending slot numbers for one key, each stored as a variable-length
+     * difference from the previous one, seven bits per byte.
+     */
+    private static final class Postings {
+        final int key;
+        byte[] data = new byte[4];
+        int length;
+        int count;
+        int last = -1;
+
+        Postings(int key) {
+            this.key = key;
+        }
+
+        void add(int slot) {
+            if (length + 5 > data.length) {
+                data = Arrays.copyOf(data, Math.max(length + 5, data.length + (data.length >> 1)));
+            }
+            int delta = slot - last;
+            while ((delta & ~0x7F) != 0) {
+                data[length++] = (byte) (delta & 0x7F | 0x80);
+                delta >>>= 7;
+            }
+            data[length++] = (byte) delta;
+            last = slot;
+            count++;
+        }
+    }
+
+    /**
+     * Reads a slot list in order.
+     */
+    private static final class Cursor {
+        private final byte[] data;
+        private final int length;
+        private int index;
+        int slot = -1;
+
+        Cursor(Postings postings) {
+            this.data = postings.data;
+            this.length = postings.length;
+        }
+
+        /**
+         * @return true if the cursor moved to the next slot, false at the end of the list
+         */
+        boolean next() {
+            if (index == length) {
+                slot = Integer.MAX_VALUE;
+                return false;
+            }
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[index++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            slot += delta;
+            return true;
+        }
+
+        /**
+         * Moves to the first slot at or after the target.
+         * @return true if the target is in the list
+         */
+        boolean skipTo(int target) {
+            while (slot < target && next()) {
+                // Skip
+            }
+            return slot == target;
+        }
+
+        boolean exhausted() {
+            return slot == Integer.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.gdms.security;
+
+import com.gdms.metrics.GymMetrics;
+import com.gdms.metrics.Timer;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Runs password hashing and verification on a dedicated, bounded worker pool.
+ * BCrypt is deliberately slow, so callers such as bulk imports and login handlers
+ * hand the work off here instead of burning their own request threads.
+ * When both the workers and the queue are saturated the submitting thread waits
+ * for a free slot in the queue, which throttles producers instead of queueing
+ * without bound; the hashing itself always runs on a worker. Work submitted after
+ * {@link #close()}, or still queued when close gives up waiting, completes
+ * exceptionally with a {@link RejectedExecutionException}.
+ */
+public class PasswordHashingService implements AutoCloseable {
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+    private static final Timer ENCODING = GymMetrics.PASSWORD_HASHING.labels("encode");
+    private static final Timer VERIFICATION = GymMetrics.PASSWORD_HASHING.labels("verify");
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Creates a service using a default-strength BCrypt encoder, one worker per core
+     * and a queue of 1024 pending tasks.
+     */
+    public PasswordHashingService() {
+        this(new BCryptPasswordEncoder(), Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructor for creating a hashing service.
+     * @param encoder Encoder used for hashing and verification (must be thread-safe)
+     * @param workers Number of worker threads
+     * @param queueCapacity Maximum number of tasks waiting for a worker
+     */
+    public PasswordHashingService(PasswordEncoder encoder, int workers, int queueCapacity) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be positive");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        }
+        this.encoder = Objects.requireNonNull(encoder, "encoder");
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+                new WaitForQueuePolicy());
+    }
+
+    /**
+     * Hashes a raw password asynchronously.
+     * @param rawPassword Plain-text password
+     * @return Future completed with the encoded hash
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        Objects.requireNonNull(rawPassword, "rawPassword");
+        return submit(() -> encodeNow(rawPassword));
+    }
+
+    /**
+     * Verifies a raw password against a stored hash asynchronously.
+     * @param rawPassword Plain-text password presented by the user
+     * @param encodedPassword Stored hash
+     * @return Future completed with true if the password matches
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> matchesNow(rawPassword, encodedPassword));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        HashTask<T> task = new HashTask<>(work);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.future.completeExceptionally(e);
+        }
+        return task.future;
+    }
+
+    /**
+     * Verifies a raw password on the calling thread.
+     * Used by callers that are already running on a worker of their own.
+     * @param rawPassword Plain-text password presented by the user
+     * @param encodedPassword Stored hash
+     * @return true if the password matches
+     */
+    public boolean matchesNow(String rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        boolean matches = encoder.matches(rawPassword, encodedPassword);
+        VERIFICATION.recordSince(start);
+        return matches;
+    }
+
+    /**
+     * Hashes a raw password on the calling thread.
+     * Used by callers that are already running on a worker of their own.
+     * @param rawPassword Plain-text password
+     * @return The encoded hash
+     */
+    public String encodeNow(String rawPassword) {
+        long start = System.nanoTime();
+        String encoded = encoder.encode(rawPassword);
+        ENCODING.recordSince(start);
+        return encoded;
+    }
+
+    /**
+     * Checks that a stored value has the shape of a BCrypt hash: version, cost and
+     * 53 characters of salt and digest.
+     * @param encodedPassword Value to check
+     * @return true if it looks like a BCrypt hash
+     */
+    public static boolean isBCryptHash(String encodedPassword) {
+        return encodedPassword != null && BCRYPT_HASH.matcher(encodedPassword).matches();
+    }
+
+    /**
+     * @return Number of tasks currently waiting for a worker
+     */
+    public int getQueuedTaskCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Stops accepting new work and waits for queued hashes to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                abandonQueuedTasks();
+            }
+        } catch (InterruptedException e) {
+            abandonQueuedTasks();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void abandonQueuedTasks() {
+        for (Runnable task : executor.shutdownNow()) {
+            if (task instanceof HashTask<?> hashTask) {
+                hashTask.future.completeExceptionally(
+                        new RejectedExecutionException("Password hashing service closed"));
+            }
+        }
+    }
+
+    /**
+     * Work item that completes its own future, so tasks the executor drops on
+     * shutdown can still be failed instead of leaving their callers waiting.
+     */
+    private static final class HashTask<T> implements Runnable {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        private final Supplier<T> work;
+
+        HashTask(Supplier<T> work) {
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            try {
+                future.complete(work.get());
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Blocks the submitting thread until the queue has room, and rejects work once
+     * the service is closed.
+     */
+    private static final class WaitForQueuePolicy implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Password hashing service closed");
+            }
+            try {
+                executor.getQueue().put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted waiting for the hashing queue", e);
+            }
+            // Closed while waiting: no worker may be left to take the task
+            if (executor.isShutdown() && executor.getQueue().remove(task)) {
+                throw new RejectedExecutionException("Password hashing service closed");
+            }
+        }
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+        private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+        private final int pool = POOL_SEQUENCE.incrementAndGet();
+        private final AtomicInteger threadSequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "password-hash-" + pool + "-" + threadSequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
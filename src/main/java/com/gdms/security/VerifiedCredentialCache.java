@@ -0,0 +1,204 @@
+package com.gdms.security;
+
+import com.gdms.model.User;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Opt-in cache of recently verified credentials.
+ * A successful BCrypt check is remembered for a limited time as an HMAC of
+ * (user id, stored hash, presented password) under a per-process random key,
+ * so neither the plain-text password nor a reusable digest of it is ever kept.
+ * Holds at most one entry per user, which is dropped as soon as the user's
+ * password changes or the user is deactivated.
+ */
+public class VerifiedCredentialCache implements PropertyChangeListener {
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Clock clock;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor for creating a cache on the system clock.
+     * @param ttl How long a verification stays valid
+     * @param maxEntries Maximum number of cached users
+     */
+    public VerifiedCredentialCache(Duration ttl, int maxEntries) {
+        this(ttl, maxEntries, Clock.systemUTC());
+    }
+
+    /**
+     * Constructor for creating a cache.
+     * @param ttl How long a verification stays valid
+     * @param maxEntries Maximum number of cached users
+     * @param clock Clock used for expiry
+     */
+    public VerifiedCredentialCache(Duration ttl, int maxEntries, Clock clock) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+        this.clock = Objects.requireNonNull(clock, "clock");
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, MAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Checks a presented password, consulting the cache before the slow verifier.
+     * @param user User being authenticated
+     * @param storedHash The user's current password hash
+     * @param presentedPassword Password presented by the caller
+     * @param verifier Full (BCrypt) verification, run only on a cache miss
+     * @return true if the password is correct
+     */
+    public boolean verify(User user, String storedHash, String presentedPassword, BooleanSupplier verifier) {
+        byte[] digest = digest(user.getUserId(), storedHash, presentedPassword);
+        long now = clock.millis();
+        Entry entry = entries.get(user.getUserId());
+        if (entry != null && entry.expiresAt > now && MessageDigest.isEqual(entry.digest, digest)) {
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        if (!verifier.getAsBoolean()) {
+            return false;
+        }
+        if (user.isActive()) {
+            store(user, digest, now);
+        }
+        return true;
+    }
+
+    /**
+     * Drops any cached verification for a user.
+     * @param userId ID of the user
+     */
+    public void invalidate(int userId) {
+        Entry removed = entries.remove(userId);
+        if (removed != null) {
+            removed.user.removePropertyChangeListener(this);
+        }
+    }
+
+    /**
+     * Drops all cached verifications.
+     */
+    public void clear() {
+        for (Integer userId : entries.keySet()) {
+            invalidate(userId);
+        }
+    }
+
+    @Override
+    public void propertyChange(PropertyChangeEvent event) {
+        String property = event.getPropertyName();
+        if (User.PROPERTY_PASSWORD.equals(property)
+                || (User.PROPERTY_ACTIVE.equals(property) && Boolean.FALSE.equals(event.getNewValue()))) {
+            invalidate(((User) event.getSource()).getUserId());
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void store(User user, byte[] digest, long now) {
+        int userId = user.getUserId();
+        if (entries.size() >= maxEntries && !entries.containsKey(userId)) {
+            makeRoom(now);
+        }
+        entries.compute(userId, (id, previous) -> {
+            if (previous == null || previous.user != user) {
+                if (previous != null) {
+                    previous.user.removePropertyChangeListener(this);
+                }
+                user.addPropertyChangeListener(this);
+            }
+            return new Entry(user, digest, now + ttlMillis);
+        });
+        // A deactivation racing with this store must not leave a usable entry behind
+        if (!user.isActive()) {
+            invalidate(userId);
+        }
+    }
+
+    private void makeRoom(long now) {
+        for (Map.Entry<Integer, Entry> cached : entries.entrySet()) {
+            if (cached.getValue().expiresAt <= now) {
+                invalidate(cached.getKey());
+            }
+        }
+        Iterator<Integer> userIds = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && userIds.hasNext()) {
+            invalidate(userIds.next());
+        }
+    }
+
+    private byte[] digest(int userId, String storedHash, String presentedPassword) {
+        Mac mac = macs.get();
+        mac.update((byte) (userId >>> 24));
+        mac.update((byte) (userId >>> 16));
+        mac.update((byte) (userId >>> 8));
+        mac.update((byte) userId);
+        updateField(mac, storedHash);
+        updateField(mac, presentedPassword);
+        return mac.doFinal();
+    }
+
+    private static void updateField(Mac mac, String value) {
+        byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        mac.update((byte) (length >>> 24));
+        mac.update((byte) (length >>> 16));
+        mac.update((byte) (length >>> 8));
+        mac.update((byte) length);
+        mac.update(bytes);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private record Entry(User user, byte[] digest, long expiresAt) {
+    }
+}
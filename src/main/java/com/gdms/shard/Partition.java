@@ -0,0 +1,207 @@
+package com.gdms.shard;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.Payment;
+import com.gdms.repository.MemberRepository;
+import com.gdms.util.IntEntityMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * One partition of a {@link ShardedGymModel}: its own member repository, payment
+ * and equipment maps, read-write lock and single worker thread. Nothing in it is
+ * shared with other partitions, so operations routed to different partitions
+ * never contend.
+ * Members are guarded by the repository's own lock stripes; payments and
+ * equipment by the partition's lock, which the accessors take themselves. They are
+ * meant for scatter-gather queries, which run on the partition's thread and already
+ * hold the read lock; the read lock is reentrant, so taking it again is cheap.
+ */
+public final class Partition {
+    private final int index;
+    private final MemberRepository members = new MemberRepository();
+    private final IntEntityMap<Payment> payments = IntEntityMap.forPayments();
+    private final Map<Integer, List<Payment>> paymentsByMember = new HashMap<>();
+    private final IntEntityMap<Equipment> equipment = IntEntityMap.forEquipment();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService executor;
+
+    Partition(int index) {
+        this.index = index;
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "shard-" + index);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return Members stored in this partition
+     */
+    public MemberRepository getMembers() {
+        return members;
+    }
+
+    /**
+     * Visits every payment in this partition while holding its read lock.
+     * @param action Action to run for each payment; must not modify the partition
+     */
+    public void forEachPayment(Consumer<? super Payment> action) {
+        lock.readLock().lock();
+        try {
+            payments.forEach(action);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visits every machine in this partition while holding its read lock.
+     * @param action Action to run for each machine; must not modify the partition
+     */
+    public void forEachEquipment(Consumer<? super Equipment> action) {
+        lock.readLock().lock();
+        try {
+            equipment.forEach(action);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of payments in this partition
+     */
+    public int getPaymentCount() {
+        lock.readLock().lock();
+        try {
+            return payments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of machines in this partition
+     */
+    public int getEquipmentCount() {
+        lock.readLock().lock();
+        try {
+            return equipment.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void addPayment(Payment payment) {
+        lock.writeLock().lock();
+        try {
+            if (payments.containsId(payment.getPaymentId())) {
+                throw new IllegalStateException("Payment " + payment.getPaymentId() + " already exists");
+            }
+            payments.put(payment);
+            paymentsByMember.computeIfAbsent(payment.getMemberId(), memberId -> new ArrayList<>(4)).add(payment);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    Payment removePayment(int paymentId) {
+        lock.writeLock().lock();
+        try {
+            Payment payment = payments.remove(paymentId);
+            if (payment != null) {
+                List<Payment> history = paymentsByMember.get(payment.getMemberId());
+                history.remove(payment);
+                if (history.isEmpty()) {
+                    paymentsByMember.remove(payment.getMemberId());
+                }
+            }
+            return payment;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    Payment findPayment(int paymentId) {
+        lock.readLock().lock();
+        try {
+            return payments.get(paymentId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Payment> findPaymentsByMember(int memberId) {
+        lock.readLock().lock();
+        try {
+            List<Payment> history = paymentsByMember.get(memberId);
+            return history == null ? new ArrayList<>() : new ArrayList<>(history);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return true if the machine was added, false if this partition already holds it
+     */
+    boolean addEquipment(Equipment machine) {
+        lock.writeLock().lock();
+        try {
+            Equipment stored = equipment.get(machine.getEquipmentId());
+            if (stored == machine) {
+                return false;
+            }
+            if (stored != null) {
+                throw new IllegalStateException("Equipment " + machine.getEquipmentId() + " already exists");
+            }
+            equipment.put(machine);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a machine if this partition holds that instance.
+     * @return true if it was removed
+     */
+    boolean removeEquipment(Equipment machine) {
+        lock.writeLock().lock();
+        try {
+            if (equipment.get(machine.getEquipmentId()) != machine) {
+                return false;
+            }
+            equipment.remove(machine.getEquipmentId());
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    Equipment findEquipment(int equipmentId) {
+        lock.readLock().lock();
+        try {
+            return equipment.get(equipmentId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    ReentrantReadWriteLock.ReadLock readLock() {
+        return lock.readLock();
+    }
+
+    ExecutorService executor() {
+        return executor;
+    }
+}
@@ -0,0 +1,482 @@
+package com.gdms.shard;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.EquipmentStatus;
+import com.gdms.model.Member;
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Members, payments and equipment of a multi-site deployment, split across a
+ * fixed number of {@link Partition}s so that writers for different partitions
+ * never share a lock.
+ * Members are routed by a hash of their ID, and payments go to the partition of
+ * their member, so a member's payment history is read from one partition.
+ * Equipment is routed by location: each location is assigned to a partition the
+ * first time it is seen, round-robin, so every gym's machines stay together and
+ * locations spread evenly. Moving a machine to another location moves it to that
+ * location's partition; lookups may miss it while it moves. If that partition
+ * already holds another machine with the same ID, the machine stays where it was,
+ * with a warning, and is moved by its next location change.
+ * A shared index from payment ID to member ID keeps payment IDs unique across
+ * the whole model and routes lookups by payment ID to one partition.
+ * Lookups by member ID, payment ID or location go to one partition. Lookups by
+ * email and the reports visit every partition; the reports use
+ * {@link #query(Function, BinaryOperator)}, which runs a function on every
+ * partition's own thread in parallel and combines the results.
+ * Member and payment IDs are unique across the whole model. Equipment IDs are
+ * only checked within a partition, and emails are unique per partition, not
+ * globally.
+ * Thread-safe.
+ */
+public class ShardedGymModel implements PropertyChangeListener, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ShardedGymModel.class);
+    private static final int LOCK_STRIPES = 64;
+
+    private final Partition[] partitions;
+    private final Map<String, Partition> locations = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> paymentMembers = new ConcurrentHashMap<>();
+    private final AtomicInteger nextLocationPartition = new AtomicInteger();
+    private final Object[] equipmentLocks = new Object[LOCK_STRIPES];
+
+    /**
+     * Constructor for creating a sharded model.
+     * @param partitionCount Number of partitions, e.g. the number of cores or of locations
+     */
+    public ShardedGymModel(int partitionCount) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("partitionCount must be positive");
+        }
+        partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i);
+        }
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            equipmentLocks[i] = new Object();
+        }
+    }
+
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    /**
+     * @param partition Index of the partition
+     * @return The partition
+     */
+    public Partition getPartition(int partition) {
+        return partitions[partition];
+    }
+
+    /**
+     * Finds the partition that holds a member and the member's payments.
+     * @param memberId ID of the member
+     * @return The partition
+     */
+    public Partition partitionOfMember(int memberId) {
+        // Spread sequential IDs; the multiplier is the 32-bit golden ratio
+        int hash = memberId * 0x9E3779B9;
+        return partitions[Math.floorMod(hash ^ (hash >>> 16), partitions.length)];
+    }
+
+    /**
+     * Finds the partition that holds the equipment of a location, assigning one if the location is new.
+     * @param location Location of the equipment
+     * @return The partition
+     */
+    public Partition partitionOfLocation(String location) {
+        return locations.computeIfAbsent(key(location),
+                key -> partitions[Math.floorMod(nextLocationPartition.getAndIncrement(), partitions.length)]);
+    }
+
+    /**
+     * Adds a member to its partition.
+     * @param member Member to add
+     * @throws IllegalStateException if a member with the same ID is already stored
+     * @throws IllegalArgumentException if another member of the partition already uses the email
+     */
+    public void addMember(Member member) {
+        partitionOfMember(member.getUserId()).getMembers().add(member);
+    }
+
+    /**
+     * Removes a member. The member's payments are kept.
+     * @param memberId ID of the member
+     * @return The removed member, or null if none was stored
+     */
+    public Member removeMember(int memberId) {
+        return partitionOfMember(memberId).getMembers().remove(memberId);
+    }
+
+    /**
+     * Finds a member by ID.
+     * @param memberId ID of the member
+     * @return The member, or null if not found
+     */
+    public Member findMember(int memberId) {
+        return partitionOfMember(memberId).getMembers().findById(memberId);
+    }
+
+    /**
+     * Finds a member by email, ignoring case, looking in every partition.
+     * @param email Email address
+     * @return The member, or null if not found
+     */
+    public Member findMemberByEmail(String email) {
+        for (Partition partition : partitions) {
+            Member member = partition.getMembers().findByEmail(email);
+            if (member != null) {
+                return member;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Number of stored members
+     */
+    public int getMemberCount() {
+        int count = 0;
+        for (Partition partition : partitions) {
+            count += partition.getMembers().size();
+        }
+        return count;
+    }
+
+    /**
+     * Adds a payment to the partition of its member.
+     * @param payment Payment to add
+     * @throws IllegalStateException if a payment with the same ID is already stored
+     */
+    public void addPayment(Payment payment) {
+        if (paymentMembers.putIfAbsent(payment.getPaymentId(), payment.getMemberId()) != null) {
+            throw new IllegalStateException("Payment " + payment.getPaymentId() + " already exists");
+        }
+        try {
+            partitionOfMember(payment.getMemberId()).addPayment(payment);
+        } catch (RuntimeException e) {
+            paymentMembers.remove(payment.getPaymentId(), payment.getMemberId());
+            throw e;
+        }
+    }
+
+    /**
+     * Removes a payment.
+     * @param memberId ID of the member who made the payment
+     * @param paymentId ID of the payment
+     * @return The removed payment, or null if that member has no payment with the ID
+     */
+    public Payment removePayment(int memberId, int paymentId) {
+        if (!Integer.valueOf(memberId).equals(paymentMembers.get(paymentId))) {
+            return null;
+        }
+        Payment payment = partitionOfMember(memberId).removePayment(paymentId);
+        if (payment != null) {
+            paymentMembers.remove(paymentId, memberId);
+        }
+        return payment;
+    }
+
+    /**
+     * Finds the payments of a member.
+     * @param memberId ID of the member
+     * @return The member's payments in the order they were added
+     */
+    public List<Payment> findPaymentsByMember(int memberId) {
+        return partitionOfMember(memberId).findPaymentsByMember(memberId);
+    }
+
+    /**
+     * Finds a payment by ID, in the partition of the member it was added for.
+     * @param paymentId ID of the payment
+     * @return The payment, or null if not found
+     */
+    public Payment findPayment(int paymentId) {
+        Integer memberId = paymentMembers.get(paymentId);
+        return memberId == null ? null : partitionOfMember(memberId).findPayment(paymentId);
+    }
+
+    /**
+     * Adds a machine to the partition of its location and follows its location changes.
+     * @param equipment Machine to add
+     * @throws IllegalStateException if the partition already holds another machine with the same ID
+     */
+    public void addEquipment(Equipment equipment) {
+        synchronized (lockFor(equipment.getEquipmentId())) {
+            Partition partition = partitionOfLocation(equipment.getLocation());
+            partition.addEquipment(equipment);
+            equipment.addPropertyChangeListener(this);
+            // Catch up with a move made before the listener was registered
+            relocate(equipment, partition);
+        }
+    }
+
+    /**
+     * Removes a machine.
+     * @param equipment Machine to remove
+     * @return true if the machine was stored
+     */
+    public boolean removeEquipment(Equipment equipment) {
+        synchronized (lockFor(equipment.getEquipmentId())) {
+            equipment.removePropertyChangeListener(this);
+            Partition holder = holderOf(equipment, partitionOfLocation(equipment.getLocation()));
+            return holder != null && holder.removeEquipment(equipment);
+        }
+    }
+
+    /**
+     * Finds a machine at a location.
+     * @param location Location of the machine
+     * @param equipmentId ID of the machine
+     * @return The machine, or null if the location has no machine with that ID
+     */
+    public Equipment findEquipment(String location, int equipmentId) {
+        Equipment equipment = partitionOfLocation(location).findEquipment(equipmentId);
+        return equipment != null && key(equipment.getLocation()).equals(key(location)) ? equipment : null;
+    }
+
+    @Override
+    public void propertyChange(PropertyChangeEvent event) {
+        if (!(event.getSource() instanceof Equipment equipment)) {
+            return;
+        }
+        switch (event.getPropertyName()) {
+            case Equipment.PROPERTY_LOCATION -> {
+                try {
+                    synchronized (lockFor(equipment.getEquipmentId())) {
+                        Partition from = holderOf(equipment, partitionOfLocation((String) event.getOldValue()));
+                        if (from != null) {
+                            relocate(equipment, from);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    // Must not stop the location change, or the listeners registered after this one
+                    log.error("Could not move equipment {} to its new location", equipment.getEquipmentId(), e);
+                }
+            }
+            default -> {
+                // Does not affect routing
+            }
+        }
+    }
+
+    /**
+     * Runs a query on every partition in parallel, each on the partition's own
+     * thread while holding its read lock, and combines the results in partition
+     * order. Queries must not modify the partition or start another query.
+     * @param query Query to run on each partition
+     * @param combiner Combines two partial results
+     * @param <R> Type of the result
+     * @return Combined result
+     */
+    public <R> R query(Function<? super Partition, ? extends R> query, BinaryOperator<R> combiner) {
+        List<R> results = queryEach(query);
+        R result = results.get(0);
+        for (int i = 1; i < results.size(); i++) {
+            result = combiner.apply(result, results.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Runs a query on every partition in parallel, each on the partition's own
+     * thread while holding its read lock. Queries must not modify the partition or
+     * start another query.
+     * @param query Query to run on each partition
+     * @param <R> Type of the result
+     * @return One result per partition, in partition order
+     */
+    public <R> List<R> queryEach(Function<? super Partition, ? extends R> query) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(partitions.length);
+        for (Partition partition : partitions) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                partition.readLock().lock();
+                try {
+                    return query.apply(partition);
+                } finally {
+                    partition.readLock().unlock();
+                }
+            }, partition.executor()));
+        }
+        List<R> results = new ArrayList<>(partitions.length);
+        try {
+            for (CompletableFuture<R> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            } else if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Counts members by membership type across all partitions.
+     * @return Member count per membership type, ordered by type
+     */
+    public Map<String, Integer> countMembersByType() {
+        return query(partition -> {
+            Map<String, Integer> counts = new TreeMap<>();
+            partition.getMembers().forEach(member -> counts.merge(member.getMembershipType(), 1, Integer::sum));
+            return counts;
+        }, ShardedGymModel::mergeCounts);
+    }
+
+    /**
+     * Finds members whose membership ends within a date range across all partitions.
+     * @param from First end date to include
+     * @param to Last end date to include
+     * @return Matching members ordered by end date, then ID
+     */
+    public List<Member> findByMembershipEndDateBetween(LocalDate from, LocalDate to) {
+        List<Member> found = query(partition -> partition.getMembers().findByMembershipEndDateBetween(from, to),
+                (left, right) -> {
+                    left.addAll(right);
+                    return left;
+                });
+        found.sort(Comparator.comparing(Member::getMembershipEndDate).thenComparingInt(Member::getUserId));
+        return found;
+    }
+
+    /**
+     * Sums payments with a status and a payment date within a range across all partitions.
+     * @param status Status of the payments to sum
+     * @param from First payment date to include
+     * @param to Last payment date to include
+     * @return Total per currency
+     */
+    public Map<Currency, Money> sumPayments(PaymentStatus status, LocalDate from, LocalDate to) {
+        Map<Currency, Long> totals = query(partition -> {
+            Map<Currency, Long> sums = new HashMap<>();
+            partition.forEachPayment(payment -> {
+                LocalDate date = payment.getPaymentDate();
+                if (payment.getPaymentStatus() == status && !date.isBefore(from) && !date.isAfter(to)) {
+                    sums.merge(payment.getCurrency(), payment.getAmountMinor(), Math::addExact);
+                }
+            });
+            return sums;
+        }, (left, right) -> {
+            right.forEach((currency, sum) -> left.merge(currency, sum, Math::addExact));
+            return left;
+        });
+        Map<Currency, Money> result = new HashMap<>();
+        totals.forEach((currency, sum) -> result.put(currency, Money.ofMinor(sum, currency)));
+        return result;
+    }
+
+    /**
+     * Counts machines with a status by location across all partitions.
+     * @param status Status to count
+     * @return Machine count per location, ordered by location; locations without such machines are left out
+     */
+    public Map<String, Integer> countEquipmentByLocation(EquipmentStatus status) {
+        return query(partition -> {
+            Map<String, Integer> counts = new TreeMap<>();
+            partition.forEachEquipment(equipment -> {
+                if (equipment.getEquipmentStatus() == status) {
+                    counts.merge(key(equipment.getLocation()), 1, Integer::sum);
+                }
+            });
+            return counts;
+        }, ShardedGymModel::mergeCounts);
+    }
+
+    /**
+     * Stops the partitions' threads. Lookups and writes keep working; queries fail.
+     */
+    @Override
+    public void close() {
+        for (Partition partition : partitions) {
+            partition.executor().shutdown();
+        }
+        try {
+            for (Partition partition : partitions) {
+                if (!partition.executor().awaitTermination(30, TimeUnit.SECONDS)) {
+                    partition.executor().shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            for (Partition partition : partitions) {
+                partition.executor().shutdownNow();
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, Integer> mergeCounts(Map<String, Integer> left, Map<String, Integer> right) {
+        right.forEach((key, count) -> left.merge(key, count, Integer::sum));
+        return left;
+    }
+
+    /**
+     * Moves a machine to the partition of its current location. Reading the
+     * location instead of trusting the event makes racing moves end up consistent.
+     * Call with the machine's lock held.
+     * @param equipment Machine to move
+     * @param from Partition that holds the machine
+     */
+    private void relocate(Equipment equipment, Partition from) {
+        Partition to = partitionOfLocation(equipment.getLocation());
+        if (from == to) {
+            return;
+        }
+        // Only machines with the same ID, and so the same lock, can conflict, so the check stays valid
+        if (to.findEquipment(equipment.getEquipmentId()) != null) {
+            log.warn("Partition {} already holds another equipment {}; it stays in partition {}", to.getIndex(),
+                    equipment.getEquipmentId(), from.getIndex());
+            return;
+        }
+        if (from.removeEquipment(equipment)) {
+            to.addEquipment(equipment);
+        }
+    }
+
+    /**
+     * Finds the partition that holds a machine, trying a likely one first. A
+     * machine that could not be moved is not in the partition of its location.
+     * @return The partition, or null if none holds the machine
+     */
+    private Partition holderOf(Equipment equipment, Partition likely) {
+        if (likely.findEquipment(equipment.getEquipmentId()) == equipment) {
+            return likely;
+        }
+        for (Partition partition : partitions) {
+            if (partition.findEquipment(equipment.getEquipmentId()) == equipment) {
+                return partition;
+            }
+        }
+        return null;
+    }
+
+    private Object lockFor(int equipmentId) {
+        return equipmentLocks[Math.floorMod(equipmentId, LOCK_STRIPES)];
+    }
+
+    private static String key(String location) {
+        return location == null ? "" : location;
+    }
+}
@@ -0,0 +1,89 @@
+package com.gdms.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the records of one block written by {@link BlockWriter}.
+ * Dictionary strings and dates go through an {@link Interner} shared by all
+ * blocks of a snapshot, so every payment method or payment date is one instance
+ * however many records mention it. Not thread-safe; one reader per block.
+ */
+final class BlockReader {
+    private final ByteBuffer buffer;
+    private final Interner interner;
+    private final List<String> dictionary = new ArrayList<>();
+    private byte[] scratch = new byte[256];
+
+    /**
+     * @param buffer Payload of the block, positioned at its first record
+     * @param interner Shared, thread-safe canonical instances
+     */
+    BlockReader(ByteBuffer buffer, Interner interner) {
+        this.buffer = buffer;
+        this.interner = interner;
+    }
+
+    byte getByte() {
+        return buffer.get();
+    }
+
+    int getInt() {
+        return buffer.getInt();
+    }
+
+    long getLong() {
+        return buffer.getLong();
+    }
+
+    int getVarint() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    String getString() {
+        int length = getVarint() - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    String getDictionaryString() {
+        int code = getVarint();
+        if (code == 0) {
+            return null;
+        }
+        if (code == 1) {
+            String value = interner.string(getString());
+            dictionary.add(value);
+            return value;
+        }
+        return dictionary.get(code - 2);
+    }
+
+    /**
+     * @return The date written by {@link BlockWriter#putDate}, or null
+     */
+    LocalDate getDate() {
+        return interner.date(buffer.getInt());
+    }
+
+    boolean hasRemaining() {
+        return buffer.hasRemaining();
+    }
+}
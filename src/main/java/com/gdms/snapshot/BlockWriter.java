@@ -0,0 +1,189 @@
+package com.gdms.snapshot;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Encodes records into checksummed blocks and writes them to a channel.
+ * A block is a 16-byte header (kind, record count, payload length, CRC32C of
+ * the payload) followed by the payload. Every block starts a new string
+ * dictionary, so blocks can be decoded independently and in parallel.
+ * Not thread-safe.
+ */
+final class BlockWriter {
+    static final int HEADER_BYTES = 16;
+    static final int NO_DATE = Integer.MIN_VALUE;
+
+    private final FileChannel channel;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer buffer;
+    private int kind;
+    private int records;
+    private long written;
+
+    BlockWriter(FileChannel channel, int blockSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(blockSize);
+        this.buffer.position(HEADER_BYTES);
+    }
+
+    /**
+     * Encodes one record of a section's records into the current block.
+     */
+    interface RecordEncoder<T> {
+        void encode(T record, BlockWriter out);
+    }
+
+    /**
+     * Writes every record of a section, flushing a block whenever the next record does not fit.
+     * @return Number of records written
+     */
+    <T> long writeSection(int sectionKind, Iterable<T> items, RecordEncoder<? super T> encoder) throws IOException {
+        kind = sectionKind;
+        long count = 0;
+        for (T item : items) {
+            while (true) {
+                int start = buffer.position();
+                try {
+                    encoder.encode(item, this);
+                    break;
+                } catch (BufferOverflowException e) {
+                    buffer.position(start);
+                    if (records > 0) {
+                        flush();
+                    } else {
+                        // A single record larger than a block gets a bigger block of its own
+                        buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                        buffer.position(HEADER_BYTES);
+                        dictionary.clear();
+                    }
+                }
+            }
+            records++;
+            count++;
+        }
+        if (records > 0) {
+            flush();
+        }
+        return count;
+    }
+
+    /**
+     * Writes an empty block of the given kind, e.g. the end marker.
+     */
+    void writeMarker(int markerKind) throws IOException {
+        kind = markerKind;
+        flush();
+    }
+
+    /**
+     * @return Bytes written to the channel so far
+     */
+    long getWritten() {
+        return written;
+    }
+
+    void putByte(int value) {
+        buffer.put((byte) value);
+    }
+
+    void putInt(int value) {
+        buffer.putInt(value);
+    }
+
+    void putLong(long value) {
+        buffer.putLong(value);
+    }
+
+    /**
+     * Writes a date as its epoch day, or {@link #NO_DATE} for null.
+     */
+    void putDate(LocalDate date) {
+        buffer.putInt(date == null ? NO_DATE : Math.toIntExact(date.toEpochDay()));
+    }
+
+    /**
+     * Writes an unsigned variable-length integer, seven bits per byte.
+     */
+    void putVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Writes a string as its UTF-8 length plus one (0 for null) and its bytes.
+     */
+    void putString(String value) {
+        if (value == null) {
+            putVarint(0);
+            return;
+        }
+        int length = value.length();
+        boolean ascii = true;
+        for (int i = 0; i < length && ascii; i++) {
+            ascii = value.charAt(i) < 0x80;
+        }
+        if (ascii) {
+            putVarint(length + 1);
+            if (buffer.remaining() < length) {
+                throw new BufferOverflowException();
+            }
+            for (int i = 0; i < length; i++) {
+                buffer.put((byte) value.charAt(i));
+            }
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putVarint(bytes.length + 1);
+            buffer.put(bytes);
+        }
+    }
+
+    /**
+     * Writes a string from a small set of repeated values (types, methods, locations):
+     * 0 for null, 1 followed by the string the first time it appears in the block,
+     * and its dictionary code plus 2 after that.
+     */
+    void putDictionaryString(String value) {
+        if (value == null) {
+            putVarint(0);
+            return;
+        }
+        Integer code = dictionary.get(value);
+        if (code != null) {
+            putVarint(code + 2);
+            return;
+        }
+        putVarint(1);
+        putString(value);
+        dictionary.put(value, dictionary.size());
+    }
+
+    private void flush() throws IOException {
+        int end = buffer.position();
+        ByteBuffer payload = buffer.duplicate().position(HEADER_BYTES).limit(end);
+        crc.reset();
+        crc.update(payload);
+        buffer.putInt(0, kind);
+        buffer.putInt(4, records);
+        buffer.putInt(8, end - HEADER_BYTES);
+        buffer.putInt(12, (int) crc.getValue());
+        buffer.position(0).limit(end);
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        buffer.clear().position(HEADER_BYTES);
+        dictionary.clear();
+        records = 0;
+    }
+}
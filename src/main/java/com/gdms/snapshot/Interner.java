@@ -0,0 +1,44 @@
+package com.gdms.snapshot;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical instances of the values that repeat across millions of restored
+ * records: dictionary strings and dates. Dates between 1900 and about 2079 come
+ * from an array indexed by day; others are created as needed. Thread-safe.
+ */
+final class Interner {
+    private static final long FIRST_DAY = LocalDate.of(1900, 1, 1).toEpochDay();
+    private static final int DAYS = 1 << 16;
+
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
+    // Racing writers store equal immutable values, so plain array writes are enough
+    private final LocalDate[] dates = new LocalDate[DAYS];
+
+    String string(String value) {
+        String shared = strings.putIfAbsent(value, value);
+        return shared == null ? value : shared;
+    }
+
+    /**
+     * @param epochDay Epoch day, or {@link BlockWriter#NO_DATE}
+     * @return The date, or null for {@link BlockWriter#NO_DATE}
+     */
+    LocalDate date(int epochDay) {
+        if (epochDay == BlockWriter.NO_DATE) {
+            return null;
+        }
+        long index = epochDay - FIRST_DAY;
+        if (index < 0 || index >= DAYS) {
+            return LocalDate.ofEpochDay(epochDay);
+        }
+        LocalDate date = dates[(int) index];
+        if (date == null) {
+            date = LocalDate.ofEpochDay(epochDay);
+            dates[(int) index] = date;
+        }
+        return date;
+    }
+}
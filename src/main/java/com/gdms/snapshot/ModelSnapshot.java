@@ -0,0 +1,361 @@
+package com.gdms.snapshot;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.EquipmentStatus;
+import com.gdms.model.Member;
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Versioned binary snapshot of members, equipment and payments, for restoring
+ * a node's model without going back to the database.
+ * <p>
+ * A file is an 8-byte header (magic number and format version) followed by
+ * blocks of about 1 MB, each with its kind, record count, payload length and a
+ * CRC32C of the payload, and ends with an empty end block, so a truncated file
+ * is detected. Records are fixed-width numbers and length-prefixed UTF-8
+ * strings; repeated values such as membership types and payment methods are
+ * dictionary-coded per block. Blocks of a kind this version does not know are
+ * skipped.
+ * <p>
+ * Writing goes through a {@link FileChannel} to a temporary file that is moved
+ * into place. Reading maps the file and decodes blocks in parallel. Members are
+ * restored from their stored password hash, without hashing anything, and
+ * repeated strings and dates share one instance each.
+ */
+public final class ModelSnapshot {
+    /** Format version written by this class; files of a higher version are rejected. */
+    public static final int VERSION = 1;
+
+    static final int END = 0;
+    static final int MEMBERS = 1;
+    static final int EQUIPMENT = 2;
+    static final int PAYMENTS = 3;
+
+    private static final int MAGIC = 0x47444D53; // "GDMS"
+    private static final int FILE_HEADER_BYTES = 8;
+    private static final int BLOCK_SIZE = 1 << 20;
+    private static final long MAX_WINDOW = 1L << 30;
+
+    private final List<Member> members;
+    private final List<Equipment> equipment;
+    private final List<Payment> payments;
+
+    private ModelSnapshot(List<Member> members, List<Equipment> equipment, List<Payment> payments) {
+        this.members = Collections.unmodifiableList(members);
+        this.equipment = Collections.unmodifiableList(equipment);
+        this.payments = Collections.unmodifiableList(payments);
+    }
+
+    /**
+     * Writes a snapshot, replacing the file atomically once it is complete and on disk.
+     * @param file Snapshot file
+     * @param members Members to save
+     * @param equipment Equipment to save
+     * @param payments Payments to save
+     * @return Size of the file in bytes
+     * @throws IOException if the file cannot be written
+     */
+    public static long write(Path file, Iterable<Member> members, Iterable<Equipment> equipment,
+                             Iterable<Payment> payments) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        long size;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            BlockWriter out = new BlockWriter(channel, BLOCK_SIZE);
+            out.writeSection(MEMBERS, members, ModelSnapshot::encodeMember);
+            out.writeSection(EQUIPMENT, equipment, ModelSnapshot::encodeEquipment);
+            out.writeSection(PAYMENTS, payments, ModelSnapshot::encodePayment);
+            out.writeMarker(END);
+            channel.force(true);
+            size = FILE_HEADER_BYTES + out.getWritten();
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return size;
+    }
+
+    /**
+     * Restores a snapshot.
+     * @param file Snapshot file
+     * @return The restored model objects, in the order they were written
+     * @throws IOException if the file cannot be read, is truncated, has a damaged block
+     *                     or was written by a newer format version
+     */
+    public static ModelSnapshot read(Path file) throws IOException {
+        List<Block> blocks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(BlockWriter.HEADER_BYTES);
+            readFully(channel, header.limit(FILE_HEADER_BYTES), 0);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a snapshot file: " + file);
+            }
+            int version = header.getInt(4);
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+            long offset = FILE_HEADER_BYTES;
+            boolean complete = false;
+            while (!complete) {
+                readFully(channel, header.clear(), offset);
+                int kind = header.getInt(0);
+                int length = header.getInt(8);
+                long payload = offset + BlockWriter.HEADER_BYTES;
+                if (length < 0 || payload + length > size) {
+                    throw new IOException("Snapshot is truncated at offset " + offset + ": " + file);
+                }
+                if (kind == END) {
+                    complete = true;
+                } else {
+                    blocks.add(new Block(kind, header.getInt(4), payload, length, header.getInt(12)));
+                }
+                offset = payload + length;
+            }
+            mapBlocks(channel, blocks);
+        } catch (EOFException e) {
+            throw new IOException("Snapshot is truncated: " + file, e);
+        }
+
+        Interner interner = new Interner();
+        List<List<Object>> decoded;
+        try {
+            decoded = blocks.parallelStream().map(block -> decode(block, interner)).toList();
+        } catch (UncheckedIOException e) {
+            throw new IOException(e.getCause().getMessage() + ": " + file, e.getCause());
+        }
+        List<Member> members = new ArrayList<>(count(blocks, MEMBERS));
+        List<Equipment> equipment = new ArrayList<>(count(blocks, EQUIPMENT));
+        List<Payment> payments = new ArrayList<>(count(blocks, PAYMENTS));
+        for (int i = 0; i < blocks.size(); i++) {
+            addAll(blocks.get(i).kind, decoded.get(i), members, equipment, payments);
+        }
+        return new ModelSnapshot(members, equipment, payments);
+    }
+
+    public List<Member> getMembers() {
+        return members;
+    }
+
+    public List<Equipment> getEquipment() {
+        return equipment;
+    }
+
+    public List<Payment> getPayments() {
+        return payments;
+    }
+
+    private static void encodeMember(Member member, BlockWriter out) {
+        out.putInt(member.getUserId());
+        out.putString(member.getName());
+        out.putString(member.getEmail());
+        out.putString(member.getPassword());
+        out.putByte(member.isActive() ? 1 : 0);
+        out.putDictionaryString(member.getMembershipType());
+        out.putDate(member.getMembershipStartDate());
+        out.putDate(member.getMembershipEndDate());
+    }
+
+    private static Member decodeMember(BlockReader in) {
+        int userId = in.getInt();
+        String name = in.getString();
+        String email = in.getString();
+        String passwordHash = in.getString();
+        boolean active = in.getByte() != 0;
+        Member member = Member.withPasswordHash(userId, name, email, passwordHash, in.getDictionaryString(),
+                in.getDate(), in.getDate());
+        if (!active) {
+            member.setActive(false);
+        }
+        return member;
+    }
+
+    private static void encodeEquipment(Equipment item, BlockWriter out) {
+        out.putInt(item.getEquipmentId());
+        out.putString(item.getName());
+        out.putByte(item.getEquipmentStatus().code());
+        out.putDictionaryString(item.getLocation());
+        out.putString(item.getDescription());
+        out.putDate(item.getLastMaintenanceDate());
+        out.putDate(item.getNextMaintenanceDate());
+    }
+
+    private static Equipment decodeEquipment(BlockReader in) {
+        int equipmentId = in.getInt();
+        String name = in.getString();
+        EquipmentStatus status = EquipmentStatus.fromCode(in.getByte());
+        Equipment item = new Equipment(equipmentId, name, status.getLabel(), in.getDictionaryString(),
+                in.getString());
+        item.setLastMaintenanceDate(in.getDate());
+        item.setNextMaintenanceDate(in.getDate());
+        return item;
+    }
+
+    private static void encodePayment(Payment payment, BlockWriter out) {
+        out.putInt(payment.getPaymentId());
+        out.putInt(payment.getMemberId());
+        out.putLong(payment.getAmountMinor());
+        out.putDictionaryString(payment.getCurrency().getCurrencyCode());
+        out.putDate(payment.getPaymentDate());
+        out.putByte(payment.getPaymentStatus().code());
+        out.putDictionaryString(payment.getPaymentMethod());
+        out.putString(payment.getTransactionId());
+        out.putString(payment.getDescription());
+    }
+
+    private static Payment decodePayment(BlockReader in) {
+        int paymentId = in.getInt();
+        int memberId = in.getInt();
+        long amountMinor = in.getLong();
+        Currency currency = Currency.getInstance(in.getDictionaryString());
+        LocalDate paymentDate = in.getDate();
+        PaymentStatus status = PaymentStatus.fromCode(in.getByte());
+        String paymentMethod = in.getDictionaryString();
+        String transactionId = in.getString();
+        Payment payment = new Payment(paymentId, memberId, Money.ofMinor(amountMinor, currency), paymentMethod,
+                in.getString(), paymentDate);
+        payment.setTransactionId(transactionId);
+        if (status != PaymentStatus.PENDING) {
+            payment.setPaymentStatus(status);
+        }
+        return payment;
+    }
+
+    /**
+     * Maps the blocks in windows of at most {@link #MAX_WINDOW} bytes that end on block
+     * boundaries, since a single mapping cannot exceed 2 GB.
+     */
+    private static void mapBlocks(FileChannel channel, List<Block> blocks) throws IOException {
+        int first = 0;
+        while (first < blocks.size()) {
+            long start = blocks.get(first).offset;
+            int last = first;
+            while (last + 1 < blocks.size() && blocks.get(last + 1).end() - start <= MAX_WINDOW) {
+                last++;
+            }
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                    blocks.get(last).end() - start);
+            for (int i = first; i <= last; i++) {
+                Block block = blocks.get(i);
+                block.payload = window.slice((int) (block.offset - start), block.length);
+            }
+            first = last + 1;
+        }
+    }
+
+    private static List<Object> decode(Block block, Interner interner) {
+        CRC32C crc = new CRC32C();
+        crc.update(block.payload.duplicate());
+        if ((int) crc.getValue() != block.crc) {
+            throw corrupt(block);
+        }
+        BlockReader in = new BlockReader(block.payload.duplicate(), interner);
+        List<Object> records = new ArrayList<>(block.records);
+        try {
+            for (int i = 0; i < block.records; i++) {
+                switch (block.kind) {
+                    case MEMBERS -> records.add(decodeMember(in));
+                    case EQUIPMENT -> records.add(decodeEquipment(in));
+                    case PAYMENTS -> records.add(decodePayment(in));
+                    default -> {
+                        // A kind added by a later release; not needed here
+                        return List.of();
+                    }
+                }
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw corrupt(block);
+        }
+        if (in.hasRemaining()) {
+            throw corrupt(block);
+        }
+        return records;
+    }
+
+    private static UncheckedIOException corrupt(Block block) {
+        return new UncheckedIOException(new IOException("Snapshot block at offset "
+                + (block.offset - BlockWriter.HEADER_BYTES) + " is damaged"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addAll(int kind, List<?> records, List<Member> members, List<Equipment> equipment,
+                               List<Payment> payments) {
+        switch (kind) {
+            case MEMBERS -> members.addAll((List<Member>) records);
+            case EQUIPMENT -> equipment.addAll((List<Equipment>) records);
+            case PAYMENTS -> payments.addAll((List<Payment>) records);
+            default -> {
+                // Skipped
+            }
+        }
+    }
+
+    private static int count(List<Block> blocks, int kind) {
+        long count = 0;
+        for (Block block : blocks) {
+            if (block.kind == kind) {
+                count += block.records;
+            }
+        }
+        return (int) Math.min(count, Integer.MAX_VALUE - 8);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    /**
+     * Location of one block's payload in the file.
+     */
+    private static final class Block {
+        final int kind;
+        final int records;
+        final long offset;
+        final int length;
+        final int crc;
+        ByteBuffer payload;
+
+        Block(int kind, int records, long offset, int length, int crc) {
+            this.kind = kind;
+            this.records = records;
+            this.offset = offset;
+            this.length = length;
+            this.crc = crc;
+        }
+
+        long end() {
+            return offset + length;
+        }
+    }
+}
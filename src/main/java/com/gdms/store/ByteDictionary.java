@@ -0,0 +1,65 @@
+package com.gdms.store;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps a small set of repeated strings (statuses, payment methods) to one-byte codes.
+ * Codes are assigned in order of first appearance and are stable for the life of the dictionary.
+ */
+public class ByteDictionary {
+    private static final int MAX_CODES = 256;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[8];
+    private int size;
+
+    /**
+     * Returns the code for a value, assigning a new one if it has not been seen.
+     * @param value Value to encode (may be null)
+     * @return Code as a byte; use {@link Byte#toUnsignedInt} to recover the index
+     */
+    public byte encode(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            if (size == MAX_CODES) {
+                throw new IllegalStateException("Dictionary is full: more than " + MAX_CODES + " distinct values");
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            code = size;
+            values[size++] = value;
+            codes.put(value, code);
+        }
+        return (byte) (int) code;
+    }
+
+    /**
+     * Looks up the code of a value without assigning one.
+     * @param value Value to look up
+     * @return The code, or -1 if the value is unknown
+     */
+    public int codeOf(String value) {
+        Integer code = codes.get(value);
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * Returns the value for a code.
+     * @param code Code previously returned by {@link #encode}
+     * @return The decoded value
+     */
+    public String decode(byte code) {
+        int index = Byte.toUnsignedInt(code);
+        if (index >= size) {
+            throw new IllegalArgumentException("Unknown code: " + index);
+        }
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+}
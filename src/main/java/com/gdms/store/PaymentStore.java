@@ -0,0 +1,309 @@
+package com.gdms.store;
+
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Column-oriented, in-memory store of payment records.
+ * Each field lives in its own primitive array: amounts as long cents, dates as
+ * epoch days, status as its {@link PaymentStatus} code and payment method as a
+ * one-byte dictionary code. All amounts are US dollar cents.
+ * Millions of payments therefore cost a handful of arrays instead of one object
+ * graph per record, and scans touch only the columns they need.
+ * Not thread-safe for concurrent writers; readers may share a store once it is loaded.
+ */
+public class PaymentStore {
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final ByteDictionary methods = new ByteDictionary();
+    private int size;
+    private int[] paymentIds;
+    private int[] memberIds;
+    private long[] amountCents;
+    private int[] paymentDays;
+    private byte[] statusCodes;
+    private byte[] methodCodes;
+    private String[] transactionIds;
+    private String[] descriptions;
+
+    public PaymentStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor for creating an empty store.
+     * @param initialCapacity Number of rows to allocate up front
+     */
+    public PaymentStore(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        paymentIds = new int[capacity];
+        memberIds = new int[capacity];
+        amountCents = new long[capacity];
+        paymentDays = new int[capacity];
+        statusCodes = new byte[capacity];
+        methodCodes = new byte[capacity];
+        transactionIds = new String[capacity];
+        descriptions = new String[capacity];
+    }
+
+    /**
+     * Appends a payment.
+     * @param payment Payment to copy into the store
+     * @return Row index of the stored payment
+     * @throws IllegalArgumentException if the payment is not in US dollars
+     */
+    public int add(Payment payment) {
+        if (!Money.USD.equals(payment.getCurrency())) {
+            throw new IllegalArgumentException("Only USD payments can be stored: " + payment.getCurrency());
+        }
+        return add(payment.getPaymentId(), payment.getMemberId(), payment.getAmountMinor(),
+                (int) payment.getPaymentDate().toEpochDay(), payment.getPaymentStatus(), payment.getPaymentMethod(),
+                payment.getTransactionId(), payment.getDescription());
+    }
+
+    /**
+     * Appends a payment from its column values.
+     * @param paymentId Unique identifier for the payment
+     * @param memberId ID of the member making the payment
+     * @param amountCents Amount in cents
+     * @param paymentEpochDay Payment date as days since 1970-01-01
+     * @param status Payment status
+     * @param paymentMethod Method of payment
+     * @param transactionId ID from payment gateway
+     * @param description Payment description
+     * @return Row index of the stored payment
+     */
+    public int add(int paymentId, int memberId, long amountCents, int paymentEpochDay, PaymentStatus status,
+                   String paymentMethod, String transactionId, String description) {
+        if (size == paymentIds.length) {
+            grow();
+        }
+        int row = size;
+        paymentIds[row] = paymentId;
+        memberIds[row] = memberId;
+        this.amountCents[row] = amountCents;
+        paymentDays[row] = paymentEpochDay;
+        statusCodes[row] = status.code();
+        methodCodes[row] = methods.encode(paymentMethod);
+        transactionIds[row] = transactionId;
+        descriptions[row] = description;
+        size = row + 1;
+        return row;
+    }
+
+    /**
+     * Updates the status of a stored payment.
+     * @param row Row index
+     * @param status New status
+     */
+    public void setStatus(int row, PaymentStatus status) {
+        checkRow(row);
+        statusCodes[row] = status.code();
+    }
+
+    /**
+     * Updates the transaction ID of a stored payment.
+     * @param row Row index
+     * @param transactionId New transaction ID
+     */
+    public void setTransactionId(int row, String transactionId) {
+        checkRow(row);
+        transactionIds[row] = transactionId;
+    }
+
+    /**
+     * Materializes a stored row as a new Payment object.
+     * @param row Row index
+     * @return A Payment carrying the row's values
+     */
+    public Payment toPayment(int row) {
+        checkRow(row);
+        Payment payment = new Payment(paymentIds[row], memberIds[row], Money.ofMinor(amountCents[row], Money.USD),
+                methods.decode(methodCodes[row]), descriptions[row], LocalDate.ofEpochDay(paymentDays[row]));
+        payment.setPaymentStatus(PaymentStatus.fromCode(statusCodes[row]));
+        payment.setTransactionId(transactionIds[row]);
+        return payment;
+    }
+
+    /**
+     * Sums the amounts of all payments with the given status.
+     * @param status Status to filter on
+     * @return Total in cents
+     */
+    public long sumAmountCents(PaymentStatus status) {
+        byte wanted = status.code();
+        long total = 0;
+        for (int row = 0; row < size; row++) {
+            if (statusCodes[row] == wanted) {
+                total = Math.addExact(total, amountCents[row]);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Counts the payments with the given status.
+     * @param status Status to filter on
+     * @return Number of matching rows
+     */
+    public int countByStatus(PaymentStatus status) {
+        byte wanted = status.code();
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (statusCodes[row] == wanted) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Creates a reusable cursor positioned before the first row.
+     * @return A new cursor over this store
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Number of distinct payment methods stored so far
+     */
+    public int getPaymentMethodCount() {
+        return methods.size();
+    }
+
+    /**
+     * Decodes a payment method code, as returned by {@link Cursor#getPaymentMethodCode()}.
+     * @param code Method code
+     * @return The payment method
+     */
+    public String getPaymentMethod(byte code) {
+        return methods.decode(code);
+    }
+
+    /**
+     * Approximate heap bytes used per row by the fixed-width columns
+     * (excludes the transaction ID and description strings themselves).
+     */
+    public static int fixedBytesPerRow() {
+        return Integer.BYTES * 3 + Long.BYTES + 2 + 2 * referenceSize();
+    }
+
+    private static int referenceSize() {
+        // Compressed oops are the default below 32 GB of heap
+        return Integer.BYTES;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range [0, " + size + ")");
+        }
+    }
+
+    private void grow() {
+        int capacity = paymentIds.length + (paymentIds.length >> 1) + 1;
+        paymentIds = Arrays.copyOf(paymentIds, capacity);
+        memberIds = Arrays.copyOf(memberIds, capacity);
+        amountCents = Arrays.copyOf(amountCents, capacity);
+        paymentDays = Arrays.copyOf(paymentDays, capacity);
+        statusCodes = Arrays.copyOf(statusCodes, capacity);
+        methodCodes = Arrays.copyOf(methodCodes, capacity);
+        transactionIds = Arrays.copyOf(transactionIds, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+    }
+
+    /**
+     * Flyweight view of one row. Moving the cursor allocates nothing; getters read
+     * straight from the columns, and the status and method strings are the shared
+     * label and dictionary instances.
+     */
+    public final class Cursor {
+        private int row = -1;
+
+        /**
+         * Advances to the next row.
+         * @return true if the cursor now points at a row
+         */
+        public boolean next() {
+            if (row + 1 < size) {
+                row++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Positions the cursor on a row.
+         * @param row Row index
+         * @return This cursor
+         */
+        public Cursor moveTo(int row) {
+            checkRow(row);
+            this.row = row;
+            return this;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public int getPaymentId() {
+            return paymentIds[row];
+        }
+
+        public int getMemberId() {
+            return memberIds[row];
+        }
+
+        public long getAmountCents() {
+            return amountCents[row];
+        }
+
+        public double getAmount() {
+            return amountCents[row] / 100.0;
+        }
+
+        public int getPaymentEpochDay() {
+            return paymentDays[row];
+        }
+
+        public LocalDate getPaymentDate() {
+            return LocalDate.ofEpochDay(paymentDays[row]);
+        }
+
+        public byte getStatusCode() {
+            return statusCodes[row];
+        }
+
+        public PaymentStatus getPaymentStatus() {
+            return PaymentStatus.fromCode(statusCodes[row]);
+        }
+
+        public String getStatus() {
+            return getPaymentStatus().getLabel();
+        }
+
+        public byte getPaymentMethodCode() {
+            return methodCodes[row];
+        }
+
+        public String getPaymentMethod() {
+            return methods.decode(methodCodes[row]);
+        }
+
+        public String getTransactionId() {
+            return transactionIds[row];
+        }
+
+        public String getDescription() {
+            return descriptions[row];
+        }
+    }
+}
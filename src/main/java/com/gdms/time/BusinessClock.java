@@ -0,0 +1,93 @@
+package com.gdms.time;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * Source of the current business date.
+ * Wraps a {@link Clock} and caches today's date together with the instant the
+ * next day starts, so asking for "today" costs one {@code clock.millis()} call
+ * and a comparison instead of a time-zone conversion. The date is recomputed
+ * only when midnight in the clock's zone has passed.
+ * The model classes use the process-wide default instance; tests can replace it
+ * with a fixed clock.
+ */
+public final class BusinessClock {
+    private static volatile BusinessClock defaultClock = new BusinessClock(Clock.systemDefaultZone());
+
+    private final Clock clock;
+    private volatile Day current;
+
+    /**
+     * Constructor for creating a business clock.
+     * @param clock Underlying clock; its zone defines when a day starts
+     */
+    public BusinessClock(Clock clock) {
+        this.clock = Objects.requireNonNull(clock, "clock");
+        this.current = dayAt(clock.millis());
+    }
+
+    /**
+     * Creates a business clock that always reports the given date.
+     * @param date Date to report
+     * @return A fixed business clock
+     */
+    public static BusinessClock fixed(LocalDate date) {
+        ZoneId zone = ZoneId.systemDefault();
+        return new BusinessClock(Clock.fixed(date.atStartOfDay(zone).toInstant(), zone));
+    }
+
+    /**
+     * @return The process-wide business clock
+     */
+    public static BusinessClock getDefault() {
+        return defaultClock;
+    }
+
+    /**
+     * Replaces the process-wide business clock.
+     * @param clock New default clock
+     */
+    public static void setDefault(BusinessClock clock) {
+        defaultClock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /**
+     * @return Today's date according to the process-wide business clock
+     */
+    public static LocalDate currentDate() {
+        return defaultClock.today();
+    }
+
+    /**
+     * @return Today's date in the clock's zone
+     */
+    public LocalDate today() {
+        long now = clock.millis();
+        Day day = current;
+        if (now >= day.startMillis && now < day.endMillis) {
+            return day.date;
+        }
+        day = dayAt(now);
+        current = day;
+        return day.date;
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+
+    private Day dayAt(long millis) {
+        ZoneId zone = clock.getZone();
+        LocalDate date = Instant.ofEpochMilli(millis).atZone(zone).toLocalDate();
+        long start = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        long end = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return new Day(date, start, end);
+    }
+
+    private record Day(LocalDate date, long startMillis, long endMillis) {
+    }
+}
@@ -0,0 +1,176 @@
+package com.gdms.transfer;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Writes model objects as UTF-8 CSV or NDJSON.
+ * Records are appended to one reusable StringBuilder and encoded through a
+ * reusable CharsetEncoder into a direct buffer, so memory use is constant and
+ * no String is created per record. CSV output starts with a header row.
+ * @param <T> Type of the exported objects
+ */
+public class BulkExporter<T> {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final RecordMapper<T> mapper;
+    private final RecordFormat format;
+
+    /**
+     * Constructor for creating an exporter.
+     * @param mapper Mapper for the records
+     * @param format Format to write
+     */
+    public BulkExporter(RecordMapper<T> mapper, RecordFormat format) {
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        this.format = Objects.requireNonNull(format, "format");
+    }
+
+    /**
+     * Writes every object to a channel.
+     * @param values Objects to write
+     * @param channel Channel to write to (not closed by this method)
+     * @return Number of records written
+     * @throws IOException if writing fails
+     */
+    public long export(Iterable<? extends T> values, WritableByteChannel channel) throws IOException {
+        Output output = open(channel);
+        for (T value : values) {
+            output.write(value);
+        }
+        output.flush();
+        return output.getCount();
+    }
+
+    /**
+     * Writes every object to a file, replacing any existing content.
+     * @param values Objects to write
+     * @param file File to write
+     * @return Number of records written
+     * @throws IOException if writing fails
+     */
+    public long export(Iterable<? extends T> values, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return export(values, channel);
+        }
+    }
+
+    /**
+     * Starts an export that is fed one object at a time, e.g. from a database cursor.
+     * The header, if any, is written before the first record. Call
+     * {@link Output#flush()} when done.
+     * @param channel Channel to write to (not closed by the output)
+     * @return The output
+     */
+    public Output open(WritableByteChannel channel) {
+        return new Output(Objects.requireNonNull(channel, "channel"));
+    }
+
+    /**
+     * Open export to one channel. Not thread-safe.
+     */
+    public final class Output implements Consumer<T>, Flushable {
+        private final WritableByteChannel channel;
+        private final StringBuilder text = new StringBuilder(BUFFER_SIZE);
+        private final RecordWriter writer = new RecordWriter(format, mapper.columns(), text);
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private char[] chars = new char[BUFFER_SIZE];
+        private long count;
+
+        private Output(WritableByteChannel channel) {
+            this.channel = channel;
+            writer.header();
+        }
+
+        /**
+         * Appends one record.
+         * @param value Object to write
+         * @throws IOException if writing fails
+         */
+        public void write(T value) throws IOException {
+            mapper.write(value, writer);
+            writer.endRecord();
+            count++;
+            if (text.length() >= BUFFER_SIZE) {
+                encodeText();
+            }
+        }
+
+        /**
+         * Appends one record, for use as a callback.
+         * @param value Object to write
+         * @throws UncheckedIOException if writing fails
+         */
+        @Override
+        public void accept(T value) {
+            try {
+                write(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Writes all buffered records to the channel.
+         * @throws IOException if writing fails
+         */
+        @Override
+        public void flush() throws IOException {
+            encodeText();
+            drain();
+        }
+
+        /**
+         * @return Number of records written so far
+         */
+        public long getCount() {
+            return count;
+        }
+
+        private void encodeText() throws IOException {
+            int length = text.length();
+            if (chars.length < length) {
+                chars = new char[Math.max(length, chars.length * 2)];
+            }
+            text.getChars(0, length, chars, 0);
+            text.setLength(0);
+            CharBuffer in = CharBuffer.wrap(chars, 0, length);
+            while (true) {
+                CoderResult result = encoder.encode(in, bytes, false);
+                if (!result.isOverflow()) {
+                    break;
+                }
+                drain();
+            }
+            // A surrogate pair split across flushes stays in the encoder until the next call
+            if (in.hasRemaining()) {
+                text.append(chars, in.position(), in.remaining());
+            }
+        }
+
+        private void drain() throws IOException {
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            bytes.clear();
+        }
+    }
+}
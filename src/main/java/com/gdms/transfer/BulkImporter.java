@@ -0,0 +1,289 @@
+package com.gdms.transfer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Streams a CSV or NDJSON file into model objects in bounded batches.
+ * The calling thread reads the file through one reusable buffer and cuts it into
+ * chunks of {@code batchSize} records; parser threads turn the chunks into
+ * validated objects in parallel; the calling thread hands each batch to the sink
+ * in file order. At most {@code parallelism + 1} chunks are in memory at once,
+ * so memory use does not depend on the size of the file.
+ * Invalid records are skipped and reported in the result. With a checkpoint file,
+ * the position after each batch the sink accepted is saved atomically, and a
+ * later run on the same file resumes from there; the checkpoint is deleted once
+ * the whole file has been imported.
+ * @param <T> Type of the imported objects
+ */
+public class BulkImporter<T> implements AutoCloseable {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    /** Maximum number of record errors kept in a result; later ones are only counted. */
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    private final RecordMapper<T> mapper;
+    private final RecordFormat format;
+    private final int batchSize;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    /**
+     * Creates an importer with the default batch size and one parser thread per core.
+     * @param mapper Mapper for the records
+     * @param format Format of the files
+     */
+    public BulkImporter(RecordMapper<T> mapper, RecordFormat format) {
+        this(mapper, format, DEFAULT_BATCH_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for creating an importer.
+     * @param mapper Mapper for the records
+     * @param format Format of the files
+     * @param batchSize Number of records per batch handed to the sink
+     * @param parallelism Number of parser threads
+     */
+    public BulkImporter(RecordMapper<T> mapper, RecordFormat format, int batchSize, int parallelism) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        this.format = Objects.requireNonNull(format, "format");
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.executor = Executors.newFixedThreadPool(parallelism, new ParserThreadFactory());
+    }
+
+    /**
+     * Imports a whole file without checkpoints.
+     * @param file File to import
+     * @param sink Receives each batch of valid objects, in file order
+     * @return Summary of the import
+     * @throws IOException if the file cannot be read or its CSV header is malformed
+     */
+    public ImportResult importFile(Path file, Consumer<? super List<T>> sink) throws IOException {
+        return importFile(file, null, sink);
+    }
+
+    /**
+     * Imports a file, resuming from a checkpoint if one exists.
+     * If the sink throws, the exception propagates and the checkpoint still points
+     * after the last batch the sink accepted.
+     * @param file File to import
+     * @param checkpointFile File holding the resume position (may be null)
+     * @param sink Receives each batch of valid objects, in file order
+     * @return Summary of the import, with counts including those of earlier runs
+     * @throws IOException if the file cannot be read, its CSV header is malformed
+     *         or the checkpoint does not fit the file
+     */
+    public ImportResult importFile(Path file, Path checkpointFile, Consumer<? super List<T>> sink)
+            throws IOException {
+        Objects.requireNonNull(sink, "sink");
+        long startNanos = System.nanoTime();
+        ImportCheckpoint checkpoint = checkpointFile == null ? null : ImportCheckpoint.read(checkpointFile);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ChunkReader reader = new ChunkReader(channel, format);
+            int[] fieldColumns = null;
+            if (format == RecordFormat.CSV) {
+                if (!reader.next()) {
+                    return new ImportResult(0, 0, List.of(), 0, System.nanoTime() - startNanos);
+                }
+                fieldColumns = new RecordView(mapper.columns())
+                        .mapCsvHeader(reader.data(), reader.start(), reader.end(), reader.lineNumber());
+            }
+            Run run = new Run(checkpointFile, sink);
+            if (checkpoint != null) {
+                if (checkpoint.offset() > channel.size() || checkpoint.offset() < reader.endOffset()) {
+                    throw new IOException("Checkpoint " + checkpointFile + " does not match " + file);
+                }
+                reader.seek(checkpoint.offset(), checkpoint.nextLine());
+                run.resume(checkpoint);
+            }
+            run.importAll(reader, fieldColumns);
+            if (checkpointFile != null) {
+                Files.deleteIfExists(checkpointFile);
+            }
+            return run.toResult(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Parses and validates one chunk; runs on a parser thread.
+     */
+    private ParsedChunk<T> parse(ChunkReader.Chunk chunk, int[] fieldColumns) {
+        RecordView record = new RecordView(mapper.columns());
+        List<T> values = new ArrayList<>(chunk.count);
+        List<RecordError> errors = new ArrayList<>(0);
+        for (int i = 0; i < chunk.count; i++) {
+            long lineNumber = chunk.lineNumbers[i];
+            try {
+                if (fieldColumns != null) {
+                    record.parseCsv(chunk.data, chunk.starts[i], chunk.ends[i], fieldColumns, lineNumber);
+                } else {
+                    record.parseJson(chunk.data, chunk.starts[i], chunk.ends[i], lineNumber);
+                }
+                values.add(mapper.read(record));
+            } catch (RecordFormatException e) {
+                errors.add(new RecordError(lineNumber, e.getMessage()));
+            } catch (IllegalArgumentException | ArithmeticException | DateTimeException e) {
+                errors.add(new RecordError(lineNumber, "Line " + lineNumber + ": " + e.getMessage()));
+            }
+        }
+        return new ParsedChunk<>(chunk, values, errors);
+    }
+
+    /**
+     * Stops the parser threads.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Summary of an import.
+     * @param imported Records handed to the sink
+     * @param rejected Records skipped as invalid
+     * @param errors The first {@link #MAX_REPORTED_ERRORS} errors of this run, in file order
+     * @param resumedFromLine Line the run resumed from, or 0 if it started at the beginning
+     * @param elapsedNanos Wall-clock duration of the run
+     */
+    public record ImportResult(long imported, long rejected, List<RecordError> errors, long resumedFromLine,
+                               long elapsedNanos) {
+
+        /**
+         * @return Records imported or rejected per second
+         */
+        public double recordsPerSecond() {
+            return elapsedNanos == 0 ? 0 : (imported + rejected) * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+
+    /**
+     * A record that was skipped.
+     * @param lineNumber Line the record starts on
+     * @param message Description of the problem
+     */
+    public record RecordError(long lineNumber, String message) {
+    }
+
+    private record ParsedChunk<T>(ChunkReader.Chunk chunk, List<T> values, List<RecordError> errors) {
+    }
+
+    /**
+     * State of one import: the in-flight chunks and the running totals.
+     */
+    private final class Run {
+        private final Path checkpointFile;
+        private final Consumer<? super List<T>> sink;
+        private final ArrayDeque<Future<ParsedChunk<T>>> inFlight = new ArrayDeque<>();
+        private final List<RecordError> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+        private long resumedFromLine;
+
+        Run(Path checkpointFile, Consumer<? super List<T>> sink) {
+            this.checkpointFile = checkpointFile;
+            this.sink = sink;
+        }
+
+        void resume(ImportCheckpoint checkpoint) {
+            imported = checkpoint.imported();
+            rejected = checkpoint.rejected();
+            resumedFromLine = checkpoint.nextLine();
+        }
+
+        void importAll(ChunkReader reader, int[] fieldColumns) throws IOException {
+            try {
+                ChunkReader.Chunk chunk;
+                while ((chunk = reader.readChunk(batchSize)) != null) {
+                    ChunkReader.Chunk submitted = chunk;
+                    inFlight.add(executor.submit(() -> parse(submitted, fieldColumns)));
+                    if (inFlight.size() > parallelism) {
+                        commit(inFlight.poll());
+                    }
+                }
+                while (!inFlight.isEmpty()) {
+                    commit(inFlight.poll());
+                }
+            } finally {
+                for (Future<ParsedChunk<T>> pending : inFlight) {
+                    pending.cancel(true);
+                }
+            }
+        }
+
+        private void commit(Future<ParsedChunk<T>> future) throws IOException {
+            ParsedChunk<T> parsed = await(future);
+            if (!parsed.values().isEmpty()) {
+                sink.accept(parsed.values());
+            }
+            imported += parsed.values().size();
+            rejected += parsed.errors().size();
+            for (RecordError error : parsed.errors()) {
+                if (errors.size() == MAX_REPORTED_ERRORS) {
+                    break;
+                }
+                errors.add(error);
+            }
+            if (checkpointFile != null) {
+                ChunkReader.Chunk chunk = parsed.chunk();
+                new ImportCheckpoint(chunk.endOffset, chunk.nextLine, imported, rejected).write(checkpointFile);
+            }
+        }
+
+        private ParsedChunk<T> await(Future<ParsedChunk<T>> future) throws IOException {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while parsing records");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IOException(cause);
+            }
+        }
+
+        ImportResult toResult(long elapsedNanos) {
+            return new ImportResult(imported, rejected, List.copyOf(errors), resumedFromLine, elapsedNanos);
+        }
+    }
+
+    private static final class ParserThreadFactory implements ThreadFactory {
+        private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+        private final int pool = POOL_SEQUENCE.incrementAndGet();
+        private final AtomicInteger threadSequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "record-parser-" + pool + "-" + threadSequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.gdms.transfer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Splits a file into records through one reusable read buffer.
+ * Records end at a newline; in CSV mode a newline inside a quoted field does not
+ * end the record. Blank lines are skipped. The current record is only valid
+ * until the next call to {@link #next()}.
+ */
+final class ChunkReader {
+    private static final int READ_BUFFER_SIZE = 256 * 1024;
+    static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final boolean csv;
+    private byte[] buffer = new byte[READ_BUFFER_SIZE];
+    private long bufferOffset;
+    private int limit;
+    private int scanPosition;
+    private int recordStart;
+    private boolean inQuotes;
+    private int quotedNewlines;
+    private boolean endOfFile;
+    private long nextLine = 1;
+
+    private int start;
+    private int end;
+    private long lineNumber;
+    private long endOffset;
+
+    ChunkReader(FileChannel channel, RecordFormat format) {
+        this.channel = channel;
+        this.csv = format == RecordFormat.CSV;
+    }
+
+    /**
+     * Moves to a record boundary, e.g. one stored in a checkpoint.
+     * @param offset File offset of the next record
+     * @param line Line number of the next record
+     */
+    void seek(long offset, long line) throws IOException {
+        channel.position(offset);
+        bufferOffset = offset;
+        endOffset = offset;
+        limit = 0;
+        scanPosition = 0;
+        recordStart = 0;
+        inQuotes = false;
+        quotedNewlines = 0;
+        endOfFile = false;
+        nextLine = line;
+    }
+
+    /**
+     * Advances to the next non-blank record.
+     * @return false at the end of the file
+     * @throws RecordFormatException if a record exceeds {@link #MAX_RECORD_BYTES}
+     */
+    boolean next() throws IOException {
+        while (true) {
+            int terminator = findTerminator();
+            if (terminator < 0 && endOfFile) {
+                if (recordStart == limit) {
+                    return false;
+                }
+                terminator = limit;
+            }
+            if (terminator >= 0) {
+                int recordEnd = terminator;
+                start = recordStart;
+                end = recordEnd;
+                lineNumber = nextLine;
+                nextLine += 1 + quotedNewlines;
+                quotedNewlines = 0;
+                recordStart = Math.min(recordEnd + 1, limit);
+                endOffset = bufferOffset + recordStart;
+                if (!isBlank()) {
+                    return true;
+                }
+                continue;
+            }
+            fill();
+        }
+    }
+
+    /**
+     * Reads up to a number of records into a new chunk.
+     * @param maxRecords Maximum number of records
+     * @return The chunk, or null at the end of the file
+     */
+    Chunk readChunk(int maxRecords) throws IOException {
+        Chunk chunk = null;
+        while ((chunk == null || chunk.count < maxRecords) && next()) {
+            if (chunk == null) {
+                long estimate = (long) (end - start + 1) * maxRecords;
+                chunk = new Chunk(maxRecords, (int) Math.max(1024, Math.min(estimate, 1 << 20)));
+            }
+            chunk.add(buffer, start, end, lineNumber);
+        }
+        if (chunk != null) {
+            chunk.endOffset = endOffset;
+            chunk.nextLine = nextLine;
+        }
+        return chunk;
+    }
+
+    byte[] data() {
+        return buffer;
+    }
+
+    int start() {
+        return start;
+    }
+
+    int end() {
+        return end;
+    }
+
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return File offset just after the current record
+     */
+    long endOffset() {
+        return endOffset;
+    }
+
+    private int findTerminator() {
+        for (; scanPosition < limit; scanPosition++) {
+            byte b = buffer[scanPosition];
+            if (b == '"' && csv) {
+                inQuotes = !inQuotes;
+            } else if (b == '\n') {
+                if (!inQuotes) {
+                    return scanPosition++;
+                }
+                quotedNewlines++;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isBlank() {
+        for (int i = start; i < end; i++) {
+            byte b = buffer[i];
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void fill() throws IOException {
+        if (recordStart > 0) {
+            System.arraycopy(buffer, recordStart, buffer, 0, limit - recordStart);
+            bufferOffset += recordStart;
+            scanPosition -= recordStart;
+            limit -= recordStart;
+            recordStart = 0;
+        }
+        if (limit == buffer.length) {
+            if (buffer.length >= MAX_RECORD_BYTES) {
+                throw new RecordFormatException("Line " + nextLine + ": record longer than "
+                        + MAX_RECORD_BYTES + " bytes");
+            }
+            buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, MAX_RECORD_BYTES));
+        }
+        int read = channel.read(ByteBuffer.wrap(buffer, limit, buffer.length - limit));
+        if (read < 0) {
+            endOfFile = true;
+        } else {
+            limit += read;
+        }
+    }
+
+    /**
+     * Copy of a run of records, handed to a parser thread.
+     */
+    static final class Chunk {
+        byte[] data;
+        int length;
+        final int[] starts;
+        final int[] ends;
+        final long[] lineNumbers;
+        int count;
+        long endOffset;
+        long nextLine;
+
+        Chunk(int maxRecords, int initialBytes) {
+            this.data = new byte[initialBytes];
+            this.starts = new int[maxRecords];
+            this.ends = new int[maxRecords];
+            this.lineNumbers = new long[maxRecords];
+        }
+
+        void add(byte[] source, int from, int to, long lineNumber) {
+            int recordLength = to - from;
+            if (length + recordLength > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + recordLength));
+            }
+            System.arraycopy(source, from, data, length, recordLength);
+            starts[count] = length;
+            ends[count] = length + recordLength;
+            lineNumbers[count] = lineNumber;
+            length += recordLength;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.gdms.transfer;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.EquipmentStatus;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maps equipment to records. The status column holds the display label
+ * (e.g., "Available", "Out of Order").
+ */
+public class EquipmentRecordMapper implements RecordMapper<Equipment> {
+    private static final int EQUIPMENT_ID = 0;
+    private static final int NAME = 1;
+    private static final int STATUS = 2;
+    private static final int LOCATION = 3;
+    private static final int DESCRIPTION = 4;
+    private static final int LAST_MAINTENANCE_DATE = 5;
+    private static final int NEXT_MAINTENANCE_DATE = 6;
+
+    private static final List<String> COLUMNS = List.of("equipment_id", "name", "status", "location",
+            "description", "last_maintenance_date", "next_maintenance_date");
+    private static final EquipmentStatus[] STATUSES = EquipmentStatus.values();
+
+    @Override
+    public List<String> columns() {
+        return COLUMNS;
+    }
+
+    @Override
+    public Equipment read(RecordView record) throws RecordFormatException {
+        int equipmentId = record.getInt(EQUIPMENT_ID);
+        String name = record.requireString(NAME);
+        EquipmentStatus status = status(record);
+        LocalDate lastMaintenance = record.getDate(LAST_MAINTENANCE_DATE);
+        LocalDate nextMaintenance = record.getDate(NEXT_MAINTENANCE_DATE);
+        Equipment equipment = new Equipment(equipmentId, name, status.getLabel(),
+                record.getString(LOCATION), record.getString(DESCRIPTION));
+        if (lastMaintenance != null) {
+            equipment.setLastMaintenanceDate(lastMaintenance);
+        }
+        if (nextMaintenance != null) {
+            equipment.setNextMaintenanceDate(nextMaintenance);
+        }
+        return equipment;
+    }
+
+    private static EquipmentStatus status(RecordView record) throws RecordFormatException {
+        if (!record.isPresent(STATUS)) {
+            return EquipmentStatus.AVAILABLE;
+        }
+        for (EquipmentStatus status : STATUSES) {
+            if (record.matches(STATUS, status.getLabel())) {
+                return status;
+            }
+        }
+        throw record.error("unknown equipment status '" + record.getString(STATUS) + "'");
+    }
+
+    @Override
+    public void write(Equipment equipment, RecordWriter out) {
+        out.number(equipment.getEquipmentId())
+                .string(equipment.getName())
+                .string(equipment.getStatus())
+                .string(equipment.getLocation())
+                .string(equipment.getDescription())
+                .date(equipment.getLastMaintenanceDate())
+                .date(equipment.getNextMaintenanceDate());
+    }
+}
@@ -0,0 +1,66 @@
+package com.gdms.transfer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Position of an import after the last batch its sink accepted.
+ * Stored as a small properties file that is replaced atomically, so a crash
+ * leaves either the previous or the new checkpoint, never a torn one.
+ * @param offset File offset of the first record not yet imported
+ * @param nextLine Line number at that offset
+ * @param imported Records imported so far
+ * @param rejected Records rejected so far
+ */
+record ImportCheckpoint(long offset, long nextLine, long imported, long rejected) {
+
+    /**
+     * Reads a checkpoint.
+     * @param file Checkpoint file
+     * @return The checkpoint, or null if the file does not exist
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    static ImportCheckpoint read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(in);
+        }
+        try {
+            return new ImportCheckpoint(
+                    Long.parseLong(properties.getProperty("offset")),
+                    Long.parseLong(properties.getProperty("nextLine")),
+                    Long.parseLong(properties.getProperty("imported")),
+                    Long.parseLong(properties.getProperty("rejected")));
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed checkpoint " + file, e);
+        }
+    }
+
+    /**
+     * Replaces the checkpoint file with this checkpoint.
+     * @param file Checkpoint file
+     * @throws IOException if writing fails
+     */
+    void write(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            out.write("offset=" + offset + "\nnextLine=" + nextLine
+                    + "\nimported=" + imported + "\nrejected=" + rejected + "\n");
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.gdms.transfer;
+
+import com.gdms.model.Member;
+import com.gdms.security.PasswordHashingService;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Maps members to records.
+ * Exports carry the password hash, never a password. Imports take the hash as is
+ * after checking that it is shaped like a BCrypt hash; a mapper created with a
+ * hashing service also accepts a plain-text password column, which is hashed on
+ * the importer's parser threads so BCrypt runs in parallel.
+ */
+public class MemberRecordMapper implements RecordMapper<Member> {
+    private static final int USER_ID = 0;
+    private static final int NAME = 1;
+    private static final int EMAIL = 2;
+    private static final int PASSWORD_HASH = 3;
+    private static final int MEMBERSHIP_TYPE = 4;
+    private static final int MEMBERSHIP_START_DATE = 5;
+    private static final int MEMBERSHIP_END_DATE = 6;
+    private static final int ACTIVE = 7;
+    private static final int PASSWORD = 8;
+
+    private static final List<String> COLUMNS = List.of("user_id", "name", "email", "password_hash",
+            "membership_type", "membership_start_date", "membership_end_date", "active");
+
+    private final PasswordHashingService hashingService;
+    private final List<String> columns;
+
+    /**
+     * Creates a mapper for files that carry password hashes.
+     */
+    public MemberRecordMapper() {
+        this.hashingService = null;
+        this.columns = COLUMNS;
+    }
+
+    /**
+     * Creates a mapper that also accepts a plain-text "password" column.
+     * @param hashingService Service that hashes plain-text passwords
+     */
+    public MemberRecordMapper(PasswordHashingService hashingService) {
+        this.hashingService = Objects.requireNonNull(hashingService, "hashingService");
+        this.columns = List.of("user_id", "name", "email", "password_hash", "membership_type",
+                "membership_start_date", "membership_end_date", "active", "password");
+    }
+
+    @Override
+    public List<String> columns() {
+        return columns;
+    }
+
+    @Override
+    public Member read(RecordView record) throws RecordFormatException {
+        int userId = record.getInt(USER_ID);
+        String name = record.requireString(NAME);
+        String email = record.requireString(EMAIL);
+        if (email.indexOf('@') < 1) {
+            throw record.error("invalid email '" + email + "'");
+        }
+        LocalDate startDate = record.getDate(MEMBERSHIP_START_DATE);
+        LocalDate endDate = record.getDate(MEMBERSHIP_END_DATE);
+        if (endDate == null) {
+            throw record.error("missing value for column 'membership_end_date'");
+        }
+        if (startDate != null && endDate.isBefore(startDate)) {
+            throw record.error("membership ends before it starts");
+        }
+        String passwordHash = record.getString(PASSWORD_HASH);
+        if (passwordHash == null) {
+            if (hashingService == null || !record.isPresent(PASSWORD)) {
+                throw record.error("missing value for column 'password_hash'");
+            }
+            // The parser threads are the importer's own workers
+            passwordHash = hashingService.encodeNow(record.getString(PASSWORD));
+        } else if (!PasswordHashingService.isBCryptHash(passwordHash)) {
+            throw record.error("column 'password_hash' does not hold a BCrypt hash");
+        }
+        Member member = Member.withPasswordHash(userId, name, email, passwordHash,
+                record.getString(MEMBERSHIP_TYPE), startDate, endDate);
+        if (!record.getBoolean(ACTIVE, true)) {
+            member.setActive(false);
+        }
+        return member;
+    }
+
+    @Override
+    public void write(Member member, RecordWriter out) {
+        out.number(member.getUserId())
+                .string(member.getName())
+                .string(member.getEmail())
+                .string(member.getPassword())
+                .string(member.getMembershipType())
+                .date(member.getMembershipStartDate())
+                .date(member.getMembershipEndDate())
+                .bool(member.isActive());
+        if (hashingService != null) {
+            out.string(null);
+        }
+    }
+}
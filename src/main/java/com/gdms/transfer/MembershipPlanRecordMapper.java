@@ -0,0 +1,56 @@
+package com.gdms.transfer;
+
+import com.gdms.model.MembershipPlan;
+import com.gdms.model.Money;
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * Maps membership plans to records. The monthly price is a plain decimal in the
+ * plan's currency (default USD).
+ */
+public class MembershipPlanRecordMapper implements RecordMapper<MembershipPlan> {
+    private static final int MEMBERSHIP_TYPE = 0;
+    private static final int DESCRIPTION = 1;
+    private static final int MONTHLY_PRICE = 2;
+    private static final int CURRENCY = 3;
+    private static final int ACTIVE = 4;
+
+    private static final List<String> COLUMNS = List.of("membership_type", "description", "monthly_price",
+            "currency", "active");
+
+    @Override
+    public List<String> columns() {
+        return COLUMNS;
+    }
+
+    @Override
+    public MembershipPlan read(RecordView record) throws RecordFormatException {
+        String membershipType = record.requireString(MEMBERSHIP_TYPE);
+        Currency currency = Money.USD;
+        if (record.isPresent(CURRENCY) && !record.matches(CURRENCY, "USD")) {
+            String code = record.getString(CURRENCY);
+            try {
+                currency = Currency.getInstance(code);
+            } catch (IllegalArgumentException e) {
+                throw record.error("unknown currency '" + code + "'");
+            }
+        }
+        long priceMinor = record.getDecimal(MONTHLY_PRICE, Money.fractionDigits(currency));
+        if (priceMinor < 0) {
+            throw record.error("negative monthly price");
+        }
+        return new MembershipPlan(membershipType, record.getString(DESCRIPTION),
+                Money.ofMinor(priceMinor, currency), record.getBoolean(ACTIVE, true));
+    }
+
+    @Override
+    public void write(MembershipPlan plan, RecordWriter out) {
+        Money price = plan.getMonthlyPrice();
+        out.string(plan.getMembershipType())
+                .string(plan.getDescription())
+                .decimal(price.getMinorUnits(), price.getFractionDigits())
+                .string(price.getCurrencyCode())
+                .bool(plan.isActive());
+    }
+}
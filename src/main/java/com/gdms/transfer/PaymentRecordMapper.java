@@ -0,0 +1,88 @@
+package com.gdms.transfer;
+
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.List;
+
+/**
+ * Maps payments to records. The amount is a plain decimal in the payment's
+ * currency (default USD) and is parsed straight into minor units; the status
+ * column holds the display label (default "Pending").
+ */
+public class PaymentRecordMapper implements RecordMapper<Payment> {
+    private static final int PAYMENT_ID = 0;
+    private static final int MEMBER_ID = 1;
+    private static final int AMOUNT = 2;
+    private static final int CURRENCY = 3;
+    private static final int PAYMENT_DATE = 4;
+    private static final int STATUS = 5;
+    private static final int PAYMENT_METHOD = 6;
+    private static final int TRANSACTION_ID = 7;
+    private static final int DESCRIPTION = 8;
+
+    private static final List<String> COLUMNS = List.of("payment_id", "member_id", "amount", "currency",
+            "payment_date", "status", "payment_method", "transaction_id", "description");
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+    @Override
+    public List<String> columns() {
+        return COLUMNS;
+    }
+
+    @Override
+    public Payment read(RecordView record) throws RecordFormatException {
+        int paymentId = record.getInt(PAYMENT_ID);
+        int memberId = record.getInt(MEMBER_ID);
+        Currency currency = currency(record);
+        long amountMinor = record.getDecimal(AMOUNT, Money.fractionDigits(currency));
+        LocalDate paymentDate = record.getDate(PAYMENT_DATE);
+        if (paymentDate == null) {
+            throw record.error("missing value for column 'payment_date'");
+        }
+        Payment payment = new Payment(paymentId, memberId, Money.ofMinor(amountMinor, currency),
+                record.getString(PAYMENT_METHOD), record.getString(DESCRIPTION), paymentDate);
+        payment.setPaymentStatus(status(record));
+        payment.setTransactionId(record.getString(TRANSACTION_ID));
+        return payment;
+    }
+
+    private static Currency currency(RecordView record) throws RecordFormatException {
+        if (!record.isPresent(CURRENCY) || record.matches(CURRENCY, "USD")) {
+            return Money.USD;
+        }
+        String code = record.getString(CURRENCY);
+        try {
+            return Currency.getInstance(code);
+        } catch (IllegalArgumentException e) {
+            throw record.error("unknown currency '" + code + "'");
+        }
+    }
+
+    private static PaymentStatus status(RecordView record) throws RecordFormatException {
+        if (!record.isPresent(STATUS)) {
+            return PaymentStatus.PENDING;
+        }
+        for (PaymentStatus status : STATUSES) {
+            if (record.matches(STATUS, status.getLabel())) {
+                return status;
+            }
+        }
+        throw record.error("unknown payment status '" + record.getString(STATUS) + "'");
+    }
+
+    @Override
+    public void write(Payment payment, RecordWriter out) {
+        out.number(payment.getPaymentId())
+                .number(payment.getMemberId())
+                .decimal(payment.getAmountMinor(), Money.fractionDigits(payment.getCurrency()))
+                .string(payment.getCurrency().getCurrencyCode())
+                .date(payment.getPaymentDate())
+                .string(payment.getStatus())
+                .string(payment.getPaymentMethod())
+                .string(payment.getTransactionId())
+                .string(payment.getDescription());
+    }
+}
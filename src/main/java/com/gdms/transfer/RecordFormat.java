@@ -0,0 +1,31 @@
+package com.gdms.transfer;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Text formats for bulk import and export.
+ * CSV files start with a header row naming the columns. NDJSON files hold one
+ * flat JSON object per line, keyed by column name.
+ */
+public enum RecordFormat {
+    CSV,
+    NDJSON;
+
+    /**
+     * Picks the format from a file name extension.
+     * @param file File whose name ends in .csv, .ndjson or .jsonl
+     * @return The format
+     * @throws IllegalArgumentException if the extension is not recognized
+     */
+    public static RecordFormat forPath(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Unknown record format: " + file);
+    }
+}
@@ -0,0 +1,14 @@
+package com.gdms.transfer;
+
+import java.io.IOException;
+
+/**
+ * Thrown when an import file or one of its records is malformed.
+ */
+public class RecordFormatException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public RecordFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,33 @@
+package com.gdms.transfer;
+
+import java.util.List;
+
+/**
+ * Converts one model type to and from flat records.
+ * {@link #read} runs on the importer's parser threads, so implementations must be
+ * thread-safe; expensive per-record work such as password hashing belongs there,
+ * where it runs in parallel.
+ * @param <T> Type of the model objects
+ */
+public interface RecordMapper<T> {
+
+    /**
+     * @return Column names, in the order {@link #write} writes them
+     */
+    List<String> columns();
+
+    /**
+     * Builds and validates an object from a record.
+     * @param record Record addressed by the indexes of {@link #columns()}
+     * @return The object
+     * @throws RecordFormatException if the record is missing or has invalid values
+     */
+    T read(RecordView record) throws RecordFormatException;
+
+    /**
+     * Writes one value per column.
+     * @param value Object to write
+     * @param out Writer for the current record
+     */
+    void write(T value, RecordWriter out);
+}
@@ -0,0 +1,631 @@
+package com.gdms.transfer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reusable view of one parsed CSV or NDJSON record.
+ * Field values stay as byte ranges of the input line; numbers, decimals, dates
+ * and flags are parsed straight from the bytes, and a String is created only
+ * when {@link #getString} is called. Only values with escape sequences are
+ * copied, into a scratch buffer owned by the record.
+ * Columns are addressed by their index in the mapper's column list, whatever
+ * their order in the file. A record is overwritten by the next parse; read what
+ * you need before moving on.
+ */
+public final class RecordView {
+    private final List<String> columns;
+    private final byte[][] columnNames;
+    private final byte[][] sources;
+    private final int[] starts;
+    private final int[] ends;
+    private byte[] scratch = new byte[256];
+    private int scratchLength;
+    private long lineNumber;
+
+    RecordView(List<String> columns) {
+        this.columns = List.copyOf(columns);
+        int count = columns.size();
+        this.columnNames = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            columnNames[i] = columns.get(i).getBytes(StandardCharsets.UTF_8);
+        }
+        this.sources = new byte[count][];
+        this.starts = new int[count];
+        this.ends = new int[count];
+    }
+
+    /**
+     * @return 1-based line number of the record in its file
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @param column Column index
+     * @return true if the record has a non-empty, non-null value for the column
+     */
+    public boolean isPresent(int column) {
+        return starts[column] >= 0 && ends[column] > starts[column];
+    }
+
+    /**
+     * @param column Column index
+     * @return The value, or null if it is absent or empty
+     */
+    public String getString(int column) {
+        if (!isPresent(column)) {
+            return null;
+        }
+        return new String(source(column), starts[column], ends[column] - starts[column], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param column Column index
+     * @return The value
+     * @throws RecordFormatException if the value is absent or empty
+     */
+    public String requireString(int column) throws RecordFormatException {
+        if (!isPresent(column)) {
+            throw missing(column);
+        }
+        return getString(column);
+    }
+
+    /**
+     * Compares the value with an ASCII string without creating a String.
+     * @param column Column index
+     * @param ascii Expected value
+     * @return true if the value equals the string
+     */
+    public boolean matches(int column, String ascii) {
+        int start = starts[column];
+        int length = ends[column] - start;
+        if (start < 0 || length != ascii.length()) {
+            return false;
+        }
+        byte[] source = source(column);
+        for (int i = 0; i < length; i++) {
+            if (source[start + i] != ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param column Column index
+     * @return The value as an int
+     * @throws RecordFormatException if the value is absent or not an int
+     */
+    public int getInt(int column) throws RecordFormatException {
+        long value = getLong(column);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw invalid(column);
+        }
+        return (int) value;
+    }
+
+    /**
+     * @param column Column index
+     * @return The value as a long
+     * @throws RecordFormatException if the value is absent or not a long
+     */
+    public long getLong(int column) throws RecordFormatException {
+        if (!isPresent(column)) {
+            throw missing(column);
+        }
+        byte[] source = source(column);
+        int i = starts[column];
+        int end = ends[column];
+        boolean negative = source[i] == '-';
+        if (negative || source[i] == '+') {
+            i++;
+        }
+        if (i == end) {
+            throw invalid(column);
+        }
+        // Accumulate negatively so Long.MIN_VALUE parses without overflow
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = source[i] - '0';
+            if (digit < 0 || digit > 9 || value < (Long.MIN_VALUE + digit) / 10) {
+                throw invalid(column);
+            }
+            value = value * 10 - digit;
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                throw invalid(column);
+            }
+            value = -value;
+        }
+        return value;
+    }
+
+    /**
+     * Parses a plain decimal such as "-12.5" into minor units, e.g. -1250 for two digits.
+     * @param column Column index
+     * @param fractionDigits Number of minor-unit digits
+     * @return The value in minor units
+     * @throws RecordFormatException if the value is absent, not a plain decimal,
+     *         has more fraction digits than allowed or does not fit in a long
+     */
+    public long getDecimal(int column, int fractionDigits) throws RecordFormatException {
+        if (!isPresent(column)) {
+            throw missing(column);
+        }
+        byte[] source = source(column);
+        int i = starts[column];
+        int end = ends[column];
+        boolean negative = source[i] == '-';
+        if (negative || source[i] == '+') {
+            i++;
+        }
+        long value = 0;
+        int digits = 0;
+        int fraction = -1;
+        try {
+            for (; i < end; i++) {
+                byte b = source[i];
+                if (b == '.' && fraction < 0) {
+                    fraction = 0;
+                    continue;
+                }
+                int digit = b - '0';
+                if (digit < 0 || digit > 9) {
+                    throw invalid(column);
+                }
+                if (fraction >= 0 && ++fraction > fractionDigits) {
+                    if (digit != 0) {
+                        throw invalid(column);
+                    }
+                    continue;
+                }
+                value = Math.addExact(Math.multiplyExact(value, 10), digit);
+                digits++;
+            }
+            if (digits == 0) {
+                throw invalid(column);
+            }
+            for (int scale = Math.max(fraction, 0); scale < fractionDigits; scale++) {
+                value = Math.multiplyExact(value, 10);
+            }
+        } catch (ArithmeticException e) {
+            throw invalid(column);
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @param column Column index
+     * @return The ISO date (yyyy-MM-dd), or null if the value is absent or empty
+     * @throws RecordFormatException if the value is not an ISO date
+     */
+    public LocalDate getDate(int column) throws RecordFormatException {
+        if (!isPresent(column)) {
+            return null;
+        }
+        byte[] source = source(column);
+        int start = starts[column];
+        if (ends[column] - start != 10 || source[start + 4] != '-' || source[start + 7] != '-') {
+            throw invalid(column);
+        }
+        int year = digits(source, start, 4, column);
+        int month = digits(source, start + 5, 2, column);
+        int day = digits(source, start + 8, 2, column);
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            throw invalid(column);
+        }
+    }
+
+    /**
+     * @param column Column index
+     * @param defaultValue Value to return if the column is absent or empty
+     * @return The flag ("true"/"false" or "1"/"0")
+     * @throws RecordFormatException if the value is not a flag
+     */
+    public boolean getBoolean(int column, boolean defaultValue) throws RecordFormatException {
+        if (!isPresent(column)) {
+            return defaultValue;
+        }
+        if (matches(column, "true") || matches(column, "1")) {
+            return true;
+        }
+        if (matches(column, "false") || matches(column, "0")) {
+            return false;
+        }
+        throw invalid(column);
+    }
+
+    /**
+     * Creates an error for this record.
+     * @param message Description of the problem
+     * @return The exception, prefixed with the line number
+     */
+    public RecordFormatException error(String message) {
+        return new RecordFormatException("Line " + lineNumber + ": " + message);
+    }
+
+    /**
+     * Maps the fields of a CSV header line to column indexes.
+     * @param data Buffer holding the header line
+     * @param start Start of the line
+     * @param end End of the line, excluding the line terminator
+     * @param lineNumber Line number of the header
+     * @return Column index of each field in file order, or -1 for unknown fields
+     * @throws RecordFormatException if the header is malformed or names a column twice
+     */
+    int[] mapCsvHeader(byte[] data, int start, int end, long lineNumber) throws RecordFormatException {
+        reset(lineNumber);
+        List<String> names = new ArrayList<>();
+        if (end > start && data[end - 1] == '\r') {
+            end--;
+        }
+        if (end - start >= 3 && data[start] == (byte) 0xEF && data[start + 1] == (byte) 0xBB
+                && data[start + 2] == (byte) 0xBF) {
+            start += 3; // UTF-8 byte order mark written by spreadsheet exports
+        }
+        StringBuilder name = new StringBuilder();
+        boolean quoted = false;
+        for (int i = start; i <= end; i++) {
+            byte b = i < end ? data[i] : (byte) ',';
+            if (b == '"') {
+                if (quoted && i + 1 < end && data[i + 1] == '"') {
+                    name.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (b == ',' && !quoted) {
+                names.add(name.toString().trim());
+                name.setLength(0);
+            } else {
+                name.append((char) (b & 0xFF));
+            }
+        }
+        if (quoted) {
+            throw error("unterminated quoted header");
+        }
+        int[] fieldColumns = new int[names.size()];
+        for (int field = 0; field < fieldColumns.length; field++) {
+            int column = columns.indexOf(names.get(field));
+            for (int previous = 0; column >= 0 && previous < field; previous++) {
+                if (fieldColumns[previous] == column) {
+                    throw error("duplicate column '" + names.get(field) + "'");
+                }
+            }
+            fieldColumns[field] = column;
+        }
+        return fieldColumns;
+    }
+
+    /**
+     * Parses a CSV line.
+     * @param data Buffer holding the line
+     * @param start Start of the line
+     * @param end End of the line, excluding the line terminator
+     * @param fieldColumns Column index of each field in file order, or -1 to ignore the field
+     * @param lineNumber Line number of the record
+     */
+    void parseCsv(byte[] data, int start, int end, int[] fieldColumns, long lineNumber)
+            throws RecordFormatException {
+        reset(lineNumber);
+        if (end > start && data[end - 1] == '\r') {
+            end--;
+        }
+        int field = 0;
+        int i = start;
+        while (true) {
+            int column = field < fieldColumns.length ? fieldColumns[field] : -1;
+            if (i < end && data[i] == '"') {
+                i = parseQuoted(data, i + 1, end, column);
+                if (i < end && data[i] != ',') {
+                    throw error("unexpected character after quoted field " + (field + 1));
+                }
+            } else {
+                int valueStart = i;
+                while (i < end && data[i] != ',') {
+                    i++;
+                }
+                if (column >= 0) {
+                    set(column, data, valueStart, i);
+                }
+            }
+            field++;
+            if (i >= end) {
+                break;
+            }
+            i++;
+        }
+        if (field != fieldColumns.length) {
+            throw error("expected " + fieldColumns.length + " fields but found " + field);
+        }
+    }
+
+    /**
+     * Reads a quoted CSV field, referencing the input unless it contains doubled quotes.
+     * @return Index after the closing quote
+     */
+    private int parseQuoted(byte[] data, int i, int end, int column) throws RecordFormatException {
+        int valueStart = i;
+        while (i < end) {
+            if (data[i] == '"') {
+                if (i + 1 < end && data[i + 1] == '"') {
+                    // Escaped quote: continue in the scratch buffer
+                    int scratchStart = scratchLength;
+                    appendScratch(data, valueStart, i + 1);
+                    i += 2;
+                    while (i < end) {
+                        byte b = data[i++];
+                        if (b != '"') {
+                            appendScratch(b);
+                        } else if (i < end && data[i] == '"') {
+                            appendScratch((byte) '"');
+                            i++;
+                        } else {
+                            if (column >= 0) {
+                                set(column, null, scratchStart, scratchLength);
+                            }
+                            return i;
+                        }
+                    }
+                    break;
+                }
+                if (column >= 0) {
+                    set(column, data, valueStart, i);
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        throw error("unterminated quoted field");
+    }
+
+    /**
+     * Parses an NDJSON line holding one flat object. Keys that are not columns
+     * are ignored; null values count as absent.
+     * @param data Buffer holding the line
+     * @param start Start of the line
+     * @param end End of the line, excluding the line terminator
+     * @param lineNumber Line number of the record
+     */
+    void parseJson(byte[] data, int start, int end, long lineNumber) throws RecordFormatException {
+        reset(lineNumber);
+        int i = skipWhitespace(data, start, end);
+        i = expect(data, i, end, '{');
+        i = skipWhitespace(data, i, end);
+        if (i < end && data[i] == '}') {
+            i++;
+        } else {
+            while (true) {
+                i = expect(data, i, end, '"');
+                int keyStart = i;
+                while (i < end && data[i] != '"') {
+                    i += data[i] == '\\' ? 2 : 1;
+                }
+                if (i >= end) {
+                    throw error("unterminated key");
+                }
+                int column = columnFor(data, keyStart, i);
+                i = skipWhitespace(data, i + 1, end);
+                i = expect(data, i, end, ':');
+                i = skipWhitespace(data, i, end);
+                i = parseJsonValue(data, i, end, column);
+                i = skipWhitespace(data, i, end);
+                if (i < end && data[i] == ',') {
+                    i = skipWhitespace(data, i + 1, end);
+                } else {
+                    i = expect(data, i, end, '}');
+                    break;
+                }
+            }
+        }
+        if (skipWhitespace(data, i, end) != end) {
+            throw error("unexpected characters after object");
+        }
+    }
+
+    private int parseJsonValue(byte[] data, int i, int end, int column) throws RecordFormatException {
+        if (i >= end) {
+            throw error("unexpected end of line");
+        }
+        byte b = data[i];
+        if (b == '"') {
+            return parseJsonString(data, i + 1, end, column);
+        }
+        if (b == '{' || b == '[') {
+            throw error("nested values are not supported");
+        }
+        int valueStart = i;
+        while (i < end && data[i] != ',' && data[i] != '}' && data[i] != ' ' && data[i] != '\t'
+                && data[i] != '\r') {
+            i++;
+        }
+        boolean isNull = i - valueStart == 4 && data[valueStart] == 'n' && data[valueStart + 1] == 'u'
+                && data[valueStart + 2] == 'l' && data[valueStart + 3] == 'l';
+        if (i == valueStart) {
+            throw error("missing value");
+        }
+        if (column >= 0 && !isNull) {
+            set(column, data, valueStart, i);
+        }
+        return i;
+    }
+
+    private int parseJsonString(byte[] data, int i, int end, int column) throws RecordFormatException {
+        int valueStart = i;
+        while (i < end && data[i] != '"' && data[i] != '\\') {
+            i++;
+        }
+        if (i < end && data[i] == '"') {
+            if (column >= 0) {
+                set(column, data, valueStart, i);
+            }
+            return i + 1;
+        }
+        int scratchStart = scratchLength;
+        appendScratch(data, valueStart, i);
+        while (i < end) {
+            byte b = data[i++];
+            if (b == '"') {
+                if (column >= 0) {
+                    set(column, null, scratchStart, scratchLength);
+                }
+                return i;
+            }
+            if (b != '\\') {
+                appendScratch(b);
+                continue;
+            }
+            if (i >= end) {
+                break;
+            }
+            byte escape = data[i++];
+            switch (escape) {
+                case '"', '\\', '/' -> appendScratch(escape);
+                case 'b' -> appendScratch((byte) '\b');
+                case 'f' -> appendScratch((byte) '\f');
+                case 'n' -> appendScratch((byte) '\n');
+                case 'r' -> appendScratch((byte) '\r');
+                case 't' -> appendScratch((byte) '\t');
+                case 'u' -> i = appendUnicodeEscape(data, i, end);
+                default -> throw error("invalid escape sequence");
+            }
+        }
+        throw error("unterminated string");
+    }
+
+    private int appendUnicodeEscape(byte[] data, int i, int end) throws RecordFormatException {
+        int codePoint = hex4(data, i, end);
+        i += 4;
+        if (Character.isHighSurrogate((char) codePoint) && i + 6 <= end && data[i] == '\\' && data[i + 1] == 'u') {
+            int low = hex4(data, i + 2, end);
+            if (Character.isLowSurrogate((char) low)) {
+                codePoint = Character.toCodePoint((char) codePoint, (char) low);
+                i += 6;
+            }
+        }
+        if (codePoint < 0x80) {
+            appendScratch((byte) codePoint);
+        } else if (codePoint < 0x800) {
+            appendScratch((byte) (0xC0 | codePoint >> 6));
+            appendScratch((byte) (0x80 | codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            appendScratch((byte) (0xE0 | codePoint >> 12));
+            appendScratch((byte) (0x80 | codePoint >> 6 & 0x3F));
+            appendScratch((byte) (0x80 | codePoint & 0x3F));
+        } else {
+            appendScratch((byte) (0xF0 | codePoint >> 18));
+            appendScratch((byte) (0x80 | codePoint >> 12 & 0x3F));
+            appendScratch((byte) (0x80 | codePoint >> 6 & 0x3F));
+            appendScratch((byte) (0x80 | codePoint & 0x3F));
+        }
+        return i;
+    }
+
+    private int hex4(byte[] data, int i, int end) throws RecordFormatException {
+        if (i + 4 > end) {
+            throw error("invalid unicode escape");
+        }
+        int value = 0;
+        for (int k = i; k < i + 4; k++) {
+            int digit = Character.digit(data[k], 16);
+            if (digit < 0) {
+                throw error("invalid unicode escape");
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    private int columnFor(byte[] data, int start, int end) {
+        int length = end - start;
+        for (int column = 0; column < columnNames.length; column++) {
+            byte[] name = columnNames[column];
+            if (name.length == length && Arrays.equals(name, 0, length, data, start, end)) {
+                return column;
+            }
+        }
+        return -1;
+    }
+
+    private int expect(byte[] data, int i, int end, char expected) throws RecordFormatException {
+        if (i >= end || data[i] != expected) {
+            throw error("expected '" + expected + "'");
+        }
+        return i + 1;
+    }
+
+    private static int skipWhitespace(byte[] data, int i, int end) {
+        while (i < end && (data[i] == ' ' || data[i] == '\t' || data[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    private int digits(byte[] source, int start, int count, int column) throws RecordFormatException {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = source[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid(column);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private void reset(long lineNumber) {
+        this.lineNumber = lineNumber;
+        Arrays.fill(starts, -1);
+        Arrays.fill(ends, -1);
+        scratchLength = 0;
+    }
+
+    private void set(int column, byte[] source, int start, int end) {
+        sources[column] = source;
+        starts[column] = start;
+        ends[column] = end;
+    }
+
+    /**
+     * Values copied into the scratch buffer are recorded with a null source, since
+     * the buffer may be reallocated while later fields are parsed.
+     */
+    private byte[] source(int column) {
+        byte[] source = sources[column];
+        return source == null ? scratch : source;
+    }
+
+    private void appendScratch(byte b) {
+        if (scratchLength == scratch.length) {
+            scratch = Arrays.copyOf(scratch, scratch.length * 2);
+        }
+        scratch[scratchLength++] = b;
+    }
+
+    private void appendScratch(byte[] data, int start, int end) {
+        int length = end - start;
+        if (scratchLength + length > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(scratch.length * 2, scratchLength + length));
+        }
+        System.arraycopy(data, start, scratch, scratchLength, length);
+        scratchLength += length;
+    }
+
+    private RecordFormatException missing(int column) {
+        return error("missing value for column '" + columns.get(column) + "'");
+    }
+
+    private RecordFormatException invalid(int column) {
+        return error("invalid value for column '" + columns.get(column) + "': '" + getString(column) + "'");
+    }
+}
@@ -0,0 +1,191 @@
+package com.gdms.transfer;
+
+import com.gdms.model.Money;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Appends records field by field to a reusable StringBuilder, in CSV or NDJSON.
+ * A mapper writes one value per column, in the order of its column list, and the
+ * exporter ends the record. Null values become empty CSV fields or JSON nulls.
+ * Instances are not thread-safe.
+ */
+public final class RecordWriter {
+    private final RecordFormat format;
+    private final List<String> columns;
+    private final StringBuilder out;
+    private int column;
+
+    RecordWriter(RecordFormat format, List<String> columns, StringBuilder out) {
+        this.format = format;
+        this.columns = List.copyOf(columns);
+        this.out = out;
+    }
+
+    /**
+     * Writes a text value, quoting and escaping it as the format requires.
+     * @param value Value to write (may be null)
+     * @return This writer
+     */
+    public RecordWriter string(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        beginField();
+        if (format == RecordFormat.CSV) {
+            appendCsv(value);
+        } else {
+            appendJsonString(value);
+        }
+        return this;
+    }
+
+    /**
+     * @param value Whole number to write
+     * @return This writer
+     */
+    public RecordWriter number(long value) {
+        beginField();
+        out.append(value);
+        return this;
+    }
+
+    /**
+     * Writes a minor-unit amount as a plain decimal, e.g. "12.50".
+     * @param minorUnits Amount in minor units
+     * @param fractionDigits Number of minor-unit digits
+     * @return This writer
+     */
+    public RecordWriter decimal(long minorUnits, int fractionDigits) {
+        beginField();
+        Money.appendMinorUnits(out, minorUnits, fractionDigits);
+        return this;
+    }
+
+    /**
+     * Writes an ISO date (yyyy-MM-dd).
+     * @param date Date to write (may be null)
+     * @return This writer
+     */
+    public RecordWriter date(LocalDate date) {
+        if (date == null) {
+            return nullValue();
+        }
+        beginField();
+        boolean json = format == RecordFormat.NDJSON;
+        if (json) {
+            out.append('"');
+        }
+        out.append(date);
+        if (json) {
+            out.append('"');
+        }
+        return this;
+    }
+
+    /**
+     * @param value Flag to write as true or false
+     * @return This writer
+     */
+    public RecordWriter bool(boolean value) {
+        beginField();
+        out.append(value);
+        return this;
+    }
+
+    /**
+     * Appends the CSV header line; does nothing for NDJSON.
+     */
+    void header() {
+        if (format != RecordFormat.CSV) {
+            return;
+        }
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            appendCsv(columns.get(i));
+        }
+        out.append('\n');
+    }
+
+    /**
+     * Terminates the current record.
+     * @throws IllegalStateException if the mapper wrote the wrong number of values
+     */
+    void endRecord() {
+        if (column != columns.size()) {
+            throw new IllegalStateException("Expected " + columns.size() + " values but got " + column);
+        }
+        if (format == RecordFormat.NDJSON) {
+            out.append('}');
+        }
+        out.append('\n');
+        column = 0;
+    }
+
+    private RecordWriter nullValue() {
+        beginField();
+        if (format == RecordFormat.NDJSON) {
+            out.append("null");
+        }
+        return this;
+    }
+
+    private void beginField() {
+        if (column >= columns.size()) {
+            throw new IllegalStateException("More values than the " + columns.size() + " columns");
+        }
+        if (format == RecordFormat.CSV) {
+            if (column > 0) {
+                out.append(',');
+            }
+        } else {
+            out.append(column == 0 ? "{\"" : ",\"").append(columns.get(column)).append("\":");
+        }
+        column++;
+    }
+
+    private void appendCsv(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private void appendJsonString(String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+}
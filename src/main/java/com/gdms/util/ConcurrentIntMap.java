@@ -0,0 +1,333 @@
+package com.gdms.util;
+
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Thread-safe hash map from primitive int keys to values.
+ * Keys are never boxed. The map is split into segments, each an open-addressing
+ * table guarded by a {@link StampedLock}: writers take the segment's write lock,
+ * while readers use an optimistic stamp and only fall back to the read lock if a
+ * writer raced with them, so lookups normally acquire no lock at all.
+ * Null values are not permitted.
+ * @param <V> Type of the mapped values
+ */
+public class ConcurrentIntMap<V> {
+    private static final int SEGMENT_COUNT = 16;
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    public ConcurrentIntMap() {
+        this(SEGMENT_COUNT * MIN_SEGMENT_CAPACITY);
+    }
+
+    /**
+     * Constructor for creating a map sized for an expected number of entries.
+     * @param expectedSize Number of entries the map should hold without resizing
+     */
+    public ConcurrentIntMap(int expectedSize) {
+        int perSegment = Math.max(MIN_SEGMENT_CAPACITY, expectedSize / SEGMENT_COUNT * 2);
+        int capacity = Integer.highestOneBit(perSegment - 1) << 1;
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(capacity);
+        }
+    }
+
+    /**
+     * Returns the value mapped to a key.
+     * @param key Key to look up
+     * @return The value, or null if the key is absent
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int hash = mix(key);
+        return (V) segmentFor(hash).get(key, hash);
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps a key to a value, replacing any previous mapping.
+     * @param key Key
+     * @param value Value (not null)
+     * @return The previous value, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        Objects.requireNonNull(value, "value");
+        int hash = mix(key);
+        return (V) segmentFor(hash).put(key, hash, value, false);
+    }
+
+    /**
+     * Maps a key to a value only if the key is absent.
+     * @param key Key
+     * @param value Value (not null)
+     * @return The existing value, or null if the new value was stored
+     */
+    @SuppressWarnings("unchecked")
+    public V putIfAbsent(int key, V value) {
+        Objects.requireNonNull(value, "value");
+        int hash = mix(key);
+        return (V) segmentFor(hash).put(key, hash, value, true);
+    }
+
+    /**
+     * Removes the mapping for a key.
+     * @param key Key to remove
+     * @return The removed value, or null if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int hash = mix(key);
+        return (V) segmentFor(hash).remove(key, hash, null);
+    }
+
+    /**
+     * Removes the mapping for a key only if it is mapped to the given value.
+     * @param key Key to remove
+     * @param value Expected value (compared by identity)
+     * @return true if the mapping was removed
+     */
+    public boolean remove(int key, V value) {
+        int hash = mix(key);
+        return segmentFor(hash).remove(key, hash, value) != null;
+    }
+
+    /**
+     * @return Number of mappings (a moment-in-time sum across segments)
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Removes all mappings.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Visits every value. Each segment is visited under its read lock, so the
+     * action must not write to this map.
+     * @param action Action to run for each value
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        for (Segment segment : segments) {
+            segment.forEach((Consumer<Object>) action);
+        }
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[hash >>> 28];
+    }
+
+    /**
+     * Finalization step of MurmurHash3, spreading sequential ids over all bits.
+     */
+    static int mix(int key) {
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static final class Table {
+        final int[] keys;
+        final Object[] values;
+        final int mask;
+        int size;
+
+        Table(int capacity) {
+            keys = new int[capacity];
+            values = new Object[capacity];
+            mask = capacity - 1;
+        }
+
+        Object find(int key, int hash) {
+            int[] keys = this.keys;
+            Object[] values = this.values;
+            int mask = this.mask;
+            int index = hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                Object value = values[index];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[index] == key) {
+                    return value;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+    }
+
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        private Table table;
+
+        Segment(int capacity) {
+            table = new Table(capacity);
+        }
+
+        Object get(int key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                Object value = table.find(key, hash);
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return table.find(key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        Object put(int key, int hash, Object value, boolean onlyIfAbsent) {
+            long stamp = lock.writeLock();
+            try {
+                Table t = table;
+                int index = hash & t.mask;
+                while (t.values[index] != null) {
+                    if (t.keys[index] == key) {
+                        Object previous = t.values[index];
+                        if (!onlyIfAbsent) {
+                            t.values[index] = value;
+                        }
+                        return previous;
+                    }
+                    index = (index + 1) & t.mask;
+                }
+                t.keys[index] = key;
+                t.values[index] = value;
+                t.size++;
+                if (t.size * 3 > t.keys.length * 2) {
+                    table = resize(t);
+                }
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        Object remove(int key, int hash, Object expected) {
+            long stamp = lock.writeLock();
+            try {
+                Table t = table;
+                int index = hash & t.mask;
+                while (t.values[index] != null) {
+                    if (t.keys[index] == key) {
+                        Object previous = t.values[index];
+                        if (expected != null && previous != expected) {
+                            return null;
+                        }
+                        deleteAt(t, index);
+                        return previous;
+                    }
+                    index = (index + 1) & t.mask;
+                }
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.tryOptimisticRead();
+            int size = table.size;
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    size = table.size;
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return size;
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                table = new Table(table.keys.length);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void forEach(Consumer<Object> action) {
+            long stamp = lock.readLock();
+            try {
+                for (Object value : table.values) {
+                    if (value != null) {
+                        action.accept(value);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Backward-shift deletion: pulls later entries of the probe chain into the
+         * freed slot so lookups never need tombstones.
+         */
+        private static void deleteAt(Table t, int index) {
+            int mask = t.mask;
+            int hole = index;
+            int next = (hole + 1) & mask;
+            while (t.values[next] != null) {
+                int home = mix(t.keys[next]) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    t.keys[hole] = t.keys[next];
+                    t.values[hole] = t.values[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            t.values[hole] = null;
+            t.keys[hole] = 0;
+            t.size--;
+        }
+
+        private static Table resize(Table old) {
+            Table resized = new Table(old.keys.length * 2);
+            for (int i = 0; i < old.keys.length; i++) {
+                Object value = old.values[i];
+                if (value != null) {
+                    int index = mix(old.keys[i]) & resized.mask;
+                    while (resized.values[index] != null) {
+                        index = (index + 1) & resized.mask;
+                    }
+                    resized.keys[index] = old.keys[i];
+                    resized.values[index] = value;
+                }
+            }
+            resized.size = old.size;
+            return resized;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.gdms.util;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.Payment;
+import com.gdms.model.User;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Compact map from an entity's primitive int id to the entity.
+ * A single open-addressing table with linear probing keeps ids in an int array
+ * next to the entities, so neither lookups nor inserts box an Integer or
+ * allocate an entry object. Removal shifts later entries back instead of leaving
+ * tombstones. Use {@link #forUsers()}, {@link #forEquipment()} or
+ * {@link #forPayments()} for the model entities.
+ * Not thread-safe; use {@link ConcurrentIntMap} for shared maps. An entity's id
+ * must not change while it is stored.
+ * @param <E> Type of the entities
+ */
+public class IntEntityMap<E> implements Iterable<E> {
+    private static final int MIN_CAPACITY = 16;
+
+    private final ToIntFunction<? super E> idOf;
+    private int[] ids;
+    private Object[] entities;
+    private int size;
+    private int resizeThreshold;
+    private int modCount;
+
+    /**
+     * Constructor for creating a map.
+     * @param idOf Function returning an entity's id
+     * @param expectedSize Number of entities the map should hold without resizing
+     */
+    public IntEntityMap(ToIntFunction<? super E> idOf, int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must not be negative");
+        }
+        this.idOf = Objects.requireNonNull(idOf, "idOf");
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * @return An empty map of users keyed by user ID
+     */
+    public static <U extends User> IntEntityMap<U> forUsers() {
+        return new IntEntityMap<>(User::getUserId, 0);
+    }
+
+    /**
+     * @return An empty map of equipment keyed by equipment ID
+     */
+    public static IntEntityMap<Equipment> forEquipment() {
+        return new IntEntityMap<>(Equipment::getEquipmentId, 0);
+    }
+
+    /**
+     * @return An empty map of payments keyed by payment ID
+     */
+    public static IntEntityMap<Payment> forPayments() {
+        return new IntEntityMap<>(Payment::getPaymentId, 0);
+    }
+
+    /**
+     * Returns the entity with an id.
+     * @param id Id to look up
+     * @return The entity, or null if none is stored
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int id) {
+        int mask = ids.length - 1;
+        for (int slot = ConcurrentIntMap.mix(id) & mask; entities[slot] != null; slot = (slot + 1) & mask) {
+            if (ids[slot] == id) {
+                return (E) entities[slot];
+            }
+        }
+        return null;
+    }
+
+    public boolean containsId(int id) {
+        return get(id) != null;
+    }
+
+    /**
+     * Stores an entity under its id, replacing any entity with the same id.
+     * @param entity Entity to store (not null)
+     * @return The replaced entity, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public E put(E entity) {
+        Objects.requireNonNull(entity, "entity");
+        int id = idOf.applyAsInt(entity);
+        int mask = ids.length - 1;
+        int slot = ConcurrentIntMap.mix(id) & mask;
+        while (entities[slot] != null) {
+            if (ids[slot] == id) {
+                E previous = (E) entities[slot];
+                entities[slot] = entity;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        ids[slot] = id;
+        entities[slot] = entity;
+        modCount++;
+        if (++size > resizeThreshold) {
+            rehash(ids.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the entity with an id.
+     * @param id Id of the entity
+     * @return The removed entity, or null if none was stored
+     */
+    @SuppressWarnings("unchecked")
+    public E remove(int id) {
+        int mask = ids.length - 1;
+        for (int slot = ConcurrentIntMap.mix(id) & mask; entities[slot] != null; slot = (slot + 1) & mask) {
+            if (ids[slot] == id) {
+                E removed = (E) entities[slot];
+                deleteSlot(slot, mask);
+                size--;
+                modCount++;
+                return removed;
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(entities, null);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Object[] table = entities;
+        for (Object entity : table) {
+            if (entity != null) {
+                action.accept((E) entity);
+            }
+        }
+    }
+
+    /**
+     * @return Iterator over the entities in no particular order; fails fast on concurrent changes
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private final int expectedModCount = modCount;
+            private int next = advance(0);
+
+            private int advance(int from) {
+                while (from < entities.length && entities[from] == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < entities.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next >= entities.length) {
+                    throw new NoSuchElementException();
+                }
+                E entity = (E) entities[next];
+                next = advance(next + 1);
+                return entity;
+            }
+        };
+    }
+
+    /**
+     * Backward-shift deletion: moves later entries of the probe run into the hole
+     * so lookups never need tombstones.
+     */
+    private void deleteSlot(int hole, int mask) {
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (entities[slot] == null) {
+                break;
+            }
+            int home = ConcurrentIntMap.mix(ids[slot]) & mask;
+            // Move the entry if its home slot is not cyclically within (hole, slot]
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                ids[hole] = ids[slot];
+                entities[hole] = entities[slot];
+                hole = slot;
+            }
+        }
+        entities[hole] = null;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldIds = ids;
+        Object[] oldEntities = entities;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldEntities.length; i++) {
+            if (oldEntities[i] != null) {
+                int slot = ConcurrentIntMap.mix(oldIds[i]) & mask;
+                while (entities[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                ids[slot] = oldIds[i];
+                entities[slot] = oldEntities[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        ids = new int[capacity];
+        entities = new Object[capacity];
+        resizeThreshold = capacity / 4 * 3;
+    }
+
+    /**
+     * Smallest power of two that keeps the expected size under a 75% load factor.
+     */
+    private static int tableSizeFor(int expectedSize) {
+        long needed = Math.max(MIN_CAPACITY, (long) expectedSize * 4 / 3 + 1);
+        if (needed > 1 << 30) {
+            throw new IllegalArgumentException("expectedSize too large: " + expectedSize);
+        }
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+}
@@ -0,0 +1,190 @@
+package com.gdms.access;
+
+import com.gdms.model.Member;
+import com.gdms.model.TestMembers;
+import com.gdms.time.BusinessClock;
+import com.gdms.time.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for AccessDecisionCache functionality.
+ */
+class AccessDecisionCacheTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 15);
+
+    private MutableClock clock;
+    private Map<Integer, Member> database;
+    private AtomicInteger loads;
+    private AccessDecisionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(TODAY.atStartOfDay(ZoneOffset.UTC).plusHours(8).toInstant());
+        database = new HashMap<>();
+        loads = new AtomicInteger();
+        cache = new AccessDecisionCache(id -> {
+            loads.incrementAndGet();
+            return database.get(id);
+        }, action -> database.values().forEach(action), 100, new BusinessClock(clock));
+    }
+
+    private Member member(int id, LocalDate endDate) {
+        Member member = TestMembers.member(id, "Basic", endDate.minusYears(1), endDate);
+        database.put(id, member);
+        return member;
+    }
+
+    @Test
+    void testDecisionsComeFromBitmapAfterRebuild() {
+        member(1, TODAY.plusDays(30));
+        member(2, TODAY);
+        member(200, TODAY.plusDays(1)).setActive(false);
+        member(70_000, TODAY.plusDays(1));
+
+        cache.rebuild();
+        assertTrue(cache.isAllowed(1));
+        assertFalse(cache.isAllowed(2));
+        assertFalse(cache.isAllowed(200));
+        assertTrue(cache.isAllowed(70_000));
+        assertEquals(0, loads.get());
+        assertEquals(4, cache.getBitmapHitCount());
+
+        // Unknown IDs go to the loader every time, so a new sign-up gets in at once
+        assertFalse(cache.isAllowed(3));
+        member(3, TODAY.plusMonths(1));
+        assertTrue(cache.isAllowed(3));
+        assertTrue(cache.isAllowed(3));
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getNearHitCount());
+        assertFalse(cache.isAllowed(-1));
+    }
+
+    @Test
+    void testMemberChangesReplaceDecisions() {
+        Member renewing = member(1, TODAY);
+        Member leaving = member(2, TODAY.plusDays(30));
+        Member extended = member(3, TODAY.minusDays(1));
+        assertFalse(cache.isAllowed(1));
+        assertTrue(cache.isAllowed(2));
+        assertFalse(cache.isAllowed(3));
+        assertEquals(3, loads.get());
+
+        renewing.renewMembership(1, TODAY);
+        leaving.setActive(false);
+        extended.setMembershipEndDate(TODAY.plusDays(7));
+        assertTrue(cache.isAllowed(1));
+        assertFalse(cache.isAllowed(2));
+        assertTrue(cache.isAllowed(3));
+        assertEquals(3, loads.get());
+
+        // A change made to another copy, e.g. through a DAO, is reported explicitly
+        Member copy = TestMembers.member(3, "Basic", TODAY.minusYears(1), TODAY.minusDays(1));
+        database.put(3, copy);
+        cache.invalidate(3);
+        assertFalse(cache.isAllowed(3));
+        assertEquals(4, loads.get());
+
+        // The cache does not listen to the instances a rebuild scans
+        Member scanned = member(4, TODAY.plusDays(30));
+        cache.rebuild();
+        scanned.setActive(false);
+        assertTrue(cache.isAllowed(4));
+        cache.invalidate(4);
+        assertFalse(cache.isAllowed(4));
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void testChangesRespectMaxEntries() {
+        AccessDecisionCache small = new AccessDecisionCache(id -> {
+            loads.incrementAndGet();
+            return database.get(id);
+        }, action -> database.values().forEach(action), 1, new BusinessClock(clock));
+        Member first = member(1, TODAY.plusDays(30));
+        member(2, TODAY.plusDays(30));
+        assertTrue(small.isAllowed(1));
+        small.rebuild();
+        assertEquals(0, small.size());
+        assertTrue(small.isAllowed(2));
+        small.invalidate(2);
+        assertTrue(small.isAllowed(2));
+        assertEquals(1, small.size());
+
+        // The near cache is full, so the change drops the member's bit instead of adding it
+        first.setActive(false);
+        assertEquals(1, small.size());
+        assertFalse(small.isAllowed(1));
+        assertEquals(3, loads.get());
+        assertEquals(1, small.size());
+    }
+
+    @Test
+    void testNewDayRebuildsBitmap() {
+        member(1, TODAY.plusDays(1));
+        Member loaded = member(2, TODAY.plusDays(1));
+        cache.rebuild();
+        cache.invalidate(2);
+        assertTrue(cache.isAllowed(2));
+        assertEquals(1, cache.size());
+
+        clock.advance(Duration.ofDays(1));
+        // The bitmap is a day old: the loader answers until it is rebuilt
+        assertFalse(cache.isAllowed(1));
+        assertEquals(2, loads.get());
+        // A member held in the near cache is re-evaluated without loading it
+        assertFalse(cache.isAllowed(2));
+        assertEquals(2, loads.get());
+
+        assertTrue(cache.refresh());
+        assertFalse(cache.refresh());
+        assertEquals(0, cache.size());
+        loaded.renewMembership(12, TODAY.plusDays(1));
+        assertTrue(cache.isAllowed(2));
+        assertFalse(cache.isAllowed(1));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testSnapshotWarmsUpCache(@TempDir Path directory) throws Exception {
+        for (int id = 0; id < 1000; id++) {
+            member(id, id % 3 == 0 ? TODAY.minusDays(1) : TODAY.plusDays(1));
+        }
+        cache.rebuild();
+        cache.invalidate(500);
+        Path file = directory.resolve("access.bin");
+        cache.writeSnapshot(file);
+        // Two bits per ID and a small header
+        assertTrue(Files.size(file) < 300);
+
+        AccessDecisionCache restarted = new AccessDecisionCache(id -> {
+            loads.incrementAndGet();
+            return database.get(id);
+        }, action -> fail("no full pass expected"), 100, new BusinessClock(clock));
+        assertTrue(restarted.loadSnapshot(file));
+        for (int id = 0; id < 1000; id++) {
+            assertEquals(id % 3 != 0, restarted.isAllowed(id), "member " + id);
+        }
+        assertEquals(1, loads.get());
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[20] ^= 1;
+        Files.write(file, bytes);
+        assertFalse(restarted.loadSnapshot(file));
+        assertFalse(restarted.loadSnapshot(directory.resolve("missing.bin")));
+
+        cache.writeSnapshot(file);
+        clock.advance(Duration.ofDays(1));
+        assertFalse(restarted.loadSnapshot(file));
+    }
+}
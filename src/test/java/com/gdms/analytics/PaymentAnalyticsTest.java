@@ -0,0 +1,151 @@
+package com.gdms.analytics;
+
+import com.gdms.model.Member;
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import com.gdms.model.TestMembers;
+import com.gdms.store.PaymentStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PaymentAnalytics and MemberAnalytics functionality.
+ */
+class PaymentAnalyticsTest {
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 7, 1);
+    private static final String[] METHODS = {"Credit Card", "Cash", "PayPal", "Bank Transfer"};
+
+    private ForkJoinPool pool;
+    private PaymentStore store;
+    private List<Payment> payments;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        store = new PaymentStore();
+        payments = new ArrayList<>();
+        Random random = new Random(42);
+        PaymentStatus[] statuses = PaymentStatus.values();
+        for (int i = 0; i < 100_000; i++) {
+            // Some payments fall before and after the window
+            LocalDate date = FROM.plusDays(random.nextInt(200) - 10);
+            Payment payment = new Payment(i, random.nextInt(5000), Money.ofMinor(100 + random.nextInt(20_000), Money.USD),
+                    METHODS[random.nextInt(METHODS.length)], "Monthly fee", date);
+            payment.setPaymentStatus(statuses[random.nextInt(statuses.length)]);
+            store.add(payment);
+            payments.add(payment);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testRollupMatchesSequentialScan() {
+        PaymentRollup rollup = new PaymentAnalytics(store, pool).rollup(FROM, TO);
+
+        Map<String, Long> amounts = new HashMap<>();
+        Map<String, Long> counts = new HashMap<>();
+        for (Payment payment : payments) {
+            if (!payment.getPaymentDate().isBefore(FROM) && payment.getPaymentDate().isBefore(TO)) {
+                String key = payment.getPaymentDate() + "|" + payment.getPaymentMethod() + "|" + payment.getPaymentStatus();
+                amounts.merge(key, payment.getAmountMinor(), Long::sum);
+                counts.merge(key, 1L, Long::sum);
+            }
+        }
+        for (LocalDate day = FROM; day.isBefore(TO); day = day.plusDays(1)) {
+            for (String method : METHODS) {
+                for (PaymentStatus status : PaymentStatus.values()) {
+                    String key = day + "|" + method + "|" + status;
+                    assertEquals(amounts.getOrDefault(key, 0L), rollup.getAmountCents(day, method, status), key);
+                    assertEquals(counts.getOrDefault(key, 0L), rollup.getCount(day, method, status), key);
+                }
+            }
+        }
+        long refunded = counts.entrySet().stream().filter(e -> e.getKey().endsWith("|REFUNDED"))
+                .mapToLong(Map.Entry::getValue).sum();
+        long completed = counts.entrySet().stream().filter(e -> e.getKey().endsWith("|COMPLETED"))
+                .mapToLong(Map.Entry::getValue).sum();
+        assertEquals((double) refunded / (refunded + completed), rollup.getRefundRate(FROM, TO), 1e-12);
+    }
+
+    @Test
+    void testRollupKeepsUpWithNewPayments() {
+        PaymentRollup rollup = new PaymentAnalytics(store, pool).rollup(FROM, TO);
+        long completed = rollup.getAmountCents(PaymentStatus.COMPLETED, FROM, TO);
+
+        Payment payment = new Payment(-1, 1, Money.ofMinor(12_345, Money.USD), "Cash", "Day pass", FROM);
+        rollup.track(payment);
+        payment.processPayment("TXN-1");
+        assertEquals(completed + 12_345, rollup.getAmountCents(PaymentStatus.COMPLETED, FROM, TO));
+
+        payment.refundPayment("Closed for repairs");
+        assertEquals(completed, rollup.getAmountCents(PaymentStatus.COMPLETED, FROM, TO));
+    }
+
+    @Test
+    void testAmountPercentiles() {
+        long[] expected = payments.stream()
+                .filter(p -> p.getPaymentStatus() == PaymentStatus.COMPLETED)
+                .filter(p -> !p.getPaymentDate().isBefore(FROM) && p.getPaymentDate().isBefore(TO))
+                .mapToLong(Payment::getAmountMinor).sorted().toArray();
+        PaymentAnalytics analytics = new PaymentAnalytics(store, pool);
+
+        long[] percentiles = analytics.amountPercentiles(PaymentStatus.COMPLETED, FROM, TO, 0, 50, 95, 100);
+        assertEquals(expected[0], percentiles[0]);
+        assertEquals(expected[(int) Math.ceil(expected.length * 0.5) - 1], percentiles[1]);
+        assertEquals(expected[(int) Math.ceil(expected.length * 0.95) - 1], percentiles[2]);
+        assertEquals(expected[expected.length - 1], percentiles[3]);
+
+        assertEquals(0, analytics.amountPercentiles(PaymentStatus.COMPLETED, TO.plusYears(1), TO.plusYears(2), 50).length);
+        assertThrows(IllegalArgumentException.class,
+                () -> analytics.amountPercentiles(PaymentStatus.COMPLETED, FROM, TO, 101));
+    }
+
+    @Test
+    void testEmptyStore() {
+        PaymentAnalytics analytics = new PaymentAnalytics(new PaymentStore(), pool);
+        PaymentRollup rollup = analytics.rollup(FROM, TO);
+        assertTrue(rollup.getPaymentMethods().isEmpty());
+        assertEquals(0, rollup.getRefundRate(FROM, TO));
+        assertArrayEquals(new long[0], analytics.amountPercentiles(PaymentStatus.PENDING, FROM, TO, 50));
+    }
+
+    @Test
+    void testActiveMembersByMembershipType() {
+        LocalDate today = LocalDate.of(2024, 6, 1);
+        String[] types = {"Basic", "Premium", "Family", null};
+        List<Member> members = new ArrayList<>();
+        Map<String, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 40_000; i++) {
+            String type = types[random.nextInt(types.length)];
+            LocalDate end = today.plusDays(random.nextInt(60) - 30);
+            Member member = TestMembers.member(i, type, end.minusYears(1), end);
+            member.setActive(random.nextInt(10) != 0);
+            members.add(member);
+            if (member.isMembershipActive(today)) {
+                expected.merge(type, 1L, Long::sum);
+            }
+        }
+
+        Map<String, Long> actual = new MemberAnalytics(pool).countActiveByMembershipType(members, today);
+        assertEquals(expected, new HashMap<>(actual));
+        assertEquals(Arrays.asList("Basic", "Family", "Premium", null), new ArrayList<>(actual.keySet()));
+        assertTrue(new MemberAnalytics(pool).countActiveByMembershipType(List.of(), today).isEmpty());
+    }
+}
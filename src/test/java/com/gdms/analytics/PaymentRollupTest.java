@@ -0,0 +1,143 @@
+package com.gdms.analytics;
+
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PaymentRollup functionality.
+ */
+class PaymentRollupTest {
+    private static final LocalDate FROM = LocalDate.of(2024, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 4, 1);
+
+    private static Payment payment(int id, long cents, String method, LocalDate date) {
+        return new Payment(id, 100 + id, Money.ofMinor(cents, Money.USD), method, "Monthly fee", date);
+    }
+
+    @Test
+    void testTrackedPaymentsFollowStatusChanges() {
+        PaymentRollup rollup = new PaymentRollup(FROM, TO);
+        Payment card = payment(1, 5000, "Credit Card", FROM);
+        Payment cash = payment(2, 2000, "Cash", FROM.plusDays(2));
+        Payment failed = payment(3, 700, "Cash", FROM.plusDays(2));
+        assertTrue(rollup.track(card));
+        assertTrue(rollup.track(cash));
+        assertTrue(rollup.track(failed));
+
+        assertEquals(3, rollup.getCount(PaymentStatus.PENDING, FROM, TO));
+        assertEquals(7700, rollup.getAmountCents(PaymentStatus.PENDING, FROM, TO));
+
+        card.processPayment("TXN1");
+        cash.processPayment("TXN2");
+        failed.failPayment();
+        assertEquals(0, rollup.getCount(PaymentStatus.PENDING, FROM, TO));
+        assertEquals(5000, rollup.getAmountCents(FROM, "Credit Card", PaymentStatus.COMPLETED));
+        assertEquals(700, rollup.getAmountCents(FROM.plusDays(2), "Cash", PaymentStatus.FAILED));
+        assertEquals(2000, rollup.getDailyRevenueCents("Cash")[2]);
+        assertEquals(0, rollup.getRefundRate(FROM, TO));
+
+        cash.refundPayment("Moved away");
+        assertEquals(0, rollup.getDailyRevenueCents("Cash")[2]);
+        assertEquals(1, rollup.getCount(FROM.plusDays(2), "Cash", PaymentStatus.REFUNDED));
+        assertEquals(0.5, rollup.getRefundRate(FROM, TO));
+        assertEquals(List.of("Credit Card", "Cash"), rollup.getPaymentMethods());
+    }
+
+    @Test
+    void testUntrackAndAdd() {
+        PaymentRollup rollup = new PaymentRollup(FROM, TO);
+        Payment tracked = payment(1, 5000, "Credit Card", FROM);
+        Payment added = payment(2, 3000, "Credit Card", FROM);
+        rollup.track(tracked);
+        rollup.add(added);
+
+        added.processPayment("TXN2");
+        assertEquals(2, rollup.getCount(FROM, "Credit Card", PaymentStatus.PENDING));
+
+        rollup.untrack(tracked);
+        tracked.processPayment("TXN1");
+        assertEquals(1, rollup.getCount(FROM, "Credit Card", PaymentStatus.PENDING));
+        assertEquals(0, rollup.getCount(FROM, "Credit Card", PaymentStatus.COMPLETED));
+
+        // Only the tracked instance is untracked, and an ID is tracked once
+        rollup.untrack(added);
+        assertEquals(1, rollup.getCount(FROM, "Credit Card", PaymentStatus.PENDING));
+        Payment other = payment(3, 700, null, FROM);
+        assertTrue(rollup.track(other));
+        assertThrows(IllegalStateException.class, () -> rollup.track(payment(3, 700, "Cash", FROM)));
+        other.processPayment("TXN3");
+        assertEquals(700, rollup.getAmountCents(FROM, null, PaymentStatus.COMPLETED));
+    }
+
+    @Test
+    void testWindowBounds() {
+        PaymentRollup rollup = new PaymentRollup(FROM, TO);
+        assertFalse(rollup.track(payment(1, 100, "Cash", FROM.minusDays(1))));
+        assertFalse(rollup.track(payment(2, 100, "Cash", TO)));
+        assertTrue(rollup.track(payment(3, 100, "Cash", TO.minusDays(1))));
+
+        assertEquals(1, rollup.getCount(PaymentStatus.PENDING, FROM.minusYears(1), TO.plusYears(1)));
+        assertEquals(0, rollup.getCount(TO.minusDays(2), "Unknown", PaymentStatus.PENDING));
+        assertEquals(31, rollup.getDailyRevenueCents("Unknown").length);
+        assertThrows(IllegalArgumentException.class, () -> rollup.getCount(TO, "Cash", PaymentStatus.PENDING));
+        assertThrows(IllegalArgumentException.class, () -> new PaymentRollup(TO, FROM));
+        assertThrows(IllegalArgumentException.class, () -> rollup.track(
+                new Payment(4, 1, Money.ofMinor(100, "EUR"), "Cash", null, FROM)));
+    }
+
+    @Test
+    void testConcurrentTransitions() throws Exception {
+        PaymentRollup rollup = new PaymentRollup(FROM, TO);
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Payment payment = payment(i, 100 + i, i % 2 == 0 ? "Cash" : "Credit Card", FROM.plusDays(i % 31));
+            rollup.track(payment);
+            payments.add(payment);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (Payment payment : payments) {
+                        if (payment.processPayment("TXN" + payment.getPaymentId())
+                                && payment.getPaymentId() % 4 == 0) {
+                            payment.refundPayment("Duplicate");
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(0, rollup.getCount(PaymentStatus.PENDING, FROM, TO));
+        assertEquals(1500, rollup.getCount(PaymentStatus.COMPLETED, FROM, TO));
+        assertEquals(500, rollup.getCount(PaymentStatus.REFUNDED, FROM, TO));
+        long refunded = 0;
+        for (Payment payment : payments) {
+            if (payment.getPaymentStatus() == PaymentStatus.REFUNDED) {
+                refunded += payment.getAmountMinor();
+            }
+        }
+        assertEquals(refunded, rollup.getAmountCents(PaymentStatus.REFUNDED, FROM, TO));
+    }
+}
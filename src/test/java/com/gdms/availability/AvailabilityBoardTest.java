@@ -0,0 +1,197 @@
+package com.gdms.availability;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.EquipmentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for AvailabilityBoard functionality.
+ */
+class AvailabilityBoardTest {
+    private static final String[] LOCATIONS = {"Cardio Zone", "Free Weights", "Studio A", "Studio B"};
+
+    private AvailabilityBoard board;
+
+    @BeforeEach
+    void setUp() {
+        board = new AvailabilityBoard();
+    }
+
+    private Equipment equipment(int id, String location) {
+        Equipment equipment = new Equipment(id, "Machine " + id, "Available", location, null);
+        board.add(equipment);
+        return equipment;
+    }
+
+    @Test
+    void testCountsFollowStatusChanges() {
+        Equipment treadmill = equipment(1, "Cardio Zone");
+        Equipment bike = equipment(2, "Cardio Zone");
+        equipment(3, "Free Weights");
+
+        assertEquals(new AvailabilityBoard.Counts(2, 0, 0, 0), board.getCounts("Cardio Zone"));
+        treadmill.setStatus("In Use");
+        bike.reportIssue("Chain slipped");
+        assertEquals(new AvailabilityBoard.Counts(0, 1, 0, 1), board.getCounts("Cardio Zone"));
+        assertEquals(List.of(bike), board.getEquipment("Cardio Zone", EquipmentStatus.OUT_OF_ORDER));
+
+        bike.performMaintenance(1, LocalDate.of(2024, 6, 3));
+        assertEquals(1, board.getCount("Cardio Zone", EquipmentStatus.AVAILABLE));
+        assertEquals(new AvailabilityBoard.Counts(2, 1, 0, 0), board.getTotals());
+        assertEquals(0, board.getCounts("Pool").total());
+    }
+
+    @Test
+    void testRelocationAndRemoval() {
+        Equipment bike = equipment(1, "Studio A");
+        equipment(2, null);
+        assertThrows(IllegalStateException.class, () -> board.add(bike));
+
+        bike.setLocation("Studio B");
+        assertEquals(0, board.getCounts("Studio A").total());
+        assertEquals(List.of(bike), board.getEquipment("Studio B", EquipmentStatus.AVAILABLE));
+        assertEquals(1, board.getCounts(null).available());
+        assertEquals(List.of("", "Studio A", "Studio B"), new ArrayList<>(board.getCountsByLocation().keySet()));
+
+        assertSame(bike, board.remove(1));
+        assertNull(board.remove(1));
+        bike.setStatus("In Use");
+        assertEquals(0, board.getCounts("Studio B").total());
+    }
+
+    @Test
+    void testMoveToFullLocationKeepsOldListing() {
+        for (int id = 0; id < AvailabilityBoard.MAX_PER_LOCATION; id++) {
+            equipment(id, "Studio A");
+        }
+        Equipment bike = equipment(AvailabilityBoard.MAX_PER_LOCATION, "Studio B");
+        assertThrows(IllegalStateException.class,
+                () -> board.add(new Equipment(-1, "Rower", "Available", "Studio A", null)));
+
+        // The listener must not throw back into the setter
+        bike.setLocation("Studio A");
+        assertEquals("Studio A", bike.getLocation());
+        assertEquals(List.of(bike), board.getEquipment("Studio B", EquipmentStatus.AVAILABLE));
+        assertEquals(AvailabilityBoard.MAX_PER_LOCATION, board.getCounts("Studio A").total());
+
+        // The next change after room frees up completes the move
+        board.remove(0);
+        bike.setStatus("In Use");
+        assertEquals(0, board.getCounts("Studio B").total());
+        assertEquals(List.of(bike), board.getEquipment("Studio A", EquipmentStatus.IN_USE));
+    }
+
+    @Test
+    void testSubscribersArePushedChanges() {
+        Equipment bike = equipment(1, "Studio A");
+        Equipment rower = equipment(2, "Studio B");
+        List<AvailabilityBoard.Change> all = new ArrayList<>();
+        List<AvailabilityBoard.Change> studioB = new ArrayList<>();
+        board.addListener(all::add);
+        board.addListener("Studio B", studioB::add);
+        board.addListener(change -> {
+            throw new IllegalStateException("Screen offline");
+        });
+
+        bike.setStatus("In Use");
+        rower.setStatus("Under Maintenance");
+        bike.setLocation("Studio B");
+        bike.setStatus("In Use");
+
+        assertEquals(3, all.size());
+        assertEquals(new AvailabilityBoard.Change(bike, "Studio A", EquipmentStatus.AVAILABLE,
+                "Studio A", EquipmentStatus.IN_USE), all.get(0));
+        assertEquals(List.of(all.get(1), all.get(2)), studioB);
+        assertEquals("Studio A", studioB.get(1).oldLocation());
+    }
+
+    @Test
+    void testCountsStayConsistentUnderConcurrentChanges() throws Exception {
+        int machines = 400;
+        List<Equipment> equipment = new ArrayList<>();
+        for (int i = 0; i < machines; i++) {
+            equipment.add(equipment(i, LOCATIONS[i % LOCATIONS.length]));
+        }
+        AtomicInteger pushed = new AtomicInteger();
+        board.addListener(change -> pushed.incrementAndGet());
+
+        int writers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 2);
+        AtomicBoolean running = new AtomicBoolean(true);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < writers; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    EquipmentStatus[] statuses = EquipmentStatus.values();
+                    for (int i = 0; i < 20_000; i++) {
+                        Equipment item = equipment.get(random.nextInt(machines));
+                        switch (random.nextInt(4)) {
+                            case 0 -> item.transitionTo(statuses[random.nextInt(statuses.length)]);
+                            case 1 -> item.setEquipmentStatus(statuses[random.nextInt(statuses.length)]);
+                            case 2 -> item.reportIssue("Noise");
+                            default -> item.setLocation(LOCATIONS[random.nextInt(LOCATIONS.length)]);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            // Readers check that every location snapshot is internally consistent while writers run
+            for (int thread = 0; thread < 2; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    while (running.get()) {
+                        for (String location : LOCATIONS) {
+                            int total = board.getCounts(location).total();
+                            assertTrue(total >= 0 && total <= machines, () -> location + ": " + total);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures.subList(0, writers)) {
+                future.get();
+            }
+            running.set(false);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Once writers stop, the board matches the machines exactly
+        Map<EquipmentStatus, Integer> expectedTotals = new EnumMap<>(EquipmentStatus.class);
+        for (String location : LOCATIONS) {
+            AvailabilityBoard.Counts counts = board.getCounts(location);
+            for (EquipmentStatus status : EquipmentStatus.values()) {
+                List<Equipment> expected = equipment.stream()
+                        .filter(item -> item.getLocation().equals(location) && item.getEquipmentStatus() == status)
+                        .toList();
+                assertEquals(expected.size(), counts.get(status), location + " " + status);
+                assertEquals(expected.size(), board.getEquipment(location, status).size(), location + " " + status);
+                expectedTotals.merge(status, expected.size(), Integer::sum);
+            }
+        }
+        assertEquals(machines, board.getTotals().total());
+        assertEquals(expectedTotals.get(EquipmentStatus.OUT_OF_ORDER), board.getTotals().outOfOrder());
+        assertTrue(pushed.get() > 0);
+    }
+}
@@ -0,0 +1,258 @@
+package com.gdms.billing;
+
+import com.gdms.model.Member;
+import com.gdms.model.MembershipPlan;
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import com.gdms.model.TestMembers;
+import com.gdms.payment.GatewayException;
+import com.gdms.payment.GatewayResult;
+import com.gdms.payment.PaymentGateway;
+import com.gdms.repository.MemberRepository;
+import com.gdms.time.BusinessClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for DuesBillingEngine functionality.
+ */
+class DuesBillingEngineTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 1, 31);
+    private static final LocalDate FROM = LocalDate.of(2024, 2, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 2, 29);
+    private static final Map<String, MembershipPlan> PLANS = Map.of(
+            "Basic", new MembershipPlan("Basic", "Gym floor", Money.ofMinor(2999, Money.USD)),
+            "Premium", new MembershipPlan("Premium", "Everything", Money.ofMinor(5999, Money.USD)),
+            "Legacy", new MembershipPlan("Legacy", "Retired plan", Money.ofMinor(999, Money.USD), false));
+
+    @TempDir
+    Path checkpoints;
+
+    private MemberRepository repository;
+    private AtomicInteger paymentIds;
+    private ConcurrentLinkedQueue<Payment> settled;
+
+    @BeforeEach
+    void setUp() {
+        repository = new MemberRepository();
+        paymentIds = new AtomicInteger(1000);
+        settled = new ConcurrentLinkedQueue<>();
+    }
+
+    private Member member(int id, String type, LocalDate end) {
+        Member member = TestMembers.member(id, type, end.minusMonths(1), end);
+        repository.add(member);
+        return member;
+    }
+
+    private DuesBillingEngine engine(PaymentGateway gateway, int workers, int batchSize) {
+        return new DuesBillingEngine(repository, PLANS::get, gateway, paymentIds::getAndIncrement, workers,
+                batchSize, BusinessClock.fixed(TODAY));
+    }
+
+    @Test
+    void testBillsAndRenewsMembersInWindow() throws Exception {
+        Member basic = member(1, "Basic", LocalDate.of(2024, 2, 10));
+        Member premium = member(2, "Premium", LocalDate.of(2024, 2, 29));
+        Member firstDay = member(3, "Basic", LocalDate.of(2024, 2, 1));
+        Member declined = member(4, "Premium", LocalDate.of(2024, 2, 15));
+        Member legacy = member(5, "Legacy", LocalDate.of(2024, 2, 20));
+        Member inactive = member(6, "Basic", LocalDate.of(2024, 2, 20));
+        Member later = member(7, "Basic", LocalDate.of(2024, 3, 1));
+        inactive.setActive(false);
+        IdempotentGateway gateway = new IdempotentGateway(Set.of(4));
+
+        DuesBillingEngine.BillingResult result = engine(gateway, 2, 2).run(FROM, TO, 1, checkpoints, settled::add);
+
+        assertEquals(3, result.completed());
+        assertEquals(1, result.declined());
+        assertEquals(0, result.unresolved());
+        assertEquals(2, result.skipped());
+        assertTrue(result.throughputPerMinute() > 0);
+        assertEquals(LocalDate.of(2024, 3, 10), basic.getMembershipEndDate());
+        assertEquals(LocalDate.of(2024, 3, 29), premium.getMembershipEndDate());
+        assertEquals(LocalDate.of(2024, 3, 1), firstDay.getMembershipEndDate());
+        assertEquals(LocalDate.of(2024, 2, 15), declined.getMembershipEndDate());
+        assertEquals(LocalDate.of(2024, 2, 20), legacy.getMembershipEndDate());
+        assertEquals(LocalDate.of(2024, 2, 20), inactive.getMembershipEndDate());
+        assertEquals(LocalDate.of(2024, 3, 1), later.getMembershipEndDate());
+
+        assertEquals(4, settled.size());
+        for (Payment payment : settled) {
+            assertEquals(TODAY, payment.getPaymentDate());
+            assertEquals(payment.getMemberId() == 4 ? PaymentStatus.FAILED : PaymentStatus.COMPLETED,
+                    payment.getPaymentStatus());
+            assertEquals(payment.getMemberId() % 2 == 0 ? 5999 : 2999, payment.getAmountMinor());
+        }
+
+        // A renewal lost after the charge, e.g. restored from an older backup, is applied without a charge
+        premium.setMembershipEndDate(LocalDate.of(2024, 2, 29));
+        settled.clear();
+        DuesBillingEngine.BillingResult rerun = engine(gateway, 3, 2).run(FROM, TO, 1, checkpoints, settled::add);
+        assertEquals(0, rerun.completed() + rerun.declined());
+        assertEquals(1, rerun.resumed());
+        assertEquals(3, rerun.skipped());
+        assertEquals(0, rerun.requests());
+        assertEquals(LocalDate.of(2024, 3, 29), premium.getMembershipEndDate());
+        assertEquals(LocalDate.of(2024, 2, 15), declined.getMembershipEndDate());
+        assertEquals(3, gateway.charges());
+        assertTrue(settled.isEmpty());
+    }
+
+    @Test
+    void testCrashedRunResumesWithoutDoubleBilling() throws Exception {
+        List<Member> members = new ArrayList<>();
+        for (int id = 0; id < 1_000; id++) {
+            members.add(member(id, id % 3 == 0 ? "Premium" : "Basic", FROM.plusDays(id % 29)));
+        }
+        IdempotentGateway gateway = new IdempotentGateway(Set.of());
+        gateway.crashAfter.set(30);
+
+        assertThrows(Crash.class, () -> engine(gateway, 4, 10).run(FROM, TO, 1, checkpoints, settled::add));
+        int billedBeforeCrash = gateway.charges();
+        assertTrue(billedBeforeCrash >= 300 && billedBeforeCrash < 1_000, "billed " + billedBeforeCrash);
+        // The crashed request charged its batch, but its answer was lost
+        int settledBeforeCrash = settled.size();
+        assertEquals(billedBeforeCrash - 10, settledBeforeCrash);
+        // The crash also tore the last line of a journal
+        try (var files = Files.list(checkpoints)) {
+            Path journal = files.findFirst().orElseThrow();
+            Files.writeString(journal, "B 12", StandardOpenOption.APPEND);
+        }
+
+        DuesBillingEngine.BillingResult result = engine(gateway, 3, 10).run(FROM, TO, 1, checkpoints, settled::add);
+
+        assertEquals(1_000, gateway.charges());
+        assertEquals(0, result.unresolved());
+        assertEquals(1_000 - settledBeforeCrash, result.completed());
+        for (int id = 0; id < members.size(); id++) {
+            assertEquals(FROM.plusDays(id % 29).plusMonths(1), members.get(id).getMembershipEndDate(), "member " + id);
+            assertEquals(1, gateway.chargesFor(id), "member " + id);
+        }
+        Set<Integer> memberIds = new HashSet<>();
+        for (Payment payment : settled) {
+            assertEquals(PaymentStatus.COMPLETED, payment.getPaymentStatus());
+            memberIds.add(payment.getMemberId());
+        }
+        assertEquals(1_000, settled.size());
+        assertEquals(1_000, memberIds.size());
+    }
+
+    @Test
+    void testFailedRequestsAreResubmittedUnderSameId() throws Exception {
+        for (int id = 0; id < 5; id++) {
+            member(id, "Basic", FROM.plusDays(id));
+        }
+        IdempotentGateway gateway = new IdempotentGateway(Set.of());
+        gateway.failures.set(1);
+
+        DuesBillingEngine.BillingResult failed = engine(gateway, 1, 5).run(FROM, TO, 1, checkpoints, settled::add);
+        assertEquals(5, failed.unresolved());
+        assertEquals(0, failed.completed());
+        assertEquals(FROM, repository.findById(0).getMembershipEndDate());
+
+        DuesBillingEngine.BillingResult resumed = engine(gateway, 2, 5).run(FROM, TO, 1, checkpoints, settled::add);
+        assertEquals(5, resumed.completed());
+        assertEquals(Set.of(1000, 1001, 1002, 1003, 1004),
+                settled.stream().map(Payment::getPaymentId).collect(Collectors.toSet()));
+        assertEquals(1005, paymentIds.get());
+        assertEquals(FROM.plusMonths(1), repository.findById(0).getMembershipEndDate());
+
+        Files.writeString(checkpoints.resolve("dues-" + FROM + "-" + TO + "-1-0.log"), "X 1 2\n",
+                StandardOpenOption.APPEND);
+        assertThrows(IOException.class, () -> engine(gateway, 1, 5).run(FROM, TO, 1, checkpoints, settled::add));
+    }
+
+    @Test
+    void testResumeWithDifferentWorkerCountKeepsOutcomes() throws Exception {
+        member(11, "Basic", FROM);
+        IdempotentGateway gateway = new IdempotentGateway(Set.of());
+        gateway.failures.set(1);
+
+        // The intent goes to worker 2 of 3, then the resubmission's outcome to worker 11 of 12
+        assertEquals(1, engine(gateway, 3, 5).run(FROM, TO, 1, checkpoints, settled::add).unresolved());
+        assertEquals(1, engine(gateway, 12, 5).run(FROM, TO, 1, checkpoints, settled::add).completed());
+        assertTrue(Files.exists(checkpoints.resolve("dues-" + FROM + "-" + TO + "-1-11.log")));
+
+        // Lose the renewal, as a crash could, so the member is in the window again.
+        // "-11.log" sorts before "-2.log", so its outcome is read before the intent's file
+        repository.findById(11).setMembershipEndDate(FROM);
+        DuesBillingEngine.BillingResult again = engine(gateway, 3, 5).run(FROM, TO, 1, checkpoints, settled::add);
+        assertEquals(1, again.resumed());
+        assertEquals(0, again.completed());
+        assertEquals(1, gateway.chargesFor(11));
+        assertEquals(FROM.plusMonths(1), repository.findById(11).getMembershipEndDate());
+    }
+
+    /** Stands in for a JVM crash in the middle of a gateway request. */
+    private static final class Crash extends Error {
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * Gateway that charges each payment ID once and answers repeated requests for it
+     * with the first answer, like a gateway keyed on idempotency keys.
+     */
+    private static final class IdempotentGateway implements PaymentGateway {
+        private final Set<Integer> declinedMembers;
+        private final Map<Integer, GatewayResult> answers = new ConcurrentHashMap<>();
+        private final Map<Integer, AtomicInteger> chargesByMember = new ConcurrentHashMap<>();
+        private final AtomicInteger charges = new AtomicInteger();
+        final AtomicInteger crashAfter = new AtomicInteger(-1);
+        final AtomicInteger failures = new AtomicInteger();
+
+        IdempotentGateway(Set<Integer> declinedMembers) {
+            this.declinedMembers = declinedMembers;
+        }
+
+        @Override
+        public List<GatewayResult> settle(List<Payment> batch) throws GatewayException {
+            if (failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new GatewayException("Simulated gateway timeout");
+            }
+            List<GatewayResult> results = new ArrayList<>(batch.size());
+            for (Payment payment : batch) {
+                results.add(answers.computeIfAbsent(payment.getPaymentId(), id -> {
+                    if (declinedMembers.contains(payment.getMemberId())) {
+                        return GatewayResult.declined(id, "Card declined");
+                    }
+                    charges.incrementAndGet();
+                    chargesByMember.computeIfAbsent(payment.getMemberId(), member -> new AtomicInteger())
+                            .incrementAndGet();
+                    return GatewayResult.approved(id, "TXN" + id);
+                }));
+            }
+            // Charged, but the answer never reaches the caller
+            if (crashAfter.getAndDecrement() == 0) {
+                throw new Crash();
+            }
+            return results;
+        }
+
+        int charges() {
+            return charges.get();
+        }
+
+        int chargesFor(int memberId) {
+            AtomicInteger count = chargesByMember.get(memberId);
+            return count == null ? 0 : count.get();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.gdms.ledger;
+
+import com.gdms.model.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PaymentJournal functionality.
+ */
+class PaymentJournalTest {
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private static PaymentEvent created(int paymentId) {
+        return PaymentEvent.created(paymentId, 1000 + paymentId, Money.ofMinor(4999, "USD"), "Credit Card",
+                "Monthly membership", LocalDate.of(2024, 3, 1));
+    }
+
+    private static List<PaymentEvent> replay(PaymentJournal journal, long fromSequence) throws IOException {
+        List<PaymentEvent> events = new ArrayList<>();
+        journal.replay(fromSequence, events::add);
+        return events;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".journal")).sorted().toList();
+        }
+    }
+
+    /**
+     * @return File offset of the record with the given sequence number in a segment starting at 1
+     */
+    private static long recordOffset(RandomAccessFile file, long sequence) throws IOException {
+        long offset = 16;
+        for (long i = 1; i < sequence; i++) {
+            file.seek(offset);
+            offset += 8 + file.readInt();
+        }
+        return offset;
+    }
+
+    @Test
+    void testAppendAndReplayAcrossSegments() throws IOException {
+        try (PaymentJournal journal = new PaymentJournal(directory, SEGMENT_SIZE)) {
+            for (int i = 1; i <= 200; i++) {
+                assertEquals(2L * i - 1, journal.append(created(i)));
+                assertEquals(2L * i, journal.append(i % 2 == 0
+                        ? PaymentEvent.processed(i, "txn_" + i) : PaymentEvent.failed(i, null)));
+            }
+            assertTrue(segments().size() > 1);
+
+            List<PaymentEvent> events = replay(journal, 1);
+            assertEquals(400, events.size());
+            PaymentEvent first = events.get(0);
+            assertEquals(1, first.sequence());
+            assertEquals(PaymentEvent.Type.CREATED, first.type());
+            assertEquals(1001, first.memberId());
+            assertEquals(Money.ofMinor(4999, "USD"), first.getAmount());
+            assertEquals(LocalDate.of(2024, 3, 1), first.getPaymentDate());
+            assertEquals("Credit Card", first.paymentMethod());
+            assertEquals("Monthly membership", first.detail());
+            assertTrue(first.recordedAtMillis() > 0);
+            assertEquals(PaymentEvent.Type.FAILED, events.get(1).type());
+            assertNull(events.get(1).detail());
+            assertEquals("txn_2", events.get(3).detail());
+
+            List<PaymentEvent> tail = replay(journal, 351);
+            assertEquals(50, tail.size());
+            assertEquals(351, tail.get(0).sequence());
+        }
+    }
+
+    @Test
+    void testReopenAfterCrashContinuesSequence() throws IOException {
+        PaymentJournal crashed = new PaymentJournal(directory, SEGMENT_SIZE);
+        for (int i = 1; i <= 100; i++) {
+            crashed.append(created(i));
+        }
+        crashed.sync(50);
+        // Never closed, as after a crash; the page cache still holds every append
+
+        try (PaymentJournal journal = new PaymentJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(100, journal.getLastSequence());
+            assertEquals(101, journal.append(PaymentEvent.refunded(7, "Duplicate charge")));
+            List<PaymentEvent> events = replay(journal, 100);
+            assertEquals(2, events.size());
+            assertEquals("Duplicate charge", events.get(1).detail());
+        }
+    }
+
+    @Test
+    void testTornTailIsDroppedAndOverwritten() throws IOException {
+        try (PaymentJournal journal = new PaymentJournal(directory, SEGMENT_SIZE)) {
+            for (int i = 1; i <= 5; i++) {
+                journal.append(created(i));
+            }
+        }
+        Path segment = segments().get(0);
+        long fourth;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            fourth = recordOffset(file, 4);
+            // A payload byte of record 4 never reached the disk; record 5 did
+            file.seek(fourth + 8 + 20);
+            file.writeByte(file.readByte() ^ 0xFF);
+        }
+
+        try (PaymentJournal journal = new PaymentJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(3, journal.getLastSequence());
+            assertEquals(3, replay(journal, 1).size());
+            assertEquals(4, journal.append(PaymentEvent.processed(1, "txn_1")));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "r")) {
+            long end = recordOffset(file, 5);
+            file.seek(end);
+            for (long i = end; i < SEGMENT_SIZE; i++) {
+                assertEquals(0, file.readByte(), "Stale byte at " + i);
+            }
+        }
+        try (PaymentJournal journal = new PaymentJournal(directory, SEGMENT_SIZE)) {
+            List<PaymentEvent> events = replay(journal, 1);
+            assertEquals(4, events.size());
+            assertEquals(PaymentEvent.Type.PROCESSED, events.get(3).type());
+        }
+    }
+
+    @Test
+    void testGarbageLengthEndsSegment() throws IOException {
+        try (PaymentJournal journal = new PaymentJournal(directory, SEGMENT_SIZE)) {
+            journal.append(created(1));
+            journal.append(created(2));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            file.seek(recordOffset(file, 2));
+            file.writeInt(Integer.MAX_VALUE);
+        }
+        try (PaymentJournal journal = new PaymentJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(1, journal.getLastSequence());
+            assertEquals(1, replay(journal, 1).get(0).paymentId());
+        }
+    }
+
+    @Test
+    void testConcurrentAppendsShareSyncs() throws Exception {
+        int threads = 8;
+        int perThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (PaymentJournal journal = new PaymentJournal(directory, 64 * 1024)) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                int base = thread * perThread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        long sequence = journal.append(created(base + i));
+                        if (i % 10 == 0) {
+                            journal.sync(sequence);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            journal.sync();
+
+            List<PaymentEvent> events = replay(journal, 1);
+            assertEquals(threads * perThread, events.size());
+            boolean[] seen = new boolean[threads * perThread];
+            for (int i = 0; i < events.size(); i++) {
+                assertEquals(i + 1, events.get(i).sequence());
+                seen[events.get(i).paymentId()] = true;
+            }
+            for (boolean paymentSeen : seen) {
+                assertTrue(paymentSeen);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
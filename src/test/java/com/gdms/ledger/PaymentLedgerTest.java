@@ -0,0 +1,192 @@
+package com.gdms.ledger;
+
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PaymentLedger functionality.
+ */
+class PaymentLedgerTest {
+    private static final LocalDate DATE = LocalDate.of(2024, 5, 1);
+
+    @TempDir
+    Path directory;
+
+    private PaymentLedger open(long snapshotInterval) throws IOException {
+        return new PaymentLedger(directory, 64 * 1024, snapshotInterval, true);
+    }
+
+    private static void record(PaymentLedger ledger, int from, int to) throws IOException {
+        for (int id = from; id <= to; id++) {
+            ledger.create(id, id % 50, Money.ofMinor(1000 + id, "USD"), "Credit Card", "Membership " + id, DATE);
+            switch (id % 4) {
+                case 0 -> ledger.process(id, "txn_" + id);
+                case 1 -> ledger.fail(id, "Card declined");
+                case 2 -> {
+                    ledger.process(id, "txn_" + id);
+                    ledger.refund(id, "Cancelled");
+                }
+                default -> { }
+            }
+        }
+    }
+
+    private static void assertSameState(Payment expected, Payment actual) {
+        assertEquals(expected.getMemberId(), actual.getMemberId());
+        assertEquals(expected.getAmountMinor(), actual.getAmountMinor());
+        assertEquals(expected.getCurrency(), actual.getCurrency());
+        assertEquals(expected.getPaymentDate(), actual.getPaymentDate());
+        assertEquals(expected.getPaymentMethod(), actual.getPaymentMethod());
+        assertEquals(expected.getPaymentStatus(), actual.getPaymentStatus());
+        assertEquals(expected.getTransactionId(), actual.getTransactionId());
+        assertEquals(expected.getDescription(), actual.getDescription());
+    }
+
+    @Test
+    void testLifecycleIsValidated() throws IOException {
+        try (PaymentLedger ledger = open(1000)) {
+            Payment payment = ledger.create(1, 7, Money.ofMinor(2500, "EUR"), "Debit Card", "Day pass", DATE);
+            assertEquals(PaymentStatus.PENDING, payment.getPaymentStatus());
+            assertThrows(IllegalStateException.class,
+                    () -> ledger.create(1, 7, Money.ofMinor(1, "EUR"), "Cash", null, DATE));
+            assertThrows(IllegalArgumentException.class, () -> ledger.process(2, "txn"));
+
+            assertFalse(ledger.refund(1, "Too early"));
+            assertTrue(ledger.fail(1, "Insufficient funds"));
+            assertFalse(ledger.fail(1, "Again"));
+            assertTrue(ledger.process(1, "txn_retry"));
+            assertTrue(ledger.refund(1, "Cancelled"));
+            assertFalse(ledger.process(1, "txn_late"));
+
+            assertSame(payment, ledger.get(1));
+            assertEquals(PaymentStatus.REFUNDED, payment.getPaymentStatus());
+            assertEquals("Refunded: Cancelled", payment.getDescription());
+            assertEquals(4, ledger.getLastSequence());
+
+            List<PaymentEvent> history = ledger.getHistory(1);
+            assertEquals(List.of(PaymentEvent.Type.CREATED, PaymentEvent.Type.FAILED, PaymentEvent.Type.PROCESSED,
+                    PaymentEvent.Type.REFUNDED), history.stream().map(PaymentEvent::type).toList());
+            assertEquals("Day pass", history.get(0).detail());
+            assertEquals("Insufficient funds", history.get(1).detail());
+        }
+    }
+
+    @Test
+    void testProjectionIsRebuiltAfterCrash() throws IOException {
+        PaymentLedger crashed = open(1_000_000);
+        record(crashed, 1, 400);
+        // Not closed: the ledger is reopened from the journal alone
+
+        try (PaymentLedger ledger = open(1_000_000)) {
+            assertEquals(400, ledger.size());
+            assertEquals(crashed.getLastSequence(), ledger.getReplayedOnOpen());
+            for (int id = 1; id <= 400; id++) {
+                assertSameState(crashed.get(id), ledger.get(id));
+            }
+            assertEquals(PaymentStatus.REFUNDED, ledger.get(2).getPaymentStatus());
+            assertEquals("txn_4", ledger.get(4).getTransactionId());
+        }
+    }
+
+    @Test
+    void testSnapshotLimitsReplay() throws IOException {
+        long total;
+        long snapshotted;
+        try (PaymentLedger ledger = open(300)) {
+            record(ledger, 1, 400);
+            total = ledger.getLastSequence();
+        }
+        try (PaymentLedger ledger = open(300)) {
+            assertTrue(ledger.getReplayedOnOpen() < 300, () -> "Replayed " + ledger.getReplayedOnOpen());
+            assertEquals(total, ledger.getLastSequence());
+            assertEquals(400, ledger.size());
+            assertEquals(PaymentStatus.FAILED, ledger.get(5).getPaymentStatus());
+            assertEquals("Refunded: Cancelled", ledger.get(6).getDescription());
+
+            ledger.snapshot();
+            snapshotted = ledger.getLastSequence();
+            record(ledger, 401, 410);
+        }
+        try (PaymentLedger ledger = open(300)) {
+            assertEquals(410, ledger.size());
+            assertEquals(PaymentStatus.COMPLETED, ledger.get(408).getPaymentStatus());
+            assertEquals(ledger.getLastSequence() - snapshotted, ledger.getReplayedOnOpen());
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(2, files.filter(file -> file.getFileName().toString().startsWith("snapshot-")).count());
+            }
+        }
+    }
+
+    @Test
+    void testSnapshotsTakenDuringConcurrentChangesRestoreTheSameState() throws Exception {
+        int threads = 4;
+        List<Payment> expected = new ArrayList<>();
+        long total;
+        try (PaymentLedger ledger = new PaymentLedger(directory, 64 * 1024, 50, false)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> writers = new ArrayList<>();
+                for (int thread = 0; thread < threads; thread++) {
+                    int from = thread * 250 + 1;
+                    writers.add(executor.submit(() -> {
+                        record(ledger, from, from + 249);
+                        return null;
+                    }));
+                }
+                for (Future<?> writer : writers) {
+                    writer.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+            ledger.sync();
+            total = ledger.getLastSequence();
+            for (int id = 1; id <= 1_000; id++) {
+                expected.add(ledger.get(id));
+            }
+        }
+        try (PaymentLedger ledger = open(50)) {
+            assertTrue(ledger.getReplayedOnOpen() < total, () -> "Replayed " + ledger.getReplayedOnOpen());
+            assertEquals(1_000, ledger.size());
+            for (Payment payment : expected) {
+                assertSameState(payment, ledger.get(payment.getPaymentId()));
+            }
+        }
+    }
+
+    @Test
+    void testDamagedSnapshotFallsBackToJournal() throws IOException {
+        try (PaymentLedger ledger = open(1_000_000)) {
+            record(ledger, 1, 100);
+            ledger.snapshot();
+        }
+        Path snapshot;
+        try (Stream<Path> files = Files.list(directory)) {
+            snapshot = files.filter(file -> file.getFileName().toString().startsWith("snapshot-"))
+                    .findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 0x55;
+        Files.write(snapshot, bytes);
+
+        try (PaymentLedger ledger = open(1_000_000)) {
+            assertEquals(ledger.getLastSequence(), ledger.getReplayedOnOpen());
+            assertEquals(100, ledger.size());
+            assertEquals("txn_100", ledger.get(100).getTransactionId());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.gdms.maintenance;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.EquipmentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for MaintenancePlanner functionality.
+ */
+class MaintenancePlannerTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 3);
+
+    private MaintenancePlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        planner = new MaintenancePlanner();
+    }
+
+    private Equipment equipment(int id, String location, LocalDate next) {
+        Equipment equipment = new Equipment(id, "Machine " + id, "Available", location, null);
+        equipment.setNextMaintenanceDate(next);
+        planner.add(equipment);
+        return equipment;
+    }
+
+    @Test
+    void testNextDueAtLocation() {
+        Equipment treadmill = equipment(1, "Cardio Zone", TODAY.plusDays(3));
+        Equipment bike = equipment(2, "Cardio Zone", TODAY.minusDays(2));
+        Equipment rower = equipment(3, "Cardio Zone", TODAY.plusDays(10));
+        equipment(4, "Free Weights", TODAY.minusDays(5));
+
+        assertEquals(List.of(bike, treadmill), planner.getNextDue("Cardio Zone", 2));
+        assertEquals(List.of(bike, treadmill, rower), planner.getNextDue("Cardio Zone", 10));
+        assertTrue(planner.getNextDue("Pool", 5).isEmpty());
+        assertEquals(List.of("Cardio Zone", "Free Weights"), planner.getLocations());
+        assertEquals(4, planner.size());
+    }
+
+    @Test
+    void testMaintenanceAndIssuesReorderTheQueue() {
+        Equipment treadmill = equipment(1, "Cardio Zone", TODAY.minusDays(1));
+        Equipment bike = equipment(2, "Cardio Zone", TODAY.plusDays(20));
+        Equipment rower = equipment(3, "Cardio Zone", TODAY.plusDays(5));
+        assertEquals(List.of(treadmill), planner.getDue(TODAY));
+
+        treadmill.performMaintenance(1, TODAY);
+        assertTrue(planner.getDue(TODAY).isEmpty());
+        assertEquals(List.of(rower, bike, treadmill), planner.getNextDue("Cardio Zone", 3));
+
+        bike.reportIssue("Pedal snapped");
+        assertEquals(List.of(bike), planner.getDue(TODAY));
+        assertEquals(List.of(bike, rower), planner.getNextDue("Cardio Zone", 2));
+
+        bike.setLocation("Spin Studio");
+        assertEquals(List.of(bike), planner.getNextDue("Spin Studio", 5));
+        assertEquals(List.of(rower, treadmill), planner.getNextDue("Cardio Zone", 5));
+
+        bike.performMaintenance(3, TODAY);
+        assertEquals(EquipmentStatus.AVAILABLE, bike.getEquipmentStatus());
+        assertTrue(planner.getDue(TODAY.plusDays(10)).contains(rower));
+        assertFalse(planner.getDue(TODAY.plusDays(10)).contains(bike));
+    }
+
+    @Test
+    void testRemove() {
+        Equipment treadmill = equipment(1, "Cardio Zone", TODAY);
+        assertThrows(IllegalStateException.class, () -> planner.add(treadmill));
+
+        assertSame(treadmill, planner.remove(1));
+        assertNull(planner.remove(1));
+        treadmill.setNextMaintenanceDate(TODAY.minusDays(30));
+        assertTrue(planner.getDue(TODAY).isEmpty());
+        assertTrue(planner.getLocations().isEmpty());
+    }
+
+    @Test
+    void testEquipmentWithoutDateOnlyAppearsWhenBroken() {
+        Equipment bench = equipment(1, "Free Weights", null);
+        assertTrue(planner.getDue(TODAY.plusYears(100)).isEmpty());
+
+        bench.reportIssue("Torn padding");
+        assertEquals(List.of(bench), planner.getDue(TODAY));
+    }
+
+    @Test
+    void testPlanRoutesIsBalancedAndGroupedByLocation() {
+        String[] locations = {"Cardio Zone", "Free Weights", "Pool", "Studio A", "Studio B"};
+        Random random = new Random(11);
+        List<Equipment> all = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            all.add(equipment(i, locations[random.nextInt(locations.length)], TODAY.plusDays(random.nextInt(40) - 20)));
+        }
+        all.get(499).reportIssue("Smoke");
+
+        List<MaintenancePlanner.Route> routes = planner.planRoutes(TODAY, 4, 30);
+        assertEquals(4, routes.size());
+        Set<Equipment> planned = new HashSet<>();
+        int locationVisits = 0;
+        for (MaintenancePlanner.Route route : routes) {
+            assertEquals(30, route.stops().size());
+            planned.addAll(route.stops());
+            locationVisits += route.locations().size();
+        }
+        assertEquals(120, planned.size());
+        assertTrue(planned.contains(all.get(499)));
+        // Contiguous slices cross at most one location boundary per technician
+        assertTrue(locationVisits <= locations.length + routes.size() - 1);
+
+        // The planned stops are the 120 most urgent of everything due
+        List<Equipment> due = planner.getDue(TODAY);
+        assertTrue(due.size() > 120);
+        assertEquals(new HashSet<>(due.subList(0, 120)), planned);
+
+        List<MaintenancePlanner.Route> small = planner.planRoutes(TODAY.minusYears(1), 3, 10);
+        assertEquals(List.of(all.get(499)), small.get(0).stops());
+        assertTrue(small.get(1).stops().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> planner.planRoutes(TODAY, 0, 10));
+    }
+}
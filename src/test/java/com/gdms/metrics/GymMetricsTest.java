@@ -0,0 +1,70 @@
+package com.gdms.metrics;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.Member;
+import com.gdms.model.Payment;
+import com.gdms.payment.ReceiptWriter;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for GymMetrics functionality.
+ */
+class GymMetricsTest {
+
+    @Test
+    void testModelOperationsAreRecorded() throws IOException {
+        Counter completed = GymMetrics.PAYMENT_TRANSITIONS.labels("completed");
+        Counter refunded = GymMetrics.PAYMENT_TRANSITIONS.labels("refunded");
+        Counter rejectedRefunds = GymMetrics.PAYMENT_TRANSITIONS_REJECTED.labels("refunded");
+        long completedBefore = completed.getCount();
+        long refundedBefore = refunded.getCount();
+        long rejectedBefore = rejectedRefunds.getCount();
+        long receiptsBefore = GymMetrics.RECEIPT_RENDERING.snapshot().count();
+        long receiptBatchesBefore = GymMetrics.RECEIPT_WRITING.snapshot().count();
+
+        Payment payment = new Payment(1, 101, 49.99, "Credit Card", "Monthly membership fee");
+        assertFalse(payment.refundPayment("Too early"));
+        assertTrue(payment.processPayment("TXN1"));
+        assertTrue(payment.refundPayment("Changed mind"));
+        payment.generateReceipt();
+        ReceiptWriter writer = new ReceiptWriter(Locale.US);
+        writer.render(payment, new StringBuilder());
+        writer.writeAll(List.of(payment, payment, payment), Channels.newChannel(new ByteArrayOutputStream()),
+                StandardCharsets.UTF_8);
+
+        assertEquals(completedBefore + 1, completed.getCount());
+        assertEquals(refundedBefore + 1, refunded.getCount());
+        assertEquals(rejectedBefore + 1, rejectedRefunds.getCount());
+        // Only generateReceipt times single receipts; writeAll records once per batch
+        assertEquals(receiptsBefore + 1, GymMetrics.RECEIPT_RENDERING.snapshot().count());
+        assertEquals(receiptBatchesBefore + 1, GymMetrics.RECEIPT_WRITING.snapshot().count());
+
+        Equipment equipment = new Equipment(1, "Rower", "Available", "Metrics Test Room", "Air rower");
+        equipment.reportIssue("Chain slipping");
+        equipment.reportIssue("Seat loose");
+        equipment.performMaintenance(3, LocalDate.of(2024, 6, 1));
+        assertEquals(2, GymMetrics.EQUIPMENT_ISSUES.labels("Metrics Test Room").getCount());
+        assertEquals(1, GymMetrics.EQUIPMENT_MAINTENANCE.labels("Metrics Test Room").getCount());
+
+        long authenticationsBefore = GymMetrics.AUTHENTICATION.snapshot().count();
+        long failuresBefore = GymMetrics.AUTHENTICATION_FAILURES.getCount();
+        Member member = new Member(7, "Jane Doe", "jane@example.com", "secret", "Basic",
+                LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 1));
+        assertTrue(member.authenticate("secret"));
+        assertFalse(member.authenticate("guess"));
+        assertEquals(authenticationsBefore + 2, GymMetrics.AUTHENTICATION.snapshot().count());
+        assertEquals(failuresBefore + 1, GymMetrics.AUTHENTICATION_FAILURES.getCount());
+
+        String exposition = PrometheusSink.scrape(MetricRegistry.getDefault());
+        assertTrue(exposition.contains("gdms_equipment_issues_total{location=\"Metrics Test Room\"} 2\n"));
+        assertTrue(exposition.contains("# TYPE gdms_member_authenticate_seconds summary\n"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.gdms.metrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for JfrSink functionality.
+ */
+class JfrSinkTest {
+
+    @Test
+    void testMetersAreRecordedAsEvents(@TempDir Path directory) throws Exception {
+        MetricRegistry registry = new MetricRegistry();
+        registry.counterFamily("gdms_issues_total", "Issues.", "location").labels("Cardio").add(4);
+        Timer timer = registry.timer("gdms_login_seconds", "Login time.");
+        timer.record(1_000);
+        timer.record(3_000);
+
+        Path file = directory.resolve("metrics.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.gdms.Metric");
+            recording.start();
+            new JfrSink().export(registry);
+            recording.stop();
+            recording.dump(file);
+        }
+        // Without a recording the sink writes nothing
+        new JfrSink().export(registry);
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(2, events.size());
+        RecordedEvent issues = events.stream()
+                .filter(event -> event.getString("name").equals("gdms_issues_total")).findFirst().orElseThrow();
+        assertEquals("location=Cardio", issues.getString("label"));
+        assertEquals(4, issues.getLong("count"));
+        RecordedEvent login = events.stream()
+                .filter(event -> event.getString("name").equals("gdms_login_seconds")).findFirst().orElseThrow();
+        assertEquals(2, login.getLong("count"));
+        assertEquals(Duration.ofNanos(4_000), login.getDuration("totalTime"));
+        assertEquals(Duration.ofNanos(3_071), login.getDuration("max"));
+    }
+
+    @Test
+    void testPeriodicSinkRunsWhileRecording(@TempDir Path directory) throws Exception {
+        MetricRegistry registry = new MetricRegistry();
+        registry.counter("gdms_periodic_total", "Periodic.").increment();
+
+        Path file = directory.resolve("periodic.jfr");
+        List<RecordedEvent> events;
+        JfrSink sink = JfrSink.periodic(registry);
+        try (Recording recording = new Recording()) {
+            recording.enable("com.gdms.Metric").withPeriod(Duration.ofMillis(10));
+            recording.start();
+            events = awaitEvents(recording, file, Duration.ofSeconds(10));
+            recording.stop();
+        } finally {
+            sink.close();
+        }
+        assertFalse(events.isEmpty());
+        assertTrue(events.stream().allMatch(event -> event.getString("name").equals("gdms_periodic_total")));
+    }
+
+    /**
+     * Dumps a running recording until it holds at least one event or the timeout passes.
+     */
+    private static List<RecordedEvent> awaitEvents(Recording recording, Path file, Duration timeout)
+            throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            recording.dump(file);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            if (!events.isEmpty() || System.nanoTime() - deadline >= 0) {
+                return events;
+            }
+            Thread.sleep(10);
+        }
+    }
+}
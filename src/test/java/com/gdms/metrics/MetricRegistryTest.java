@@ -0,0 +1,53 @@
+package com.gdms.metrics;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for MetricRegistry functionality.
+ */
+class MetricRegistryTest {
+
+    @Test
+    void testNamesAreSharedAndChecked() {
+        MetricRegistry registry = new MetricRegistry();
+        Counter counter = registry.counter("requests_total", "Requests.");
+        counter.increment();
+        counter.add(2);
+
+        assertSame(counter, registry.counter("requests_total", "Requests."));
+        assertEquals(3, registry.counter("requests_total", "Requests.").getCount());
+        assertThrows(IllegalArgumentException.class, () -> counter.add(-1));
+        assertThrows(IllegalArgumentException.class, () -> registry.timer("requests_total", "Requests."));
+        assertThrows(IllegalArgumentException.class,
+                () -> registry.counterFamily("requests_total", "Requests.", "path"));
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("requests-total", "Requests."));
+        assertThrows(IllegalArgumentException.class, () -> registry.counterFamily("errors_total", "Errors.", "a b"));
+    }
+
+    @Test
+    void testFamiliesCreateOneMeterPerLabelValue() {
+        MetricRegistry registry = new MetricRegistry();
+        MeterFamily<Counter> issues = registry.counterFamily("issues_total", "Issues.", "location");
+        issues.labels("Weights").increment();
+        issues.labels("Cardio").increment();
+        issues.labels("Weights").increment();
+        issues.labels(null).increment();
+
+        assertSame(issues, registry.counterFamily("issues_total", "Issues.", "location"));
+        assertSame(issues.labels("Weights"), issues.labels("Weights"));
+        assertEquals(2, issues.labels("Weights").getCount());
+        assertEquals("location", issues.labels("Cardio").getLabelName());
+        assertThrows(IllegalArgumentException.class, () -> registry.counterFamily("issues_total", "Issues.", "room"));
+        assertThrows(IllegalArgumentException.class, () -> registry.timerFamily("issues_total", "Issues.", "location"));
+
+        registry.timer("a_seconds", "A.");
+        List<Meter> meters = registry.getMeters();
+        assertEquals(List.of("a_seconds", "issues_total", "issues_total", "issues_total"),
+                meters.stream().map(Meter::getName).toList());
+        assertEquals("", meters.get(1).getLabelValue());
+        assertEquals("Cardio", meters.get(2).getLabelValue());
+        assertEquals("Weights", meters.get(3).getLabelValue());
+    }
+}
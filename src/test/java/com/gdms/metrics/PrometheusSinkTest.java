@@ -0,0 +1,64 @@
+package com.gdms.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PrometheusSink functionality.
+ */
+class PrometheusSinkTest {
+
+    @Test
+    void testExpositionFormat() {
+        MetricRegistry registry = new MetricRegistry();
+        MeterFamily<Counter> issues = registry.counterFamily("gdms_issues_total", "Issues\\reported.", "location");
+        issues.labels("Room \"A\"").add(3);
+        issues.labels("Cardio").increment();
+        Timer timer = registry.timer("gdms_login_seconds", "Login time.");
+        timer.record(1_000);
+        timer.record(3_000);
+        registry.timerFamily("gdms_hash_seconds", "Hash time.", "operation").labels("encode").record(2_000_000);
+
+        assertEquals("""
+                # HELP gdms_hash_seconds Hash time.
+                # TYPE gdms_hash_seconds summary
+                gdms_hash_seconds{operation="encode",quantile="0.5"} 0.002031615
+                gdms_hash_seconds{operation="encode",quantile="0.9"} 0.002031615
+                gdms_hash_seconds{operation="encode",quantile="0.99"} 0.002031615
+                gdms_hash_seconds{operation="encode",quantile="0.999"} 0.002031615
+                gdms_hash_seconds_sum{operation="encode"} 0.002
+                gdms_hash_seconds_count{operation="encode"} 1
+                # HELP gdms_issues_total Issues\\\\reported.
+                # TYPE gdms_issues_total counter
+                gdms_issues_total{location="Cardio"} 1
+                gdms_issues_total{location="Room \\"A\\""} 3
+                # HELP gdms_login_seconds Login time.
+                # TYPE gdms_login_seconds summary
+                gdms_login_seconds{quantile="0.5"} 1.023E-6
+                gdms_login_seconds{quantile="0.9"} 3.071E-6
+                gdms_login_seconds{quantile="0.99"} 3.071E-6
+                gdms_login_seconds{quantile="0.999"} 3.071E-6
+                gdms_login_seconds_sum 4.0E-6
+                gdms_login_seconds_count 2
+                """, PrometheusSink.scrape(registry));
+    }
+
+    @Test
+    void testExportReplacesFile(@TempDir Path directory) throws Exception {
+        MetricRegistry registry = new MetricRegistry();
+        Counter counter = registry.counter("gdms_events_total", "Events.");
+        Path file = directory.resolve("gdms.prom");
+        PrometheusSink sink = new PrometheusSink(file);
+
+        sink.export(registry);
+        assertTrue(Files.readString(file, StandardCharsets.UTF_8).contains("gdms_events_total 0\n"));
+        counter.increment();
+        sink.export(registry);
+        assertEquals(PrometheusSink.scrape(registry), Files.readString(file, StandardCharsets.UTF_8));
+        assertFalse(Files.exists(directory.resolve("gdms.prom.tmp")));
+    }
+}
@@ -0,0 +1,97 @@
+package com.gdms.metrics;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for Timer functionality.
+ */
+class TimerTest {
+
+    @Test
+    void testBucketsCoverTheRangeWithBoundedError() {
+        assertEquals(0, Timer.bucketOf(0));
+        assertEquals(31, Timer.bucketOf(31));
+        assertEquals(32, Timer.bucketOf(32));
+        assertEquals(32, Timer.bucketOf(33));
+        assertEquals(Timer.BUCKETS - 1, Timer.bucketOf(Timer.MAX_VALUE));
+
+        long previousHighest = -1;
+        for (int bucket = 0; bucket < Timer.BUCKETS; bucket++) {
+            long lowest = Timer.lowestValueOf(bucket);
+            long highest = Timer.highestValueOf(bucket);
+            // Buckets are contiguous, and each is at most 1/16 of its lowest value wide
+            assertEquals(previousHighest + 1, lowest, "bucket " + bucket);
+            assertEquals(bucket, Timer.bucketOf(lowest));
+            assertEquals(bucket, Timer.bucketOf(highest));
+            assertTrue(highest - lowest <= Math.max(0, lowest / 16), "bucket " + bucket);
+            previousHighest = highest;
+        }
+        assertEquals(Timer.MAX_VALUE, previousHighest);
+
+        assertEquals(1, Timer.stripeCount(1));
+        assertEquals(4, Timer.stripeCount(3));
+        assertEquals(8, Timer.stripeCount(8));
+        assertEquals(16, Timer.stripeCount(96));
+    }
+
+    @Test
+    void testSnapshotReportsQuantiles() {
+        Timer timer = new MetricRegistry().timer("test_seconds", "Test timer.");
+        assertEquals(0, timer.snapshot().getValueAtQuantile(0.99));
+        assertEquals(0, timer.snapshot().getMax());
+
+        for (long micros = 1; micros <= 1000; micros++) {
+            timer.record(micros * 1000);
+        }
+        timer.record(-5);
+        timer.record(Long.MAX_VALUE);
+
+        Timer.Snapshot snapshot = timer.snapshot();
+        assertEquals(1002, snapshot.count());
+        assertEquals(500_500_000L + Timer.MAX_VALUE, snapshot.totalNanos());
+        assertEquals(500_000, snapshot.getValueAtQuantile(0.5), 500_000 / 16.0);
+        assertEquals(990_000, snapshot.getValueAtQuantile(0.99), 990_000 / 16.0);
+        assertEquals(0, snapshot.getValueAtQuantile(0));
+        assertEquals(Timer.MAX_VALUE, snapshot.getMax());
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getValueAtQuantile(1.5));
+    }
+
+    @Test
+    void testConcurrentRecordsAreAllCounted() throws Exception {
+        Timer timer = new MetricRegistry().timer("test_seconds", "Test timer.");
+        int threads = 8;
+        int perThread = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        timer.record(i % 1000);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Timer.Snapshot snapshot = timer.snapshot();
+        assertEquals((long) threads * perThread, snapshot.count());
+        assertEquals((long) threads * (perThread / 1000) * 499_500, snapshot.totalNanos());
+        assertEquals(999, snapshot.getMax(), 999 / 16.0);
+    }
+}
@@ -2,7 +2,10 @@ package com.gdms.model;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.beans.PropertyChangeEvent;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -117,4 +120,63 @@ class EquipmentTest {
         equipment.setLocation(newLocation);
         assertEquals(newLocation, equipment.getLocation());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testCompareAndSetStatus() {
+        assertTrue(equipment.compareAndSetStatus(EquipmentStatus.AVAILABLE, EquipmentStatus.IN_USE));
+        assertEquals("In Use", equipment.getStatus());
+        assertFalse(equipment.compareAndSetStatus(EquipmentStatus.AVAILABLE, EquipmentStatus.OUT_OF_ORDER));
+        assertEquals(EquipmentStatus.IN_USE, equipment.getEquipmentStatus());
+    }
+
+    @Test
+    void testTransitionTo() {
+        equipment.reportIssue("Belt slipping");
+        assertFalse(equipment.transitionTo(EquipmentStatus.IN_USE));
+        assertTrue(equipment.transitionTo(EquipmentStatus.UNDER_MAINTENANCE));
+        assertEquals("Under Maintenance", equipment.getStatus());
+    }
+
+    @Test
+    void testScheduleChangesAreObservable() {
+        List<PropertyChangeEvent> events = new ArrayList<>();
+        equipment.addPropertyChangeListener(events::add);
+        LocalDate today = LocalDate.of(2024, 6, 3);
+
+        equipment.reportIssue("Belt torn");
+        equipment.performMaintenance(2, today);
+        equipment.setLocation("Studio B");
+
+        List<String> properties = events.stream().map(PropertyChangeEvent::getPropertyName).toList();
+        assertEquals(List.of(Equipment.PROPERTY_STATUS, Equipment.PROPERTY_NEXT_MAINTENANCE_DATE,
+                Equipment.PROPERTY_STATUS, Equipment.PROPERTY_LOCATION), properties);
+        assertEquals(EquipmentStatus.OUT_OF_ORDER, events.get(2).getOldValue());
+        assertEquals(today.plusMonths(2), events.get(1).getNewValue());
+    }
+
+    @Test
+    void testUnknownStatusLabel() {
+        assertThrows(IllegalArgumentException.class, () -> equipment.setStatus("Broken"));
+    }
+
+    @Test
+    void testMaintenanceOnGivenDate() {
+        LocalDate today = LocalDate.of(2024, 3, 1);
+        equipment.performMaintenance(2, today);
+
+        assertEquals(today, equipment.getLastMaintenanceDate());
+        assertEquals(LocalDate.of(2024, 5, 1), equipment.getNextMaintenanceDate());
+        assertFalse(equipment.isMaintenanceDue(LocalDate.of(2024, 4, 30)));
+        assertTrue(equipment.isMaintenanceDue(LocalDate.of(2024, 5, 1)));
+    }
+
+    @Test
+    void testFindMaintenanceDue() {
+        Equipment bike = new Equipment(2, "Exercise Bike", "Available", "Cardio Area", "Upright bike");
+        equipment.setNextMaintenanceDate(LocalDate.of(2024, 3, 1));
+        bike.setNextMaintenanceDate(LocalDate.of(2024, 3, 2));
+
+        assertEquals(List.of(equipment),
+                Equipment.findMaintenanceDue(List.of(equipment, bike), LocalDate.of(2024, 3, 1)));
+    }
+}
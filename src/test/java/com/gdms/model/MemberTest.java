@@ -3,6 +3,7 @@ package com.gdms.model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
+import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -123,4 +124,34 @@ class MemberTest {
         assertEquals(member.hashCode(), sameMember.hashCode());
         assertNotEquals(member.hashCode(), differentMember.hashCode());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testIdentityIgnoresEmailChanges() {
+        Member copy = Member.withPasswordHash(1, "John Doe", "john.doe@example.com",
+                TestMembers.PASSWORD_HASH, "Premium", startDate, endDate);
+        int hash = member.hashCode();
+
+        member.setEmail("new@example.com");
+
+        assertEquals(hash, member.hashCode());
+        assertEquals(member, copy);
+    }
+
+    @Test
+    void testMembershipOnGivenDate() {
+        LocalDate today = endDate.minusDays(1);
+        assertTrue(member.isMembershipActive(today));
+        assertFalse(member.isMembershipActive(endDate));
+        assertEquals(List.of(member),
+                Member.findActiveMemberships(List.of(member), today));
+        assertTrue(Member.findActiveMemberships(List.of(member), endDate).isEmpty());
+    }
+
+    @Test
+    void testRenewOnGivenDate() {
+        LocalDate lapsed = endDate.plusDays(10);
+        member.renewMembership(1, lapsed);
+        assertEquals(lapsed, member.getMembershipStartDate());
+        assertEquals(lapsed.plusMonths(1), member.getMembershipEndDate());
+    }
+}
@@ -0,0 +1,64 @@
+package com.gdms.model;
+
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.Currency;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for Money functionality.
+ */
+class MoneyTest {
+
+    @Test
+    void testFromDoubleRoundsToCents() {
+        assertEquals(9999, Money.fromDouble(99.99, Money.USD).getMinorUnits());
+        assertEquals(30, Money.fromDouble(0.1 + 0.2, Money.USD).getMinorUnits());
+        assertEquals(101, Money.fromDouble(1.005, Money.USD).getMinorUnits());
+        assertEquals(-101, Money.fromDouble(-1.005, Money.USD).getMinorUnits());
+        assertEquals(500, Money.fromDouble(500, Currency.getInstance("JPY")).getMinorUnits());
+        assertThrows(ArithmeticException.class, () -> Money.fromDouble(Double.NaN, Money.USD));
+        assertThrows(ArithmeticException.class, () -> Money.fromDouble(1e20, Money.USD));
+    }
+
+    @Test
+    void testArithmeticIsExact() {
+        Money price = Money.ofMinor(1999, Money.USD);
+
+        assertEquals(Money.ofMinor(3998, Money.USD), price.plus(price));
+        assertEquals(Money.ofMinor(0, Money.USD), price.minus(price));
+        assertEquals(Money.ofMinor(23988, Money.USD), price.times(12));
+        assertEquals(Money.ofMinor(1799, Money.USD), price.times(new BigDecimal("0.9")));
+        assertEquals(new BigDecimal("19.99"), price.toBigDecimal());
+        assertEquals(19.99, price.toDouble());
+    }
+
+    @Test
+    void testOverflowAndCurrencyMismatchAreRejected() {
+        Money max = Money.ofMinor(Long.MAX_VALUE, Money.USD);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1, Money.USD)));
+        assertThrows(ArithmeticException.class, () -> max.times(2));
+        assertThrows(ArithmeticException.class,
+                () -> Money.sumMinorUnits(new long[] {Long.MAX_VALUE, 1}, 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> max.plus(Money.ofMinor(1, "EUR")));
+    }
+
+    @Test
+    void testFormatting() {
+        assertEquals("1234.50", Money.ofMinor(123450, Money.USD).toPlainString());
+        assertEquals("0.05", Money.ofMinor(5, Money.USD).toPlainString());
+        assertEquals("-0.05", Money.ofMinor(-5, Money.USD).toPlainString());
+        assertEquals("-92233720368547758.08", Money.ofMinor(Long.MIN_VALUE, Money.USD).toPlainString());
+        assertEquals("500 JPY", Money.ofMinor(500, "JPY").toString());
+        assertEquals("1.005 BHD", Money.ofMinor(1005, "BHD").toString());
+    }
+
+    @Test
+    void testEqualityAndOrdering() {
+        assertEquals(Money.of(new BigDecimal("10.5"), Money.USD), Money.ofMinor(1050, "USD"));
+        assertNotEquals(Money.ofMinor(1050, "USD"), Money.ofMinor(1050, "EUR"));
+        assertTrue(Money.ofMinor(1, Money.USD).compareTo(Money.ofMinor(2, Money.USD)) < 0);
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1.001"), Money.USD));
+    }
+}
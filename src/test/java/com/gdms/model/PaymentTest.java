@@ -2,7 +2,17 @@ package com.gdms.model;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.beans.PropertyChangeEvent;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -130,4 +140,180 @@ class PaymentTest {
         payment.setAmount(newAmount);
         assertEquals(newAmount, payment.getAmount());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testCompareAndSetStatus() {
+        assertFalse(payment.compareAndSetStatus(PaymentStatus.COMPLETED, PaymentStatus.REFUNDED));
+        assertTrue(payment.compareAndSetStatus(PaymentStatus.PENDING, PaymentStatus.FAILED));
+        assertEquals(PaymentStatus.FAILED, payment.getPaymentStatus());
+        assertEquals("Failed", payment.getStatus());
+
+        // Pending cannot jump straight to Refunded
+        payment.setPaymentStatus(PaymentStatus.PENDING);
+        assertFalse(payment.compareAndSetStatus(PaymentStatus.PENDING, PaymentStatus.REFUNDED));
+        assertEquals(PaymentStatus.PENDING, payment.getPaymentStatus());
+    }
+
+    @Test
+    void testListenersSeeTransitionDetails() {
+        List<String> seen = new ArrayList<>();
+        payment.addPropertyChangeListener(event -> seen.add(event.getNewValue() + " "
+                + payment.getTransactionId() + " " + payment.getDescription()));
+
+        payment.processPayment("TXN123456");
+        payment.refundPayment("Customer request");
+
+        assertEquals(List.of("COMPLETED TXN123456 Monthly membership fee",
+                "REFUNDED TXN123456 Refunded: Customer request"), seen);
+    }
+
+    @Test
+    void testStatusChangesAreObservable() {
+        List<PropertyChangeEvent> events = new ArrayList<>();
+        payment.addPropertyChangeListener(events::add);
+
+        payment.processPayment("TXN123456");
+        assertFalse(payment.processPayment("TXN999999"));
+        payment.refundPayment("Customer request");
+        payment.setPaymentStatus(PaymentStatus.REFUNDED);
+
+        assertEquals(2, events.size());
+        assertEquals(Payment.PROPERTY_STATUS, events.get(0).getPropertyName());
+        assertEquals(PaymentStatus.PENDING, events.get(0).getOldValue());
+        assertEquals(PaymentStatus.COMPLETED, events.get(0).getNewValue());
+        assertEquals(PaymentStatus.REFUNDED, events.get(1).getNewValue());
+    }
+
+    @Test
+    void testConcurrentProcessAndRefundPublishStatusWithDetails() throws Exception {
+        List<Payment> payments = new ArrayList<>();
+        List<List<PaymentStatus>> notified = new ArrayList<>();
+        Queue<String> problems = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < 5_000; i++) {
+            Payment payment = new Payment(i, i, 10.0, "Credit Card", "Dues", LocalDate.of(2024, 3, 1));
+            List<PaymentStatus> statuses = new ArrayList<>(List.of(PaymentStatus.PENDING));
+            payment.addPropertyChangeListener(event -> {
+                if (event.getOldValue() != statuses.get(statuses.size() - 1)) {
+                    problems.add("Payment " + payment.getPaymentId() + " notified out of order: " + statuses
+                            + " then " + event.getOldValue() + " -> " + event.getNewValue());
+                }
+                statuses.add((PaymentStatus) event.getNewValue());
+            });
+            payments.add(payment);
+            notified.add(statuses);
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                boolean refunder = thread % 2 == 1;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (Payment payment : payments) {
+                        if (refunder) {
+                            payment.refundPayment("Chargeback");
+                        } else {
+                            payment.processPayment("TXN" + payment.getPaymentId());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int thread = 0; thread < 2; thread++) {
+                readers.add(executor.submit(() -> {
+                    start.await();
+                    while (!done.get()) {
+                        for (Payment payment : payments) {
+                            // Read the status first: a later transition must keep the transaction ID
+                            PaymentStatus status = payment.getPaymentStatus();
+                            if (status != PaymentStatus.PENDING && payment.getTransactionId() == null) {
+                                problems.add("Payment " + payment.getPaymentId() + " is " + status
+                                        + " without a transaction ID");
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            done.set(true);
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(List.of(), List.copyOf(problems));
+        for (int i = 0; i < payments.size(); i++) {
+            Payment payment = payments.get(i);
+            List<PaymentStatus> statuses = notified.get(i);
+            assertEquals(payment.getPaymentStatus(), statuses.get(statuses.size() - 1));
+            assertEquals("TXN" + i, payment.getTransactionId());
+            if (payment.getPaymentStatus() == PaymentStatus.REFUNDED) {
+                assertEquals("Refunded: Chargeback", payment.getDescription());
+            }
+        }
+    }
+
+    @Test
+    void testRefundedPaymentCannotBeProcessed() {
+        payment.processPayment("TXN123456");
+        payment.refundPayment("Customer request");
+
+        assertFalse(payment.processPayment("TXN999999"));
+        assertEquals("Refunded", payment.getStatus());
+        assertEquals("TXN123456", payment.getTransactionId());
+    }
+
+    @Test
+    void testStatusLabels() {
+        payment.setStatus("Failed");
+        assertEquals(PaymentStatus.FAILED, payment.getPaymentStatus());
+        assertThrows(IllegalArgumentException.class, () -> payment.setStatus("Unknown"));
+    }
+
+    @Test
+    void testFindOverduePending() {
+        LocalDate today = LocalDate.of(2024, 3, 10);
+        Payment old = new Payment(2, 102, 10.0, "PayPal", "Day pass", LocalDate.of(2024, 3, 1));
+        Payment recent = new Payment(3, 103, 10.0, "PayPal", "Day pass", LocalDate.of(2024, 3, 8));
+        Payment settled = new Payment(4, 104, 10.0, "PayPal", "Day pass", LocalDate.of(2024, 3, 1));
+        settled.processPayment("TXN4");
+
+        assertEquals(List.of(old),
+                Payment.findOverduePending(List.of(old, recent, settled), today, 5));
+    }
+
+    @Test
+    void testAmountIsStoredInCents() {
+        assertEquals(9999, payment.getAmountMinor());
+        assertEquals(Money.ofMinor(9999, "USD"), payment.getMoney());
+
+        payment.setAmount(0.1 + 0.2);
+        assertEquals(30, payment.getAmountMinor());
+        assertEquals(0.3, payment.getAmount());
+    }
+
+    @Test
+    void testSumAmounts() {
+        Payment second = new Payment(2, 102, 0.1, "PayPal", "Day pass");
+        Payment third = new Payment(3, 103, 0.2, "PayPal", "Day pass");
+        Payment refunded = new Payment(4, 104, 50.0, "PayPal", "Day pass");
+        refunded.setPaymentStatus(PaymentStatus.REFUNDED);
+
+        assertEquals(Money.ofMinor(10029, "USD"),
+                Payment.sumAmounts(List.of(payment, second, third, refunded), PaymentStatus.PENDING));
+
+        Payment euro = new Payment(5, 105, Money.ofMinor(500, "EUR"), "Card", "Day pass", LocalDate.now());
+        assertThrows(IllegalArgumentException.class,
+                () -> Payment.sumAmounts(List.of(payment, euro), PaymentStatus.PENDING));
+    }
+}
@@ -0,0 +1,113 @@
+package com.gdms.notification;
+
+import com.gdms.model.Member;
+import com.gdms.model.TestMembers;
+import com.gdms.repository.MemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for MembershipExpiryScheduler functionality.
+ */
+class MembershipExpirySchedulerTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 1);
+
+    private MemberRepository repository;
+    private MembershipExpiryScheduler scheduler;
+    private final List<String> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        repository = new MemberRepository();
+        scheduler = new MembershipExpiryScheduler(repository, TODAY, 7, 1);
+        scheduler.addListener(new MembershipListener() {
+            @Override
+            public void onRenewalReminder(Member member, int daysLeft) {
+                events.add("reminder:" + member.getUserId() + ":" + daysLeft);
+            }
+
+            @Override
+            public void onMembershipExpired(Member member) {
+                events.add("expired:" + member.getUserId());
+            }
+        });
+    }
+
+    private Member addMember(int id, LocalDate endDate) {
+        Member member = TestMembers.member(id, "Basic", TODAY.minusMonths(1), endDate);
+        repository.add(member);
+        return member;
+    }
+
+    @Test
+    void testExpiryAndReminders() {
+        addMember(1, TODAY);
+        addMember(2, TODAY.plusDays(1));
+        addMember(3, TODAY.plusDays(7));
+        addMember(4, TODAY.plusDays(30));
+
+        assertEquals(3, scheduler.advanceTo(TODAY));
+        assertEquals(List.of("expired:1", "reminder:2:1", "reminder:3:7"), events);
+    }
+
+    @Test
+    void testCatchesUpMissedDaysOnce() {
+        addMember(1, TODAY.plusDays(2));
+
+        scheduler.advanceTo(TODAY.plusDays(3));
+        assertEquals(List.of("reminder:1:1", "expired:1"), events);
+
+        events.clear();
+        assertEquals(0, scheduler.advanceTo(TODAY.plusDays(3)));
+        assertEquals(TODAY.plusDays(3), scheduler.getLastProcessedDate());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void testFailingListenerDoesNotRepeatTheDay() {
+        addMember(1, TODAY);
+        addMember(2, TODAY);
+        addMember(3, TODAY.plusDays(1));
+        scheduler.addListener(new MembershipListener() {
+            @Override
+            public void onMembershipExpired(Member member) {
+                if (member.getUserId() == 1) {
+                    throw new IllegalStateException("Mail server down");
+                }
+            }
+        });
+
+        assertEquals(3, scheduler.advanceTo(TODAY));
+        assertEquals(List.of("expired:1", "expired:2", "reminder:3:1"), events);
+        assertEquals(TODAY, scheduler.getLastProcessedDate());
+
+        events.clear();
+        assertEquals(0, scheduler.advanceTo(TODAY));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void testRenewalMovesMemberToNewDay() {
+        Member member = addMember(1, TODAY.plusDays(1));
+        member.setMembershipEndDate(TODAY.plusDays(10));
+
+        scheduler.advanceTo(TODAY.plusDays(1));
+        assertTrue(events.isEmpty());
+
+        scheduler.advanceTo(TODAY.plusDays(10));
+        assertEquals(List.of("reminder:1:7", "reminder:1:1", "expired:1"), events);
+    }
+
+    @Test
+    void testInactiveMembersGetNoReminders() {
+        Member member = addMember(1, TODAY.plusDays(1));
+        member.setActive(false);
+
+        scheduler.advanceTo(TODAY.plusDays(1));
+        assertEquals(List.of("expired:1"), events);
+    }
+}
@@ -0,0 +1,104 @@
+package com.gdms.payment;
+
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for BatchPaymentProcessor functionality.
+ */
+class BatchPaymentProcessorTest {
+
+    private static List<Payment> pendingPayments(int count) {
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            payments.add(new Payment(i, 100 + i, 49.99, "Credit Card", "Monthly dues", LocalDate.of(2024, 3, 1)));
+        }
+        return payments;
+    }
+
+    @Test
+    void testSettlesAllPendingPaymentsInBatches() throws Exception {
+        List<Payment> payments = pendingPayments(1_000);
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway();
+
+        try (BatchPaymentProcessor processor = new BatchPaymentProcessor(gateway, 100, 4)) {
+            BatchPaymentProcessor.BatchResult result = processor.process(payments);
+
+            assertEquals(1_000, result.completed());
+            assertEquals(10, result.requests());
+            assertEquals(10, gateway.getRequestCount());
+        }
+        for (Payment payment : payments) {
+            assertEquals(PaymentStatus.COMPLETED, payment.getPaymentStatus());
+            assertTrue(payment.getTransactionId().startsWith("SIM-"));
+        }
+    }
+
+    @Test
+    void testPartialFailuresAppliedPerItem() throws Exception {
+        List<Payment> payments = pendingPayments(500);
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(
+                Duration.ofMillis(1), Duration.ZERO, 0.2, 0.0, 7L);
+
+        try (BatchPaymentProcessor processor = new BatchPaymentProcessor(gateway, 50, 3)) {
+            BatchPaymentProcessor.BatchResult result = processor.process(payments);
+
+            assertEquals(500, result.completed() + result.failed());
+            assertTrue(result.failed() > 0);
+            long failed = payments.stream().filter(p -> p.getPaymentStatus() == PaymentStatus.FAILED).count();
+            assertEquals(result.failed(), failed);
+        }
+    }
+
+    @Test
+    void testFailedRequestsLeavePaymentsPending() throws Exception {
+        List<Payment> payments = pendingPayments(200);
+        PaymentGateway failing = batch -> {
+            throw new GatewayException("Gateway unavailable");
+        };
+
+        try (BatchPaymentProcessor processor = new BatchPaymentProcessor(failing, 50, 2)) {
+            BatchPaymentProcessor.BatchResult result = processor.process(payments);
+
+            assertEquals(0, result.completed());
+            assertEquals(200, result.unresolved());
+        }
+        assertTrue(payments.stream().allMatch(p -> p.getPaymentStatus() == PaymentStatus.PENDING));
+    }
+
+    @Test
+    void testNonPendingPaymentsAreSkipped() throws Exception {
+        List<Payment> payments = pendingPayments(10);
+        payments.get(0).processPayment("TXN-EARLIER");
+        payments.get(1).processPayment("TXN-EARLIER-2");
+        payments.get(1).refundPayment("Customer request");
+
+        try (BatchPaymentProcessor processor = new BatchPaymentProcessor(new SimulatedPaymentGateway(), 4, 2)) {
+            BatchPaymentProcessor.BatchResult result = processor.process(payments);
+
+            assertEquals(8, result.completed());
+            assertEquals(2, result.skipped());
+        }
+        assertEquals("TXN-EARLIER", payments.get(0).getTransactionId());
+        assertEquals(PaymentStatus.REFUNDED, payments.get(1).getPaymentStatus());
+    }
+
+    @Test
+    void testMissingResultsStayPending() throws Exception {
+        List<Payment> payments = pendingPayments(4);
+        PaymentGateway partial = batch -> List.of(GatewayResult.approved(batch.get(0).getPaymentId(), "TXN-1"));
+
+        try (BatchPaymentProcessor processor = new BatchPaymentProcessor(partial, 4, 1)) {
+            BatchPaymentProcessor.BatchResult result = processor.process(payments);
+
+            assertEquals(1, result.completed());
+            assertEquals(3, result.unresolved());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.gdms.payment;
+
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import com.gdms.time.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for IdempotencyRegistry functionality.
+ */
+class IdempotencyRegistryTest {
+    private MutableClock clock;
+    private IdempotencyRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-01T08:00:00Z"));
+        registry = new IdempotencyRegistry(Duration.ofMinutes(10), 3, clock);
+    }
+
+    @Test
+    void testDuplicateCallbacksShortCircuit() {
+        Payment payment = new Payment(1, 101, 49.99, "Credit Card", "Monthly membership fee");
+        List<Object> events = new ArrayList<>();
+        payment.addPropertyChangeListener(events::add);
+
+        assertEquals(IdempotencyRegistry.Outcome.APPLIED, registry.process(payment, "TXN1"));
+        assertEquals(IdempotencyRegistry.Outcome.DUPLICATE, registry.process(payment, "TXN1"));
+        assertEquals(IdempotencyRegistry.Outcome.REJECTED, registry.process(payment, "TXN2"));
+        assertEquals(IdempotencyRegistry.Outcome.DUPLICATE, registry.process(payment, "TXN2"));
+
+        assertEquals("TXN1", payment.getTransactionId());
+        assertEquals(1, events.size());
+        assertEquals(2, registry.getDuplicateCount());
+    }
+
+    @Test
+    void testKeysExpireAndStayBounded() {
+        assertTrue(registry.register("TXN1"));
+        clock.advance(Duration.ofMinutes(5));
+        assertTrue(registry.register("TXN2"));
+        assertFalse(registry.register("TXN1"));
+
+        clock.advance(Duration.ofMinutes(6));
+        assertFalse(registry.contains("TXN1"));
+        assertTrue(registry.register("TXN1"));
+        assertEquals(2, registry.size());
+
+        assertTrue(registry.register("TXN3"));
+        assertTrue(registry.register("TXN4"));
+        // Full: the oldest key goes first although it has not expired
+        assertEquals(3, registry.size());
+        assertFalse(registry.contains("TXN2"));
+        assertTrue(registry.contains("TXN4"));
+
+        registry.remove("TXN4");
+        assertTrue(registry.register("TXN4"));
+    }
+
+    @Test
+    void testRemovedKeysFreeTheirSlot() {
+        assertTrue(registry.register("A"));
+        assertTrue(registry.register("B"));
+        assertTrue(registry.register("C"));
+        registry.remove("C");
+        assertTrue(registry.register("D"));
+
+        // Only two keys were live, so A must still be remembered
+        assertTrue(registry.contains("A"));
+        assertFalse(registry.register("A"));
+        assertEquals(3, registry.size());
+    }
+
+    @Test
+    void testFailedApplyLetsRetryThrough() {
+        Payment payment = new Payment(1, 101, 49.99, "Credit Card", "Monthly membership fee");
+        payment.addPropertyChangeListener(event -> {
+            throw new IllegalStateException("Rollup unavailable");
+        });
+
+        assertThrows(IllegalStateException.class, () -> registry.process(payment, "TXN1"));
+        assertFalse(registry.contains("TXN1"));
+    }
+
+    @Test
+    void testConcurrentCallbacksAndRefundsApplyOnce() throws Exception {
+        int threads = 64;
+        int paymentCount = 200;
+        IdempotencyRegistry shared = new IdempotencyRegistry(Duration.ofHours(1), 10_000);
+        List<Payment> payments = new ArrayList<>();
+        AtomicIntegerArray completedEvents = new AtomicIntegerArray(paymentCount);
+        AtomicIntegerArray refundedEvents = new AtomicIntegerArray(paymentCount);
+        for (int i = 0; i < paymentCount; i++) {
+            Payment payment = new Payment(i, 100 + i, 25.0, "Credit Card", "Day pass");
+            int index = i;
+            payment.addPropertyChangeListener(event -> {
+                if (event.getNewValue() == PaymentStatus.COMPLETED) {
+                    completedEvents.incrementAndGet(index);
+                    assertNotNull(payment.getTransactionId());
+                } else if (event.getNewValue() == PaymentStatus.REFUNDED) {
+                    refundedEvents.incrementAndGet(index);
+                }
+            });
+            payments.add(payment);
+        }
+        AtomicIntegerArray applied = new AtomicIntegerArray(paymentCount);
+        AtomicIntegerArray refunds = new AtomicIntegerArray(paymentCount);
+        AtomicInteger duplicates = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 5_000; i++) {
+                        int index = random.nextInt(paymentCount);
+                        Payment payment = payments.get(index);
+                        switch (random.nextInt(4)) {
+                            case 0 -> {
+                                if (payment.refundPayment("Chargeback")) {
+                                    refunds.incrementAndGet(index);
+                                }
+                            }
+                            case 1 -> payment.failPayment();
+                            default -> {
+                                // Retried callbacks: a few transaction IDs per payment, each delivered many times
+                                String transactionId = "TXN" + index + "-" + random.nextInt(3);
+                                switch (shared.process(payment, transactionId)) {
+                                    case APPLIED -> applied.incrementAndGet(index);
+                                    case DUPLICATE -> duplicates.incrementAndGet();
+                                    default -> { }
+                                }
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int i = 0; i < paymentCount; i++) {
+            Payment payment = payments.get(i);
+            // Each transaction ID is applied at most once, and a payment completes at most once per failure
+            assertTrue(applied.get(i) <= 3, "payment " + i);
+            assertEquals(applied.get(i), completedEvents.get(i), "payment " + i);
+            assertTrue(refunds.get(i) <= 1, "payment " + i);
+            assertEquals(refunds.get(i), refundedEvents.get(i), "payment " + i);
+            if (payment.getPaymentStatus() == PaymentStatus.REFUNDED) {
+                assertEquals(1, refunds.get(i));
+                assertEquals("Refunded: Chargeback", payment.getDescription());
+            }
+            if (applied.get(i) > 0) {
+                assertTrue(payment.getTransactionId().startsWith("TXN" + i + "-"));
+            }
+        }
+        assertTrue(duplicates.get() > 0);
+        assertEquals(duplicates.get(), shared.getDuplicateCount());
+    }
+}
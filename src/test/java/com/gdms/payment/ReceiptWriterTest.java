@@ -0,0 +1,84 @@
+package com.gdms.payment;
+
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ReceiptWriter functionality.
+ */
+class ReceiptWriterTest {
+
+    private static Payment payment(int id, double amount) {
+        Payment payment = new Payment(id, 100 + id, amount, "Credit Card", "Monthly membership fee",
+                LocalDate.of(2024, 3, 1));
+        payment.processPayment("TXN" + id);
+        return payment;
+    }
+
+    @Test
+    void testMatchesGenerateReceipt() {
+        ReceiptWriter writer = new ReceiptWriter();
+        double[] amounts = {99.99, 0, 0.1, 1.005, 0.125, 2.675, -3.5, -0.001, 123456789.99, 1e14, 1.0 / 3};
+        for (int i = 0; i < amounts.length; i++) {
+            Payment payment = payment(i, amounts[i]);
+            assertEquals(payment.generateReceipt(), writer.render(payment, new StringBuilder()).toString(),
+                    "amount " + amounts[i]);
+        }
+    }
+
+    @Test
+    void testMatchesGenerateReceiptForOtherCurrencies() {
+        ReceiptWriter writer = new ReceiptWriter();
+        for (Money amount : new Money[] {Money.ofMinor(500, "JPY"), Money.ofMinor(1005, "BHD")}) {
+            Payment payment = new Payment(1, 2, amount, "Card", "Day pass", LocalDate.of(2024, 3, 1));
+            assertEquals(payment.generateReceipt(), writer.render(payment, new StringBuilder()).toString());
+        }
+    }
+
+    @Test
+    void testMatchesWithNullFields() {
+        Payment payment = new Payment(7, 8, 10.0, null, null, LocalDate.of(987, 1, 2));
+        assertEquals(payment.generateReceipt(), new ReceiptWriter().render(payment, new StringBuilder()).toString());
+    }
+
+    @Test
+    void testMatchesLocalizedFormatting() {
+        Locale original = Locale.getDefault(Locale.Category.FORMAT);
+        try {
+            for (Locale locale : new Locale[] {Locale.GERMANY, Locale.forLanguageTag("ar-SA-u-nu-arab")}) {
+                Locale.setDefault(Locale.Category.FORMAT, locale);
+                Payment payment = payment(12, 1234.5);
+                assertEquals(payment.generateReceipt(),
+                        new ReceiptWriter(locale).render(payment, new StringBuilder()).toString());
+            }
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, original);
+        }
+    }
+
+    @Test
+    void testWriteAllToFile(@TempDir Path directory) throws Exception {
+        List<Payment> payments = new ArrayList<>();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 2_000; i++) {
+            Payment payment = payment(i, 10 + i * 0.25);
+            payment.setDescription("Fee éè #" + i);
+            payments.add(payment);
+            expected.append(payment.generateReceipt());
+        }
+        Path file = directory.resolve("receipts.txt");
+
+        assertEquals(2_000, new ReceiptWriter().writeAll(payments, file));
+        assertEquals(expected.toString(), Files.readString(file, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,95 @@
+package com.gdms.persistence;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.EquipmentStatus;
+import com.gdms.model.Money;
+import com.gdms.model.MembershipPlan;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for EquipmentDao and MembershipPlanDao functionality.
+ */
+class EquipmentDaoTest {
+    private SessionFactory sessionFactory;
+    private EquipmentDao dao;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = TestDatabase.open();
+        dao = new EquipmentDao(sessionFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void testFindByIdIsServedFromSecondLevelCache() {
+        dao.save(new Equipment(1, "Treadmill", "Available", "Cardio Area", "Commercial treadmill"));
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        Equipment first = dao.findById(1);
+        Equipment second = dao.findById(1);
+
+        assertEquals(EquipmentStatus.AVAILABLE, second.getEquipmentStatus());
+        assertNotSame(first, second);
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testUpdateRefreshesCache() {
+        dao.save(new Equipment(1, "Treadmill", "Available", "Cardio Area", "Commercial treadmill"));
+
+        Equipment equipment = dao.findById(1);
+        equipment.reportIssue("Belt slipping");
+        dao.update(equipment);
+
+        Equipment reloaded = dao.findById(1);
+        assertEquals(EquipmentStatus.OUT_OF_ORDER, reloaded.getEquipmentStatus());
+        assertEquals("Belt slipping", reloaded.getDescription());
+    }
+
+    @Test
+    void testReadOnlyQueries() {
+        LocalDate today = LocalDate.of(2024, 3, 1);
+        Equipment due = new Equipment(1, "Treadmill", "Available", "Cardio Area", "Commercial treadmill");
+        due.performMaintenance(1, today.minusMonths(2));
+        Equipment notDue = new Equipment(2, "Bench", "Available", "Weights", "Flat bench");
+        notDue.performMaintenance(3, today);
+        Equipment bike = new Equipment(3, "Bike", "In Use", "Cardio Area", "Spin bike");
+        bike.performMaintenance(1, today.minusMonths(1));
+        dao.saveAll(List.of(due, notDue, bike));
+
+        assertEquals(List.of(due, bike), dao.findMaintenanceDue(today));
+        assertEquals(List.of(due, bike), dao.findByLocation("Cardio Area"));
+    }
+
+    @Test
+    void testMembershipPlansAreCachedReferenceData() {
+        MembershipPlanDao plans = new MembershipPlanDao(sessionFactory);
+        plans.save(new MembershipPlan("Premium", "All areas and classes", Money.ofMinor(4999, Money.USD)));
+        plans.save(new MembershipPlan("Basic", "Gym floor only", Money.ofMinor(1999, Money.USD)));
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        assertEquals(Money.ofMinor(4999, Money.USD), plans.findByType("Premium").getMonthlyPrice());
+        assertEquals(Money.ofMinor(59988, Money.USD), plans.findByType("Premium").priceFor(12));
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+
+        List<MembershipPlan> active = plans.findActive();
+        assertEquals(List.of("Basic", "Premium"), active.stream().map(MembershipPlan::getMembershipType).toList());
+        plans.findActive();
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertNull(plans.findByType("Gold"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.gdms.persistence;
+
+import com.gdms.model.Member;
+import com.gdms.model.TestMembers;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for MemberDao functionality.
+ */
+class MemberDaoTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    private SessionFactory sessionFactory;
+    private MemberDao dao;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = TestDatabase.open();
+        dao = new MemberDao(sessionFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    private static Member member(int id, String type, LocalDate endDate) {
+        return TestMembers.member(id, type, START, endDate);
+    }
+
+    @Test
+    void testSaveAndFind() {
+        Member member = member(1, "Premium", START.plusYears(1));
+        dao.save(member);
+
+        Member loaded = dao.findById(1);
+        assertEquals(member, loaded);
+        assertEquals("MEMBER", loaded.getRole());
+        assertEquals("Premium", loaded.getMembershipType());
+        assertEquals(START.plusYears(1), loaded.getMembershipEndDate());
+        assertTrue(loaded.isActive());
+        assertEquals(member, dao.findByEmail("member1@example.com"));
+        assertEquals(member, dao.findByEmail("Member1@EXAMPLE.com"));
+        assertNull(dao.findByEmail("nobody@example.com"));
+    }
+
+    @Test
+    void testBatchSizeComesFromConfiguration() {
+        assertEquals(HibernateConfig.DEFAULT_BATCH_SIZE, dao.batchSize);
+    }
+
+    @Test
+    void testIndexedQueries() {
+        Member early = member(1, "Basic", START.plusDays(10));
+        Member late = member(2, "Premium", START.plusDays(20));
+        Member outside = member(3, "Basic", START.plusDays(40));
+        assertEquals(3, dao.saveAll(List.of(outside, late, early)));
+
+        assertEquals(List.of(early, late), dao.findByMembershipEndDateBetween(START, START.plusDays(30)));
+        assertEquals(List.of(early, outside), dao.findByMembershipType("Basic"));
+    }
+
+    @Test
+    void testUpdateAndDelete() {
+        dao.save(member(1, "Basic", START.plusMonths(1)));
+
+        Member member = dao.findById(1);
+        member.renewMembership(12, START);
+        member.setActive(false);
+        dao.update(member);
+
+        Member reloaded = dao.findById(1);
+        assertEquals(member.getMembershipEndDate(), reloaded.getMembershipEndDate());
+        assertFalse(reloaded.isActive());
+        assertTrue(dao.delete(1));
+        assertNull(dao.findById(1));
+    }
+}
@@ -0,0 +1,130 @@
+package com.gdms.persistence;
+
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PaymentDao functionality.
+ */
+class PaymentDaoTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    private SessionFactory sessionFactory;
+    private PaymentDao dao;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = TestDatabase.open();
+        dao = new PaymentDao(sessionFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    private static List<Payment> payments(int count) {
+        List<Payment> payments = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            payments.add(new Payment(i, i % 10, Money.ofMinor(1000 + i, Money.USD), "Credit Card",
+                    "Monthly membership fee", DAY.plusDays(i % 30)));
+        }
+        return payments;
+    }
+
+    @Test
+    void testSaveAndFind() {
+        Payment payment = new Payment(1, 101, 99.99, "Credit Card", "Monthly membership fee", DAY);
+        payment.processPayment("TXN1");
+        dao.save(payment);
+
+        Payment loaded = dao.findById(1);
+        assertNotSame(payment, loaded);
+        assertEquals(9999, loaded.getAmountMinor());
+        assertEquals(Money.USD, loaded.getCurrency());
+        assertEquals(PaymentStatus.COMPLETED, loaded.getPaymentStatus());
+        assertEquals("TXN1", loaded.getTransactionId());
+        assertEquals(DAY, loaded.getPaymentDate());
+        assertEquals(payment.generateReceipt(), loaded.generateReceipt());
+    }
+
+    @Test
+    void testInsertAllUsesJdbcBatches() {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        assertEquals(1_000, dao.insertAll(payments(1_000)));
+
+        // All batches reuse one prepared statement; unbatched, every row would prepare its own
+        assertEquals(1, statistics.getPrepareStatementCount());
+        long stored = sessionFactory.fromSession(session -> session
+                .createSelectionQuery("select count(p) from Payment p", Long.class).getSingleResult());
+        assertEquals(1_000, stored);
+    }
+
+    @Test
+    void testSaveAllUsesJdbcBatches() {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        assertEquals(120, dao.saveAll(payments(120)));
+
+        // One statement per flushed batch of 50 rather than one per row
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(120, statistics.getEntityInsertCount());
+    }
+
+    @Test
+    void testQueriesAndAggregates() {
+        List<Payment> payments = payments(100);
+        payments.get(0).processPayment("TXN1");
+        payments.get(1).processPayment("TXN2");
+        dao.insertAll(payments);
+
+        List<Payment> memberPayments = dao.findByMemberId(3);
+        assertEquals(10, memberPayments.size());
+        assertTrue(memberPayments.stream().allMatch(payment -> payment.getMemberId() == 3));
+        assertEquals(1001 + 1002, dao.sumAmountMinor(PaymentStatus.COMPLETED, Money.USD));
+
+        int failed = dao.updateStatus(PaymentStatus.PENDING, PaymentStatus.FAILED, DAY.plusDays(5));
+        assertEquals(17, failed);
+        assertEquals(PaymentStatus.FAILED, dao.findById(30).getPaymentStatus());
+        assertThrows(IllegalArgumentException.class,
+                () -> dao.updateStatus(PaymentStatus.REFUNDED, PaymentStatus.PENDING, DAY));
+    }
+
+    @Test
+    void testUpdateAndDelete() {
+        dao.save(new Payment(1, 101, 10.0, "PayPal", "Day pass", DAY));
+
+        Payment detached = dao.findById(1);
+        detached.processPayment("TXN1");
+        dao.update(detached);
+
+        assertEquals("Completed", dao.findById(1).getStatus());
+        assertTrue(dao.delete(1));
+        assertFalse(dao.delete(1));
+        assertNull(dao.findById(1));
+    }
+
+    @Test
+    void testForEachStreamsEveryRow() {
+        dao.insertAll(payments(1200));
+
+        long[] total = new long[1];
+        long visited = dao.forEach(payment -> total[0] += payment.getAmountMinor());
+
+        assertEquals(1200, visited);
+        assertEquals(dao.sumAmountMinor(PaymentStatus.PENDING, Money.USD), total[0]);
+    }
+}
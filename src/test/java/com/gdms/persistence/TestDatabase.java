@@ -0,0 +1,26 @@
+package com.gdms.persistence;
+
+import java.util.Properties;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+
+/**
+ * Creates SessionFactories over fresh in-memory H2 databases in MySQL mode.
+ */
+final class TestDatabase {
+
+    private TestDatabase() {
+    }
+
+    static SessionFactory open() {
+        Properties settings = new Properties();
+        settings.setProperty(AvailableSettings.URL, "jdbc:h2:mem:gdms-" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        settings.setProperty(AvailableSettings.USER, "sa");
+        settings.setProperty(AvailableSettings.PASS, "");
+        settings.setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        settings.setProperty(AvailableSettings.GENERATE_STATISTICS, "true");
+        return HibernateConfig.buildSessionFactory(settings);
+    }
+}
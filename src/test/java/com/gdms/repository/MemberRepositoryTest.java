@@ -0,0 +1,161 @@
+package com.gdms.repository;
+
+import com.gdms.model.Member;
+import com.gdms.model.TestMembers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for MemberRepository functionality.
+ */
+class MemberRepositoryTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    private MemberRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new MemberRepository();
+    }
+
+    private static Member member(int id, String email, String type, LocalDate endDate) {
+        return Member.withPasswordHash(id, "Member " + id, email, TestMembers.PASSWORD_HASH, type, START, endDate);
+    }
+
+    @Test
+    void testAddAndFind() {
+        Member john = member(1, "John@Example.com", "Premium", START.plusMonths(1));
+        repository.add(john);
+
+        assertSame(john, repository.findById(1));
+        assertSame(john, repository.findByEmail("john@example.com"));
+        assertSame(john, repository.findByEmail("JOHN@EXAMPLE.COM"));
+        assertNull(repository.findById(2));
+        assertEquals(1, repository.size());
+    }
+
+    @Test
+    void testDuplicatesRejected() {
+        repository.add(member(1, "john@example.com", "Premium", START.plusMonths(1)));
+
+        assertThrows(IllegalStateException.class,
+                () -> repository.add(member(1, "other@example.com", "Basic", START.plusMonths(1))));
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.add(member(2, "JOHN@example.com", "Basic", START.plusMonths(1))));
+        assertEquals(1, repository.size());
+    }
+
+    @Test
+    void testEndDateRange() {
+        repository.add(member(1, "a@example.com", "Basic", LocalDate.of(2024, 2, 1)));
+        repository.add(member(2, "b@example.com", "Basic", LocalDate.of(2024, 2, 10)));
+        repository.add(member(3, "c@example.com", "Basic", LocalDate.of(2024, 3, 1)));
+
+        List<Member> february = repository.findByMembershipEndDateBetween(
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29));
+        assertEquals(List.of(1, 2), february.stream().map(Member::getUserId).toList());
+    }
+
+    @Test
+    void testSettersUpdateIndexes() {
+        Member john = member(1, "john@example.com", "Basic", LocalDate.of(2024, 2, 1));
+        repository.add(john);
+
+        john.setEmail("johnny@example.com");
+        assertNull(repository.findByEmail("john@example.com"));
+        assertSame(john, repository.findByEmail("johnny@example.com"));
+
+        john.setMembershipType("Premium");
+        assertEquals(0, repository.countByMembershipType("Basic"));
+        assertEquals(List.of(john), repository.findByMembershipType("Premium"));
+
+        john.setMembershipEndDate(LocalDate.of(2024, 6, 1));
+        assertTrue(repository.findByMembershipEndDateBetween(
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 1)).isEmpty());
+        assertEquals(List.of(john), repository.findByMembershipEndDateBetween(
+                LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 1)));
+    }
+
+    @Test
+    void testConflictingEmailChangeIsRejected() {
+        Member john = member(1, "john@example.com", "Basic", START.plusMonths(1));
+        Member jane = member(2, "jane@example.com", "Basic", START.plusMonths(1));
+        repository.add(john);
+        repository.add(jane);
+
+        assertThrows(IllegalArgumentException.class, () -> repository.changeEmail(jane, "John@example.com"));
+        assertEquals("jane@example.com", jane.getEmail());
+        assertSame(jane, repository.findByEmail("jane@example.com"));
+        assertSame(john, repository.findByEmail("john@example.com"));
+
+        repository.changeEmail(jane, "Jane.Doe@example.com");
+        assertNull(repository.findByEmail("jane@example.com"));
+        assertSame(jane, repository.findByEmail("jane.doe@example.com"));
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.changeEmail(member(3, "x@example.com", "Basic", START), "y@example.com"));
+
+        // A conflicting setter call is not indexed, and the owner keeps the address
+        jane.setEmail("JOHN@example.com");
+        assertSame(john, repository.findByEmail("john@example.com"));
+        assertNull(repository.findByEmail("jane.doe@example.com"));
+        jane.setEmail("jane@example.com");
+        assertSame(jane, repository.findByEmail("jane@example.com"));
+    }
+
+    @Test
+    void testTypeRangeAndRemove() {
+        repository.add(member(1, "a@example.com", "Basic", START.plusMonths(1)));
+        repository.add(member(2, "b@example.com", "Gold", START.plusMonths(1)));
+        repository.add(member(3, "c@example.com", "Premium", START.plusMonths(1)));
+
+        assertEquals(2, repository.findByMembershipTypeBetween("Basic", "Gold").size());
+
+        Member removed = repository.remove(2);
+        assertEquals(2, removed.getUserId());
+        assertNull(repository.findByEmail("b@example.com"));
+        assertEquals(0, repository.countByMembershipType("Gold"));
+
+        // Changes to a removed member no longer touch the indexes
+        removed.setEmail("a@example.com");
+        assertEquals(1, repository.findByEmail("a@example.com").getUserId());
+    }
+
+    @Test
+    void testConcurrentWriters() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        int id = thread * 1_000 + i;
+                        Member member = member(id, "m" + id + "@example.com", "Basic", START.plusDays(i));
+                        repository.add(member);
+                        member.renewMembership(1);
+                        member.setMembershipType(i % 2 == 0 ? "Basic" : "Premium");
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(4_000, repository.size());
+        assertEquals(2_000, repository.countByMembershipType("Basic"));
+        assertEquals(2_000, repository.countByMembershipType("Premium"));
+        assertEquals(4_000, repository.findByMembershipEndDateBetween(LocalDate.MIN, LocalDate.MAX).size());
+        assertSame(repository.findById(3_499), repository.findByEmail("M3499@example.com"));
+    }
+}
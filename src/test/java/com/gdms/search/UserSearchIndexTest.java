@@ -0,0 +1,170 @@
+package com.gdms.search;
+
+import com.gdms.model.Member;
+import com.gdms.model.TestMembers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for UserSearchIndex functionality.
+ */
+class UserSearchIndexTest {
+
+    private UserSearchIndex<Member> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex<>();
+    }
+
+    private Member member(int id, String name, String email) {
+        Member member = Member.withPasswordHash(id, name, email, TestMembers.PASSWORD_HASH, "Basic",
+                LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 1));
+        index.add(member);
+        return member;
+    }
+
+    private List<Integer> ids(List<Member> members) {
+        return members.stream().map(Member::getUserId).toList();
+    }
+
+    @Test
+    void testMatchesAreRanked() {
+        member(1, "Anna Smithers", "anna@example.com");
+        member(2, "Smith", "jsmith@example.com");
+        member(3, "Blacksmith Joe", "joe@forge.com");
+        member(4, "John Smith", "john@example.com");
+        member(5, "Carol Jones", "smithy@example.com");
+        member(6, "Smithson Lee", "lee@example.com");
+
+        // Exact name, name prefix, word in name, email prefix, substrings
+        assertEquals(List.of(2, 6, 1, 4, 5, 3), ids(index.search("smith", 10)));
+        assertEquals(List.of(2, 6), ids(index.search("SMITH", 2)));
+        assertEquals(List.of(5), ids(index.search("smithy@", 10)));
+        assertEquals(List.of(3), ids(index.search("forge", 10)));
+        assertEquals(List.of(), ids(index.search("smithz", 10)));
+        assertThrows(IllegalStateException.class, () -> member(1, "Duplicate", null));
+    }
+
+    @Test
+    void testShortQueriesMatchWordStarts() {
+        member(1, "John Smith", "js@example.com");
+        member(2, "Jo Malone", "malone@example.com");
+        member(3, "Ojo Ade", "ade@example.com");
+
+        assertEquals(List.of(1, 2), ids(index.search("jo", 10)));
+        assertEquals(List.of(1, 2), ids(index.search("j", 10)));
+        assertEquals(List.of(3), ids(index.search("a", 10)));
+        assertEquals(List.of(), ids(index.search("  ", 10)));
+    }
+
+    @Test
+    void testAccentsCaseAndSpacesAreIgnored() {
+        member(1, "José  Álvarez", "JALVAREZ@Example.com");
+        member(2, "Zoë Łukasz", null);
+
+        assertEquals(List.of(1), ids(index.search("jose alv", 10)));
+        assertEquals(List.of(1), ids(index.search("ÁLVAREZ", 10)));
+        assertEquals(List.of(1), ids(index.search("jalvarez@ex", 10)));
+        assertEquals(List.of(2), ids(index.search("zoe", 10)));
+        assertEquals(List.of(2), ids(index.search("łuk", 10)));
+        assertEquals(List.of(2), ids(index.search("ł", 10)));
+
+        assertEquals("john smith", new String(UserSearchIndex.normalize("  John\tSMITH\u0001 "),
+                StandardCharsets.UTF_8));
+        assertEquals("jose smith", new String(UserSearchIndex.normalize("  JOSÉ\tSmith\u0001 "),
+                StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testIndexFollowsUserChanges() {
+        Member member = member(1, "John Smith", "john@example.com");
+        member(2, "Jane Doe", "jane@example.com");
+
+        member.setName("John Carter");
+        assertEquals(List.of(), ids(index.search("smith", 10)));
+        assertEquals(List.of(1), ids(index.search("carter", 10)));
+
+        member.setEmail("jc@mars.org");
+        assertEquals(List.of(), ids(index.search("john@", 10)));
+        assertEquals(List.of(1), ids(index.search("mars", 10)));
+
+        member.setActive(false);
+        assertEquals(List.of(2), ids(index.search("j", 10)));
+        assertEquals(List.of(2, 1), ids(index.search("j", 10, true)));
+        member.setActive(true);
+        assertEquals(List.of(2, 1), ids(index.search("j", 10)));
+
+        assertSame(member, index.remove(1));
+        assertNull(index.remove(1));
+        member.setName("John Smith");
+        assertEquals(List.of(), ids(index.search("john", 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testManyRenamesStayCorrectAcrossRebuilds() {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            members.add(member(i, "Member " + i, "member" + i + "@example.com"));
+        }
+        for (int round = 0; round < 10; round++) {
+            for (Member member : members) {
+                member.setName("Round" + round + " Member " + member.getUserId());
+            }
+        }
+        assertEquals(500, index.search("round9", 1000).size());
+        assertEquals(List.of(), index.search("round8", 1000));
+        assertEquals(List.of(123), ids(index.search("member123@", 10)));
+        assertEquals(List.of(42, 420), ids(index.search("round9 member 42", 2)));
+    }
+
+    @Test
+    void testSearchesRunWhileUsersChange() throws Exception {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            members.add(member(i, "Stable Name" + i, "user" + i + "@example.com"));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        AtomicBoolean running = new AtomicBoolean(true);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                try {
+                    for (int i = 0; i < 20_000; i++) {
+                        Member member = members.get(i % members.size());
+                        member.setEmail("user" + member.getUserId() + "-" + i + "@example.com");
+                    }
+                } finally {
+                    running.set(false);
+                }
+                return null;
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int thread = 0; thread < 2; thread++) {
+                readers.add(executor.submit(() -> {
+                    while (running.get()) {
+                        assertEquals(List.of(1234), ids(index.search("stable name1234", 5)));
+                        assertEquals(5, index.search("stable", 5).size());
+                    }
+                    return null;
+                }));
+            }
+            writer.get();
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(List.of(7), ids(index.search("user7-", 10)));
+    }
+}
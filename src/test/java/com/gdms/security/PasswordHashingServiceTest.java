@@ -0,0 +1,105 @@
+package com.gdms.security;
+
+import com.gdms.model.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PasswordHashingService functionality.
+ */
+class PasswordHashingServiceTest {
+    private PasswordHashingService hashingService;
+
+    @BeforeEach
+    void setUp() {
+        hashingService = new PasswordHashingService(new BCryptPasswordEncoder(4), 2, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingService.close();
+    }
+
+    @Test
+    void testEncodeAndMatch() {
+        String hash = hashingService.encode("password123").join();
+        assertNotEquals("password123", hash);
+        assertTrue(hashingService.matches("password123", hash).join());
+        assertFalse(hashingService.matches("wrongpassword", hash).join());
+    }
+
+    @Test
+    void testCreateMember() {
+        Member member = Member.create(1, "John Doe", "john@example.com", "password123",
+                "Premium", LocalDate.now(), LocalDate.now().plusMonths(1), hashingService).join();
+
+        assertEquals(1, member.getUserId());
+        assertTrue(member.authenticate("password123"));
+        assertTrue(member.authenticateAsync("password123", hashingService).join());
+        assertFalse(member.authenticateAsync("wrongpassword", hashingService).join());
+    }
+
+    @Test
+    void testWithPasswordHashDoesNotRehash() {
+        String hash = hashingService.encode("password123").join();
+        Member member = Member.withPasswordHash(1, "John Doe", "john@example.com", hash,
+                "Premium", LocalDate.now(), LocalDate.now().plusMonths(1));
+
+        assertTrue(member.authenticate("password123"));
+    }
+
+    @Test
+    void testSaturatedPoolAppliesBackpressure() {
+        Set<String> hashingThreads = ConcurrentHashMap.newKeySet();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+        PasswordEncoder recording = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashingThreads.add(Thread.currentThread().getName());
+                return bcrypt.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return bcrypt.matches(rawPassword, encodedPassword);
+            }
+        };
+        try (PasswordHashingService service = new PasswordHashingService(recording, 2, 4)) {
+            List<CompletableFuture<String>> hashes = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                hashes.add(service.encode("password" + i));
+                assertTrue(service.getQueuedTaskCount() <= 4);
+            }
+            for (int i = 0; i < hashes.size(); i++) {
+                assertTrue(service.matchesNow("password" + i, hashes.get(i).join()));
+            }
+        }
+        // Saturation makes the caller wait; it never hashes on the caller's thread
+        assertFalse(hashingThreads.contains(Thread.currentThread().getName()));
+        assertTrue(hashingThreads.stream().allMatch(name -> name.startsWith("password-hash-")));
+    }
+
+    @Test
+    void testWorkAfterCloseFailsInsteadOfHanging() {
+        hashingService.close();
+
+        CompletableFuture<String> hash = hashingService.encode("password123");
+        CompletableFuture<Boolean> match = hashingService.matches("password123", "$2a$04$invalid");
+
+        CompletionException failure = assertThrows(CompletionException.class, hash::join);
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+        assertThrows(CompletionException.class, match::join);
+    }
+}
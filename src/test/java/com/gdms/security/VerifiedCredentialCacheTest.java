@@ -0,0 +1,102 @@
+package com.gdms.security;
+
+import com.gdms.model.Member;
+import com.gdms.time.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for VerifiedCredentialCache functionality.
+ */
+class VerifiedCredentialCacheTest {
+    private MutableClock clock;
+    private VerifiedCredentialCache cache;
+    private PasswordChangingMember member;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-01T08:00:00Z"));
+        cache = new VerifiedCredentialCache(Duration.ofMinutes(5), 2, clock);
+        member = new PasswordChangingMember(1, "john@example.com", "password123");
+    }
+
+    @Test
+    void testRepeatedLoginHitsCache() {
+        assertTrue(member.authenticate("password123", cache));
+        assertTrue(member.authenticate("password123", cache));
+        assertTrue(member.authenticate("password123", cache));
+
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    void testWrongPasswordIsNeverCached() {
+        assertFalse(member.authenticate("wrongpassword", cache));
+        assertTrue(member.authenticate("password123", cache));
+        assertFalse(member.authenticate("wrongpassword", cache));
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    void testEntryExpires() {
+        assertTrue(member.authenticate("password123", cache));
+        clock.advance(Duration.ofMinutes(6));
+        assertTrue(member.authenticate("password123", cache));
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void testPasswordChangeInvalidates() {
+        assertTrue(member.authenticate("password123", cache));
+        assertEquals(1, cache.size());
+
+        member.changePassword("newpassword");
+        assertEquals(0, cache.size());
+        assertFalse(member.authenticate("password123", cache));
+        assertTrue(member.authenticate("newpassword", cache));
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    void testDeactivationInvalidates() {
+        assertTrue(member.authenticate("password123", cache));
+        member.setActive(false);
+        assertEquals(0, cache.size());
+
+        assertTrue(member.authenticate("password123", cache));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testSizeLimit() {
+        PasswordChangingMember second = new PasswordChangingMember(2, "jane@example.com", "password456");
+        PasswordChangingMember third = new PasswordChangingMember(3, "joe@example.com", "password789");
+
+        assertTrue(member.authenticate("password123", cache));
+        assertTrue(second.authenticate("password456", cache));
+        assertTrue(third.authenticate("password789", cache));
+
+        assertEquals(2, cache.size());
+    }
+
+    private static final class PasswordChangingMember extends Member {
+        PasswordChangingMember(int userId, String email, String password) {
+            super(userId, "Test Member", email, password, "Basic",
+                    LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1));
+        }
+
+        void changePassword(String password) {
+            setPassword(new BCryptPasswordEncoder(4).encode(password));
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.gdms.shard;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.EquipmentStatus;
+import com.gdms.model.Member;
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import com.gdms.model.TestMembers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.beans.PropertyChangeListener;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ShardedGymModel functionality.
+ */
+class ShardedGymModelTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    private ShardedGymModel model;
+
+    @BeforeEach
+    void setUp() {
+        model = new ShardedGymModel(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        model.close();
+    }
+
+    private Member member(int id, String type, LocalDate end) {
+        Member member = TestMembers.member(id, type, end.minusMonths(1), end);
+        model.addMember(member);
+        return member;
+    }
+
+    @Test
+    void testMembersAndPaymentsAreRoutedTogether() {
+        int[] perPartition = new int[model.getPartitionCount()];
+        for (int id = 0; id < 1_000; id++) {
+            member(id, id % 4 == 0 ? "Premium" : "Basic", DAY.plusDays(id % 30));
+            perPartition[model.partitionOfMember(id).getIndex()]++;
+            model.addPayment(new Payment(10_000 + id, id, Money.ofMinor(2999, Money.USD), "Credit Card",
+                    "Monthly dues", DAY));
+        }
+        // Sequential IDs spread evenly
+        for (int count : perPartition) {
+            assertTrue(count > 200 && count < 300, "partition holds " + count);
+        }
+        model.addPayment(new Payment(20_042, 42, Money.ofMinor(500, Money.USD), "Cash", "Towel", DAY));
+
+        Member member = model.findMember(42);
+        assertSame(member, model.getPartition(model.partitionOfMember(42).getIndex()).getMembers().findById(42));
+        assertSame(member, model.findMemberByEmail("MEMBER42@example.com"));
+        assertEquals(List.of(10_042, 20_042),
+                model.findPaymentsByMember(42).stream().map(Payment::getPaymentId).toList());
+        assertEquals(42, model.findPayment(20_042).getMemberId());
+        assertThrows(IllegalStateException.class, () -> member(42, "Basic", DAY));
+        assertThrows(IllegalStateException.class, () -> model.addPayment(
+                new Payment(20_042, 42, Money.ofMinor(500, Money.USD), "Cash", "Towel", DAY)));
+        // Payment IDs are unique across partitions, not only within the member's one
+        assertNotSame(model.partitionOfMember(42), model.partitionOfMember(43));
+        assertThrows(IllegalStateException.class, () -> model.addPayment(
+                new Payment(20_042, 43, Money.ofMinor(500, Money.USD), "Cash", "Towel", DAY)));
+        assertNull(model.removePayment(43, 20_042));
+        assertEquals(List.of(10_043), model.findPaymentsByMember(43).stream().map(Payment::getPaymentId).toList());
+
+        assertEquals(20_042, model.removePayment(42, 20_042).getPaymentId());
+        assertNull(model.findPayment(20_042));
+        assertSame(member, model.removeMember(42));
+        assertNull(model.findMember(42));
+        assertEquals(999, model.getMemberCount());
+        assertEquals(List.of(10_042), model.findPaymentsByMember(42).stream().map(Payment::getPaymentId).toList());
+    }
+
+    @Test
+    void testEquipmentFollowsItsLocation() {
+        Equipment treadmill = new Equipment(1, "Treadmill", "Available", "Downtown", "Cardio");
+        Equipment rower = new Equipment(2, "Rower", "Available", "Uptown", "Cardio");
+        Equipment bike = new Equipment(3, "Bike", "Available", "Downtown", "Cardio");
+        model.addEquipment(treadmill);
+        model.addEquipment(rower);
+        model.addEquipment(bike);
+
+        // New locations are spread round-robin, and each location stays on one partition
+        assertNotSame(model.partitionOfLocation("Downtown"), model.partitionOfLocation("Uptown"));
+        assertSame(treadmill, model.findEquipment("Downtown", 1));
+        assertNull(model.findEquipment("Uptown", 1));
+
+        treadmill.setLocation("Uptown");
+        assertSame(treadmill, model.findEquipment("Uptown", 1));
+        assertNull(model.findEquipment("Downtown", 1));
+        assertEquals(1, model.partitionOfLocation("Downtown").getEquipmentCount());
+        assertEquals(2, model.partitionOfLocation("Uptown").getEquipmentCount());
+
+        bike.setEquipmentStatus(EquipmentStatus.UNDER_MAINTENANCE);
+        assertEquals(Map.of("Downtown", 1), model.countEquipmentByLocation(EquipmentStatus.UNDER_MAINTENANCE));
+        assertEquals(Map.of("Uptown", 2), model.countEquipmentByLocation(EquipmentStatus.AVAILABLE));
+
+        assertTrue(model.removeEquipment(treadmill));
+        assertFalse(model.removeEquipment(treadmill));
+        treadmill.setLocation("Downtown");
+        assertNull(model.findEquipment("Downtown", 1));
+    }
+
+    @Test
+    void testMoveOntoConflictingIdKeepsMachineAndLaterListeners() {
+        Equipment downtown = new Equipment(5, "Treadmill", "Available", "Downtown", "Cardio");
+        Equipment uptown = new Equipment(5, "Rower", "Available", "Uptown", "Cardio");
+        model.addEquipment(downtown);
+        model.addEquipment(uptown);
+        List<Object> later = new ArrayList<>();
+        downtown.addPropertyChangeListener(event -> later.add(event.getNewValue()));
+
+        // Uptown's partition already holds an equipment 5, so the treadmill stays where it was
+        downtown.setLocation("Uptown");
+        assertEquals(List.of("Uptown"), later);
+        assertEquals(1, model.partitionOfLocation("Downtown").getEquipmentCount());
+        assertSame(uptown, model.findEquipment("Uptown", 5));
+
+        // The next move finds it in its old partition
+        downtown.setLocation("Midtown");
+        assertSame(downtown, model.findEquipment("Midtown", 5));
+        assertEquals(0, model.partitionOfLocation("Downtown").getEquipmentCount());
+        assertTrue(model.removeEquipment(downtown));
+        assertNull(model.findEquipment("Midtown", 5));
+    }
+
+    @Test
+    void testMoveBeforeListenerIsRegisteredIsCaughtUp() {
+        model.partitionOfLocation("Downtown");
+        model.partitionOfLocation("Uptown");
+        Equipment treadmill = new Equipment(1, "Treadmill", "Available", "Downtown", "Cardio") {
+            @Override
+            public void addPropertyChangeListener(PropertyChangeListener listener) {
+                // Another thread moves the machine after the model picked its partition
+                setLocation("Uptown");
+                super.addPropertyChangeListener(listener);
+            }
+        };
+        model.addEquipment(treadmill);
+
+        assertSame(treadmill, model.findEquipment("Uptown", 1));
+        assertEquals(0, model.partitionOfLocation("Downtown").getEquipmentCount());
+        assertEquals(1, model.partitionOfLocation("Uptown").getEquipmentCount());
+    }
+
+    @Test
+    void testReportsGatherEveryPartition() {
+        for (int id = 0; id < 300; id++) {
+            member(id, id % 3 == 0 ? "Premium" : "Basic", DAY.plusDays(id % 10));
+            Payment payment = new Payment(id, id, Money.ofMinor(1000, id % 5 == 0 ? "EUR" : "USD"), "Credit Card",
+                    "Monthly dues", DAY.plusDays(id % 7));
+            payment.processPayment("TXN" + id);
+            model.addPayment(payment);
+        }
+
+        assertEquals(Map.of("Basic", 200, "Premium", 100), model.countMembersByType());
+        List<Member> ending = model.findByMembershipEndDateBetween(DAY.plusDays(2), DAY.plusDays(3));
+        assertEquals(60, ending.size());
+        assertEquals(2, ending.get(0).getUserId());
+        assertEquals(293, ending.get(59).getUserId());
+
+        Map<Currency, Money> totals = model.sumPayments(PaymentStatus.COMPLETED, DAY, DAY.plusDays(6));
+        assertEquals(Money.ofMinor(240_000, Money.USD), totals.get(Money.USD));
+        assertEquals(Money.ofMinor(60_000, "EUR"), totals.get(Currency.getInstance("EUR")));
+        assertEquals(Map.of(), model.sumPayments(PaymentStatus.REFUNDED, DAY, DAY.plusDays(6)));
+
+        List<String> threads = model.queryEach(partition -> Thread.currentThread().getName());
+        assertEquals(List.of("shard-0", "shard-1", "shard-2", "shard-3"), threads);
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> model.query(partition -> {
+                    throw new IllegalStateException("Partition " + partition.getIndex());
+                }, (left, right) -> left));
+        assertEquals("Partition 0", failure.getMessage());
+    }
+
+    @Test
+    void testConcurrentWritersAndQueries() throws Exception {
+        int threads = 8;
+        int perThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                int base = thread * perThread;
+                writers.add(executor.submit(() -> {
+                    for (int id = base; id < base + perThread; id++) {
+                        member(id, "Basic", DAY);
+                        Payment payment = new Payment(id, id, Money.ofMinor(100, Money.USD), "Cash", "Day pass", DAY);
+                        payment.processPayment("TXN" + id);
+                        model.addPayment(payment);
+                    }
+                    return null;
+                }));
+            }
+            Future<?> reader = executor.submit(() -> {
+                long last = 0;
+                for (int i = 0; i < 200; i++) {
+                    Money total = model.sumPayments(PaymentStatus.COMPLETED, DAY, DAY).get(Money.USD);
+                    long minor = total == null ? 0 : total.getMinorUnits();
+                    assertTrue(minor >= last);
+                    last = minor;
+                }
+                return null;
+            });
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            reader.get();
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(threads * perThread, model.getMemberCount());
+        assertEquals(Money.ofMinor(threads * perThread * 100L, Money.USD),
+                model.sumPayments(PaymentStatus.COMPLETED, DAY, DAY).get(Money.USD));
+    }
+}
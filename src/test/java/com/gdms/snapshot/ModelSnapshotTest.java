@@ -0,0 +1,161 @@
+package com.gdms.snapshot;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.EquipmentStatus;
+import com.gdms.model.Member;
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import com.gdms.model.TestMembers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ModelSnapshot functionality.
+ */
+class ModelSnapshotTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRoundTripKeepsEveryField() throws Exception {
+        Member member = new Member(1, "José Álvarez", "jose@example.com", "secret", "Premium", START,
+                START.plusYears(1));
+        Member inactive = Member.withPasswordHash(2, null, null, TestMembers.PASSWORD_HASH, null, null, null);
+        inactive.setActive(false);
+
+        Equipment treadmill = new Equipment(10, "Treadmill", "In Use", "Cardio Zone", "Incline 15%");
+        treadmill.setLastMaintenanceDate(START);
+        treadmill.setNextMaintenanceDate(START.plusMonths(3));
+        Equipment rower = new Equipment(11, "Rower", "Available", null, null);
+        rower.reportIssue("Chain slipping — needs oil");
+
+        Payment completed = new Payment(100, 1, Money.ofMinor(4999, "USD"), "Credit Card", "Monthly fee", START);
+        completed.processPayment("TXN-1");
+        Payment euro = new Payment(101, 2, Money.ofMinor(1050, "EUR"), "PayPal", null, START.plusDays(1));
+        Payment yen = new Payment(102, 2, Money.ofMinor(500, "JPY"), null, "Day pass", START);
+        yen.failPayment();
+
+        Path file = directory.resolve("model.snap");
+        long size = ModelSnapshot.write(file, List.of(member, inactive), List.of(treadmill, rower),
+                List.of(completed, euro, yen));
+        assertEquals(Files.size(file), size);
+
+        ModelSnapshot snapshot = ModelSnapshot.read(file);
+        Member restored = snapshot.getMembers().get(0);
+        assertEquals(member.toString(), restored.toString());
+        assertEquals(member.getPassword(), restored.getPassword());
+        assertTrue(restored.authenticate("secret"));
+        Member restoredInactive = snapshot.getMembers().get(1);
+        assertFalse(restoredInactive.isActive());
+        assertNull(restoredInactive.getName());
+        assertNull(restoredInactive.getMembershipEndDate());
+
+        assertEquals(2, snapshot.getEquipment().size());
+        for (int i = 0; i < 2; i++) {
+            Equipment original = List.of(treadmill, rower).get(i);
+            Equipment copy = snapshot.getEquipment().get(i);
+            assertEquals(original.toString(), copy.toString());
+            assertEquals(original.getDescription(), copy.getDescription());
+        }
+        assertEquals(EquipmentStatus.OUT_OF_ORDER, snapshot.getEquipment().get(1).getEquipmentStatus());
+
+        List<Payment> payments = snapshot.getPayments();
+        assertEquals(3, payments.size());
+        for (int i = 0; i < 3; i++) {
+            Payment original = List.of(completed, euro, yen).get(i);
+            Payment copy = payments.get(i);
+            assertEquals(original.getPaymentId(), copy.getPaymentId());
+            assertEquals(original.getMemberId(), copy.getMemberId());
+            assertEquals(original.getMoney(), copy.getMoney());
+            assertEquals(original.getPaymentDate(), copy.getPaymentDate());
+            assertEquals(original.getPaymentStatus(), copy.getPaymentStatus());
+            assertEquals(original.getPaymentMethod(), copy.getPaymentMethod());
+            assertEquals(original.getTransactionId(), copy.getTransactionId());
+            assertEquals(original.getDescription(), copy.getDescription());
+        }
+        assertEquals(PaymentStatus.FAILED, payments.get(2).getPaymentStatus());
+    }
+
+    @Test
+    void testLargeSnapshotsSpanBlocksAndShareValues() throws Exception {
+        List<Member> members = new ArrayList<>();
+        List<Payment> payments = new ArrayList<>();
+        String[] methods = {"Credit Card", "PayPal", "Cash"};
+        for (int i = 0; i < 20_000; i++) {
+            members.add(TestMembers.member(i, i % 2 == 0 ? "Basic" : "Premium", START, START.plusDays(i % 400)));
+            Payment payment = new Payment(i, i, Money.ofMinor(i, "USD"), methods[i % 3], "Payment " + i,
+                    START.plusDays(i % 30));
+            payment.processPayment("TXN" + i);
+            payments.add(payment);
+        }
+        // One record larger than a whole block
+        payments.add(new Payment(20_000, 1, Money.ofMinor(1, "USD"), "Cash", "x".repeat(3 << 20), START));
+
+        Path file = directory.resolve("large.snap");
+        ModelSnapshot.write(file, members, List.of(), payments);
+        ModelSnapshot snapshot = ModelSnapshot.read(file);
+
+        assertEquals(20_000, snapshot.getMembers().size());
+        assertEquals(20_001, snapshot.getPayments().size());
+        for (int i = 0; i < 20_000; i += 997) {
+            assertEquals(members.get(i).toString(), snapshot.getMembers().get(i).toString());
+            assertEquals("TXN" + i, snapshot.getPayments().get(i).getTransactionId());
+        }
+        assertEquals(3 << 20, snapshot.getPayments().get(20_000).getDescription().length());
+        // Repeated values are one instance across blocks
+        assertSame(snapshot.getPayments().get(0).getPaymentMethod(),
+                snapshot.getPayments().get(19_998).getPaymentMethod());
+        assertSame(snapshot.getPayments().get(5).getPaymentDate(),
+                snapshot.getPayments().get(19_985).getPaymentDate());
+        assertSame(snapshot.getMembers().get(0).getMembershipType(),
+                snapshot.getMembers().get(19_998).getMembershipType());
+    }
+
+    @Test
+    void testDamagedFilesAreRejected() throws Exception {
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            payments.add(new Payment(i, i, Money.ofMinor(i, "USD"), "Cash", "Payment " + i, START));
+        }
+        Path file = directory.resolve("model.snap");
+        ModelSnapshot.write(file, List.of(), List.of(), payments);
+        byte[] bytes = Files.readAllBytes(file);
+
+        byte[] flipped = bytes.clone();
+        flipped[bytes.length / 2] ^= 0x10;
+        assertRejected(flipped, "damaged");
+        assertRejected(Arrays.copyOf(bytes, bytes.length - 10), "truncated");
+        assertRejected(Arrays.copyOf(bytes, 4), "truncated");
+
+        byte[] newer = bytes.clone();
+        ByteBuffer.wrap(newer).putInt(4, ModelSnapshot.VERSION + 1);
+        assertRejected(newer, "version");
+        byte[] foreign = bytes.clone();
+        foreign[0] = 'X';
+        assertRejected(foreign, "Not a snapshot");
+
+        ModelSnapshot.write(file, List.of(), List.of(), List.of());
+        ModelSnapshot empty = ModelSnapshot.read(file);
+        assertTrue(empty.getMembers().isEmpty() && empty.getEquipment().isEmpty() && empty.getPayments().isEmpty());
+        assertFalse(Files.exists(directory.resolve("model.snap.tmp")));
+    }
+
+    private void assertRejected(byte[] bytes, String reason) throws IOException {
+        Path file = directory.resolve("damaged.snap");
+        Files.write(file, bytes);
+        IOException e = assertThrows(IOException.class, () -> ModelSnapshot.read(file));
+        assertTrue(e.getMessage().contains(reason), e.getMessage());
+    }
+}
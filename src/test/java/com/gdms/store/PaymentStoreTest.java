@@ -0,0 +1,106 @@
+package com.gdms.store;
+
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for PaymentStore functionality.
+ */
+class PaymentStoreTest {
+    private PaymentStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new PaymentStore(2);
+    }
+
+    @Test
+    void testAddAndReadThroughCursor() {
+        Payment payment = new Payment(1, 101, 99.99, "Credit Card", "Monthly membership fee");
+        payment.processPayment("TXN123456");
+        int row = store.add(payment);
+
+        PaymentStore.Cursor cursor = store.cursor().moveTo(row);
+        assertEquals(1, cursor.getPaymentId());
+        assertEquals(101, cursor.getMemberId());
+        assertEquals(9999, cursor.getAmountCents());
+        assertEquals(99.99, cursor.getAmount());
+        assertEquals(LocalDate.now(), cursor.getPaymentDate());
+        assertEquals("Completed", cursor.getStatus());
+        assertEquals("Credit Card", cursor.getPaymentMethod());
+        assertEquals("TXN123456", cursor.getTransactionId());
+        assertEquals("Monthly membership fee", cursor.getDescription());
+    }
+
+    @Test
+    void testGrowsAndIterates() {
+        for (int i = 0; i < 100; i++) {
+            store.add(i, 1000 + i, i * 100L, 19_000 + i, i % 2 == 0 ? PaymentStatus.COMPLETED : PaymentStatus.PENDING,
+                    i % 3 == 0 ? "PayPal" : "Credit Card", null, "Fee " + i);
+        }
+        assertEquals(100, store.size());
+
+        PaymentStore.Cursor cursor = store.cursor();
+        int count = 0;
+        while (cursor.next()) {
+            assertEquals(count, cursor.getPaymentId());
+            assertEquals(19_000 + count, cursor.getPaymentEpochDay());
+            count++;
+        }
+        assertEquals(100, count);
+    }
+
+    @Test
+    void testCountByStatus() {
+        store.add(1, 101, 1000, 19_000, PaymentStatus.COMPLETED, "Credit Card", "TXN1", null);
+        store.add(2, 102, 2500, 19_000, PaymentStatus.PENDING, "Credit Card", null, null);
+
+        assertEquals(1, store.countByStatus(PaymentStatus.COMPLETED));
+        assertEquals(0, store.countByStatus(PaymentStatus.FAILED));
+    }
+
+    @Test
+    void testMethodIsDictionaryEncoded() {
+        store.add(1, 101, 1000, 19_000, PaymentStatus.PENDING, "Credit Card", null, null);
+        store.add(2, 102, 2000, 19_000, PaymentStatus.PENDING, "Credit Card", null, null);
+
+        PaymentStore.Cursor cursor = store.cursor();
+        assertEquals(cursor.moveTo(0).getPaymentMethodCode(), cursor.moveTo(1).getPaymentMethodCode());
+        assertSame(cursor.moveTo(0).getPaymentMethod(), cursor.moveTo(1).getPaymentMethod());
+    }
+
+    @Test
+    void testSumAmountCentsByStatus() {
+        store.add(1, 101, 1000, 19_000, PaymentStatus.COMPLETED, "Credit Card", "TXN1", null);
+        store.add(2, 102, 2500, 19_000, PaymentStatus.PENDING, "Credit Card", null, null);
+        store.add(3, 103, 4000, 19_001, PaymentStatus.COMPLETED, "PayPal", "TXN3", null);
+
+        assertEquals(5000, store.sumAmountCents(PaymentStatus.COMPLETED));
+        assertEquals(2500, store.sumAmountCents(PaymentStatus.PENDING));
+        assertEquals(0, store.sumAmountCents(PaymentStatus.REFUNDED));
+    }
+
+    @Test
+    void testUpdateAndMaterialize() {
+        int row = store.add(new Payment(1, 101, 49.5, "PayPal", "Day pass"));
+        store.setStatus(row, PaymentStatus.COMPLETED);
+        store.setTransactionId(row, "TXN42");
+
+        Payment payment = store.toPayment(row);
+        assertEquals(1, payment.getPaymentId());
+        assertEquals(49.5, payment.getAmount());
+        assertEquals("Completed", payment.getStatus());
+        assertEquals("TXN42", payment.getTransactionId());
+        assertEquals("PayPal", payment.getPaymentMethod());
+    }
+
+    @Test
+    void testInvalidRow() {
+        assertThrows(IndexOutOfBoundsException.class, () -> store.cursor().moveTo(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.toPayment(-1));
+    }
+}
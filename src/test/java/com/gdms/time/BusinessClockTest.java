@@ -0,0 +1,53 @@
+package com.gdms.time;
+
+import org.junit.jupiter.api.Test;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for BusinessClock functionality.
+ */
+class BusinessClockTest {
+    private static final ZoneId ZONE = ZoneId.of("America/New_York");
+
+    @Test
+    void testTodayInClockZone() {
+        // 03:00 UTC is still the previous evening in New York
+        Clock clock = Clock.fixed(Instant.parse("2024-03-02T03:00:00Z"), ZONE);
+        assertEquals(LocalDate.of(2024, 3, 1), new BusinessClock(clock).today());
+    }
+
+    @Test
+    void testRollsOverAtMidnight() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-03-02T04:59:00Z"), ZONE);
+        BusinessClock businessClock = new BusinessClock(clock);
+        assertEquals(LocalDate.of(2024, 3, 1), businessClock.today());
+
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(LocalDate.of(2024, 3, 2), businessClock.today());
+
+        clock.advance(Duration.ofHours(23).plusMinutes(59));
+        assertEquals(LocalDate.of(2024, 3, 2), businessClock.today());
+    }
+
+    @Test
+    void testFixedClock() {
+        BusinessClock clock = BusinessClock.fixed(LocalDate.of(2030, 1, 15));
+        assertEquals(LocalDate.of(2030, 1, 15), clock.today());
+    }
+
+    @Test
+    void testReplaceDefault() {
+        BusinessClock original = BusinessClock.getDefault();
+        try {
+            BusinessClock.setDefault(BusinessClock.fixed(LocalDate.of(2030, 1, 15)));
+            assertEquals(LocalDate.of(2030, 1, 15), BusinessClock.currentDate());
+        } finally {
+            BusinessClock.setDefault(original);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.gdms.time;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Clock that stands still until a test advances it.
+ */
+public final class MutableClock extends Clock {
+    private final ZoneId zone;
+    private volatile Instant now;
+
+    /**
+     * Creates a clock in UTC.
+     * @param now Initial instant
+     */
+    public MutableClock(Instant now) {
+        this(now, ZoneOffset.UTC);
+    }
+
+    /**
+     * Creates a clock in the given zone.
+     * @param now Initial instant
+     * @param zone Zone the clock reports
+     */
+    public MutableClock(Instant now, ZoneId zone) {
+        this.now = now;
+        this.zone = zone;
+    }
+
+    /**
+     * Moves the clock forward.
+     * @param duration Time to add
+     */
+    public void advance(Duration duration) {
+        now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this;
+    }
+
+    @Override
+    public Instant instant() {
+        return now;
+    }
+}
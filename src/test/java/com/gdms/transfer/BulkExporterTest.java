@@ -0,0 +1,137 @@
+package com.gdms.transfer;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.Member;
+import com.gdms.model.MembershipPlan;
+import com.gdms.model.Money;
+import com.gdms.model.Payment;
+import com.gdms.model.TestMembers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for BulkExporter functionality.
+ */
+class BulkExporterTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @TempDir
+    Path directory;
+
+    private <T> List<T> roundTrip(RecordMapper<T> mapper, RecordFormat format, List<T> values) throws IOException {
+        Path file = directory.resolve("export." + format.name().toLowerCase());
+        assertEquals(values.size(), new BulkExporter<>(mapper, format).export(values, file));
+        List<T> imported = new ArrayList<>();
+        try (BulkImporter<T> importer = new BulkImporter<>(mapper, format, 7, 2)) {
+            BulkImporter.ImportResult result = importer.importFile(file, imported::addAll);
+            assertEquals(0, result.rejected(), () -> result.errors().toString());
+        }
+        return imported;
+    }
+
+    private static List<Payment> payments() {
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            Payment payment = new Payment(i, 100 + i, Money.ofMinor(-5 + i * 1001L, Money.USD), "Credit Card",
+                    i % 2 == 0 ? "Fee, \"monthly\"\nline two" : null, DAY.plusDays(i));
+            if (i % 3 == 0) {
+                payment.processPayment("TXN" + i);
+            }
+            payments.add(payment);
+        }
+        payments.add(new Payment(51, 1, Money.ofMinor(1500, "JPY"), "Cash", "Zoë ✓ \t\\ 🏋", DAY));
+        return payments;
+    }
+
+    @Test
+    void testPaymentRoundTrip() throws IOException {
+        for (RecordFormat format : RecordFormat.values()) {
+            List<Payment> expected = payments();
+            List<Payment> actual = roundTrip(new PaymentRecordMapper(), format, expected);
+
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).toString(), actual.get(i).toString(), format.name());
+                assertEquals(expected.get(i).getDescription(), actual.get(i).getDescription(), format.name());
+            }
+        }
+    }
+
+    @Test
+    void testMemberEquipmentAndPlanRoundTrip() throws IOException {
+        Member active = Member.withPasswordHash(1, "Ann, \"A\"", "ann@example.com", TestMembers.PASSWORD_HASH,
+                "Premium", DAY, DAY.plusYears(1));
+        Member inactive = Member.withPasswordHash(2, "Bob", "bob@example.com", TestMembers.PASSWORD_HASH, null, null,
+                DAY);
+        inactive.setActive(false);
+        Equipment treadmill = new Equipment(7, "Treadmill", "Out of Order", "Cardio Zone", null);
+        treadmill.setLastMaintenanceDate(DAY);
+        treadmill.setNextMaintenanceDate(DAY.plusMonths(3));
+        MembershipPlan plan = new MembershipPlan("Family", "Two adults, two kids", Money.ofMinor(8990, Money.USD));
+        MembershipPlan retired = new MembershipPlan("Legacy", null, Money.ofMinor(1999, "EUR"), false);
+
+        for (RecordFormat format : RecordFormat.values()) {
+            List<Member> members = roundTrip(new MemberRecordMapper(), format, List.of(active, inactive));
+            assertEquals(active.toString(), members.get(0).toString());
+            assertEquals(TestMembers.PASSWORD_HASH, members.get(0).getPassword());
+            assertEquals(inactive.toString(), members.get(1).toString());
+
+            Equipment equipment = roundTrip(new EquipmentRecordMapper(), format, List.of(treadmill)).get(0);
+            assertEquals(treadmill.toString(), equipment.toString());
+            assertNull(equipment.getDescription());
+
+            List<MembershipPlan> plans = roundTrip(new MembershipPlanRecordMapper(), format, List.of(plan, retired));
+            assertEquals(plan.toString(), plans.get(0).toString());
+            assertEquals(plan.getDescription(), plans.get(0).getDescription());
+            assertEquals(retired.toString(), plans.get(1).toString());
+        }
+    }
+
+    @Test
+    void testOutputFormat() throws IOException {
+        Payment payment = new Payment(1, 101, 99.99, "Credit Card", "Fee, \"monthly\"", DAY);
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        new BulkExporter<>(new PaymentRecordMapper(), RecordFormat.CSV).export(List.of(payment), Channels.newChannel(csv));
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        new BulkExporter<>(new PaymentRecordMapper(), RecordFormat.NDJSON).export(List.of(payment), Channels.newChannel(json));
+
+        assertEquals("""
+                payment_id,member_id,amount,currency,payment_date,status,payment_method,transaction_id,description
+                1,101,99.99,USD,2024-03-01,Pending,Credit Card,,"Fee, ""monthly""\"
+                """, csv.toString(StandardCharsets.UTF_8));
+        assertEquals("{\"payment_id\":1,\"member_id\":101,\"amount\":99.99,\"currency\":\"USD\","
+                + "\"payment_date\":\"2024-03-01\",\"status\":\"Pending\",\"payment_method\":\"Credit Card\","
+                + "\"transaction_id\":null,\"description\":\"Fee, \\\"monthly\\\"\"}\n",
+                json.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testLargeExportStreamsThroughFixedBuffers() throws IOException {
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 1; i <= 20_000; i++) {
+            payments.add(new Payment(i, i % 100, Money.ofMinor(i, Money.USD), "Credit Card",
+                    "Monthly membership fee ✓", DAY));
+        }
+        Path file = directory.resolve("payments.csv");
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        BulkExporter<Payment> exporter = new BulkExporter<>(new PaymentRecordMapper(), RecordFormat.CSV);
+        BulkExporter<Payment>.Output output = exporter.open(Channels.newChannel(sink));
+        payments.forEach(output);
+        output.flush();
+
+        assertEquals(20_000, output.getCount());
+        assertEquals(20_000, exporter.export(payments, file));
+        assertArrayEquals(Files.readAllBytes(file), sink.toByteArray());
+        assertEquals(20_001, Files.readAllLines(file).size());
+    }
+}
@@ -0,0 +1,288 @@
+package com.gdms.transfer;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.EquipmentStatus;
+import com.gdms.model.Member;
+import com.gdms.model.MembershipPlan;
+import com.gdms.model.Payment;
+import com.gdms.model.PaymentStatus;
+import com.gdms.model.TestMembers;
+import com.gdms.security.PasswordHashingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for BulkImporter functionality.
+ */
+class BulkImporterTest {
+    @TempDir
+    Path directory;
+
+    private Path write(String name, String content) throws IOException {
+        Path file = directory.resolve(name);
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static String paymentsCsv(int count) {
+        StringBuilder csv = new StringBuilder("payment_id,member_id,amount,payment_date,status\n");
+        for (int i = 1; i <= count; i++) {
+            csv.append(i).append(',').append(i % 7).append(',').append(i).append(".05,2024-03-01,Completed\n");
+        }
+        return csv.toString();
+    }
+
+    @Test
+    void testImportPaymentsCsv() throws IOException {
+        Path file = write("payments.csv", """
+                payment_id,member_id,amount,currency,payment_date,status,payment_method,transaction_id,description
+                1,101,99.99,USD,2024-03-01,Completed,Credit Card,TXN1,Monthly membership fee
+                2,102,5,,2024-03-02,,PayPal,,"Towel, large"
+                3,103,1500,JPY,2024-03-03,Refunded,Cash,TXN3,"Said ""thanks""\"
+                """);
+        List<Payment> payments = new ArrayList<>();
+        BulkImporter.ImportResult result;
+        try (BulkImporter<Payment> importer = new BulkImporter<>(new PaymentRecordMapper(), RecordFormat.CSV)) {
+            result = importer.importFile(file, payments::addAll);
+        }
+
+        assertEquals(3, result.imported());
+        assertEquals(0, result.rejected());
+        assertEquals(9999, payments.get(0).getAmountMinor());
+        assertEquals(PaymentStatus.COMPLETED, payments.get(0).getPaymentStatus());
+        assertEquals("TXN1", payments.get(0).getTransactionId());
+        assertEquals(500, payments.get(1).getAmountMinor());
+        assertEquals(PaymentStatus.PENDING, payments.get(1).getPaymentStatus());
+        assertNull(payments.get(1).getTransactionId());
+        assertEquals("Towel, large", payments.get(1).getDescription());
+        assertEquals(1500, payments.get(2).getAmountMinor());
+        assertEquals("JPY", payments.get(2).getCurrency().getCurrencyCode());
+        assertEquals("Said \"thanks\"", payments.get(2).getDescription());
+        assertEquals(LocalDate.of(2024, 3, 3), payments.get(2).getPaymentDate());
+    }
+
+    @Test
+    void testColumnOrderAndUnknownColumns() throws IOException {
+        Path file = write("equipment.csv", "\uFEFFlocation,equipment_id,colour,name,status\r\n"
+                + "Cardio Zone,7,red,Treadmill,Out of Order\r\n"
+                + "\r\n"
+                + "\"Weights\nRoom\",8,blue,Bench,\r\n");
+        List<Equipment> equipment = new ArrayList<>();
+        BulkImporter.ImportResult result;
+        try (BulkImporter<Equipment> importer = new BulkImporter<>(new EquipmentRecordMapper(), RecordFormat.CSV)) {
+            result = importer.importFile(file, equipment::addAll);
+        }
+
+        assertEquals(2, result.imported());
+        assertEquals(7, equipment.get(0).getEquipmentId());
+        assertEquals("Cardio Zone", equipment.get(0).getLocation());
+        assertEquals(EquipmentStatus.OUT_OF_ORDER, equipment.get(0).getEquipmentStatus());
+        assertEquals("Weights\nRoom", equipment.get(1).getLocation());
+        assertEquals(EquipmentStatus.AVAILABLE, equipment.get(1).getEquipmentStatus());
+    }
+
+    @Test
+    void testImportMembersNdjson() throws IOException {
+        Path file = write("members.ndjson", """
+                {"user_id": 1, "name": "Zo\\u00eb \\"Z\\" Smith", "email": "zoe@example.com", "password_hash": "%s", \
+                "membership_type": "Premium", "membership_start_date": "2024-01-01", "membership_end_date": "2025-01-01", \
+                "active": true, "referrer": null}
+                {"email":"jo@example.com","user_id":2,"name":"Jo","password_hash":"%s","membership_end_date":"2024-06-01","active":false}
+                {"user_id":3,"name":"Al","email":"al@example.com","password_hash":"hunter2","membership_end_date":"2024-06-01"}
+                """.formatted(TestMembers.PASSWORD_HASH, TestMembers.PASSWORD_HASH));
+        List<Member> members = new ArrayList<>();
+        BulkImporter.ImportResult result;
+        try (BulkImporter<Member> importer = new BulkImporter<>(new MemberRecordMapper(), RecordFormat.NDJSON)) {
+            result = importer.importFile(file, members::addAll);
+        }
+
+        assertEquals(2, result.imported());
+        assertEquals("Line 3: column 'password_hash' does not hold a BCrypt hash", result.errors().get(0).message());
+        Member zoe = members.get(0);
+        assertEquals("Zoë \"Z\" Smith", zoe.getName());
+        assertEquals(TestMembers.PASSWORD_HASH, zoe.getPassword());
+        assertEquals("Premium", zoe.getMembershipType());
+        assertEquals(LocalDate.of(2025, 1, 1), zoe.getMembershipEndDate());
+        assertTrue(zoe.isActive());
+        Member jo = members.get(1);
+        assertNull(jo.getMembershipType());
+        assertNull(jo.getMembershipStartDate());
+        assertFalse(jo.isActive());
+    }
+
+    @Test
+    void testPlainPasswordsAreHashedOnParserThreads() throws IOException {
+        Set<String> hashingThreads = ConcurrentHashMap.newKeySet();
+        PasswordEncoder encoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashingThreads.add(Thread.currentThread().getName());
+                return "hashed:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals(encode(rawPassword));
+            }
+        };
+        StringBuilder csv = new StringBuilder("user_id,name,email,password,membership_end_date\n");
+        for (int i = 1; i <= 200; i++) {
+            csv.append(i).append(",Member ").append(i).append(",m").append(i).append("@example.com,secret")
+                    .append(i).append(",2025-01-01\n");
+        }
+        Path file = write("members.csv", csv.toString());
+        List<Member> members = new ArrayList<>();
+        try (PasswordHashingService hashingService = new PasswordHashingService(encoder, 1, 1);
+             BulkImporter<Member> importer = new BulkImporter<>(new MemberRecordMapper(hashingService),
+                     RecordFormat.CSV, 10, 4)) {
+            importer.importFile(file, members::addAll);
+        }
+
+        assertEquals(200, members.size());
+        assertEquals("hashed:secret17", members.get(16).getPassword());
+        assertFalse(hashingThreads.contains(Thread.currentThread().getName()));
+        assertTrue(hashingThreads.stream().allMatch(name -> name.startsWith("record-parser-")));
+    }
+
+    @Test
+    void testInvalidRecordsAreRejectedWithLineNumbers() throws IOException {
+        Path file = write("payments.csv", """
+                payment_id,member_id,amount,payment_date,status
+                1,101,10.00,2024-03-01,Completed
+                2,102,ten,2024-03-01,Completed
+                3,103,10.001,2024-03-01,Completed
+                4,104,10.00,2024-02-30,Completed
+                5,105,10.00,2024-03-01,Lost
+                6,106,10.00,2024-03-01
+                7,,10.00,2024-03-01,Pending
+                8,108,10.00,2024-03-01,Pending
+                """);
+        List<Payment> payments = new ArrayList<>();
+        BulkImporter.ImportResult result;
+        try (BulkImporter<Payment> importer = new BulkImporter<>(new PaymentRecordMapper(), RecordFormat.CSV, 3, 2)) {
+            result = importer.importFile(file, payments::addAll);
+        }
+
+        assertEquals(2, result.imported());
+        assertEquals(6, result.rejected());
+        assertEquals(List.of(1, 8), payments.stream().map(Payment::getPaymentId).toList());
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L, 8L),
+                result.errors().stream().map(BulkImporter.RecordError::lineNumber).toList());
+        assertEquals("Line 3: invalid value for column 'amount': 'ten'", result.errors().get(0).message());
+        assertTrue(result.errors().get(3).message().contains("unknown payment status 'Lost'"));
+        assertTrue(result.errors().get(4).message().contains("expected 5 fields but found 4"));
+        assertTrue(result.errors().get(5).message().contains("missing value for column 'member_id'"));
+    }
+
+    @Test
+    void testMalformedJsonIsRejected() throws IOException {
+        Path file = write("plans.ndjson", """
+                {"membership_type":"Basic","monthly_price":29.99}
+                {"membership_type":"Premium","monthly_price":59.99
+                {"membership_type":"Family","monthly_price":[1]}
+                {"membership_type":"Gold","monthly_price":"89.90","currency":"EUR","active":false}
+                """);
+        List<MembershipPlan> plans = new ArrayList<>();
+        BulkImporter.ImportResult result;
+        try (BulkImporter<MembershipPlan> importer =
+                     new BulkImporter<>(new MembershipPlanRecordMapper(), RecordFormat.NDJSON)) {
+            result = importer.importFile(file, plans::addAll);
+        }
+
+        assertEquals(2, result.imported());
+        assertEquals(List.of(2L, 3L), result.errors().stream().map(BulkImporter.RecordError::lineNumber).toList());
+        assertTrue(result.errors().get(1).message().contains("nested values are not supported"));
+        assertEquals(2999, plans.get(0).getMonthlyPrice().getMinorUnits());
+        assertEquals("EUR", plans.get(1).getMonthlyPrice().getCurrencyCode());
+        assertFalse(plans.get(1).isActive());
+    }
+
+    @Test
+    void testBatchesArriveInFileOrderWithBoundedSize() throws IOException {
+        Path file = write("payments.csv", paymentsCsv(1000));
+        List<Integer> ids = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        try (BulkImporter<Payment> importer = new BulkImporter<>(new PaymentRecordMapper(), RecordFormat.CSV, 64, 4)) {
+            importer.importFile(file, batch -> {
+                batchSizes.add(batch.size());
+                batch.forEach(payment -> ids.add(payment.getPaymentId()));
+            });
+        }
+
+        assertEquals(1000, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(i + 1, ids.get(i));
+        }
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 64));
+    }
+
+    @Test
+    void testResumeAfterSinkFailure() throws IOException {
+        Path file = write("payments.csv", paymentsCsv(500) + "501,1,bad,2024-03-01,Completed\n"
+                + paymentsCsv(600).substring(paymentsCsv(501).length()));
+        Path checkpoint = directory.resolve("payments.checkpoint");
+        List<Integer> stored = new ArrayList<>();
+
+        try (BulkImporter<Payment> importer = new BulkImporter<>(new PaymentRecordMapper(), RecordFormat.CSV, 50, 2)) {
+            RuntimeException failure = assertThrows(IllegalStateException.class,
+                    () -> importer.importFile(file, checkpoint, batch -> {
+                        if (stored.size() >= 300) {
+                            throw new IllegalStateException("database down");
+                        }
+                        batch.forEach(payment -> stored.add(payment.getPaymentId()));
+                    }));
+            assertEquals("database down", failure.getMessage());
+            assertTrue(Files.exists(checkpoint));
+            assertEquals(300, stored.size());
+
+            BulkImporter.ImportResult result = importer.importFile(file, checkpoint,
+                    batch -> batch.forEach(payment -> stored.add(payment.getPaymentId())));
+
+            assertEquals(302, result.resumedFromLine());
+            assertEquals(599, result.imported());
+            assertEquals(1, result.rejected());
+            assertEquals(502L, result.errors().get(0).lineNumber());
+            assertFalse(Files.exists(checkpoint));
+        }
+        assertEquals(599, stored.size());
+        assertEquals(599, Set.copyOf(stored).size());
+    }
+
+    @Test
+    void testCheckpointMustMatchFile() throws IOException {
+        Path file = write("payments.csv", paymentsCsv(10));
+        Path checkpoint = directory.resolve("payments.checkpoint");
+        new ImportCheckpoint(1_000_000, 5000, 4999, 0).write(checkpoint);
+
+        try (BulkImporter<Payment> importer = new BulkImporter<>(new PaymentRecordMapper(), RecordFormat.CSV)) {
+            assertThrows(IOException.class, () -> importer.importFile(file, checkpoint, batch -> { }));
+        }
+    }
+
+    @Test
+    void testEmptyFiles() throws IOException {
+        try (BulkImporter<Payment> importer = new BulkImporter<>(new PaymentRecordMapper(), RecordFormat.CSV)) {
+            assertEquals(0, importer.importFile(write("empty.csv", ""), batch -> fail()).imported());
+            assertEquals(0, importer.importFile(write("header.csv", "payment_id,amount\n"), batch -> fail())
+                    .imported());
+        }
+    }
+
+    @Test
+    void testFormatForPath() {
+        assertEquals(RecordFormat.CSV, RecordFormat.forPath(Path.of("members.CSV")));
+        assertEquals(RecordFormat.NDJSON, RecordFormat.forPath(Path.of("payments.jsonl")));
+        assertThrows(IllegalArgumentException.class, () -> RecordFormat.forPath(Path.of("members.xlsx")));
+    }
+}
@@ -0,0 +1,99 @@
+package com.gdms.util;
+
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ConcurrentIntMap functionality.
+ */
+class ConcurrentIntMapTest {
+
+    @Test
+    void testPutGetRemove() {
+        ConcurrentIntMap<String> map = new ConcurrentIntMap<>();
+        assertNull(map.put(1, "one"));
+        assertNull(map.put(0, "zero"));
+        assertNull(map.put(-5, "minus five"));
+
+        assertEquals("one", map.get(1));
+        assertEquals("zero", map.get(0));
+        assertEquals("minus five", map.get(-5));
+        assertNull(map.get(2));
+        assertEquals(3, map.size());
+
+        assertEquals("one", map.put(1, "uno"));
+        assertEquals("uno", map.putIfAbsent(1, "eins"));
+        assertEquals("uno", map.remove(1));
+        assertNull(map.get(1));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void testConditionalRemove() {
+        ConcurrentIntMap<String> map = new ConcurrentIntMap<>();
+        String value = "value";
+        map.put(7, value);
+
+        assertFalse(map.remove(7, "other"));
+        assertTrue(map.remove(7, value));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void testMatchesHashMapUnderRandomOperations() {
+        ConcurrentIntMap<Integer> map = new ConcurrentIntMap<>(4);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+    }
+
+    @Test
+    void testReadersSeeStableKeysWhileWritersChurn() throws Exception {
+        ConcurrentIntMap<Integer> map = new ConcurrentIntMap<>();
+        for (int key = 0; key < 1_000; key++) {
+            map.put(key, key);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                int key = 1_000;
+                while (running.get()) {
+                    map.put(key, key);
+                    map.remove(key - 500);
+                    key++;
+                }
+            });
+            Future<?> reader = executor.submit(() -> {
+                for (int round = 0; round < 200; round++) {
+                    for (int key = 0; key < 500; key++) {
+                        Integer value = map.get(key);
+                        assertTrue(value == null || value == key);
+                    }
+                }
+            });
+            reader.get(30, TimeUnit.SECONDS);
+            running.set(false);
+            writer.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.gdms.util;
+
+import com.gdms.model.Equipment;
+import com.gdms.model.Member;
+import com.gdms.model.Payment;
+import com.gdms.model.TestMembers;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for IntEntityMap functionality.
+ */
+class IntEntityMapTest {
+
+    private static Equipment equipment(int id) {
+        return new Equipment(id, "Treadmill " + id, "Available", "Cardio Area", "Commercial treadmill");
+    }
+
+    @Test
+    void testPutGetRemove() {
+        IntEntityMap<Equipment> map = IntEntityMap.forEquipment();
+        Equipment zero = equipment(0);
+        Equipment negative = equipment(-7);
+        assertNull(map.put(zero));
+        assertNull(map.put(negative));
+
+        assertSame(zero, map.get(0));
+        assertSame(negative, map.get(-7));
+        assertNull(map.get(1));
+        assertEquals(2, map.size());
+
+        Equipment replacement = equipment(0);
+        assertSame(zero, map.put(replacement));
+        assertEquals(2, map.size());
+        assertSame(replacement, map.remove(0));
+        assertNull(map.remove(0));
+        assertFalse(map.containsId(0));
+        assertTrue(map.containsId(-7));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(-7));
+    }
+
+    @Test
+    void testFactoriesKeyByEntityId() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        IntEntityMap<Member> members = IntEntityMap.forUsers();
+        Member member = Member.withPasswordHash(42, "John Doe", "john@example.com", TestMembers.PASSWORD_HASH,
+                "Premium", start, start.plusYears(1));
+        members.put(member);
+        assertSame(member, members.get(42));
+
+        IntEntityMap<Payment> payments = IntEntityMap.forPayments();
+        Payment payment = new Payment(9, 42, 99.99, "Credit Card", "Fee", start);
+        payments.put(payment);
+        assertSame(payment, payments.get(9));
+    }
+
+    @Test
+    void testMatchesHashMapUnderRandomOperations() {
+        IntEntityMap<Equipment> map = new IntEntityMap<>(Equipment::getEquipmentId, 4);
+        Map<Integer, Equipment> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            int id = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                assertSame(expected.remove(id), map.remove(id));
+            } else {
+                Equipment item = equipment(id);
+                assertSame(expected.put(id, item), map.put(item));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int id = -1_000; id < 1_000; id++) {
+            assertSame(expected.get(id), map.get(id));
+        }
+        Set<Equipment> visited = new HashSet<>();
+        map.forEach(visited::add);
+        assertEquals(new HashSet<>(expected.values()), visited);
+    }
+
+    @Test
+    void testIteratorFailsFastOnModification() {
+        IntEntityMap<Equipment> map = IntEntityMap.forEquipment();
+        map.put(equipment(1));
+        map.put(equipment(2));
+        Iterator<Equipment> iterator = map.iterator();
+        iterator.next();
+        map.put(equipment(3));
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+}